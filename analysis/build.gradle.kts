@@ -0,0 +1,14 @@
+// Pure-Java pose analysis rules shared by the Android app and the offline tools.
+// Must not depend on any Android or ML Kit classes.
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,135 @@
+package com.fit.fitform.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Immutable fixed-width vector of floats indexed by {@link FormCheckpoint#getId()}, stored in a
+ * compact binary form: a version byte, a slot count byte, then one little-endian float per slot.
+ * NaN marks a checkpoint without a value. Reads decode straight from the stored bytes, so a
+ * vector loaded from the database costs no parsing and no intermediate objects.
+ */
+public final class CheckpointVector {
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 2;
+    private static final CheckpointVector EMPTY = new CheckpointVector(new byte[] {VERSION, 0});
+
+    private final byte[] data;
+
+    private CheckpointVector(byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * @param values Values indexed by checkpoint id
+     * @return Encoded vector
+     */
+    public static CheckpointVector of(float[] values) {
+        if (values.length > 255) {
+            throw new IllegalArgumentException("Too many checkpoints: " + values.length);
+        }
+        byte[] data = new byte[HEADER_BYTES + values.length * 4];
+        data[0] = VERSION;
+        data[1] = (byte) values.length;
+        for (int i = 0; i < values.length; i++) {
+            int bits = Float.floatToRawIntBits(values[i]);
+            int offset = HEADER_BYTES + i * 4;
+            data[offset] = (byte) bits;
+            data[offset + 1] = (byte) (bits >>> 8);
+            data[offset + 2] = (byte) (bits >>> 16);
+            data[offset + 3] = (byte) (bits >>> 24);
+        }
+        return new CheckpointVector(data);
+    }
+
+    /**
+     * Marks checkpoints as enabled, e.g. the checkpoints an exercise supports
+     * @param checkpoints Enabled checkpoints
+     * @return Vector with 1.0 for each given checkpoint and NaN elsewhere
+     */
+    public static CheckpointVector flags(FormCheckpoint... checkpoints) {
+        float[] values = new float[FormCheckpoint.COUNT];
+        Arrays.fill(values, Float.NaN);
+        for (FormCheckpoint checkpoint : checkpoints) {
+            values[checkpoint.getId()] = 1f;
+        }
+        return of(values);
+    }
+
+    /**
+     * Wraps stored bytes without copying
+     * @param data Bytes from {@link #toBytes()}; must not be modified afterwards
+     * @return Vector, empty if the bytes are malformed or from an unknown version, or null for null
+     */
+    public static CheckpointVector wrap(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length < HEADER_BYTES || data[0] != VERSION
+                || data.length != HEADER_BYTES + (data[1] & 0xFF) * 4) {
+            return EMPTY;
+        }
+        return new CheckpointVector(data);
+    }
+
+    /** @return Number of slots stored */
+    public int size() {
+        return data[1] & 0xFF;
+    }
+
+    /**
+     * @param checkpoint Checkpoint to read
+     * @return Value, or NaN if not set
+     */
+    public float get(FormCheckpoint checkpoint) {
+        return get(checkpoint.getId());
+    }
+
+    /**
+     * @param id Checkpoint id
+     * @return Value, or NaN if not set or beyond the stored slots
+     */
+    public float get(int id) {
+        if (id < 0 || id >= size()) {
+            return Float.NaN;
+        }
+        int offset = HEADER_BYTES + id * 4;
+        int bits = (data[offset] & 0xFF)
+            | (data[offset + 1] & 0xFF) << 8
+            | (data[offset + 2] & 0xFF) << 16
+            | (data[offset + 3] & 0xFF) << 24;
+        return Float.intBitsToFloat(bits);
+    }
+
+    /**
+     * @param checkpoint Checkpoint to test
+     * @return True if the checkpoint has a value
+     */
+    public boolean has(FormCheckpoint checkpoint) {
+        return !Float.isNaN(get(checkpoint));
+    }
+
+    /** @return Values indexed by checkpoint id, padded with NaN to {@link FormCheckpoint#COUNT} */
+    public float[] toArray() {
+        float[] values = new float[Math.max(size(), FormCheckpoint.COUNT)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+
+    /** @return Encoded bytes; do not modify */
+    public byte[] toBytes() {
+        return data;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CheckpointVector && Arrays.equals(data, ((CheckpointVector) other).data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+}
@@ -0,0 +1,184 @@
+package com.fit.fitform.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Nearest-template matching of rep trajectories under dynamic time warping.
+ *
+ * The warping path is limited to a Sakoe-Chiba band, so one comparison costs O(n * r) instead of
+ * O(n^2). Templates are visited with a running best distance: each is first screened with the
+ * LB_Keogh lower bound against its precomputed envelope, and the full DTW abandons as soon as
+ * every cell of a row exceeds the best distance so far. Distances are sums of squared degree
+ * differences. Not thread-safe; {@link #match} allocates nothing.
+ */
+public final class DtwMatcher {
+
+    // Default band half-width as a fraction of the trajectory length
+    private static final double DEFAULT_BAND = 0.1;
+    // RMS angle error, in degrees, at which the quality score reaches zero
+    private static final double RMS_TOLERANCE = 30.0;
+
+    private final int length;
+    private final int band;
+    private final float[][] templates;
+    private final float[][] upper;
+    private final float[][] lower;
+    private final double[] previous;
+    private final double[] current;
+
+    private int bestTemplate = -1;
+    private int fullComparisons = 0;
+
+    /**
+     * @param templates Reference trajectories; each is resampled to {@code length}
+     * @param length Length of the trajectories passed to {@link #match}
+     */
+    public DtwMatcher(float[][] templates, int length) {
+        this(templates, length, Math.max(1, (int) Math.round(length * DEFAULT_BAND)));
+    }
+
+    /**
+     * @param templates Reference trajectories; each is resampled to {@code length}
+     * @param length Length of the trajectories passed to {@link #match}
+     * @param band Sakoe-Chiba band half-width in samples
+     */
+    public DtwMatcher(float[][] templates, int length, int band) {
+        this.length = length;
+        this.band = band;
+        this.templates = new float[templates.length][];
+        this.upper = new float[templates.length][];
+        this.lower = new float[templates.length][];
+        for (int t = 0; t < templates.length; t++) {
+            float[] template = templates[t].length == length
+                ? templates[t].clone() : RepTrajectory.resample(templates[t], length);
+            this.templates[t] = template;
+            upper[t] = new float[length];
+            lower[t] = new float[length];
+            envelope(template, band, upper[t], lower[t]);
+        }
+        previous = new double[length];
+        current = new double[length];
+    }
+
+    private static void envelope(float[] series, int band, float[] upper, float[] lower) {
+        for (int i = 0; i < series.length; i++) {
+            float max = Float.NEGATIVE_INFINITY;
+            float min = Float.POSITIVE_INFINITY;
+            int from = Math.max(0, i - band);
+            int to = Math.min(series.length - 1, i + band);
+            for (int j = from; j <= to; j++) {
+                max = Math.max(max, series[j]);
+                min = Math.min(min, series[j]);
+            }
+            upper[i] = max;
+            lower[i] = min;
+        }
+    }
+
+    /** @return Number of reference templates */
+    public int getTemplateCount() {
+        return templates.length;
+    }
+
+    /**
+     * Finds the closest template to a rep trajectory
+     * @param query Trajectory of {@code length} samples
+     * @return Smallest DTW distance, or NaN if there are no templates
+     */
+    public double match(float[] query) {
+        if (query.length != length) {
+            throw new IllegalArgumentException("Expected " + length + " samples, got " + query.length);
+        }
+        double best = Double.POSITIVE_INFINITY;
+        bestTemplate = -1;
+        fullComparisons = 0;
+        for (int t = 0; t < templates.length; t++) {
+            if (lbKeogh(query, upper[t], lower[t], best) >= best) {
+                continue;
+            }
+            fullComparisons++;
+            double distance = dtw(query, templates[t], best);
+            if (distance < best) {
+                best = distance;
+                bestTemplate = t;
+            }
+        }
+        return bestTemplate < 0 ? Double.NaN : best;
+    }
+
+    private double lbKeogh(float[] query, float[] upper, float[] lower, double bestSoFar) {
+        double sum = 0.0;
+        for (int i = 0; i < length && sum < bestSoFar; i++) {
+            float q = query[i];
+            if (q > upper[i]) {
+                double d = q - upper[i];
+                sum += d * d;
+            } else if (q < lower[i]) {
+                double d = lower[i] - q;
+                sum += d * d;
+            }
+        }
+        return sum;
+    }
+
+    private double dtw(float[] query, float[] template, double bestSoFar) {
+        double[] prev = previous;
+        double[] curr = current;
+        Arrays.fill(prev, Double.POSITIVE_INFINITY);
+        Arrays.fill(curr, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < length; i++) {
+            int from = Math.max(0, i - band);
+            int to = Math.min(length - 1, i + band);
+            Arrays.fill(curr, Math.max(0, from - 1), to + 1, Double.POSITIVE_INFINITY);
+            double rowMin = Double.POSITIVE_INFINITY;
+            for (int j = from; j <= to; j++) {
+                double d = query[i] - template[j];
+                double step;
+                if (i == 0 && j == 0) {
+                    step = 0.0;
+                } else {
+                    step = prev[j];
+                    if (j > 0) {
+                        step = Math.min(step, Math.min(curr[j - 1], prev[j - 1]));
+                    }
+                }
+                double cell = d * d + step;
+                curr[j] = cell;
+                if (cell < rowMin) {
+                    rowMin = cell;
+                }
+            }
+            // Every path to the end passes through this row, so the rep cannot beat the best
+            if (rowMin >= bestSoFar) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double[] swap = prev;
+            prev = curr;
+            curr = swap;
+        }
+        return prev[length - 1];
+    }
+
+    /** @return Index of the template closest to the last query, or -1 */
+    public int getBestTemplate() {
+        return bestTemplate;
+    }
+
+    /** @return Templates that needed a full DTW in the last query (the rest were pruned) */
+    public int getFullComparisons() {
+        return fullComparisons;
+    }
+
+    /**
+     * Converts a DTW distance into a quality score
+     * @param distance Distance returned by {@link #match}
+     * @return Score from 0.0 to 1.0 based on the RMS angle error along the warping path, or NaN
+     */
+    public float score(double distance) {
+        if (Double.isNaN(distance)) {
+            return Float.NaN;
+        }
+        double rms = Math.sqrt(distance / length);
+        return (float) Math.max(0.0, 1.0 - rms / RMS_TOLERANCE);
+    }
+}
@@ -0,0 +1,99 @@
+package com.fit.fitform.analysis;
+
+/**
+ * Recognizes the exercise being performed from single poses, with temporal smoothing.
+ *
+ * Each call embeds the pose, takes a distance-weighted vote of its nearest labelled neighbours
+ * and folds it into an exponential average. The recognized exercise only changes once another
+ * exercise has led the average with a clear majority for several consecutive calls, so a
+ * transitional pose between exercises does not flip the rules. Not thread-safe; {@link #classify}
+ * does not allocate.
+ */
+public final class ExerciseClassifier {
+
+    private static final int K = 7;
+    // Weight of the newest vote in the running average
+    private static final float SMOOTHING = 0.35f;
+    // Share of the averaged vote the leading exercise needs before it can take over
+    private static final float MIN_SHARE = 0.6f;
+    // Consecutive leading calls needed to switch
+    private static final int SWITCH_AFTER = 3;
+    // Poses farther than this (squared, in embedding units) from every sample are not voted on
+    private static final float MAX_DISTANCE = 0.15f;
+
+    private static final ExerciseType[] TYPES = ExerciseType.values();
+
+    private final PoseIndex index;
+    private final float[] embedding = new float[PoseEmbedding.DIMENSION];
+    private final int[] neighbourLabels = new int[K];
+    private final float[] neighbourDistances = new float[K];
+    private final float[] vote = new float[TYPES.length];
+    private final float[] average = new float[TYPES.length];
+
+    private ExerciseType current;
+    private ExerciseType candidate;
+    private int candidateRuns = 0;
+
+    /**
+     * @param index Labelled poses, labelled with {@link ExerciseType#ordinal()}
+     * @param initial Exercise assumed until another one is recognized
+     */
+    public ExerciseClassifier(PoseIndex index, ExerciseType initial) {
+        this.index = index;
+        this.current = initial;
+        average[initial.ordinal()] = 1f;
+    }
+
+    /**
+     * Classifies one frame and updates the recognized exercise
+     * @param frame Frame with landmarks
+     * @return Recognized exercise, which may be unchanged
+     */
+    public ExerciseType classify(PoseFrame frame) {
+        if (!PoseEmbedding.extract(frame, embedding)) {
+            return current;
+        }
+        int found = index.search(embedding, K, neighbourLabels, neighbourDistances);
+        if (found == 0 || neighbourDistances[0] > MAX_DISTANCE) {
+            return current;
+        }
+
+        float total = 0f;
+        for (int i = 0; i < vote.length; i++) {
+            vote[i] = 0f;
+        }
+        for (int i = 0; i < found; i++) {
+            float weight = 1f / (neighbourDistances[i] + 1e-4f);
+            vote[neighbourLabels[i]] += weight;
+            total += weight;
+        }
+        int leader = 0;
+        for (int i = 0; i < average.length; i++) {
+            average[i] += SMOOTHING * (vote[i] / total - average[i]);
+            if (average[i] > average[leader]) {
+                leader = i;
+            }
+        }
+
+        ExerciseType leading = TYPES[leader];
+        if (leading == current || average[leader] < MIN_SHARE) {
+            candidate = null;
+            candidateRuns = 0;
+        } else if (leading == candidate) {
+            if (++candidateRuns >= SWITCH_AFTER) {
+                current = leading;
+                candidate = null;
+                candidateRuns = 0;
+            }
+        } else {
+            candidate = leading;
+            candidateRuns = 1;
+        }
+        return current;
+    }
+
+    /** @return Currently recognized exercise */
+    public ExerciseType getCurrent() {
+        return current;
+    }
+}
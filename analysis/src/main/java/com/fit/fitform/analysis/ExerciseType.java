@@ -0,0 +1,35 @@
+package com.fit.fitform.analysis;
+
+import java.util.Locale;
+
+/**
+ * Exercises that have rep counting and form rules.
+ */
+public enum ExerciseType {
+    PUSHUP,
+    SQUAT,
+    PLANK;
+
+    /**
+     * Maps a user-facing or intent exercise name to a rule set.
+     * Unknown names fall back to push-up analysis, as the camera screen always has done.
+     * @param name Exercise name such as "Push-up", "PUSH_UP" or "Squat"
+     * @return Matching exercise type, never null
+     */
+    public static ExerciseType fromName(String name) {
+        if (name == null) {
+            return PUSHUP;
+        }
+        switch (name.toUpperCase(Locale.ROOT)) {
+            case "SQUAT":
+                return SQUAT;
+            case "PLANK":
+                return PLANK;
+            case "PUSHUP":
+            case "PUSH-UP":
+            case "PUSH_UP":
+            default:
+                return PUSHUP;
+        }
+    }
+}
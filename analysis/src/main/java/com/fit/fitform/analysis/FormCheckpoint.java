@@ -0,0 +1,60 @@
+package com.fit.fitform.analysis;
+
+/**
+ * Form checkpoints that are scored individually.
+ * {@link #getId()} is stable and indexes per-checkpoint score arrays (see {@link CheckpointVector});
+ * never renumber or reuse an id. {@link #getKey()} is the name used in the exercise catalog.
+ * Checkpoints from {@link #SHOULDER_ALIGNMENT} on are listed in the catalog but not scored yet.
+ */
+public enum FormCheckpoint {
+    BODY_LINE(0, "body_straight"),
+    DEPTH(1, "depth"),
+    KNEE_OVER_ANKLE(2, "knee_alignment"),
+    TRAJECTORY(3, "movement_path"),
+    SHOULDER_ALIGNMENT(4, "shoulder_alignment"),
+    HIP_ALIGNMENT(5, "hip_alignment"),
+    BALANCE(6, "balance"),
+    CORE_ENGAGED(7, "core_engaged");
+
+    /** Number of checkpoints, i.e. the length of per-checkpoint score arrays */
+    public static final int COUNT = 8;
+
+    private static final FormCheckpoint[] BY_ID = values();
+
+    private final int id;
+    private final String key;
+
+    FormCheckpoint(int id, String key) {
+        this.id = id;
+        this.key = key;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @param id Checkpoint id
+     * @return Checkpoint with that id, or null if unknown
+     */
+    public static FormCheckpoint fromId(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    /**
+     * @param key Checkpoint key such as "depth"
+     * @return Checkpoint with that key, or null if unknown
+     */
+    public static FormCheckpoint fromKey(String key) {
+        for (FormCheckpoint checkpoint : BY_ID) {
+            if (checkpoint.key.equals(key)) {
+                return checkpoint;
+            }
+        }
+        return null;
+    }
+}
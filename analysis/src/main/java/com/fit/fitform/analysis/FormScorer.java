@@ -0,0 +1,228 @@
+package com.fit.fitform.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Incremental 0-1 form scoring, per frame and per rep, in constant time and memory.
+ *
+ * Checkpoints:
+ * <ul>
+ *   <li>{@link FormCheckpoint#BODY_LINE}: deviation of shoulder-hip-ankle from a straight line</li>
+ *   <li>{@link FormCheckpoint#DEPTH}: lowest driving-joint angle reached in the rep</li>
+ *   <li>{@link FormCheckpoint#KNEE_OVER_ANKLE}: horizontal knee drift over the ankle</li>
+ * </ul>
+ * {@link FormCheckpoint#TRAJECTORY} is scored separately (see {@link DtwMatcher}) and left NaN here.
+ * Frame checkpoints feed confidence-weighted {@link RunningStats}; a rep's checkpoint score is
+ * its mean minus a penalty for inconsistency, and its fault rate is the share of frames that
+ * scored below 0.5. Not thread-safe; {@link #update} does not allocate.
+ */
+public final class FormScorer {
+
+    // Degrees away from a straight body line at which the body-line score reaches zero
+    private static final double BODY_LINE_TOLERANCE = 30.0;
+    // Knee-over-ankle offset, in shin lengths, at which the score reaches zero
+    private static final double KNEE_DRIFT_TOLERANCE = 0.5;
+    // Score lost per standard deviation of a checkpoint within a rep
+    private static final double CONSISTENCY_PENALTY = 0.5;
+    // Frame checkpoint scores below this count as a fault
+    private static final double FAULT_SCORE = 0.5;
+
+    private final ExerciseType exerciseType;
+    private final double downAngle;
+    private final double upAngle;
+    private final float[] weights = new float[FormCheckpoint.COUNT];
+    private final float[] frameScores = new float[FormCheckpoint.COUNT];
+    private final RunningStats[] repStats = new RunningStats[FormCheckpoint.COUNT];
+    private final RunningStats[] setStats = new RunningStats[FormCheckpoint.COUNT];
+    private final RunningStats repScores = new RunningStats();
+    // Faulty and scored frames per checkpoint, for the current rep and the whole set
+    private final int[] repFaults = new int[FormCheckpoint.COUNT];
+    private final int[] repFrames = new int[FormCheckpoint.COUNT];
+    private final int[] setFaults = new int[FormCheckpoint.COUNT];
+    private final int[] setFrames = new int[FormCheckpoint.COUNT];
+
+    private double minDrivingAngle = Double.POSITIVE_INFINITY;
+    private float frameScore = Float.NaN;
+    private RepScore lastRepScore;
+
+    public FormScorer(ExerciseType exerciseType, FormThresholds thresholds) {
+        this.exerciseType = exerciseType;
+        for (int i = 0; i < FormCheckpoint.COUNT; i++) {
+            repStats[i] = new RunningStats();
+            setStats[i] = new RunningStats();
+        }
+        switch (exerciseType) {
+            case SQUAT:
+                downAngle = thresholds.getSquatDownAngle();
+                upAngle = thresholds.getSquatUpAngle();
+                weights[FormCheckpoint.DEPTH.getId()] = 0.5f;
+                weights[FormCheckpoint.KNEE_OVER_ANKLE.getId()] = 0.5f;
+                break;
+            case PLANK:
+                downAngle = Double.NaN;
+                upAngle = Double.NaN;
+                weights[FormCheckpoint.BODY_LINE.getId()] = 1f;
+                break;
+            case PUSHUP:
+            default:
+                downAngle = thresholds.getPushupDownAngle();
+                upAngle = thresholds.getPushupUpAngle();
+                weights[FormCheckpoint.BODY_LINE.getId()] = 0.6f;
+                weights[FormCheckpoint.DEPTH.getId()] = 0.4f;
+                break;
+        }
+    }
+
+    /**
+     * Clears all statistics for a new set
+     */
+    public void reset() {
+        for (int i = 0; i < FormCheckpoint.COUNT; i++) {
+            repStats[i].reset();
+            setStats[i].reset();
+        }
+        repScores.reset();
+        Arrays.fill(repFaults, 0);
+        Arrays.fill(repFrames, 0);
+        Arrays.fill(setFaults, 0);
+        Arrays.fill(setFrames, 0);
+        minDrivingAngle = Double.POSITIVE_INFINITY;
+        frameScore = Float.NaN;
+        lastRepScore = null;
+    }
+
+    /**
+     * Scores the frame just evaluated by {@code evaluator} and closes the rep if one was counted
+     * @param features Features of the current frame
+     * @param evaluator Evaluator that has already stepped this frame
+     * @return Frame score from 0.0 to 1.0, or NaN if no checkpoint was visible
+     */
+    public float update(PoseFeatures features, RepEvaluator evaluator) {
+        Arrays.fill(frameScores, Float.NaN);
+
+        if (weight(FormCheckpoint.BODY_LINE) > 0 && features.isBodyLineVisible()) {
+            double score = clamp(1.0 - (180.0 - features.getBodyAngle()) / BODY_LINE_TOLERANCE);
+            record(FormCheckpoint.BODY_LINE, score, features.getBodyLineConfidence());
+        }
+        if (weight(FormCheckpoint.KNEE_OVER_ANKLE) > 0 && !Double.isNaN(features.getKneeDrift())) {
+            double score = clamp(1.0 - features.getKneeDrift() / KNEE_DRIFT_TOLERANCE);
+            record(FormCheckpoint.KNEE_OVER_ANKLE, score, features.getLegConfidence());
+        }
+
+        double driving = features.getDrivingAngle(exerciseType);
+        if (!Double.isNaN(driving) && driving < minDrivingAngle) {
+            minDrivingAngle = driving;
+        }
+
+        // Depth is only known once a rep ends, so the frame score covers posture checkpoints
+        frameScore = combine(frameScores);
+        if (evaluator.isRepCompleted()) {
+            finishRep(evaluator.getRepCount());
+        }
+        return frameScore;
+    }
+
+    private void record(FormCheckpoint checkpoint, double score, float confidence) {
+        int id = checkpoint.getId();
+        frameScores[id] = (float) score;
+        repStats[id].add(score, confidence);
+        setStats[id].add(score, confidence);
+        repFrames[id]++;
+        setFrames[id]++;
+        if (score < FAULT_SCORE) {
+            repFaults[id]++;
+            setFaults[id]++;
+        }
+    }
+
+    private static float[] faultRates(int[] faults, int[] frames) {
+        float[] rates = new float[FormCheckpoint.COUNT];
+        for (int i = 0; i < FormCheckpoint.COUNT; i++) {
+            rates[i] = frames[i] == 0 ? Float.NaN : (float) faults[i] / frames[i];
+        }
+        return rates;
+    }
+
+    private void finishRep(int repNumber) {
+        float[] scores = new float[FormCheckpoint.COUNT];
+        for (int i = 0; i < FormCheckpoint.COUNT; i++) {
+            RunningStats stats = repStats[i];
+            scores[i] = stats.getCount() == 0 ? Float.NaN
+                : (float) clamp(stats.getMean() - CONSISTENCY_PENALTY * stats.getStdDev());
+            stats.reset();
+        }
+        if (weight(FormCheckpoint.DEPTH) > 0 && minDrivingAngle != Double.POSITIVE_INFINITY) {
+            double depth = clamp((upAngle - minDrivingAngle) / (upAngle - downAngle));
+            scores[FormCheckpoint.DEPTH.getId()] = (float) depth;
+            setStats[FormCheckpoint.DEPTH.getId()].add(depth, 1.0);
+        }
+        minDrivingAngle = Double.POSITIVE_INFINITY;
+        float[] faults = faultRates(repFaults, repFrames);
+        Arrays.fill(repFaults, 0);
+        Arrays.fill(repFrames, 0);
+
+        float overall = combine(scores);
+        if (!Float.isNaN(overall)) {
+            repScores.add(overall, 1.0);
+        }
+        lastRepScore = new RepScore(repNumber, overall, scores, faults);
+    }
+
+    private float combine(float[] scores) {
+        double sum = 0.0;
+        double weightSum = 0.0;
+        for (int i = 0; i < FormCheckpoint.COUNT; i++) {
+            if (weights[i] > 0 && !Float.isNaN(scores[i])) {
+                sum += weights[i] * scores[i];
+                weightSum += weights[i];
+            }
+        }
+        return weightSum == 0.0 ? Float.NaN : (float) (sum / weightSum);
+    }
+
+    private float weight(FormCheckpoint checkpoint) {
+        return weights[checkpoint.getId()];
+    }
+
+    private static double clamp(double value) {
+        return value < 0.0 ? 0.0 : value > 1.0 ? 1.0 : value;
+    }
+
+    /** @return Score of the most recent frame, or NaN if no checkpoint was visible */
+    public float getFrameScore() {
+        return frameScore;
+    }
+
+    /** @return Score of the most recently completed rep, or null before the first rep */
+    public RepScore getLastRepScore() {
+        return lastRepScore;
+    }
+
+    /**
+     * Score for the whole set: the mean rep score, or for holds (and before the first rep)
+     * the weighted mean of all frame checkpoint scores
+     * @return Score from 0.0 to 1.0, or NaN if nothing was scored
+     */
+    public float getSetScore() {
+        if (repScores.getCount() > 0) {
+            return (float) repScores.getMean();
+        }
+        float[] means = new float[FormCheckpoint.COUNT];
+        for (int i = 0; i < FormCheckpoint.COUNT; i++) {
+            means[i] = (float) setStats[i].getMean();
+        }
+        return combine(means);
+    }
+
+    /**
+     * Builds a set-level score summary, e.g. for a plank hold
+     * @return Score with the mean of each checkpoint over the whole set
+     */
+    public RepScore getSetSummary() {
+        float[] means = new float[FormCheckpoint.COUNT];
+        for (int i = 0; i < FormCheckpoint.COUNT; i++) {
+            means[i] = (float) setStats[i].getMean();
+        }
+        return new RepScore(0, getSetScore(), means, faultRates(setFaults, setFrames));
+    }
+}
@@ -0,0 +1,110 @@
+package com.fit.fitform.analysis;
+
+import java.util.Locale;
+
+/**
+ * Joint-angle thresholds (in degrees) used by the rep counting and form rules.
+ * Immutable so one instance can be shared between the live analyzer and tuning threads.
+ */
+public final class FormThresholds {
+
+    /** Parameter names in {@link #toArray()} order, used for CSV headers and command-line tools */
+    public static final String[] NAMES = {
+        "pushup_down", "pushup_up", "squat_down", "squat_up",
+        "body_straight", "squat_back_straight", "squat_knee_min", "pushup_elbow_min"
+    };
+
+    /** The hand-picked values the app has shipped with */
+    public static final FormThresholds DEFAULTS = new FormThresholds(
+        90.0, 160.0, 100.0, 170.0, 160.0, 160.0, 70.0, 50.0);
+
+    private final double pushupDownAngle;
+    private final double pushupUpAngle;
+    private final double squatDownAngle;
+    private final double squatUpAngle;
+    private final double bodyStraightAngle;
+    private final double squatBackStraightAngle;
+    private final double squatKneeMinAngle;
+    private final double pushupElbowMinAngle;
+
+    public FormThresholds(double pushupDownAngle, double pushupUpAngle,
+                          double squatDownAngle, double squatUpAngle,
+                          double bodyStraightAngle, double squatBackStraightAngle,
+                          double squatKneeMinAngle, double pushupElbowMinAngle) {
+        this.pushupDownAngle = pushupDownAngle;
+        this.pushupUpAngle = pushupUpAngle;
+        this.squatDownAngle = squatDownAngle;
+        this.squatUpAngle = squatUpAngle;
+        this.bodyStraightAngle = bodyStraightAngle;
+        this.squatBackStraightAngle = squatBackStraightAngle;
+        this.squatKneeMinAngle = squatKneeMinAngle;
+        this.pushupElbowMinAngle = pushupElbowMinAngle;
+    }
+
+    /**
+     * Builds thresholds from a parameter vector
+     * @param values Values in {@link #NAMES} order
+     * @return New thresholds instance
+     */
+    public static FormThresholds fromArray(double[] values) {
+        if (values.length != NAMES.length) {
+            throw new IllegalArgumentException("Expected " + NAMES.length + " values, got " + values.length);
+        }
+        return new FormThresholds(values[0], values[1], values[2], values[3],
+            values[4], values[5], values[6], values[7]);
+    }
+
+    /**
+     * @return Parameter vector in {@link #NAMES} order
+     */
+    public double[] toArray() {
+        return new double[] {
+            pushupDownAngle, pushupUpAngle, squatDownAngle, squatUpAngle,
+            bodyStraightAngle, squatBackStraightAngle, squatKneeMinAngle, pushupElbowMinAngle
+        };
+    }
+
+    public double getPushupDownAngle() {
+        return pushupDownAngle;
+    }
+
+    public double getPushupUpAngle() {
+        return pushupUpAngle;
+    }
+
+    public double getSquatDownAngle() {
+        return squatDownAngle;
+    }
+
+    public double getSquatUpAngle() {
+        return squatUpAngle;
+    }
+
+    public double getBodyStraightAngle() {
+        return bodyStraightAngle;
+    }
+
+    public double getSquatBackStraightAngle() {
+        return squatBackStraightAngle;
+    }
+
+    public double getSquatKneeMinAngle() {
+        return squatKneeMinAngle;
+    }
+
+    /** @return Elbow angle below which a push-up counts as collapsing rather than going deep */
+    public double getPushupElbowMinAngle() {
+        return pushupElbowMinAngle;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("FormThresholds{");
+        double[] values = toArray();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(NAMES[i]).append('=').append(String.format(Locale.ROOT, "%.1f", values[i]));
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.fit.fitform.analysis;
+
+/**
+ * Outcome of evaluating one frame against an exercise's form rules.
+ * Carries the user-facing feedback and the body part to highlight, if any.
+ */
+public enum FormVerdict {
+    BODY_NOT_VISIBLE("Make sure your whole body is visible", null, false),
+    LEGS_NOT_VISIBLE("Make sure your legs are visible", null, false),
+    BODY_NOT_STRAIGHT("Keep your body straight!", "body", true),
+    ARMS_TOO_BENT("Don't drop so low, keep your arms in control", "arms", true),
+    BACK_NOT_STRAIGHT("Keep your back straight!", "body", true),
+    KNEES_TOO_FAR_FORWARD("Don't let your knees go too far forward", "legs", true),
+    PLANK_SAGGING("Straighten your back!", "body", true),
+    PLANK_HOLDING("Hold a straight line", null, false),
+    GOOD_FORM(null, null, false);
+
+    private final String feedback;
+    private final String bodyPart;
+    private final boolean formError;
+
+    FormVerdict(String feedback, String bodyPart, boolean formError) {
+        this.feedback = feedback;
+        this.bodyPart = bodyPart;
+        this.formError = formError;
+    }
+
+    /**
+     * @return Text to show the user, or null when the rep counter should be shown instead
+     */
+    public String getFeedback() {
+        return feedback;
+    }
+
+    /**
+     * @return "body", "arms" or "legs" for the part drawn in red, or null if nothing is wrong
+     */
+    public String getBodyPart() {
+        return bodyPart;
+    }
+
+    public boolean isFormError() {
+        return formError;
+    }
+
+    public boolean isVisible() {
+        return this != BODY_NOT_VISIBLE && this != LEGS_NOT_VISIBLE;
+    }
+}
@@ -0,0 +1,329 @@
+package com.fit.fitform.analysis;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads streams written by {@link LandmarkColumnWriter}.
+ * Single columns can be projected with {@link #readColumn}: for each chunk only its directory
+ * and that column's block are read and decoded. {@link #next} walks whole frames, decoding one
+ * chunk at a time.
+ */
+public final class LandmarkColumnReader implements Closeable {
+
+    private final SeekableByteChannel channel;
+    private final long[] chunkOffsets;
+    private final int[] chunkFrames;
+    private final long footerOffset;
+    private final long frameCount;
+    private final ExerciseType exerciseType;
+    private final int labelledReps;
+    private final int coordinateScale;
+    private final int likelihoodScale;
+    private final Inflater inflater = new Inflater();
+
+    // Sequential frame reading: the decoded chunk and the position within it
+    private long[][] decoded;
+    private int decodedChunk = -1;
+    private int nextChunk = 0;
+    private int nextRow = 0;
+
+    /**
+     * @param path File written by {@link LandmarkColumnWriter}
+     * @return Reader; the file stays open until {@link #close()}
+     */
+    public static LandmarkColumnReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new LandmarkColumnReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param channel Stream contents; closed by {@link #close()}
+     * @throws IOException If the contents are not a complete stream of a supported version
+     */
+    public LandmarkColumnReader(SeekableByteChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < LandmarkColumns.HEADER_BYTES + 4 + LandmarkColumns.TRAILER_BYTES) {
+            throw new IOException("Not a landmark column stream: too short");
+        }
+        ByteBuffer header = read(0, LandmarkColumns.HEADER_BYTES);
+        checkMagic(header);
+        byte version = header.get();
+        if (version != LandmarkColumns.VERSION) {
+            throw new IOException("Unsupported landmark column stream version " + version);
+        }
+        int landmarks = header.get() & 0xFF;
+        if (landmarks != PoseLandmarks.COUNT) {
+            throw new IOException("Stream has " + landmarks + " landmarks, expected " + PoseLandmarks.COUNT);
+        }
+        int exercise = header.get() & 0xFF;
+        ExerciseType[] exerciseTypes = ExerciseType.values();
+        if (exercise >= exerciseTypes.length) {
+            throw new IOException("Unknown exercise " + exercise + " in landmark column stream");
+        }
+        exerciseType = exerciseTypes[exercise];
+        labelledReps = header.getInt();
+        coordinateScale = header.getInt();
+        likelihoodScale = header.getInt();
+
+        ByteBuffer trailer = read(size - LandmarkColumns.TRAILER_BYTES, LandmarkColumns.TRAILER_BYTES);
+        footerOffset = trailer.getLong();
+        checkMagic(trailer);
+        if (footerOffset < LandmarkColumns.HEADER_BYTES || footerOffset > size - LandmarkColumns.TRAILER_BYTES - 4) {
+            throw new IOException("Corrupt landmark column stream: bad footer offset");
+        }
+        int chunks = read(footerOffset, 4).getInt();
+        if (chunks < 0 || footerOffset + 4 + chunks * 12L + LandmarkColumns.TRAILER_BYTES != size) {
+            throw new IOException("Corrupt landmark column stream: bad chunk count");
+        }
+        ByteBuffer footer = read(footerOffset + 4, chunks * 12);
+        chunkOffsets = new long[chunks];
+        chunkFrames = new int[chunks];
+        long frames = 0;
+        for (int i = 0; i < chunks; i++) {
+            chunkOffsets[i] = footer.getLong();
+            chunkFrames[i] = footer.getInt();
+            frames += chunkFrames[i];
+        }
+        frameCount = frames;
+    }
+
+    /** @return Frames in the stream */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /** @return Exercise performed in the stream */
+    public ExerciseType getExerciseType() {
+        return exerciseType;
+    }
+
+    /** @return Labelled rep count, or -1 if the stream is unlabelled */
+    public int getLabelledReps() {
+        return labelledReps;
+    }
+
+    /** @return Chunks in the stream */
+    public int getChunkCount() {
+        return chunkOffsets.length;
+    }
+
+    /** @return Frames in one chunk */
+    public int getChunkFrames(int chunk) {
+        return chunkFrames[chunk];
+    }
+
+    /**
+     * Decodes one column of one chunk to its quantised values
+     * @param chunk Chunk index
+     * @param column Column index, see {@link LandmarkColumns}
+     * @param out Receives one value per frame of the chunk; at least {@link #getChunkFrames} long
+     * @return Frames decoded
+     */
+    public int readRaw(int chunk, int column, long[] out) throws IOException {
+        if (column < 0 || column >= LandmarkColumns.COUNT) {
+            throw new IllegalArgumentException("No column " + column);
+        }
+        long chunkEnd = chunk + 1 < chunkOffsets.length ? chunkOffsets[chunk + 1] : footerOffset;
+        long offset = chunkOffsets[chunk];
+        ByteBuffer directory = read(offset, (int) Math.min(LandmarkColumns.MAX_DIRECTORY_BYTES, chunkEnd - offset));
+        try {
+            int frames = (int) LandmarkColumns.readVarint(directory);
+            int columns = (int) LandmarkColumns.readVarint(directory);
+            if (frames != chunkFrames[chunk] || columns != LandmarkColumns.COUNT) {
+                throw new IOException("Corrupt chunk " + chunk + ": directory does not match footer");
+            }
+            long blockOffset = 0;
+            byte codec = 0;
+            int rawLength = 0;
+            int storedLength = 0;
+            for (int c = 0; c <= column; c++) {
+                blockOffset += storedLength;
+                codec = directory.get();
+                rawLength = (int) LandmarkColumns.readVarint(directory);
+                storedLength = (int) LandmarkColumns.readVarint(directory);
+            }
+            // Skip the rest of the directory to find where the blocks start
+            for (int c = column + 1; c < columns; c++) {
+                directory.get();
+                LandmarkColumns.readVarint(directory);
+                LandmarkColumns.readVarint(directory);
+            }
+            long blockStart = offset + directory.position() + blockOffset;
+            if (blockStart + storedLength > chunkEnd) {
+                throw new IOException("Corrupt chunk " + chunk + ": block past chunk end");
+            }
+            ByteBuffer block = decompress(codec, read(blockStart, storedLength), rawLength);
+            long value = 0;
+            for (int row = 0; row < frames; row++) {
+                value += LandmarkColumns.unzigzag(LandmarkColumns.readVarint(block));
+                out[row] = value;
+            }
+            return frames;
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt chunk " + chunk, e);
+        }
+    }
+
+    /**
+     * Projects the timestamp column
+     * @return Frame timestamps in milliseconds
+     */
+    public long[] readTimestamps() throws IOException {
+        long[] timestamps = new long[checkedFrameCount()];
+        long[] chunk = new long[maxChunkFrames()];
+        int row = 0;
+        for (int i = 0; i < chunkOffsets.length; i++) {
+            int frames = readRaw(i, LandmarkColumns.TIMESTAMP, chunk);
+            System.arraycopy(chunk, 0, timestamps, row, frames);
+            row += frames;
+        }
+        return timestamps;
+    }
+
+    /**
+     * Projects one landmark column, decoding nothing else
+     * @param column Column index from {@link LandmarkColumns#x}, {@link LandmarkColumns#y} or
+     *               {@link LandmarkColumns#likelihood}
+     * @return One value per frame: pixels for coordinates, 0 to 1 for likelihood. Likelihood is
+     *         NaN where the landmark was missing; coordinates there repeat the last seen value
+     */
+    public float[] readColumn(int column) throws IOException {
+        if (column == LandmarkColumns.TIMESTAMP) {
+            throw new IllegalArgumentException("Use readTimestamps for the timestamp column");
+        }
+        boolean isLikelihood = (column - 1) % 3 == 2;
+        float[] values = new float[checkedFrameCount()];
+        long[] chunk = new long[maxChunkFrames()];
+        int row = 0;
+        for (int i = 0; i < chunkOffsets.length; i++) {
+            int frames = readRaw(i, column, chunk);
+            for (int f = 0; f < frames; f++) {
+                values[row++] = isLikelihood ? likelihoodOf(chunk[f]) : (float) chunk[f] / coordinateScale;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the next whole frame
+     * @param frame Frame to overwrite
+     * @return False after the last frame
+     */
+    public boolean next(PoseFrame frame) throws IOException {
+        while (decodedChunk != nextChunk || nextRow >= chunkFrames[nextChunk]) {
+            if (decodedChunk == nextChunk) {
+                nextChunk++;
+                nextRow = 0;
+            }
+            if (nextChunk >= chunkOffsets.length) {
+                return false;
+            }
+            decodeChunk(nextChunk);
+        }
+        int row = nextRow++;
+        frame.reset(decoded[LandmarkColumns.TIMESTAMP][row]);
+        for (int landmark = 0; landmark < PoseLandmarks.COUNT; landmark++) {
+            long code = decoded[LandmarkColumns.likelihood(landmark)][row];
+            if (code > 0) {
+                frame.set(landmark,
+                    (float) decoded[LandmarkColumns.x(landmark)][row] / coordinateScale,
+                    (float) decoded[LandmarkColumns.y(landmark)][row] / coordinateScale,
+                    likelihoodOf(code));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    private void decodeChunk(int chunk) throws IOException {
+        int rows = maxChunkFrames();
+        if (decoded == null || decoded[0].length < rows) {
+            decoded = new long[LandmarkColumns.COUNT][rows];
+        }
+        for (int column = 0; column < LandmarkColumns.COUNT; column++) {
+            readRaw(chunk, column, decoded[column]);
+        }
+        decodedChunk = chunk;
+    }
+
+    private float likelihoodOf(long code) {
+        return code > 0 ? (float) (code - 1) / likelihoodScale : Float.NaN;
+    }
+
+    private ByteBuffer decompress(byte codec, ByteBuffer stored, int rawLength) throws IOException {
+        if (codec == LandmarkColumns.CODEC_RAW) {
+            return stored;
+        }
+        if (codec != LandmarkColumns.CODEC_DEFLATE) {
+            throw new IOException("Unknown block codec " + codec);
+        }
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(stored.array(), stored.arrayOffset() + stored.position(), stored.remaining());
+        try {
+            int n = inflater.inflate(raw);
+            if (n != rawLength || !inflater.finished()) {
+                throw new IOException("Block inflated to " + n + " bytes, expected " + rawLength);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed block", e);
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    private int checkedFrameCount() throws IOException {
+        if (frameCount > Integer.MAX_VALUE - 8) {
+            throw new IOException("Stream too long to project into one array: " + frameCount + " frames");
+        }
+        return (int) frameCount;
+    }
+
+    private int maxChunkFrames() {
+        int max = 0;
+        for (int frames : chunkFrames) {
+            max = Math.max(max, frames);
+        }
+        return max;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            channel.position(position + buffer.position());
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Landmark column stream truncated");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void checkMagic(ByteBuffer buffer) throws IOException {
+        byte[] magic = new byte[LandmarkColumns.MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, LandmarkColumns.MAGIC)) {
+            throw new IOException("Not a landmark column stream");
+        }
+    }
+}
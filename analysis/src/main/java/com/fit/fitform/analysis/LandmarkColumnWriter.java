@@ -0,0 +1,201 @@
+package com.fit.fitform.analysis;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Streams pose frames into the columnar format described in {@link LandmarkColumns}.
+ * Each column's varints accumulate in memory only until the chunk fills, then the chunk is
+ * compressed and written out, so a stream of any length is written in memory bounded by the
+ * chunk size. The output only needs to be appendable.
+ */
+public final class LandmarkColumnWriter implements Closeable {
+
+    /** Frames per chunk: about 34 seconds at 30 fps */
+    public static final int DEFAULT_CHUNK_FRAMES = 1024;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final int chunkFrames;
+    private final ByteArrayOutputStream[] columns = new ByteArrayOutputStream[LandmarkColumns.COUNT];
+    private final long[] previous = new long[LandmarkColumns.COUNT];
+    private final ByteArrayOutputStream directory = new ByteArrayOutputStream(LandmarkColumns.MAX_DIRECTORY_BYTES);
+    private final byte[][] blocks = new byte[LandmarkColumns.COUNT][];
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    private final byte[] deflateBuffer = new byte[8 * 1024];
+    private final ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+
+    // Footer entries; one per chunk, so a few hundred for an hour-long session
+    private long[] chunkOffsets = new long[16];
+    private int[] chunkFrameCounts = new int[16];
+    private int chunkCount = 0;
+
+    private long position;
+    private int framesInChunk = 0;
+    private long framesWritten = 0;
+    private boolean closed = false;
+
+    /**
+     * @param out Destination; buffered internally and closed by {@link #close()}
+     * @param exerciseType Exercise performed in the stream
+     * @param labelledReps Labelled rep count, or -1 if the stream is unlabelled
+     */
+    public LandmarkColumnWriter(OutputStream out, ExerciseType exerciseType, int labelledReps) throws IOException {
+        this(out, exerciseType, labelledReps, DEFAULT_CHUNK_FRAMES);
+    }
+
+    /**
+     * @param out Destination; buffered internally and closed by {@link #close()}
+     * @param exerciseType Exercise performed in the stream
+     * @param labelledReps Labelled rep count, or -1 if the stream is unlabelled
+     * @param chunkFrames Frames per chunk; larger chunks compress better and use more memory
+     */
+    public LandmarkColumnWriter(OutputStream out, ExerciseType exerciseType, int labelledReps, int chunkFrames)
+            throws IOException {
+        if (chunkFrames < 1) {
+            throw new IllegalArgumentException("chunkFrames must be positive");
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_BYTES));
+        this.chunkFrames = chunkFrames;
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = new ByteArrayOutputStream(chunkFrames);
+        }
+        this.out.write(LandmarkColumns.MAGIC);
+        this.out.writeByte(LandmarkColumns.VERSION);
+        this.out.writeByte(PoseLandmarks.COUNT);
+        this.out.writeByte(exerciseType.ordinal());
+        this.out.writeInt(Math.max(-1, labelledReps));
+        this.out.writeInt(LandmarkColumns.COORDINATE_SCALE);
+        this.out.writeInt(LandmarkColumns.LIKELIHOOD_SCALE);
+        position = LandmarkColumns.HEADER_BYTES;
+    }
+
+    /**
+     * Appends a frame
+     * @param frame Frame to write; only read during the call
+     */
+    public void write(PoseFrame frame) throws IOException {
+        if (closed) {
+            throw new IOException("Writer is closed");
+        }
+        append(LandmarkColumns.TIMESTAMP, frame.getTimestampMs());
+        for (int landmark = 0; landmark < PoseLandmarks.COUNT; landmark++) {
+            int x = LandmarkColumns.x(landmark);
+            int y = LandmarkColumns.y(landmark);
+            int likelihood = LandmarkColumns.likelihood(landmark);
+            if (frame.isPresent(landmark) && !Float.isNaN(frame.getX(landmark)) && !Float.isNaN(frame.getY(landmark))) {
+                append(x, Math.round((double) frame.getX(landmark) * LandmarkColumns.COORDINATE_SCALE));
+                append(y, Math.round((double) frame.getY(landmark) * LandmarkColumns.COORDINATE_SCALE));
+                float clamped = Math.max(0f, Math.min(1f, frame.getLikelihood(landmark)));
+                append(likelihood, 1 + Math.round(clamped * LandmarkColumns.LIKELIHOOD_SCALE));
+            } else {
+                // Repeating the last position keeps the delta at zero
+                append(x, previous[x]);
+                append(y, previous[y]);
+                append(likelihood, 0);
+            }
+        }
+        framesWritten++;
+        if (++framesInChunk == chunkFrames) {
+            flushChunk();
+        }
+    }
+
+    /** @return Frames written so far */
+    public long getFramesWritten() {
+        return framesWritten;
+    }
+
+    /** @return Bytes written so far, not counting a chunk still being filled */
+    public long getBytesWritten() {
+        return position;
+    }
+
+    /**
+     * Writes the last chunk and the footer, then closes the destination
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flushChunk();
+            long footerOffset = position;
+            out.writeInt(chunkCount);
+            for (int i = 0; i < chunkCount; i++) {
+                out.writeLong(chunkOffsets[i]);
+                out.writeInt(chunkFrameCounts[i]);
+            }
+            out.writeLong(footerOffset);
+            out.write(LandmarkColumns.MAGIC);
+            position += 4 + chunkCount * 12L + LandmarkColumns.TRAILER_BYTES;
+            out.flush();
+        } finally {
+            closed = true;
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void append(int column, long value) {
+        LandmarkColumns.writeVarint(columns[column], LandmarkColumns.zigzag(value - previous[column]));
+        previous[column] = value;
+    }
+
+    private void flushChunk() throws IOException {
+        if (framesInChunk == 0) {
+            return;
+        }
+        if (chunkCount == chunkOffsets.length) {
+            chunkOffsets = Arrays.copyOf(chunkOffsets, chunkCount * 2);
+            chunkFrameCounts = Arrays.copyOf(chunkFrameCounts, chunkCount * 2);
+        }
+        chunkOffsets[chunkCount] = position;
+        chunkFrameCounts[chunkCount] = framesInChunk;
+        chunkCount++;
+
+        directory.reset();
+        LandmarkColumns.writeVarint(directory, framesInChunk);
+        LandmarkColumns.writeVarint(directory, LandmarkColumns.COUNT);
+        for (int c = 0; c < columns.length; c++) {
+            byte[] raw = columns[c].toByteArray();
+            byte[] compressed = deflate(raw);
+            boolean useDeflate = compressed.length < raw.length;
+            blocks[c] = useDeflate ? compressed : raw;
+            directory.write(useDeflate ? LandmarkColumns.CODEC_DEFLATE : LandmarkColumns.CODEC_RAW);
+            LandmarkColumns.writeVarint(directory, raw.length);
+            LandmarkColumns.writeVarint(directory, blocks[c].length);
+        }
+        directory.writeTo(out);
+        position += directory.size();
+        for (int c = 0; c < columns.length; c++) {
+            out.write(blocks[c]);
+            position += blocks[c].length;
+            blocks[c] = null;
+            columns[c].reset();
+        }
+        // Chunks decode on their own, so deltas restart from zero
+        Arrays.fill(previous, 0L);
+        framesInChunk = 0;
+    }
+
+    private byte[] deflate(byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        deflated.reset();
+        while (!deflater.finished()) {
+            int n = deflater.deflate(deflateBuffer);
+            deflated.write(deflateBuffer, 0, n);
+        }
+        return deflated.toByteArray();
+    }
+}
@@ -0,0 +1,133 @@
+package com.fit.fitform.analysis;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the columnar landmark stream format written by {@link LandmarkColumnWriter} and
+ * read by {@link LandmarkColumnReader}.
+ *
+ * A stream has one column for frame timestamps and three per landmark: x, y and likelihood,
+ * in that order, so column {@code 1 + 3 * landmark + component}. Values are quantised to
+ * integers ({@link #COORDINATE_SCALE} steps per pixel, {@link #LIKELIHOOD_SCALE} steps per unit
+ * likelihood), delta-encoded against the previous frame, zigzagged and written as unsigned
+ * LEB128 varints. A missing landmark has likelihood code 0 and repeats its last coordinates,
+ * which costs one byte per column before compression.
+ *
+ * Frames are grouped into chunks that decode independently. Within a chunk each column is one
+ * block, deflated if that makes it smaller.
+ * <pre>
+ * file    = MAGIC version:u8 landmarks:u8 exercise:u8 labelledReps:i32 coordinateScale:i32
+ *           likelihoodScale:i32 chunk* footer
+ * chunk   = frames:varint columns:varint (codec:u8 rawLength:varint storedLength:varint)* block*
+ * footer  = chunkCount:i32 (chunkOffset:i64 chunkFrames:i32)* footerOffset:i64 MAGIC
+ * </pre>
+ * The exercise is an {@link ExerciseType} ordinal and labelledReps is the recording's labelled
+ * rep count, or -1 if it was not labelled. Fixed-width integers are big-endian. The footer lets
+ * a reader find every chunk, and a chunk's directory lets it read one column's block without
+ * touching the others.
+ */
+public final class LandmarkColumns {
+
+    static final byte[] MAGIC = {'F', 'L', 'M', 'C'};
+    static final byte VERSION = 2;
+
+    /** Quantisation steps per image pixel: coordinates keep 0.01 px */
+    public static final int COORDINATE_SCALE = 100;
+    /** Quantisation steps per unit of likelihood */
+    public static final int LIKELIHOOD_SCALE = 1000;
+
+    /** Column of frame timestamps, in milliseconds */
+    public static final int TIMESTAMP = 0;
+    /** Columns per stream: the timestamp and x, y, likelihood per landmark */
+    public static final int COUNT = 1 + 3 * PoseLandmarks.COUNT;
+
+    static final byte CODEC_RAW = 0;
+    static final byte CODEC_DEFLATE = 1;
+
+    static final int HEADER_BYTES = MAGIC.length + 3 + 4 + 4 + 4;
+    static final int TRAILER_BYTES = 8 + MAGIC.length;
+    // Upper bound of a chunk directory: two varints, then a codec byte and two varints per column
+    static final int MAX_DIRECTORY_BYTES = 2 * 5 + COUNT * (1 + 5 + 5);
+
+    private LandmarkColumns() {}
+
+    /** @return Column of a landmark's x coordinate */
+    public static int x(int landmark) {
+        return 1 + 3 * landmark;
+    }
+
+    /** @return Column of a landmark's y coordinate */
+    public static int y(int landmark) {
+        return 2 + 3 * landmark;
+    }
+
+    /** @return Column of a landmark's likelihood; 0 where the landmark was missing */
+    public static int likelihood(int landmark) {
+        return 3 + 3 * landmark;
+    }
+
+    /**
+     * @param column Column index
+     * @return Name such as {@code t}, {@code x11}, {@code y11} or {@code p11}
+     */
+    public static String name(int column) {
+        if (column == TIMESTAMP) {
+            return "t";
+        }
+        int landmark = (column - 1) / 3;
+        return "xyp".charAt((column - 1) % 3) + Integer.toString(landmark);
+    }
+
+    /**
+     * Inverse of {@link #name}
+     * @return Column index, or -1 for an unknown name
+     */
+    public static int parse(String name) {
+        if (name.equals("t")) {
+            return TIMESTAMP;
+        }
+        if (name.length() < 2) {
+            return -1;
+        }
+        int component = "xyp".indexOf(name.charAt(0));
+        int landmark;
+        try {
+            landmark = Integer.parseInt(name.substring(1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        if (component < 0 || landmark < 0 || landmark >= PoseLandmarks.COUNT) {
+            return -1;
+        }
+        return 1 + 3 * landmark + component;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint longer than 64 bits");
+    }
+}
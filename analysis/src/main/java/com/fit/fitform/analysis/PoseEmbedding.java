@@ -0,0 +1,93 @@
+package com.fit.fitform.analysis;
+
+/**
+ * Translation- and scale-invariant pose embedding used for exercise recognition.
+ *
+ * Left and right landmarks are merged into one point per joint, which suits the side-on view
+ * the form rules expect, where one side is usually occluded. Joints are centred on the hip and
+ * divided by the larger of 2.5 torso lengths and the joint farthest from the hip, so the
+ * embedding does not depend on where the user stands or how far from the camera.
+ */
+public final class PoseEmbedding {
+
+    /** Joints in embedding order */
+    static final int NOSE = 0;
+    static final int SHOULDER = 1;
+    static final int ELBOW = 2;
+    static final int WRIST = 3;
+    static final int HIP = 4;
+    static final int KNEE = 5;
+    static final int ANKLE = 6;
+    static final int JOINTS = 7;
+
+    /** Length of an embedding: x and y for every joint */
+    public static final int DIMENSION = JOINTS * 2;
+
+    private static final float TORSO_MULTIPLIER = 2.5f;
+
+    // Left landmark of each joint; the right one is the next index (the nose has no pair)
+    private static final int[] LANDMARKS = {
+        PoseLandmarks.NOSE, PoseLandmarks.LEFT_SHOULDER, PoseLandmarks.LEFT_ELBOW,
+        PoseLandmarks.LEFT_WRIST, PoseLandmarks.LEFT_HIP, PoseLandmarks.LEFT_KNEE,
+        PoseLandmarks.LEFT_ANKLE
+    };
+
+    private PoseEmbedding() {
+    }
+
+    /**
+     * Embeds the pose in a frame
+     * @param frame Frame with landmarks
+     * @param out Array of at least {@link #DIMENSION} floats to write to
+     * @return False if a joint is not visible on either side, in which case {@code out} is garbage
+     */
+    public static boolean extract(PoseFrame frame, float[] out) {
+        for (int joint = 0; joint < JOINTS; joint++) {
+            int left = LANDMARKS[joint];
+            boolean hasLeft = visible(frame, left);
+            boolean hasRight = joint != NOSE && visible(frame, left + 1);
+            if (hasLeft && hasRight) {
+                out[joint * 2] = (frame.getX(left) + frame.getX(left + 1)) * 0.5f;
+                out[joint * 2 + 1] = (frame.getY(left) + frame.getY(left + 1)) * 0.5f;
+            } else if (hasLeft || hasRight) {
+                int type = hasLeft ? left : left + 1;
+                out[joint * 2] = frame.getX(type);
+                out[joint * 2 + 1] = frame.getY(type);
+            } else {
+                return false;
+            }
+        }
+        return normalize(out);
+    }
+
+    private static boolean visible(PoseFrame frame, int type) {
+        return frame.isPresent(type) && frame.getLikelihood(type) >= PoseFrame.MIN_LIKELIHOOD;
+    }
+
+    /**
+     * Normalizes raw joint coordinates in place
+     * @param points x, y pairs in joint order
+     * @return False if the pose has no extent
+     */
+    static boolean normalize(float[] points) {
+        float cx = points[HIP * 2];
+        float cy = points[HIP * 2 + 1];
+        float maxDistance = 0f;
+        for (int joint = 0; joint < JOINTS; joint++) {
+            float dx = points[joint * 2] - cx;
+            float dy = points[joint * 2 + 1] - cy;
+            points[joint * 2] = dx;
+            points[joint * 2 + 1] = dy;
+            maxDistance = Math.max(maxDistance, (float) Math.sqrt(dx * dx + dy * dy));
+        }
+        float torso = (float) Math.hypot(points[SHOULDER * 2], points[SHOULDER * 2 + 1]);
+        float scale = Math.max(torso * TORSO_MULTIPLIER, maxDistance);
+        if (scale <= 0f) {
+            return false;
+        }
+        for (int i = 0; i < DIMENSION; i++) {
+            points[i] /= scale;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,132 @@
+package com.fit.fitform.analysis;
+
+/**
+ * Joint angles derived from a {@link PoseFrame}.
+ * Extracted once per frame so several rule evaluators (e.g. during threshold tuning)
+ * can share the trigonometry. Angles are NaN when their landmarks are not visible.
+ */
+public final class PoseFeatures {
+
+    private long timestampMs;
+    private double elbowAngle = Double.NaN;
+    private double bodyAngle = Double.NaN;
+    private double kneeAngle = Double.NaN;
+    private double backAngle = Double.NaN;
+    private boolean armVisible;
+    private double kneeDrift = Double.NaN;
+    private float bodyLineConfidence;
+    private float legConfidence;
+
+    /**
+     * Recomputes all features from a frame, resolving each left-side landmark with
+     * the right-side fallback used throughout the app
+     * @param frame Frame to read
+     */
+    public void extract(PoseFrame frame) {
+        timestampMs = frame.getTimestampMs();
+
+        int shoulder = frame.resolve(PoseLandmarks.LEFT_SHOULDER);
+        int elbow = frame.resolve(PoseLandmarks.LEFT_ELBOW);
+        int wrist = frame.resolve(PoseLandmarks.LEFT_WRIST);
+        int hip = frame.resolve(PoseLandmarks.LEFT_HIP);
+        int knee = frame.resolve(PoseLandmarks.LEFT_KNEE);
+        int ankle = frame.resolve(PoseLandmarks.LEFT_ANKLE);
+
+        armVisible = shoulder >= 0 && elbow >= 0 && wrist >= 0;
+        elbowAngle = armVisible ? frame.angle(shoulder, elbow, wrist) : Double.NaN;
+        bodyAngle = shoulder >= 0 && hip >= 0 && ankle >= 0
+            ? frame.angle(shoulder, hip, ankle) : Double.NaN;
+        kneeAngle = hip >= 0 && knee >= 0 && ankle >= 0
+            ? frame.angle(hip, knee, ankle) : Double.NaN;
+        backAngle = shoulder >= 0 && hip >= 0 && knee >= 0
+            ? frame.angle(shoulder, hip, knee) : Double.NaN;
+
+        bodyLineConfidence = isBodyLineVisible()
+            ? min(frame, shoulder, hip, ankle) : 0f;
+        legConfidence = isLegVisible() ? min(frame, hip, knee, ankle) : 0f;
+        kneeDrift = Double.NaN;
+        if (isLegVisible()) {
+            // Horizontal knee-ankle offset in shin lengths, so it does not depend on camera distance
+            double dx = frame.getX(knee) - frame.getX(ankle);
+            double dy = frame.getY(knee) - frame.getY(ankle);
+            double shin = Math.sqrt(dx * dx + dy * dy);
+            if (shin > 0) {
+                kneeDrift = Math.abs(dx) / shin;
+            }
+        }
+    }
+
+    private static float min(PoseFrame frame, int a, int b, int c) {
+        return Math.min(frame.getLikelihood(a), Math.min(frame.getLikelihood(b), frame.getLikelihood(c)));
+    }
+
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    /** @return Shoulder-elbow-wrist angle */
+    public double getElbowAngle() {
+        return elbowAngle;
+    }
+
+    /** @return Shoulder-hip-ankle angle (180 is a straight body line) */
+    public double getBodyAngle() {
+        return bodyAngle;
+    }
+
+    /** @return Hip-knee-ankle angle */
+    public double getKneeAngle() {
+        return kneeAngle;
+    }
+
+    /** @return Shoulder-hip-knee angle */
+    public double getBackAngle() {
+        return backAngle;
+    }
+
+    /**
+     * @param exerciseType Exercise being performed
+     * @return Angle of the joint that drives reps (elbow for push-ups, knee for squats), or NaN
+     */
+    public double getDrivingAngle(ExerciseType exerciseType) {
+        switch (exerciseType) {
+            case SQUAT:
+                return kneeAngle;
+            case PUSHUP:
+                return elbowAngle;
+            default:
+                return Double.NaN;
+        }
+    }
+
+    /** @return Horizontal knee-over-ankle offset divided by shin length, NaN if legs are not visible */
+    public double getKneeDrift() {
+        return kneeDrift;
+    }
+
+    /** @return Lowest detector likelihood among shoulder, hip and ankle (0 if not visible) */
+    public float getBodyLineConfidence() {
+        return bodyLineConfidence;
+    }
+
+    /** @return Lowest detector likelihood among hip, knee and ankle (0 if not visible) */
+    public float getLegConfidence() {
+        return legConfidence;
+    }
+
+    public boolean isArmVisible() {
+        return armVisible;
+    }
+
+    public boolean isBodyLineVisible() {
+        return !Double.isNaN(bodyAngle);
+    }
+
+    public boolean isLegVisible() {
+        return !Double.isNaN(kneeAngle);
+    }
+
+    public boolean isBackVisible() {
+        return !Double.isNaN(backAngle);
+    }
+}
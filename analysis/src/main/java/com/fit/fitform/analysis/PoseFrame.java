@@ -0,0 +1,110 @@
+package com.fit.fitform.analysis;
+
+import java.util.Arrays;
+
+/**
+ * One frame of pose landmarks stored in flat primitive arrays.
+ * Instances are meant to be reused frame after frame so the analysis path does not allocate.
+ */
+public final class PoseFrame {
+
+    /** Minimum in-frame likelihood before a left-side landmark is swapped for its right-side twin */
+    public static final float MIN_LIKELIHOOD = 0.6f;
+
+    private final float[] x = new float[PoseLandmarks.COUNT];
+    private final float[] y = new float[PoseLandmarks.COUNT];
+    private final float[] likelihood = new float[PoseLandmarks.COUNT];
+    private final boolean[] present = new boolean[PoseLandmarks.COUNT];
+    private long timestampMs;
+
+    /**
+     * Marks every landmark as missing and sets the frame time
+     * @param timestampMs Frame timestamp in milliseconds
+     */
+    public void reset(long timestampMs) {
+        this.timestampMs = timestampMs;
+        Arrays.fill(present, false);
+    }
+
+    /**
+     * Stores a detected landmark
+     * @param type Landmark index (see {@link PoseLandmarks})
+     * @param px X coordinate in image pixels
+     * @param py Y coordinate in image pixels
+     * @param inFrameLikelihood Detector confidence (0.0 to 1.0)
+     */
+    public void set(int type, float px, float py, float inFrameLikelihood) {
+        x[type] = px;
+        y[type] = py;
+        likelihood[type] = inFrameLikelihood;
+        present[type] = true;
+    }
+
+    /**
+     * Copies another frame into this one
+     * @param other Frame to copy
+     */
+    public void copyFrom(PoseFrame other) {
+        System.arraycopy(other.x, 0, x, 0, PoseLandmarks.COUNT);
+        System.arraycopy(other.y, 0, y, 0, PoseLandmarks.COUNT);
+        System.arraycopy(other.likelihood, 0, likelihood, 0, PoseLandmarks.COUNT);
+        System.arraycopy(other.present, 0, present, 0, PoseLandmarks.COUNT);
+        timestampMs = other.timestampMs;
+    }
+
+    public long getTimestampMs() {
+        return timestampMs;
+    }
+
+    public boolean isPresent(int type) {
+        return present[type];
+    }
+
+    public float getX(int type) {
+        return x[type];
+    }
+
+    public float getY(int type) {
+        return y[type];
+    }
+
+    public float getLikelihood(int type) {
+        return likelihood[type];
+    }
+
+    /**
+     * Resolves a landmark, falling back to the corresponding right-side landmark when the
+     * requested one is missing or not confidently in frame (e.g. LEFT_SHOULDER -> RIGHT_SHOULDER).
+     * @param type Landmark index, normally a LEFT_* constant
+     * @return Index of the landmark to use, or -1 if neither side is available
+     */
+    public int resolve(int type) {
+        if (present[type] && likelihood[type] >= MIN_LIKELIHOOD) {
+            return type;
+        }
+        int fallback = type + 1;
+        return fallback < PoseLandmarks.COUNT && present[fallback] ? fallback : -1;
+    }
+
+    /**
+     * Computes the angle at {@code mid} formed by three landmarks
+     * @return Angle in degrees (0 to 180)
+     */
+    public double angle(int first, int mid, int last) {
+        return angle(x[first], y[first], x[mid], y[mid], x[last], y[last]);
+    }
+
+    /**
+     * Computes the angle at (mx, my) formed by the segments to (fx, fy) and (lx, ly)
+     * @return Angle in degrees (0 to 180)
+     */
+    public static double angle(float fx, float fy, float mx, float my, float lx, float ly) {
+        double angle = Math.toDegrees(
+                Math.atan2(ly - my, lx - mx) - Math.atan2(fy - my, fx - mx));
+        angle = Math.abs(angle);
+        if (angle > 180) {
+            angle = 360 - angle;
+        }
+        return angle;
+    }
+}
@@ -0,0 +1,125 @@
+package com.fit.fitform.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Compact in-memory k-nearest-neighbour index of labelled pose embeddings.
+ *
+ * Vectors live in one flat float array with their norms precomputed. A search skips a vector
+ * when the reverse triangle inequality, (|q| - |x|)^2 <= |q - x|^2, already rules it out, and
+ * stops summing a squared distance as soon as it exceeds the current k-th best. Immutable once
+ * built and safe to share; {@link #search} allocates nothing.
+ */
+public final class PoseIndex {
+
+    private final int dimension;
+    private final int size;
+    private final float[] vectors;
+    private final float[] norms;
+    private final int[] labels;
+
+    private PoseIndex(int dimension, int size, float[] vectors, float[] norms, int[] labels) {
+        this.dimension = dimension;
+        this.size = size;
+        this.vectors = vectors;
+        this.norms = norms;
+        this.labels = labels;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the k nearest labelled vectors
+     * @param query Vector of {@link #getDimension()} floats
+     * @param k Number of neighbours wanted
+     * @param outLabels Receives neighbour labels, nearest first; at least k long
+     * @param outDistances Receives squared distances, nearest first; at least k long
+     * @return Number of neighbours found, at most k
+     */
+    public int search(float[] query, int k, int[] outLabels, float[] outDistances) {
+        float queryNorm = norm(query, 0, dimension);
+        int found = 0;
+        float worst = Float.POSITIVE_INFINITY;
+        for (int v = 0; v < size; v++) {
+            float bound = queryNorm - norms[v];
+            if (found == k && bound * bound >= worst) {
+                continue;
+            }
+            int offset = v * dimension;
+            float distance = 0f;
+            for (int i = 0; i < dimension && distance < worst; i++) {
+                float d = query[i] - vectors[offset + i];
+                distance += d * d;
+            }
+            if (distance >= worst) {
+                continue;
+            }
+            // Insert into the sorted top-k
+            int position = found < k ? found++ : k - 1;
+            while (position > 0 && outDistances[position - 1] > distance) {
+                outDistances[position] = outDistances[position - 1];
+                outLabels[position] = outLabels[position - 1];
+                position--;
+            }
+            outDistances[position] = distance;
+            outLabels[position] = labels[v];
+            if (found == k) {
+                worst = outDistances[k - 1];
+            }
+        }
+        return found;
+    }
+
+    private static float norm(float[] vector, int offset, int length) {
+        float sum = 0f;
+        for (int i = 0; i < length; i++) {
+            sum += vector[offset + i] * vector[offset + i];
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    /**
+     * Collects labelled vectors into a {@link PoseIndex}
+     */
+    public static final class Builder {
+        private final int dimension;
+        private float[] vectors = new float[0];
+        private int[] labels = new int[0];
+        private int size = 0;
+
+        public Builder(int dimension) {
+            this.dimension = dimension;
+        }
+
+        /**
+         * @param vector Vector of {@code dimension} floats; copied
+         * @param label Label returned by searches
+         * @return This builder
+         */
+        public Builder add(float[] vector, int label) {
+            if (size == labels.length) {
+                int capacity = Math.max(16, size * 2);
+                vectors = Arrays.copyOf(vectors, capacity * dimension);
+                labels = Arrays.copyOf(labels, capacity);
+            }
+            System.arraycopy(vector, 0, vectors, size * dimension, dimension);
+            labels[size++] = label;
+            return this;
+        }
+
+        public PoseIndex build() {
+            float[] packed = Arrays.copyOf(vectors, size * dimension);
+            float[] norms = new float[size];
+            for (int v = 0; v < size; v++) {
+                norms[v] = norm(packed, v * dimension, dimension);
+            }
+            return new PoseIndex(dimension, size, packed, norms, Arrays.copyOf(labels, size));
+        }
+    }
+}
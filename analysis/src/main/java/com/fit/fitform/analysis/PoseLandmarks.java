@@ -0,0 +1,26 @@
+package com.fit.fitform.analysis;
+
+/**
+ * Landmark indices used by the analysis rules.
+ * Values match ML Kit's PoseLandmark type constants so frames can be filled directly from a Pose.
+ */
+public final class PoseLandmarks {
+
+    public static final int COUNT = 33;
+
+    public static final int NOSE = 0;
+    public static final int LEFT_SHOULDER = 11;
+    public static final int RIGHT_SHOULDER = 12;
+    public static final int LEFT_ELBOW = 13;
+    public static final int RIGHT_ELBOW = 14;
+    public static final int LEFT_WRIST = 15;
+    public static final int RIGHT_WRIST = 16;
+    public static final int LEFT_HIP = 23;
+    public static final int RIGHT_HIP = 24;
+    public static final int LEFT_KNEE = 25;
+    public static final int RIGHT_KNEE = 26;
+    public static final int LEFT_ANKLE = 27;
+    public static final int RIGHT_ANKLE = 28;
+
+    private PoseLandmarks() {}
+}
@@ -0,0 +1,174 @@
+package com.fit.fitform.analysis;
+
+import java.util.Random;
+
+/**
+ * Labelled sample poses for exercise recognition, synthesized from a side-on stick figure.
+ *
+ * Each exercise is sampled across its range of motion with jittered limb proportions and
+ * landmark noise, and every sample is also indexed mirrored so the user may face either way.
+ * Planks are forearm planks (elbows under the shoulders), which keeps them apart from the top
+ * of a push-up. Coordinates are image-style, with y pointing down.
+ */
+public final class ReferencePoses {
+
+    // Limb lengths as fractions of standing height
+    private static final float SHIN = 0.25f;
+    private static final float THIGH = 0.25f;
+    private static final float TORSO = 0.30f;
+    private static final float HEAD = 0.12f;
+    private static final float UPPER_ARM = 0.17f;
+    private static final float FOREARM = 0.15f;
+
+    private static final int SAMPLES_PER_EXERCISE = 80;
+    private static final float PROPORTION_JITTER = 0.08f;
+    private static final float LANDMARK_NOISE = 0.008f;
+
+    private ReferencePoses() {
+    }
+
+    /**
+     * Builds the default recognition index
+     * @param seed Seed for the sample jitter
+     * @return Index labelled with {@link ExerciseType#ordinal()}
+     */
+    public static PoseIndex buildIndex(long seed) {
+        Random random = new Random(seed);
+        PoseIndex.Builder builder = new PoseIndex.Builder(PoseEmbedding.DIMENSION);
+        float[] points = new float[PoseEmbedding.DIMENSION];
+        for (ExerciseType type : ExerciseType.values()) {
+            for (int i = 0; i < SAMPLES_PER_EXERCISE; i++) {
+                float progress = (float) i / (SAMPLES_PER_EXERCISE - 1);
+                Figure figure = new Figure(random);
+                switch (type) {
+                    case SQUAT:
+                        figure.squat(progress, random);
+                        break;
+                    case PLANK:
+                        figure.forearmPlank(progress);
+                        break;
+                    case PUSHUP:
+                    default:
+                        figure.pushup(progress);
+                        break;
+                }
+                figure.write(points, random, false);
+                if (PoseEmbedding.normalize(points)) {
+                    builder.add(points, type.ordinal());
+                }
+                figure.write(points, random, true);
+                if (PoseEmbedding.normalize(points)) {
+                    builder.add(points, type.ordinal());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * One stick figure facing +x, with y pointing up until it is written out
+     */
+    private static final class Figure {
+        private final float shin;
+        private final float thigh;
+        private final float torso;
+        private final float head;
+        private final float upperArm;
+        private final float forearm;
+        private final float[] x = new float[PoseEmbedding.JOINTS];
+        private final float[] y = new float[PoseEmbedding.JOINTS];
+
+        Figure(Random random) {
+            shin = jitter(SHIN, random);
+            thigh = jitter(THIGH, random);
+            torso = jitter(TORSO, random);
+            head = jitter(HEAD, random);
+            upperArm = jitter(UPPER_ARM, random);
+            forearm = jitter(FOREARM, random);
+        }
+
+        private static float jitter(float length, Random random) {
+            return length * (1f + PROPORTION_JITTER * (2f * random.nextFloat() - 1f));
+        }
+
+        /** Standing (0) to the bottom of a deep squat (1), arms reaching forward */
+        void squat(float depth, Random random) {
+            double shinTilt = Math.toRadians(5 + 30 * depth);
+            double kneeAngle = 175 - 95 * depth;
+            double thighTilt = Math.toRadians(180 - kneeAngle) - shinTilt;
+            double torsoLean = Math.toRadians(10 + 35 * depth);
+            set(PoseEmbedding.ANKLE, 0f, 0f);
+            along(PoseEmbedding.KNEE, PoseEmbedding.ANKLE, shin, Math.sin(shinTilt), Math.cos(shinTilt));
+            along(PoseEmbedding.HIP, PoseEmbedding.KNEE, thigh, -Math.sin(thighTilt), Math.cos(thighTilt));
+            along(PoseEmbedding.SHOULDER, PoseEmbedding.HIP, torso, Math.sin(torsoLean), Math.cos(torsoLean));
+            along(PoseEmbedding.NOSE, PoseEmbedding.SHOULDER, head,
+                Math.sin(torsoLean * 0.7) + 0.3, Math.cos(torsoLean * 0.7));
+            // Arms from hanging by the side to held out in front for balance
+            double reach = Math.toRadians(-90 + (60 + 40 * random.nextFloat()) * depth + 20 * random.nextFloat());
+            along(PoseEmbedding.ELBOW, PoseEmbedding.SHOULDER, upperArm, Math.cos(reach), Math.sin(reach));
+            along(PoseEmbedding.WRIST, PoseEmbedding.ELBOW, forearm, Math.cos(reach), Math.sin(reach));
+        }
+
+        /** Top (0) to bottom (1) of a push-up, hands under the shoulders */
+        void pushup(float depth) {
+            float shoulderHeight = (upperArm + forearm) * (1f - 0.7f * depth);
+            plankLine(shoulderHeight);
+            set(PoseEmbedding.WRIST, x[PoseEmbedding.SHOULDER], 0.02f);
+            bendArm(PoseEmbedding.SHOULDER, PoseEmbedding.WRIST);
+        }
+
+        /** Forearm plank; {@code progress} only varies the hip height slightly */
+        void forearmPlank(float progress) {
+            plankLine(upperArm + 0.02f);
+            y[PoseEmbedding.HIP] += 0.02f * (progress - 0.5f);
+            set(PoseEmbedding.ELBOW, x[PoseEmbedding.SHOULDER], 0.02f);
+            set(PoseEmbedding.WRIST, x[PoseEmbedding.ELBOW] + forearm, 0.02f);
+        }
+
+        private void plankLine(float shoulderHeight) {
+            float length = shin + thigh + torso;
+            double tilt = Math.asin(Math.min(1.0, Math.max(0.0, (shoulderHeight - 0.03f) / length)));
+            double cos = Math.cos(tilt);
+            double sin = Math.sin(tilt);
+            set(PoseEmbedding.ANKLE, 0f, 0.03f);
+            along(PoseEmbedding.KNEE, PoseEmbedding.ANKLE, shin, cos, sin);
+            along(PoseEmbedding.HIP, PoseEmbedding.KNEE, thigh, cos, sin);
+            along(PoseEmbedding.SHOULDER, PoseEmbedding.HIP, torso, cos, sin);
+            along(PoseEmbedding.NOSE, PoseEmbedding.SHOULDER, head, cos, sin + 0.2);
+        }
+
+        // Places the elbow of a two-link arm, bent back towards the feet
+        private void bendArm(int shoulder, int wrist) {
+            float dx = x[wrist] - x[shoulder];
+            float dy = y[wrist] - y[shoulder];
+            float reach = (float) Math.hypot(dx, dy);
+            double ux = dx / reach;
+            double uy = dy / reach;
+            double cosAngle = (upperArm * upperArm + reach * reach - forearm * forearm) / (2.0 * upperArm * reach);
+            double angle = Math.acos(Math.max(-1.0, Math.min(1.0, cosAngle)));
+            double cos = Math.cos(angle);
+            double sin = Math.sin(angle);
+            along(PoseEmbedding.ELBOW, shoulder, upperArm, ux * cos + uy * sin, -ux * sin + uy * cos);
+        }
+
+        private void set(int joint, float px, float py) {
+            x[joint] = px;
+            y[joint] = py;
+        }
+
+        private void along(int joint, int from, float length, double dx, double dy) {
+            double n = Math.hypot(dx, dy);
+            x[joint] = (float) (x[from] + length * dx / n);
+            y[joint] = (float) (y[from] + length * dy / n);
+        }
+
+        void write(float[] out, Random random, boolean mirrored) {
+            for (int joint = 0; joint < PoseEmbedding.JOINTS; joint++) {
+                float px = x[joint] + (float) random.nextGaussian() * LANDMARK_NOISE;
+                float py = y[joint] + (float) random.nextGaussian() * LANDMARK_NOISE;
+                out[joint * 2] = mirrored ? -px : px;
+                out[joint * 2 + 1] = -py;
+            }
+        }
+    }
+}
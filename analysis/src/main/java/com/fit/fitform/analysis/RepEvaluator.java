@@ -0,0 +1,173 @@
+package com.fit.fitform.analysis;
+
+/**
+ * Rep counting and form rules for a single exercise.
+ * A rep is counted on the DOWN -> UP transition of the driving joint; a rep is "correct"
+ * when no form error was seen since the previous rep. Plank holds accumulate time
+ * only while the body line is straight.
+ * Not thread-safe: feed frames from one thread. {@link #step} does not allocate.
+ */
+public final class RepEvaluator {
+
+    /** Frame gaps longer than this are not counted towards the plank hold */
+    private static final long MAX_PLANK_FRAME_GAP_MS = 1000L;
+
+    private final ExerciseType exerciseType;
+    private final FormThresholds thresholds;
+
+    private int repCount = 0;
+    private int correctRepCount = 0;
+    private boolean down = false;
+    private boolean currentRepHasError = false;
+    private boolean repCompleted = false;
+    private boolean lastRepHadError = false;
+    private long plankHeldMillis = 0L;
+    private long lastTimestampMs = -1L;
+
+    public RepEvaluator(ExerciseType exerciseType, FormThresholds thresholds) {
+        this.exerciseType = exerciseType;
+        this.thresholds = thresholds;
+    }
+
+    /**
+     * Clears all counters so the evaluator can be reused for another recording
+     */
+    public void reset() {
+        repCount = 0;
+        correctRepCount = 0;
+        down = false;
+        currentRepHasError = false;
+        repCompleted = false;
+        lastRepHadError = false;
+        plankHeldMillis = 0L;
+        lastTimestampMs = -1L;
+    }
+
+    /**
+     * Evaluates one frame and advances the rep state machine
+     * @param features Features extracted from the current frame
+     * @return Verdict describing the form in this frame
+     */
+    public FormVerdict step(PoseFeatures features) {
+        repCompleted = false;
+        switch (exerciseType) {
+            case SQUAT:
+                return stepSquat(features);
+            case PLANK:
+                return stepPlank(features);
+            case PUSHUP:
+            default:
+                return stepPushup(features);
+        }
+    }
+
+    private FormVerdict stepPushup(PoseFeatures f) {
+        if (!f.isArmVisible() || !f.isBodyLineVisible()) {
+            currentRepHasError = true;
+            return FormVerdict.BODY_NOT_VISIBLE;
+        }
+        double elbowAngle = f.getElbowAngle();
+        if (f.getBodyAngle() < thresholds.getBodyStraightAngle()) {
+            currentRepHasError = true;
+            return FormVerdict.BODY_NOT_STRAIGHT;
+        }
+        if (elbowAngle < thresholds.getPushupElbowMinAngle()) {
+            currentRepHasError = true;
+            return FormVerdict.ARMS_TOO_BENT;
+        }
+        if (elbowAngle > thresholds.getPushupUpAngle()) {
+            completeRepIfDown();
+        } else if (elbowAngle < thresholds.getPushupDownAngle()) {
+            down = true;
+        }
+        return FormVerdict.GOOD_FORM;
+    }
+
+    private FormVerdict stepSquat(PoseFeatures f) {
+        if (!f.isLegVisible()) {
+            currentRepHasError = true;
+            return FormVerdict.LEGS_NOT_VISIBLE;
+        }
+        double kneeAngle = f.getKneeAngle();
+        if (f.isBackVisible() && f.getBackAngle() < thresholds.getSquatBackStraightAngle()) {
+            currentRepHasError = true;
+            return FormVerdict.BACK_NOT_STRAIGHT;
+        }
+        if (kneeAngle < thresholds.getSquatKneeMinAngle()) {
+            currentRepHasError = true;
+            return FormVerdict.KNEES_TOO_FAR_FORWARD;
+        }
+        if (kneeAngle > thresholds.getSquatUpAngle()) {
+            completeRepIfDown();
+        } else if (kneeAngle < thresholds.getSquatDownAngle()) {
+            down = true;
+        }
+        return FormVerdict.GOOD_FORM;
+    }
+
+    private FormVerdict stepPlank(PoseFeatures f) {
+        long nowMs = f.getTimestampMs();
+        FormVerdict verdict;
+        if (!f.isBodyLineVisible()) {
+            verdict = FormVerdict.BODY_NOT_VISIBLE;
+        } else if (f.getBodyAngle() >= thresholds.getBodyStraightAngle()) {
+            long dt = nowMs - lastTimestampMs;
+            if (lastTimestampMs >= 0 && dt > 0 && dt < MAX_PLANK_FRAME_GAP_MS) {
+                plankHeldMillis += dt;
+            }
+            verdict = FormVerdict.PLANK_HOLDING;
+        } else {
+            verdict = FormVerdict.PLANK_SAGGING;
+        }
+        lastTimestampMs = nowMs;
+        return verdict;
+    }
+
+    private void completeRepIfDown() {
+        if (down) {
+            repCount++;
+            if (!currentRepHasError) {
+                correctRepCount++;
+            }
+            lastRepHadError = currentRepHasError;
+            repCompleted = true;
+            currentRepHasError = false;
+        }
+        down = false;
+    }
+
+    public ExerciseType getExerciseType() {
+        return exerciseType;
+    }
+
+    public FormThresholds getThresholds() {
+        return thresholds;
+    }
+
+    public int getRepCount() {
+        return repCount;
+    }
+
+    public int getCorrectRepCount() {
+        return correctRepCount;
+    }
+
+    public long getPlankHeldMillis() {
+        return plankHeldMillis;
+    }
+
+    /** @return true while the driving joint is in the bottom half of a rep */
+    public boolean isDown() {
+        return down;
+    }
+
+    /** @return true if the last {@link #step} call completed a rep */
+    public boolean isRepCompleted() {
+        return repCompleted;
+    }
+
+    /** @return Whether the most recently completed rep had a form error */
+    public boolean lastRepHadError() {
+        return lastRepHadError;
+    }
+}
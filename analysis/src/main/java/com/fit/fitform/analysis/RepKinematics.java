@@ -0,0 +1,177 @@
+package com.fit.fitform.analysis;
+
+/**
+ * Incremental kinematics of an exercise's driving joint (elbow for push-ups, knee for squats).
+ * Each frame costs O(1): angular velocity and acceleration come from finite differences over a
+ * small ring buffer of recent samples, and per-rep tempo is tracked with running extrema.
+ * When {@link RepEvaluator} counts a rep, a {@link RepMetrics} summary is handed to the listener.
+ * Not thread-safe; {@link #update} does not allocate except for the per-rep summary.
+ */
+public final class RepKinematics {
+
+    /**
+     * Receives a summary for every completed rep
+     */
+    public interface RepListener {
+        void onRepCompleted(RepMetrics rep);
+    }
+
+    // Ring capacity; must be a power of two
+    private static final int HISTORY = 4;
+    // Differences span this many samples to smooth detector jitter
+    private static final int SPAN = 2;
+    // A gap longer than this (e.g. the user left the frame) restarts the finite differences
+    private static final long MAX_GAP_MS = 500L;
+
+    private final double[] angles = new double[HISTORY];
+    private final double[] velocities = new double[HISTORY];
+    private final long[] times = new long[HISTORY];
+    private int head = -1;
+    // Consecutive samples since the last reset or gap
+    private int run = 0;
+
+    private double angle = Double.NaN;
+    private double velocity = 0.0;
+    private double acceleration = 0.0;
+
+    // Current rep window
+    private boolean windowOpen = false;
+    private double topAngle;
+    private long topMs;
+    private double startAngle;
+    private long startMs;
+    private double bottomAngle;
+    private long bottomMs;
+    private double peakConcentricVelocity;
+
+    private RepListener listener;
+
+    public void setListener(RepListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Forgets all history so the tracker can start a new set
+     */
+    public void reset() {
+        head = -1;
+        run = 0;
+        angle = Double.NaN;
+        velocity = 0.0;
+        acceleration = 0.0;
+        windowOpen = false;
+    }
+
+    /**
+     * Feeds the frame just evaluated by {@code evaluator}
+     * @param features Features of the current frame
+     * @param evaluator Evaluator that has already stepped this frame
+     */
+    public void update(PoseFeatures features, RepEvaluator evaluator) {
+        double current = features.getDrivingAngle(evaluator.getExerciseType());
+        if (Double.isNaN(current)) {
+            return;
+        }
+        long nowMs = features.getTimestampMs();
+        if (push(nowMs, current)) {
+            trackRep(nowMs, current);
+        }
+        if (evaluator.isRepCompleted()) {
+            completeRep(evaluator.getRepCount(), nowMs, current, evaluator.lastRepHadError());
+        }
+    }
+
+    private boolean push(long nowMs, double current) {
+        if (run > 0) {
+            long dt = nowMs - times[head];
+            if (dt <= 0) {
+                return false;
+            }
+            if (dt > MAX_GAP_MS) {
+                run = 0;
+            }
+        }
+        head = (head + 1) & (HISTORY - 1);
+        angles[head] = current;
+        times[head] = nowMs;
+        angle = current;
+        if (run < Integer.MAX_VALUE) {
+            run++;
+        }
+
+        if (run > SPAN) {
+            int back = (head - SPAN) & (HISTORY - 1);
+            double dtSeconds = (nowMs - times[back]) / 1000.0;
+            velocity = (current - angles[back]) / dtSeconds;
+            // The older velocity is only valid if that sample itself had SPAN predecessors
+            acceleration = run > 2 * SPAN
+                ? (velocity - velocities[back]) / dtSeconds : 0.0;
+        } else {
+            velocity = 0.0;
+            acceleration = 0.0;
+        }
+        velocities[head] = velocity;
+        return true;
+    }
+
+    private void trackRep(long nowMs, double current) {
+        if (!windowOpen) {
+            windowOpen = true;
+            topAngle = current;
+            topMs = nowMs;
+            startAngle = current;
+            startMs = nowMs;
+            bottomAngle = current;
+            bottomMs = nowMs;
+            peakConcentricVelocity = 0.0;
+            return;
+        }
+        if (current >= topAngle) {
+            // Latest highest point, i.e. where the joint leaves the top
+            topAngle = current;
+            topMs = nowMs;
+        }
+        if (current < bottomAngle) {
+            // New bottom: the eccentric phase started at the highest point seen before it
+            bottomAngle = current;
+            bottomMs = nowMs;
+            startAngle = topAngle;
+            startMs = topMs;
+            peakConcentricVelocity = 0.0;
+        } else if (velocity > peakConcentricVelocity) {
+            peakConcentricVelocity = velocity;
+        }
+    }
+
+    private void completeRep(int repNumber, long nowMs, double current, boolean hadError) {
+        if (listener != null) {
+            long bottom = Math.max(bottomMs, startMs);
+            listener.onRepCompleted(new RepMetrics(repNumber, startMs, bottom, nowMs,
+                (float) bottomAngle, (float) Math.max(startAngle, current),
+                (float) peakConcentricVelocity, hadError));
+        }
+        // The next rep's window starts at the top of this one
+        topAngle = current;
+        topMs = nowMs;
+        startAngle = current;
+        startMs = nowMs;
+        bottomAngle = current;
+        bottomMs = nowMs;
+        peakConcentricVelocity = 0.0;
+    }
+
+    /** @return Latest driving-joint angle in degrees, or NaN before the first visible frame */
+    public double getAngle() {
+        return angle;
+    }
+
+    /** @return Angular velocity in degrees/second (positive while the joint opens) */
+    public double getVelocity() {
+        return velocity;
+    }
+
+    /** @return Angular acceleration in degrees/second^2 */
+    public double getAcceleration() {
+        return acceleration;
+    }
+}
@@ -0,0 +1,86 @@
+package com.fit.fitform.analysis;
+
+/**
+ * Tempo and range-of-motion summary of one completed rep, emitted by {@link RepKinematics}.
+ * Times are in the clock of the analysed frames (milliseconds), angles in degrees.
+ */
+public final class RepMetrics {
+
+    private final int repNumber;
+    private final long startMs;
+    private final long bottomMs;
+    private final long endMs;
+    private final float minAngle;
+    private final float maxAngle;
+    private final float peakConcentricVelocity;
+    private final boolean hadError;
+
+    public RepMetrics(int repNumber, long startMs, long bottomMs, long endMs,
+                      float minAngle, float maxAngle, float peakConcentricVelocity, boolean hadError) {
+        this.repNumber = repNumber;
+        this.startMs = startMs;
+        this.bottomMs = bottomMs;
+        this.endMs = endMs;
+        this.minAngle = minAngle;
+        this.maxAngle = maxAngle;
+        this.peakConcentricVelocity = peakConcentricVelocity;
+        this.hadError = hadError;
+    }
+
+    /** @return 1-based rep number within the set */
+    public int getRepNumber() {
+        return repNumber;
+    }
+
+    /** @return Time the joint left the top position */
+    public long getStartMs() {
+        return startMs;
+    }
+
+    /** @return Time the joint reached its smallest angle */
+    public long getBottomMs() {
+        return bottomMs;
+    }
+
+    /** @return Time the rep was counted */
+    public long getEndMs() {
+        return endMs;
+    }
+
+    /** @return Lowering (eccentric) phase duration */
+    public int getEccentricMs() {
+        return (int) (bottomMs - startMs);
+    }
+
+    /** @return Raising (concentric) phase duration */
+    public int getConcentricMs() {
+        return (int) (endMs - bottomMs);
+    }
+
+    /** @return Total time under tension for this rep */
+    public int getTimeUnderTensionMs() {
+        return (int) (endMs - startMs);
+    }
+
+    public float getMinAngle() {
+        return minAngle;
+    }
+
+    public float getMaxAngle() {
+        return maxAngle;
+    }
+
+    /** @return Range of motion of the driving joint */
+    public float getRangeOfMotion() {
+        return maxAngle - minAngle;
+    }
+
+    /** @return Fastest opening speed of the driving joint during the concentric phase, in degrees/second */
+    public float getPeakConcentricVelocity() {
+        return peakConcentricVelocity;
+    }
+
+    public boolean hadError() {
+        return hadError;
+    }
+}
@@ -0,0 +1,62 @@
+package com.fit.fitform.analysis;
+
+/**
+ * Form score of one completed rep (or of a whole plank hold).
+ * Checkpoint scores and fault rates are indexed by {@link FormCheckpoint#getId()};
+ * NaN means not scored.
+ */
+public final class RepScore {
+
+    private final int repNumber;
+    private final float overallScore;
+    private final float[] checkpointScores;
+    private final float[] faultRates;
+
+    public RepScore(int repNumber, float overallScore, float[] checkpointScores, float[] faultRates) {
+        this.repNumber = repNumber;
+        this.overallScore = overallScore;
+        this.checkpointScores = checkpointScores;
+        this.faultRates = faultRates;
+    }
+
+    public int getRepNumber() {
+        return repNumber;
+    }
+
+    /** @return Overall score from 0.0 to 1.0 */
+    public float getOverallScore() {
+        return overallScore;
+    }
+
+    /**
+     * @param checkpoint Checkpoint to read
+     * @return Score from 0.0 to 1.0, or NaN if the checkpoint does not apply
+     */
+    public float getCheckpointScore(FormCheckpoint checkpoint) {
+        return checkpointScores[checkpoint.getId()];
+    }
+
+    /**
+     * @param checkpoint Checkpoint to set
+     * @param score Score from 0.0 to 1.0
+     * @return Copy of this score with one checkpoint replaced; the overall score is unchanged
+     */
+    public RepScore withCheckpointScore(FormCheckpoint checkpoint, float score) {
+        float[] scores = checkpointScores.clone();
+        scores[checkpoint.getId()] = score;
+        return new RepScore(repNumber, overallScore, scores, faultRates);
+    }
+
+    /** @return Scores indexed by checkpoint id; do not modify */
+    public float[] getCheckpointScores() {
+        return checkpointScores;
+    }
+
+    /**
+     * @return Share of frames, from 0.0 to 1.0, in which each checkpoint was faulty, indexed by
+     * checkpoint id; do not modify
+     */
+    public float[] getFaultRates() {
+        return faultRates;
+    }
+}
@@ -0,0 +1,122 @@
+package com.fit.fitform.analysis;
+
+import java.util.Arrays;
+
+/**
+ * Rolling record of the driving-joint angle, from which a completed rep's trajectory is cut and
+ * resampled to a fixed length for template matching (see {@link DtwMatcher}).
+ * Not thread-safe; {@link #update} does not allocate.
+ */
+public final class RepTrajectory {
+
+    /** Samples per resampled rep trajectory */
+    public static final int LENGTH = 64;
+
+    // Ring capacity; must be a power of two. About 17 s at 30 fps, longer than any sane rep
+    private static final int CAPACITY = 512;
+
+    private final float[] angles = new float[CAPACITY];
+    private final long[] times = new long[CAPACITY];
+    private int head = -1;
+    private int size = 0;
+
+    /**
+     * Forgets all samples
+     */
+    public void reset() {
+        head = -1;
+        size = 0;
+    }
+
+    /**
+     * Records the driving-joint angle of the current frame, if visible
+     * @param features Features of the current frame
+     * @param evaluator Evaluator for the current exercise
+     */
+    public void update(PoseFeatures features, RepEvaluator evaluator) {
+        double angle = features.getDrivingAngle(evaluator.getExerciseType());
+        long nowMs = features.getTimestampMs();
+        if (Double.isNaN(angle) || (size > 0 && nowMs <= times[head])) {
+            return;
+        }
+        head = (head + 1) & (CAPACITY - 1);
+        angles[head] = (float) angle;
+        times[head] = nowMs;
+        if (size < CAPACITY) {
+            size++;
+        }
+    }
+
+    /**
+     * Cuts the samples between two timestamps and resamples them uniformly in time
+     * @param fromMs Start of the rep, inclusive
+     * @param toMs End of the rep, inclusive
+     * @param length Number of output samples
+     * @return Resampled angles in degrees, or null if fewer than two samples fall in the window
+     */
+    public float[] extract(long fromMs, long toMs, int length) {
+        // Walk back from the newest sample to the first one inside the window
+        int count = 0;
+        int first = head;
+        for (int i = 0; i < size; i++) {
+            int index = (head - i) & (CAPACITY - 1);
+            if (times[index] > toMs) {
+                continue;
+            }
+            if (times[index] < fromMs) {
+                break;
+            }
+            first = index;
+            count++;
+        }
+        if (count < 2) {
+            return null;
+        }
+
+        float[] out = new float[length];
+        long t0 = times[first];
+        long t1 = times[(first + count - 1) & (CAPACITY - 1)];
+        int end = (first + count) & (CAPACITY - 1);
+        int cursor = first;
+        for (int k = 0; k < length; k++) {
+            double t = t0 + (double) (t1 - t0) * k / (length - 1);
+            int next = (cursor + 1) & (CAPACITY - 1);
+            while (next != end && times[next] <= t) {
+                cursor = next;
+                next = (cursor + 1) & (CAPACITY - 1);
+            }
+            if (next == end || times[cursor] >= t) {
+                out[k] = angles[cursor];
+            } else {
+                double f = (t - times[cursor]) / (times[next] - times[cursor]);
+                out[k] = (float) (angles[cursor] + f * (angles[next] - angles[cursor]));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Linearly resamples an evenly spaced series to a new length
+     * @param source Series with at least one sample
+     * @param length Number of output samples
+     * @return Resampled series
+     */
+    public static float[] resample(float[] source, int length) {
+        float[] out = new float[length];
+        if (source.length == 1 || length == 1) {
+            Arrays.fill(out, source[0]);
+            return out;
+        }
+        for (int k = 0; k < length; k++) {
+            double position = (double) k * (source.length - 1) / (length - 1);
+            int i = (int) position;
+            if (i >= source.length - 1) {
+                out[k] = source[source.length - 1];
+            } else {
+                double f = position - i;
+                out[k] = (float) (source[i] + f * (source[i + 1] - source[i]));
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,54 @@
+package com.fit.fitform.analysis;
+
+/**
+ * Weighted running mean and variance (West's weighted form of Welford's algorithm).
+ * Constant memory and O(1) per sample, numerically stable over long sessions.
+ */
+public final class RunningStats {
+
+    private double weightSum = 0.0;
+    private double mean = 0.0;
+    private double m2 = 0.0;
+    private long count = 0;
+
+    /**
+     * Adds a sample
+     * @param value Sample value
+     * @param weight Sample weight; non-positive or NaN samples are ignored
+     */
+    public void add(double value, double weight) {
+        if (!(weight > 0) || Double.isNaN(value)) {
+            return;
+        }
+        weightSum += weight;
+        double delta = value - mean;
+        mean += (weight / weightSum) * delta;
+        m2 += weight * delta * (value - mean);
+        count++;
+    }
+
+    public void reset() {
+        weightSum = 0.0;
+        mean = 0.0;
+        m2 = 0.0;
+        count = 0;
+    }
+
+    /** @return Weighted mean, or NaN if no samples were added */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /** @return Weighted population variance, or NaN if no samples were added */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : m2 / weightSum;
+    }
+
+    public double getStdDev() {
+        return Math.sqrt(getVariance());
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,90 @@
+package com.fit.fitform.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The rule set for one set of one exercise: rep counting, kinematics, trajectory capture and
+ * scoring, stepped together in the order they depend on each other. Not thread-safe.
+ */
+public final class SetTracker {
+
+    private final ExerciseType exerciseType;
+    private final RepEvaluator evaluator;
+    private final RepKinematics kinematics = new RepKinematics();
+    private final RepTrajectory trajectory = new RepTrajectory();
+    private final FormScorer scorer;
+    private final List<RepMetrics> reps = new ArrayList<>();
+    private final List<RepScore> repScores = new ArrayList<>();
+    private RepKinematics.RepListener listener;
+
+    public SetTracker(ExerciseType exerciseType, FormThresholds thresholds) {
+        this.exerciseType = exerciseType;
+        this.evaluator = new RepEvaluator(exerciseType, thresholds);
+        this.scorer = new FormScorer(exerciseType, thresholds);
+        kinematics.setListener(rep -> {
+            reps.add(rep);
+            if (listener != null) {
+                listener.onRepCompleted(rep);
+            }
+        });
+    }
+
+    /**
+     * @param listener Called on every completed rep, after its trajectory has been captured
+     */
+    public void setRepListener(RepKinematics.RepListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Runs every rule on one frame
+     * @param features Features of the current frame
+     * @return Verdict from the rep evaluator
+     */
+    public FormVerdict step(PoseFeatures features) {
+        FormVerdict verdict = evaluator.step(features);
+        trajectory.update(features, evaluator);
+        kinematics.update(features, evaluator);
+        scorer.update(features, evaluator);
+        if (evaluator.isRepCompleted()) {
+            repScores.add(scorer.getLastRepScore());
+        }
+        return verdict;
+    }
+
+    /** @return True if nothing has been counted yet, so the set can be discarded */
+    public boolean isEmpty() {
+        return evaluator.getRepCount() == 0 && evaluator.getPlankHeldMillis() == 0L;
+    }
+
+    public ExerciseType getExerciseType() {
+        return exerciseType;
+    }
+
+    public RepEvaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public RepKinematics getKinematics() {
+        return kinematics;
+    }
+
+    public RepTrajectory getTrajectory() {
+        return trajectory;
+    }
+
+    public FormScorer getScorer() {
+        return scorer;
+    }
+
+    /** @return Tempo summaries of completed reps, in rep order; do not modify */
+    public List<RepMetrics> getRepMetrics() {
+        return reps;
+    }
+
+    /** @return Form scores of completed reps, aligned with {@link #getRepMetrics()}; do not modify */
+    public List<RepScore> getRepScores() {
+        return repScores;
+    }
+}
@@ -0,0 +1,123 @@
+package com.fit.fitform.analysis;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reference rep trajectories: a compact binary encoding for storage alongside an exercise, and
+ * built-in defaults for exercises that have none recorded.
+ *
+ * Encoding (little-endian): version byte, template count (short), samples per template (short),
+ * then every template's samples as floats.
+ */
+public final class TrajectoryTemplates {
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 5;
+
+    private TrajectoryTemplates() {
+    }
+
+    /**
+     * @param templates Templates of equal length
+     * @return Encoded templates
+     */
+    public static byte[] encode(float[][] templates) {
+        int length = templates.length == 0 ? 0 : templates[0].length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + templates.length * length * 4)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(VERSION);
+        buffer.putShort((short) templates.length);
+        buffer.putShort((short) length);
+        for (float[] template : templates) {
+            if (template.length != length) {
+                throw new IllegalArgumentException("Templates must have equal length");
+            }
+            for (float sample : template) {
+                buffer.putFloat(sample);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @param data Bytes produced by {@link #encode}
+     * @return Decoded templates, or an empty array if {@code data} is null or malformed
+     */
+    public static float[][] decode(byte[] data) {
+        if (data == null || data.length < HEADER_BYTES) {
+            return new float[0][];
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.get() != VERSION) {
+            return new float[0][];
+        }
+        int count = buffer.getShort() & 0xFFFF;
+        int length = buffer.getShort() & 0xFFFF;
+        if (buffer.remaining() != count * length * 4) {
+            return new float[0][];
+        }
+        float[][] templates = new float[count][length];
+        for (float[] template : templates) {
+            buffer.asFloatBuffer().get(template);
+            buffer.position(buffer.position() + length * 4);
+        }
+        return templates;
+    }
+
+    /**
+     * Encoded built-in templates at the shipped thresholds, as stored with catalog exercises
+     * @param exerciseType Exercise to build templates for
+     * @return Encoded templates of {@link RepTrajectory#LENGTH} samples, or null for holds
+     */
+    public static byte[] encodedDefaults(ExerciseType exerciseType) {
+        float[][] templates = defaults(exerciseType, FormThresholds.DEFAULTS, RepTrajectory.LENGTH);
+        return templates.length == 0 ? null : encode(templates);
+    }
+
+    /**
+     * Synthesizes reference reps for an exercise from its thresholds: a smooth descent from the
+     * top to just below the down angle and back, at a few eccentric/concentric tempo ratios
+     * @param exerciseType Exercise to build templates for
+     * @param thresholds Angle thresholds for the exercise
+     * @param length Samples per template
+     * @return Templates, or an empty array for holds
+     */
+    public static float[][] defaults(ExerciseType exerciseType, FormThresholds thresholds, int length) {
+        double top;
+        double bottom;
+        switch (exerciseType) {
+            case SQUAT:
+                top = thresholds.getSquatUpAngle() + 5.0;
+                bottom = thresholds.getSquatDownAngle() - 10.0;
+                break;
+            case PUSHUP:
+                top = thresholds.getPushupUpAngle() + 10.0;
+                bottom = thresholds.getPushupDownAngle() - 10.0;
+                break;
+            default:
+                return new float[0][];
+        }
+        top = Math.min(top, 180.0);
+        // Fraction of the rep spent lowering: controlled, even and quick descents
+        double[] eccentricShares = {0.6, 0.5, 0.4};
+        float[][] templates = new float[eccentricShares.length][];
+        for (int t = 0; t < eccentricShares.length; t++) {
+            templates[t] = halfCosineRep(top, bottom, eccentricShares[t], length);
+        }
+        return templates;
+    }
+
+    private static float[] halfCosineRep(double top, double bottom, double eccentricShare, int length) {
+        float[] out = new float[length];
+        double amplitude = (top - bottom) / 2.0;
+        for (int i = 0; i < length; i++) {
+            double t = (double) i / (length - 1);
+            double phase = t < eccentricShare
+                ? Math.PI * t / eccentricShare
+                : Math.PI + Math.PI * (t - eccentricShare) / (1.0 - eccentricShare);
+            out[i] = (float) (bottom + amplitude * (1.0 + Math.cos(phase)));
+        }
+        return out;
+    }
+}
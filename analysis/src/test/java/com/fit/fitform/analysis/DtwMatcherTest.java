@@ -0,0 +1,104 @@
+package com.fit.fitform.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class DtwMatcherTest {
+
+    private static final int LENGTH = RepTrajectory.LENGTH;
+    private static final int BAND = 6;
+
+    @Test
+    public void prunedMatchFindsSameTemplateAsFullBandedDtw() {
+        Random random = new Random(42);
+        float[][] templates = new float[24][];
+        for (int t = 0; t < templates.length; t++) {
+            templates[t] = rep(random, 165f + random.nextFloat() * 10f, 60f + random.nextFloat() * 40f, 2f);
+        }
+        DtwMatcher matcher = new DtwMatcher(templates, LENGTH, BAND);
+
+        int pruned = 0;
+        for (int q = 0; q < 200; q++) {
+            float[] query = rep(random, 160f + random.nextFloat() * 20f, 50f + random.nextFloat() * 60f, 6f);
+            int expectedTemplate = -1;
+            double expected = Double.POSITIVE_INFINITY;
+            for (int t = 0; t < templates.length; t++) {
+                double distance = fullDtw(query, templates[t], BAND);
+                if (distance < expected) {
+                    expected = distance;
+                    expectedTemplate = t;
+                }
+            }
+
+            double actual = matcher.match(query);
+            assertEquals(expectedTemplate, matcher.getBestTemplate());
+            assertEquals(expected, actual, 1e-6 * expected);
+            pruned += templates.length - matcher.getFullComparisons();
+        }
+        // The equivalence only means something if pruning actually kicked in
+        assertTrue(pruned > 0);
+    }
+
+    @Test
+    public void matchOfTemplateItselfIsExact() {
+        Random random = new Random(7);
+        float[][] templates = {
+            rep(random, 170f, 80f, 0f),
+            rep(random, 170f, 95f, 0f),
+            rep(random, 168f, 70f, 0f)
+        };
+        DtwMatcher matcher = new DtwMatcher(templates, LENGTH, BAND);
+        for (int t = 0; t < templates.length; t++) {
+            assertEquals(0.0, matcher.match(templates[t]), 0.0);
+            assertEquals(t, matcher.getBestTemplate());
+        }
+    }
+
+    /** Down-and-up rep with a random dwell at the bottom and per-sample noise */
+    private static float[] rep(Random random, float top, float bottom, float noise) {
+        float[] samples = new float[LENGTH];
+        double skew = 0.35 + random.nextDouble() * 0.3;
+        for (int i = 0; i < LENGTH; i++) {
+            double x = (double) i / (LENGTH - 1);
+            double phase = x < skew ? x / skew * 0.5 : 0.5 + (x - skew) / (1 - skew) * 0.5;
+            double depth = 0.5 - 0.5 * Math.cos(2 * Math.PI * phase);
+            samples[i] = (float) (top - (top - bottom) * depth + random.nextGaussian() * noise);
+        }
+        return samples;
+    }
+
+    /** Plain banded DTW over the whole matrix, with no lower bound and no early abandon */
+    private static double fullDtw(float[] a, float[] b, int band) {
+        int n = a.length;
+        double[][] cost = new double[n][n];
+        for (double[] row : cost) {
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = Math.max(0, i - band); j <= Math.min(n - 1, i + band); j++) {
+                double d = a[i] - b[j];
+                double step;
+                if (i == 0 && j == 0) {
+                    step = 0.0;
+                } else {
+                    step = Double.POSITIVE_INFINITY;
+                    if (i > 0) {
+                        step = Math.min(step, cost[i - 1][j]);
+                    }
+                    if (j > 0) {
+                        step = Math.min(step, cost[i][j - 1]);
+                    }
+                    if (i > 0 && j > 0) {
+                        step = Math.min(step, cost[i - 1][j - 1]);
+                    }
+                }
+                cost[i][j] = d * d + step;
+            }
+        }
+        return cost[n - 1][n - 1];
+    }
+}
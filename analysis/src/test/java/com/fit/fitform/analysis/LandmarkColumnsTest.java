@@ -0,0 +1,165 @@
+package com.fit.fitform.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+
+public class LandmarkColumnsTest {
+
+    private static final int FRAMES = 25;
+    private static final int CHUNK_FRAMES = 8;
+    // Dropped by the detector every fifth frame
+    private static final int FLICKERING = PoseLandmarks.LEFT_WRIST;
+    // Reported with a NaN position on one frame
+    private static final int GLITCHED = PoseLandmarks.RIGHT_WRIST;
+    private static final int GLITCH_FRAME = 3;
+    private static final float LIKELIHOOD_TOLERANCE = 1f / LandmarkColumns.LIKELIHOOD_SCALE;
+
+    @Test
+    public void framesRoundTripAcrossChunks() throws IOException {
+        Path path = write(ExerciseType.SQUAT, 7, CHUNK_FRAMES);
+        try (LandmarkColumnReader reader = LandmarkColumnReader.open(path)) {
+            assertEquals(FRAMES, reader.getFrameCount());
+            assertEquals((FRAMES + CHUNK_FRAMES - 1) / CHUNK_FRAMES, reader.getChunkCount());
+            assertEquals(CHUNK_FRAMES, reader.getChunkFrames(0));
+            assertEquals(FRAMES % CHUNK_FRAMES, reader.getChunkFrames(reader.getChunkCount() - 1));
+
+            PoseFrame expected = new PoseFrame();
+            PoseFrame actual = new PoseFrame();
+            for (int i = 0; i < FRAMES; i++) {
+                assertTrue(reader.next(actual));
+                fill(expected, i);
+                assertEquals(expected.getTimestampMs(), actual.getTimestampMs());
+                for (int landmark = 0; landmark < PoseLandmarks.COUNT; landmark++) {
+                    boolean present = expected.isPresent(landmark) && !Float.isNaN(expected.getX(landmark));
+                    assertTrue("frame " + i + " landmark " + landmark, present == actual.isPresent(landmark));
+                    if (present) {
+                        assertEquals(expected.getX(landmark), actual.getX(landmark), 0.0);
+                        assertEquals(expected.getY(landmark), actual.getY(landmark), 0.0);
+                        assertEquals(expected.getLikelihood(landmark), actual.getLikelihood(landmark),
+                            LIKELIHOOD_TOLERANCE);
+                    }
+                }
+            }
+            assertFalse(reader.next(actual));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void singleColumnProjectionMatchesFrames() throws IOException {
+        Path path = write(ExerciseType.SQUAT, 7, CHUNK_FRAMES);
+        try (LandmarkColumnReader reader = LandmarkColumnReader.open(path)) {
+            long[] timestamps = reader.readTimestamps();
+            float[] x = reader.readColumn(LandmarkColumns.x(PoseLandmarks.LEFT_KNEE));
+            float[] y = reader.readColumn(LandmarkColumns.y(PoseLandmarks.LEFT_KNEE));
+            float[] likelihood = reader.readColumn(LandmarkColumns.likelihood(PoseLandmarks.LEFT_KNEE));
+            assertEquals(FRAMES, timestamps.length);
+            assertEquals(FRAMES, x.length);
+
+            PoseFrame expected = new PoseFrame();
+            for (int i = 0; i < FRAMES; i++) {
+                fill(expected, i);
+                assertEquals(expected.getTimestampMs(), timestamps[i]);
+                assertEquals(expected.getX(PoseLandmarks.LEFT_KNEE), x[i], 0.0);
+                assertEquals(expected.getY(PoseLandmarks.LEFT_KNEE), y[i], 0.0);
+                assertEquals(expected.getLikelihood(PoseLandmarks.LEFT_KNEE), likelihood[i], LIKELIHOOD_TOLERANCE);
+            }
+
+            // A chunk's raw column holds the quantised values of just that chunk
+            long[] raw = new long[CHUNK_FRAMES];
+            assertEquals(CHUNK_FRAMES, reader.readRaw(1, LandmarkColumns.TIMESTAMP, raw));
+            assertEquals(timestamps[CHUNK_FRAMES], raw[0]);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void missingLandmarksHaveNoLikelihoodAndKeepLastPosition() throws IOException {
+        Path path = write(ExerciseType.SQUAT, 7, CHUNK_FRAMES);
+        try (LandmarkColumnReader reader = LandmarkColumnReader.open(path)) {
+            float[] x = reader.readColumn(LandmarkColumns.x(FLICKERING));
+            float[] likelihood = reader.readColumn(LandmarkColumns.likelihood(FLICKERING));
+            float[] glitched = reader.readColumn(LandmarkColumns.likelihood(GLITCHED));
+
+            PoseFrame expected = new PoseFrame();
+            for (int i = 1; i < FRAMES; i++) {
+                fill(expected, i);
+                if (expected.isPresent(FLICKERING)) {
+                    assertEquals(expected.getX(FLICKERING), x[i], 0.0);
+                    assertFalse(Float.isNaN(likelihood[i]));
+                } else {
+                    assertTrue("frame " + i, Float.isNaN(likelihood[i]));
+                    assertEquals(x[i - 1], x[i], 0.0);
+                }
+                assertTrue("frame " + i, (i == GLITCH_FRAME) == Float.isNaN(glitched[i]));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void headerKeepsExerciseAndLabelledReps() throws IOException {
+        Path labelled = write(ExerciseType.SQUAT, 7, CHUNK_FRAMES);
+        try (LandmarkColumnReader reader = LandmarkColumnReader.open(labelled)) {
+            assertEquals(ExerciseType.SQUAT, reader.getExerciseType());
+            assertEquals(7, reader.getLabelledReps());
+        } finally {
+            Files.delete(labelled);
+        }
+
+        Path unlabelled = Files.createTempFile("landmarks", ".flc");
+        try {
+            try (OutputStream out = Files.newOutputStream(unlabelled);
+                 LandmarkColumnWriter writer = new LandmarkColumnWriter(out, ExerciseType.PLANK, -1)) {
+                PoseFrame frame = new PoseFrame();
+                fill(frame, 0);
+                writer.write(frame);
+            }
+            try (LandmarkColumnReader reader = LandmarkColumnReader.open(unlabelled)) {
+                assertEquals(ExerciseType.PLANK, reader.getExerciseType());
+                assertEquals(-1, reader.getLabelledReps());
+                assertEquals(1, reader.getChunkCount());
+                assertEquals(1, reader.getFrameCount());
+            }
+        } finally {
+            Files.delete(unlabelled);
+        }
+    }
+
+    private static Path write(ExerciseType exercise, int labelledReps, int chunkFrames) throws IOException {
+        Path path = Files.createTempFile("landmarks", ".flc");
+        try (OutputStream out = Files.newOutputStream(path);
+             LandmarkColumnWriter writer = new LandmarkColumnWriter(out, exercise, labelledReps, chunkFrames)) {
+            PoseFrame frame = new PoseFrame();
+            for (int i = 0; i < FRAMES; i++) {
+                fill(frame, i);
+                writer.write(frame);
+            }
+            assertEquals(FRAMES, writer.getFramesWritten());
+        }
+        return path;
+    }
+
+    // Positions are multiples of 0.25 px, so they survive quantisation exactly
+    private static void fill(PoseFrame frame, int i) {
+        frame.reset(1_000L + i * 33L + (i % 3));
+        for (int landmark = 0; landmark < PoseLandmarks.COUNT; landmark++) {
+            if (landmark == FLICKERING && i % 5 == 2) {
+                continue;
+            }
+            float x = landmark == GLITCHED && i == GLITCH_FRAME ? Float.NaN : 100f + 3.25f * i + 10f * landmark;
+            float y = 400f - 1.5f * i + 0.75f * landmark;
+            frame.set(landmark, x, y, 0.5f + 0.015f * landmark);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.fit.fitform.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class RepEvaluatorTest {
+
+    private static final float LIMB = 100f;
+
+    private final PoseFrame frame = new PoseFrame();
+    private final PoseFeatures features = new PoseFeatures();
+
+    @Test
+    public void pushupDownAndUpCountsOneCleanRep() {
+        RepEvaluator evaluator = new RepEvaluator(ExerciseType.PUSHUP, FormThresholds.DEFAULTS);
+        long timeMs = 0;
+        for (double angle : pushupTrace(170.0, 75.0)) {
+            FormVerdict verdict = step(evaluator, timeMs, angle);
+            assertEquals(FormVerdict.GOOD_FORM, verdict);
+            timeMs += 33;
+        }
+        assertEquals(1, evaluator.getRepCount());
+        assertEquals(1, evaluator.getCorrectRepCount());
+        assertFalse(evaluator.lastRepHadError());
+    }
+
+    @Test
+    public void pushupThatStopsAboveDownAngleDoesNotCount() {
+        RepEvaluator evaluator = new RepEvaluator(ExerciseType.PUSHUP, FormThresholds.DEFAULTS);
+        long timeMs = 0;
+        for (double angle : pushupTrace(170.0, 110.0)) {
+            step(evaluator, timeMs, angle);
+            timeMs += 33;
+        }
+        assertEquals(0, evaluator.getRepCount());
+    }
+
+    @Test
+    public void pushupBelowElbowFloorCountsAsFaultyRep() {
+        RepEvaluator evaluator = new RepEvaluator(ExerciseType.PUSHUP, FormThresholds.DEFAULTS);
+        long timeMs = 0;
+        boolean sawFault = false;
+        for (double angle : pushupTrace(170.0, 40.0)) {
+            sawFault |= step(evaluator, timeMs, angle) == FormVerdict.ARMS_TOO_BENT;
+            timeMs += 33;
+        }
+        assertTrue(sawFault);
+        assertEquals(1, evaluator.getRepCount());
+        assertEquals(0, evaluator.getCorrectRepCount());
+        assertTrue(evaluator.lastRepHadError());
+    }
+
+    /** Elbow angles going from top down to bottom and back up in 5 degree steps */
+    private static double[] pushupTrace(double top, double bottom) {
+        int steps = (int) Math.round((top - bottom) / 5.0);
+        double[] trace = new double[2 * steps + 1];
+        for (int i = 0; i <= steps; i++) {
+            double angle = top - (top - bottom) * i / steps;
+            trace[i] = angle;
+            trace[2 * steps - i] = angle;
+        }
+        return trace;
+    }
+
+    /**
+     * Steps the evaluator with a side-on plank whose elbow is bent to {@code elbowAngle}:
+     * shoulder, hip and ankle stay on one line and the wrist moves to open or close the elbow
+     */
+    private FormVerdict step(RepEvaluator evaluator, long timeMs, double elbowAngle) {
+        double half = Math.toRadians(elbowAngle) / 2.0;
+        float shoulderX = 100f;
+        float shoulderY = 300f;
+        frame.reset(timeMs);
+        frame.set(PoseLandmarks.LEFT_SHOULDER, shoulderX, shoulderY, 0.99f);
+        frame.set(PoseLandmarks.LEFT_HIP, shoulderX + 2 * LIMB, shoulderY, 0.99f);
+        frame.set(PoseLandmarks.LEFT_ANKLE, shoulderX + 4 * LIMB, shoulderY, 0.99f);
+        // Upper arm and forearm of equal length meet at the elbow, which sits off the
+        // shoulder-wrist line by LIMB * cos(angle / 2)
+        float reach = (float) (LIMB * Math.sin(half));
+        frame.set(PoseLandmarks.LEFT_ELBOW, shoulderX - (float) (LIMB * Math.cos(half)), shoulderY + reach, 0.99f);
+        frame.set(PoseLandmarks.LEFT_WRIST, shoulderX, shoulderY + 2 * reach, 0.99f);
+        features.extract(frame);
+        return evaluator.step(features);
+    }
+}
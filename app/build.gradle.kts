@@ -37,6 +37,18 @@ android {
         versionCode = 7
         versionName = "1.1"
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Export Room schemas so migrations can be checked against each version
+        javaCompileOptions {
+            annotationProcessorOptions {
+                arguments += mapOf("room.schemaLocation" to "$projectDir/schemas")
+            }
+        }
+    }
+
+    sourceSets {
+        // Exported schemas are read by Room's MigrationTestHelper
+        getByName("androidTest").assets.srcDir("$projectDir/schemas")
     }
 
     buildTypes {
@@ -69,6 +81,9 @@ android {
 }
 
 dependencies {
+    // --- Pose analysis rules (pure Java, shared with :tools) ---
+    implementation(project(":analysis"))
+
     // --- Standard Android & Navigation ---
     implementation(libs.appcompat)
     implementation(libs.material) // Uses the version from your libs.versions.toml
@@ -84,6 +99,12 @@ dependencies {
     // --- Room Database ---
     implementation(libs.room.runtime)
     annotationProcessor(libs.room.compiler)
+    // ListenableFuture return types for one-shot DAO queries
+    implementation(libs.room.guava)
+
+    // --- Paging ---
+    implementation(libs.paging.runtime)
+    implementation(libs.paging.guava)
 
     // --- Authentication ---
     implementation(libs.credentials)
@@ -116,4 +137,6 @@ dependencies {
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
+    // MigrationTestHelper, reading the exported schemas
+    androidTestImplementation(libs.room.testing)
 }
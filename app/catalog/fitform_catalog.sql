@@ -0,0 +1,81 @@
+-- System workout catalog shipped as app/src/main/assets/databases/fitform_catalog.db.
+-- Room copies the asset on first launch (FitFormDatabase.CATALOG_ASSET), so a fresh install
+-- starts with the catalog and seeds nothing. Keep in step with DatabaseInitializer.buildCatalog()
+-- and the entity schema, at FitFormDatabase's version. Room validates the copied file against
+-- the schema and writes its own identity hash; newer app versions migrate it up from user_version.
+-- catalog_meta carries CatalogSeeder.CATALOG_VERSION and the content hash of
+-- DatabaseInitializer.buildCatalog(), so a fresh install skips seeding altogether.
+--
+-- Rebuild:
+--   rm -f app/src/main/assets/databases/fitform_catalog.db
+--   sqlite3 app/src/main/assets/databases/fitform_catalog.db < app/catalog/fitform_catalog.sql
+
+PRAGMA user_version = 12;
+
+BEGIN TRANSACTION;
+
+CREATE TABLE IF NOT EXISTS `users` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `firebaseUid` TEXT, `email` TEXT, `username` TEXT, `createdAt` INTEGER NOT NULL);
+CREATE UNIQUE INDEX IF NOT EXISTS `index_users_firebaseUid` ON `users` (`firebaseUid`);
+CREATE INDEX IF NOT EXISTS `index_users_email` ON `users` (`email`);
+
+CREATE TABLE IF NOT EXISTS `workouts` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userId` INTEGER NOT NULL, `name` TEXT, `description` TEXT, `category` TEXT, `estimatedDuration` INTEGER NOT NULL, `difficulty` TEXT, `createdAt` INTEGER NOT NULL, `isCustom` INTEGER NOT NULL);
+CREATE INDEX IF NOT EXISTS `index_workouts_userId` ON `workouts` (`userId`);
+CREATE INDEX IF NOT EXISTS `index_workouts_category` ON `workouts` (`category`);
+CREATE INDEX IF NOT EXISTS `index_workouts_isCustom` ON `workouts` (`isCustom`);
+
+CREATE TABLE IF NOT EXISTS `exercises` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `workoutId` INTEGER NOT NULL, `name` TEXT, `description` TEXT, `instructions` TEXT, `targetMuscles` TEXT, `equipment` TEXT, `sets` INTEGER NOT NULL, `reps` INTEGER NOT NULL, `restTime` INTEGER NOT NULL, `order` INTEGER NOT NULL, `hasFormAnalysis` INTEGER NOT NULL, `formCheckpoints` BLOB, `gifUrl` TEXT, `referenceTrajectories` BLOB);
+CREATE INDEX IF NOT EXISTS `index_exercises_workoutId_order` ON `exercises` (`workoutId`, `order`);
+CREATE INDEX IF NOT EXISTS `index_exercises_name` ON `exercises` (`name`);
+
+CREATE TABLE IF NOT EXISTS `workout_sessions` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `userId` INTEGER NOT NULL, `workoutId` INTEGER NOT NULL, `startTime` INTEGER NOT NULL, `endTime` INTEGER, `totalDuration` INTEGER, `caloriesBurned` INTEGER, `isCompleted` INTEGER NOT NULL, `notes` TEXT, `lastCheckpointAt` INTEGER);
+CREATE INDEX IF NOT EXISTS `index_workout_sessions_userId_isCompleted_startTime` ON `workout_sessions` (`userId`, `isCompleted`, `startTime`);
+CREATE INDEX IF NOT EXISTS `index_workout_sessions_userId_startTime` ON `workout_sessions` (`userId`, `startTime`);
+
+CREATE TABLE IF NOT EXISTS `exercise_sets` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `sessionId` INTEGER NOT NULL, `exerciseId` INTEGER NOT NULL, `exerciseType` TEXT, `setNumber` INTEGER NOT NULL, `reps` INTEGER NOT NULL, `weight` REAL, `duration` INTEGER, `formScore` REAL, `completedAt` INTEGER NOT NULL, `avgEccentricMs` INTEGER, `avgConcentricMs` INTEGER, `timeUnderTensionMs` INTEGER, `avgRangeOfMotion` REAL, `peakAngularVelocity` REAL);
+CREATE INDEX IF NOT EXISTS `index_exercise_sets_sessionId_completedAt` ON `exercise_sets` (`sessionId`, `completedAt`);
+CREATE INDEX IF NOT EXISTS `index_exercise_sets_exerciseId_sessionId` ON `exercise_sets` (`exerciseId`, `sessionId`);
+
+CREATE TABLE IF NOT EXISTS `daily_summaries` (`userId` INTEGER NOT NULL, `day` INTEGER NOT NULL, `exercise` TEXT NOT NULL, `sessionCount` INTEGER NOT NULL, `totalMinutes` INTEGER NOT NULL, `totalCalories` INTEGER NOT NULL, `setCount` INTEGER NOT NULL, `repCount` INTEGER NOT NULL, `holdSeconds` INTEGER NOT NULL, `formScoreSum` REAL NOT NULL, `formScoreCount` INTEGER NOT NULL, PRIMARY KEY(`userId`, `day`, `exercise`));
+
+CREATE TABLE IF NOT EXISTS `catalog_meta` (`catalog` TEXT NOT NULL, `version` INTEGER NOT NULL, `contentHash` TEXT, `seededAt` INTEGER NOT NULL, PRIMARY KEY(`catalog`));
+
+-- Full-text index over the catalog, filled below once the rows are in; the triggers keep it in
+-- step with later writes, as MIGRATION_11_12 sets up for upgraded databases
+CREATE VIRTUAL TABLE IF NOT EXISTS `catalog_search` USING FTS4(`workoutId` INTEGER NOT NULL, `exerciseId` INTEGER NOT NULL, `ownerId` INTEGER NOT NULL, `name` TEXT, `description` TEXT, `instructions` TEXT, `targetMuscles` TEXT, `equipment` TEXT, `workoutName` TEXT, `category` TEXT, tokenize=unicode61, notindexed=`workoutId`, notindexed=`exerciseId`, notindexed=`ownerId`, prefix=`2,3`);
+
+INSERT INTO `workouts` (id, userId, name, description, category, estimatedDuration, difficulty, createdAt, isCustom) VALUES (1, 0, 'Upper Body Strength', 'A comprehensive upper body workout targeting chest, shoulders, and arms', 'Strength', 45, 'Medium', 1760000000000, 0);
+INSERT INTO `workouts` (id, userId, name, description, category, estimatedDuration, difficulty, createdAt, isCustom) VALUES (2, 0, 'Lower Body Strength', 'Target your legs and glutes with this comprehensive lower body workout', 'Strength', 40, 'Medium', 1760000000000, 0);
+INSERT INTO `workouts` (id, userId, name, description, category, estimatedDuration, difficulty, createdAt, isCustom) VALUES (3, 0, 'HIIT Cardio Blast', 'High-intensity interval training for maximum calorie burn', 'HIIT', 25, 'Hard', 1760000000000, 0);
+INSERT INTO `workouts` (id, userId, name, description, category, estimatedDuration, difficulty, createdAt, isCustom) VALUES (4, 0, 'Flexibility & Mobility', 'Improve flexibility and reduce muscle tension', 'Flexibility', 30, 'Easy', 1760000000000, 0);
+
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (1, 'Push-ups', 'Classic bodyweight exercise for chest and triceps', '1. Start in plank position' || char(10) || '2. Lower body until chest nearly touches floor' || char(10) || '3. Push back up to starting position', 'Chest, Triceps, Shoulders', 'None', 3, 12, 60, 1, 1, X'01080000803F0000C07F0000C07F0000C07F0000803F0000C07F0000C07F0000C07F', NULL, X'010300400000002A433CD8294338612943C59B284341892743902B26431D852443D2982243156A2043C2FC1D4323551B43E8771843226A154336311243D7D20E43F7540B43C4BD074395130443E45C00438440F94292C8F142255FEA425811E34211ECDB42F2FBD4423E4DCE42C4EBC742CCE2C142FE3CBC425704B7421142B24295FEAD426B41AA423011A7428673A4420C6DA2425601A142E932A0422907A0425601A142235DA3423011A742C60EAC421142B2426E92B942CCE2C1422212CB42F2FBD442D778DF42255FEA428D83F542E45C0043A5EA0543F7540B4357861043226A1543EAEC1943C2FC1D43878921431D852443AAE32643C59B284398A6294300002A4300002A43C1C62943961B294333002843687726431D852443452E2243D5781F43B06B1C439A0E1943226A15438C871143BB700D43153009436DD00443E45C004399C1F7421FCFEE421EF9E5421156DD42F2FBD4420000CD428C76C542C272BE427C06B8421142B2422E34AD42ADE9A8427B6DA54276C8A2425601A142A41CA042A41CA0425601A14276C8A2427B6DA542ADE9A8422E34AD421142B2427C06B842C272BE428C76C5420000CD42F2FBD4421156DD421EF9E5421FCFEE4299C1F742E45C00436DD0044315300943BB700D438C871143226A15439A0E1943B06B1C43D5781F43452E22431D8524436877264333002843961B2943C1C6294300002A4300002A4398A62943C59B2843AAE326431D85244387892143C2FC1D43EAEC1943226A154357861043F7540B43A5EA0543E45C00438D83F542255FEA42D778DF42F2FBD4422212CB42CCE2C1426E92B9421142B242C60EAC423011A742235DA3425601A1422907A042E932A0425601A1420C6DA2428673A4423011A7426B41AA4295FEAD421142B2425704B742FE3CBC42CCE2C142C4EBC7423E4DCE42F2FBD44211ECDB425811E342255FEA4292C8F1428440F942E45C004395130443C4BD0743F7540B43D7D20E4336311243226A1543E877184323551B43C2FC1D43156A2043D29822431D852443902B264341892743C59B2843386129433CD8294300002A43');
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (1, 'Diamond Push-ups', 'Advanced push-up variation targeting triceps', '1. Start in plank position with hands close together forming a diamond' || char(10) || '2. Lower body keeping elbows close to body' || char(10) || '3. Push back up', 'Triceps, Chest', 'None', 3, 8, 60, 2, 0, NULL, NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (1, 'Pike Push-ups', 'Shoulder-focused push-up variation', '1. Start in downward dog position' || char(10) || '2. Lower head toward hands' || char(10) || '3. Push back up to starting position', 'Shoulders, Triceps', 'None', 3, 10, 60, 3, 0, NULL, NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (1, 'Plank', 'Core strengthening exercise', '1. Start in push-up position' || char(10) || '2. Hold body straight from head to heels' || char(10) || '3. Engage core and hold position', 'Core, Shoulders', 'None', 3, 30, 60, 4, 1, X'01080000803F0000C07F0000C07F0000C07F0000C07F0000803F0000C07F0000C07F', NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (2, 'Squats', 'Fundamental lower body exercise', '1. Stand with feet shoulder-width apart' || char(10) || '2. Lower body as if sitting back into a chair' || char(10) || '3. Keep knees behind toes' || char(10) || '4. Return to standing position', 'Quadriceps, Glutes, Hamstrings', 'None', 4, 15, 60, 1, 1, X'01080000C07F0000803F0000803F0000C07F0000C07F0000C07F0000C07F0000C07F', NULL, X'010300400000002F4372DA2E430A6A2E4390AF2D434BAC2C4308622B430DD329431B02284369F225439BA72343BD2521433F711E43E78E1B43D0831843595515432209124300A50E43F02E0B4310AD074394250443B79E00436A3DFA427D57F342D797EC42650AE642BBBADF4200B4D942DD00D44262ABCE42FDBCC942663EC5428D37C14290AFBD42ADACBA423734B8428B4AB6420BF3B4421430B442C306B4420BF3B4424C2DB742ADACBA424A63BF42663EC542BD26CC42DD00D44292ADDC42650AE64221F2EF426A3DFA42AD61024310AD0743D4EB0C4322091243A8F01643E78E1B4387D11F439BA72343E30127430DD32943E80F2C4390AF2D4390AB2E4300002F4300002F43EFC92E4347282E43A21C2D43A9A92B430DD329437A9D2743900E2543D12C224392FF1E43E78E1B4392E31743E9061443BF0210434BE10B4310AD0743C1700343486EFE42F215F642BBEDED42650AE6420080DE42BD61D742B7C1D042CBB0CA42663EC5426478C042EB6ABC424A20B942E1A0B6420BF3B4420D1BB4420D1BB4420BF3B442E1A0B6424A20B942EB6ABC426478C042663EC542CBB0CA42B7C1D042BD61D7420080DE42650AE642BBEDED42F215F642486EFE42C170034310AD07434BE10B43BF021043E906144392E31743E78E1B4392FF1E43D12C2243900E25437A9D27430DD32943A9A92B43A21C2D4347282E43EFC92E4300002F4300002F4390AB2E4390AF2D43E80F2C430DD32943E30127439BA7234387D11F43E78E1B43A8F0164322091243D4EB0C4310AD0743AD6102436A3DFA4221F2EF42650AE64292ADDC42DD00D442BD26CC42663EC5424A63BF42ADACBA424C2DB7420BF3B442C306B4421430B4420BF3B4428B4AB6423734B842ADACBA4290AFBD428D37C142663EC542FDBCC94262ABCE42DD00D44200B4D942BBBADF42650AE642D797EC427D57F3426A3DFA42B79E00439425044310AD0743F02E0B4300A50E432209124359551543D0831843E78E1B433F711E43BD2521439BA7234369F225431B0228430DD3294308622B434BAC2C4390AF2D430A6A2E4372DA2E4300002F43');
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (2, 'Lunges', 'Single-leg strength and balance exercise', '1. Step forward with one leg' || char(10) || '2. Lower body until both knees are at 90 degrees' || char(10) || '3. Push back to starting position' || char(10) || '4. Repeat with other leg', 'Quadriceps, Glutes, Hamstrings', 'None', 3, 12, 60, 2, 1, X'01080000C07F0000C07F0000803F0000C07F0000C07F0000C07F0000803F0000C07F', NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (2, 'Glute Bridges', 'Targeted glute strengthening exercise', '1. Lie on back with knees bent' || char(10) || '2. Lift hips up squeezing glutes' || char(10) || '3. Hold briefly at top' || char(10) || '4. Lower with control', 'Glutes, Hamstrings', 'None', 3, 15, 45, 3, 0, NULL, NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (2, 'Calf Raises', 'Isolated calf muscle exercise', '1. Stand with feet hip-width apart' || char(10) || '2. Rise up onto toes' || char(10) || '3. Hold briefly at top' || char(10) || '4. Lower with control', 'Calves', 'None', 3, 20, 30, 4, 0, NULL, NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (3, 'Burpees', 'Full-body high-intensity exercise', '1. Start standing' || char(10) || '2. Drop to push-up position' || char(10) || '3. Do a push-up' || char(10) || '4. Jump feet to hands' || char(10) || '5. Jump up with arms overhead', 'Full Body', 'None', 4, 8, 30, 1, 0, NULL, NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (3, 'Mountain Climbers', 'High-intensity cardio exercise', '1. Start in plank position' || char(10) || '2. Alternate bringing knees to chest' || char(10) || '3. Keep core engaged throughout', 'Core, Cardio', 'None', 4, 20, 30, 2, 1, X'01080000803F0000C07F0000C07F0000C07F0000C07F0000C07F0000C07F0000803F', NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (3, 'Jumping Jacks', 'Classic cardio exercise', '1. Start standing with arms at sides' || char(10) || '2. Jump feet apart while raising arms overhead' || char(10) || '3. Jump back to starting position', 'Cardio, Full Body', 'None', 3, 30, 30, 3, 0, NULL, NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (3, 'High Knees', 'Running in place with high knees', '1. Run in place' || char(10) || '2. Bring knees up to hip level' || char(10) || '3. Pump arms naturally', 'Cardio, Legs', 'None', 3, 30, 30, 4, 0, NULL, NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (4, 'Cat-Cow Stretch', 'Spinal mobility exercise', '1. Start on hands and knees' || char(10) || '2. Arch back (cow) then round spine (cat)' || char(10) || '3. Move slowly and breathe deeply', 'Spine, Core', 'None', 2, 10, 30, 1, 0, NULL, NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (4, 'Downward Dog', 'Full-body stretch', '1. Start on hands and knees' || char(10) || '2. Tuck toes and lift hips up' || char(10) || '3. Straighten legs as much as comfortable' || char(10) || '4. Hold position', 'Hamstrings, Calves, Shoulders', 'None', 3, 30, 45, 2, 0, NULL, NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (4, 'Pigeon Pose', 'Hip opening stretch', '1. Start in downward dog' || char(10) || '2. Bring one knee forward between hands' || char(10) || '3. Extend other leg back' || char(10) || '4. Lower to forearms for deeper stretch', 'Hips, Glutes', 'None', 2, 45, 60, 3, 0, NULL, NULL, NULL);
+INSERT INTO `exercises` (workoutId, name, description, instructions, targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl, referenceTrajectories) VALUES (4, 'Child''s Pose', 'Relaxing stretch for back and hips', '1. Kneel on floor' || char(10) || '2. Sit back on heels' || char(10) || '3. Extend arms forward' || char(10) || '4. Rest forehead on floor', 'Back, Hips, Shoulders', 'None', 2, 60, 30, 4, 0, NULL, NULL, NULL);
+
+INSERT INTO `catalog_meta` (catalog, version, contentHash, seededAt) VALUES ('system', 1, '9140cc907d64c1ba5931b30fa26eb3bb2e527b53e29aac470fb2a8425e2c6c32', 1760000000000);
+
+INSERT INTO catalog_search (rowid, workoutId, exerciseId, ownerId, name, description, instructions, targetMuscles, equipment, workoutName, category) SELECT w.id * 2 + 1, w.id, 0, COALESCE(CASE WHEN w.isCustom THEN w.userId ELSE 0 END, 0), w.name, w.description, NULL, NULL, NULL, NULL, w.category FROM workouts w;
+INSERT INTO catalog_search (rowid, workoutId, exerciseId, ownerId, name, description, instructions, targetMuscles, equipment, workoutName, category) SELECT e.id * 2, e.workoutId, e.id, COALESCE(CASE WHEN w.isCustom THEN w.userId ELSE 0 END, 0), e.name, e.description, e.instructions, e.targetMuscles, e.equipment, w.name, w.category FROM exercises e LEFT JOIN workouts w ON w.id = e.workoutId;
+INSERT INTO catalog_search (catalog_search) VALUES ('optimize');
+
+CREATE TRIGGER IF NOT EXISTS `catalog_search_exercise_insert` AFTER INSERT ON `exercises` BEGIN INSERT INTO catalog_search (rowid, workoutId, exerciseId, ownerId, name, description, instructions, targetMuscles, equipment, workoutName, category) SELECT e.id * 2, e.workoutId, e.id, COALESCE(CASE WHEN w.isCustom THEN w.userId ELSE 0 END, 0), e.name, e.description, e.instructions, e.targetMuscles, e.equipment, w.name, w.category FROM exercises e LEFT JOIN workouts w ON w.id = e.workoutId WHERE e.id = new.id; END;
+CREATE TRIGGER IF NOT EXISTS `catalog_search_exercise_update` AFTER UPDATE ON `exercises` WHEN old.workoutId IS NOT new.workoutId OR old.name IS NOT new.name OR old.description IS NOT new.description OR old.instructions IS NOT new.instructions OR old.targetMuscles IS NOT new.targetMuscles OR old.equipment IS NOT new.equipment BEGIN DELETE FROM catalog_search WHERE rowid = old.id * 2; INSERT INTO catalog_search (rowid, workoutId, exerciseId, ownerId, name, description, instructions, targetMuscles, equipment, workoutName, category) SELECT e.id * 2, e.workoutId, e.id, COALESCE(CASE WHEN w.isCustom THEN w.userId ELSE 0 END, 0), e.name, e.description, e.instructions, e.targetMuscles, e.equipment, w.name, w.category FROM exercises e LEFT JOIN workouts w ON w.id = e.workoutId WHERE e.id = new.id; END;
+CREATE TRIGGER IF NOT EXISTS `catalog_search_exercise_delete` AFTER DELETE ON `exercises` BEGIN DELETE FROM catalog_search WHERE rowid = old.id * 2; END;
+CREATE TRIGGER IF NOT EXISTS `catalog_search_workout_insert` AFTER INSERT ON `workouts` BEGIN INSERT INTO catalog_search (rowid, workoutId, exerciseId, ownerId, name, description, instructions, targetMuscles, equipment, workoutName, category) SELECT w.id * 2 + 1, w.id, 0, COALESCE(CASE WHEN w.isCustom THEN w.userId ELSE 0 END, 0), w.name, w.description, NULL, NULL, NULL, NULL, w.category FROM workouts w WHERE w.id = new.id; END;
+CREATE TRIGGER IF NOT EXISTS `catalog_search_workout_update` AFTER UPDATE ON `workouts` WHEN old.name IS NOT new.name OR old.description IS NOT new.description OR old.category IS NOT new.category OR old.userId IS NOT new.userId OR old.isCustom IS NOT new.isCustom BEGIN DELETE FROM catalog_search WHERE rowid = old.id * 2 + 1; INSERT INTO catalog_search (rowid, workoutId, exerciseId, ownerId, name, description, instructions, targetMuscles, equipment, workoutName, category) SELECT w.id * 2 + 1, w.id, 0, COALESCE(CASE WHEN w.isCustom THEN w.userId ELSE 0 END, 0), w.name, w.description, NULL, NULL, NULL, NULL, w.category FROM workouts w WHERE w.id = new.id; DELETE FROM catalog_search WHERE rowid IN (SELECT id * 2 FROM exercises WHERE workoutId = new.id); INSERT INTO catalog_search (rowid, workoutId, exerciseId, ownerId, name, description, instructions, targetMuscles, equipment, workoutName, category) SELECT e.id * 2, e.workoutId, e.id, COALESCE(CASE WHEN w.isCustom THEN w.userId ELSE 0 END, 0), e.name, e.description, e.instructions, e.targetMuscles, e.equipment, w.name, w.category FROM exercises e LEFT JOIN workouts w ON w.id = e.workoutId WHERE e.workoutId = new.id; END;
+CREATE TRIGGER IF NOT EXISTS `catalog_search_workout_delete` AFTER DELETE ON `workouts` BEGIN DELETE FROM catalog_search WHERE rowid = old.id * 2 + 1; END;
+
+COMMIT;
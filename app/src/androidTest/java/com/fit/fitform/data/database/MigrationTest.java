@@ -0,0 +1,108 @@
+package com.fit.fitform.data.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.database.Cursor;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import java.io.IOException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Migrates databases created from the exported schemas in app/schemas and validates the result
+ * against the current schema, with a little data to check the backfills.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+
+    private static final String FITFORM_DB = "migration-test-fitform";
+    private static final String TELEMETRY_DB = "migration-test-telemetry";
+
+    @Rule
+    public final MigrationTestHelper fitFormHelper = new MigrationTestHelper(
+        InstrumentationRegistry.getInstrumentation(), FitFormDatabase.class);
+
+    @Rule
+    public final MigrationTestHelper telemetryHelper = new MigrationTestHelper(
+        InstrumentationRegistry.getInstrumentation(), TelemetryDatabase.class);
+
+    @Test
+    public void fitFormMigratesFrom3To12() throws IOException {
+        long startTime = 1_700_000_000_000L;
+        try (SupportSQLiteDatabase db = fitFormHelper.createDatabase(FITFORM_DB, 3)) {
+            db.execSQL("INSERT INTO users (id, firebaseUid, email, username, createdAt) "
+                + "VALUES (1, 'uid-1', 'a@example.com', 'a', 0)");
+            db.execSQL("INSERT INTO workouts (id, userId, name, description, category, estimatedDuration, "
+                + "difficulty, createdAt, isCustom) VALUES (1, 0, 'Upper Body', 'Push day', 'Strength', 20, "
+                + "'Medium', 0, 0)");
+            db.execSQL("INSERT INTO exercises (id, workoutId, name, description, instructions, targetMuscles, "
+                + "equipment, sets, reps, restTime, `order`, hasFormAnalysis, formCheckpoints, gifUrl) "
+                + "VALUES (1, 1, 'Push-ups', 'Chest press', 'Keep a straight line', 'Chest,Triceps', 'None', "
+                + "3, 10, 60, 0, 1, '{\"body_straight\":true}', NULL)");
+            db.execSQL("INSERT INTO workout_sessions (id, userId, workoutId, startTime, endTime, totalDuration, "
+                + "caloriesBurned, isCompleted, notes) VALUES (1, 1, 1, " + startTime + ", "
+                + (startTime + 1_200_000L) + ", 20, 150, 1, NULL)");
+            db.execSQL("INSERT INTO exercise_sets (id, sessionId, exerciseId, setNumber, reps, weight, duration, "
+                + "formScore, completedAt) VALUES (1, 1, 1, 1, 12, NULL, NULL, 0.8, " + startTime + ")");
+            db.execSQL("INSERT INTO form_analysis (id, exerciseSetId, timestamp, overallScore, feedback, "
+                + "keyPointScores, recommendations) VALUES (1, 1, " + startTime + ", 0.8, "
+                + "'{\"body_straight\":0.25}', '{\"body_straight\":0.75}', NULL)");
+        }
+
+        SupportSQLiteDatabase db = fitFormHelper.runMigrationsAndValidate(FITFORM_DB, 12, true, Migrations.ALL);
+
+        try (Cursor cursor = db.query("SELECT formCheckpoints, referenceTrajectories FROM exercises WHERE id = 1")) {
+            assertTrue(cursor.moveToFirst());
+            assertNotNull(cursor.getBlob(0));
+            // Left for CatalogSeeder, so the upgrade does not depend on the current templates
+            assertNull(cursor.getBlob(1));
+        }
+        try (Cursor cursor = db.query("SELECT sessionCount, setCount, repCount FROM daily_summaries "
+                + "WHERE userId = 1 AND exercise = '*'")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(1, cursor.getInt(0));
+            assertEquals(1, cursor.getInt(1));
+            assertEquals(12, cursor.getInt(2));
+        }
+        try (Cursor cursor = db.query("SELECT feedback FROM " + TelemetryDatabase.LEGACY_TABLE + " WHERE id = 1")) {
+            assertTrue(cursor.moveToFirst());
+            assertNotNull(cursor.getBlob(0));
+        }
+        try (Cursor cursor = db.query("SELECT rowid FROM catalog_search WHERE catalog_search MATCH 'push*' "
+                + "ORDER BY rowid")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(2L, cursor.getLong(0));
+        }
+        // The triggers keep the index in step with later writes
+        db.execSQL("UPDATE exercises SET name = 'Diamond push-ups' WHERE id = 1");
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM catalog_search WHERE catalog_search MATCH 'diamond'")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(1, cursor.getInt(0));
+        }
+        db.close();
+    }
+
+    @Test
+    public void telemetryMigratesFrom1To2() throws IOException {
+        try (SupportSQLiteDatabase db = telemetryHelper.createDatabase(TELEMETRY_DB, 1)) {
+            db.execSQL("INSERT INTO form_analysis (id, exerciseSetId, timestamp, overallScore, repNumber) "
+                + "VALUES (1, 1, 0, 0.5, 1)");
+        }
+
+        SupportSQLiteDatabase db = telemetryHelper.runMigrationsAndValidate(
+            TELEMETRY_DB, 2, true, TelemetryMigrations.ALL);
+
+        try (Cursor cursor = db.query("SELECT COUNT(*) FROM form_analysis")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(1, cursor.getInt(0));
+        }
+        db.close();
+    }
+}
@@ -0,0 +1,88 @@
+package com.fit.fitform.core.concurrent;
+
+import android.os.Process;
+import android.util.Log;
+
+/**
+ * App-wide thread pools, one per kind of work.
+ * Every pool is a {@link MeteredExecutor} with a fixed thread count, so saturation shows up as
+ * queue depth and wait time instead of an ever-growing thread count. App pools have bounded
+ * queues and reject when full; the pools handed to Room never reject, because Room has no way to
+ * recover from a rejected query or transaction. Components that need ordered, single-threaded
+ * execution wrap a pool in a {@link SerialExecutor}.
+ */
+public final class AppExecutors {
+
+    private static final String TAG = "AppExecutors";
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    /** Database and file work started by the app; slightly above background for UI-facing reads */
+    private static final MeteredExecutor DISK_IO = new MeteredExecutor("disk-io", 4, 256,
+        Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_MORE_FAVORABLE);
+
+    /** Room queries and transactions on the main database; unbounded, see the class comment */
+    private static final MeteredExecutor DATABASE = new MeteredExecutor("database", 4,
+        Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_MORE_FAVORABLE);
+
+    /** Room queries and transactions on the telemetry database; unbounded, see the class comment */
+    private static final MeteredExecutor TELEMETRY_DATABASE = new MeteredExecutor("telemetry-db", 2,
+        Process.THREAD_PRIORITY_BACKGROUND);
+
+    /** Analysis telemetry writes, kept off the disk I/O pool so they never delay screen queries */
+    private static final MeteredExecutor TELEMETRY = new MeteredExecutor("telemetry", 2, 256,
+        Process.THREAD_PRIORITY_BACKGROUND);
+
+    /** Compute-bound work such as trajectory matching and exercise recognition */
+    private static final MeteredExecutor CPU = new MeteredExecutor("cpu", CORES, 128,
+        Process.THREAD_PRIORITY_BACKGROUND);
+
+    /**
+     * Camera frame analysis. One thread: CameraX hands over one frame at a time, and a frame
+     * that waits is already stale.
+     */
+    private static final MeteredExecutor POSE = new MeteredExecutor("pose", 1, 4,
+        Process.THREAD_PRIORITY_DISPLAY);
+
+    private AppExecutors() {}
+
+    /** @return Pool for database and file work */
+    public static MeteredExecutor diskIo() {
+        return DISK_IO;
+    }
+
+    /** @return Pool for the telemetry database */
+    public static MeteredExecutor telemetry() {
+        return TELEMETRY;
+    }
+
+    /** @return Room's query and transaction pool for the main database; never rejects */
+    public static MeteredExecutor database() {
+        return DATABASE;
+    }
+
+    /** @return Room's query and transaction pool for the telemetry database; never rejects */
+    public static MeteredExecutor telemetryDatabase() {
+        return TELEMETRY_DATABASE;
+    }
+
+    /** @return Pool for compute-bound work, sized to the cores */
+    public static MeteredExecutor cpu() {
+        return CPU;
+    }
+
+    /** @return Executor for camera frame analysis */
+    public static MeteredExecutor pose() {
+        return POSE;
+    }
+
+    /**
+     * Logs queue depth, latency and rejections of every pool
+     */
+    public static void logStats() {
+        for (MeteredExecutor executor : new MeteredExecutor[] {
+            DISK_IO, DATABASE, TELEMETRY, TELEMETRY_DATABASE, CPU, POSE}) {
+            Log.d(TAG, executor.toString());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.fit.fitform.core.concurrent;
+
+import android.os.Process;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size thread pool that records how long tasks wait and run.
+ * Threads are named after the pool, run at a fixed Android thread priority and exit after
+ * idling. With a bounded queue, a full queue rejects new tasks with
+ * {@link RejectedExecutionException} and counts them; an unbounded pool only rejects after
+ * shutdown.
+ */
+public final class MeteredExecutor extends ThreadPoolExecutor {
+
+    private static final String TAG = "MeteredExecutor";
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final String name;
+
+    // Counters
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong finished = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    /**
+     * @param name Pool name, used for thread names and logs
+     * @param threads Number of threads
+     * @param queueCapacity Tasks that can wait before new ones are rejected
+     * @param threadPriority Android thread priority, e.g. {@link Process#THREAD_PRIORITY_BACKGROUND}
+     */
+    public MeteredExecutor(String name, int threads, int queueCapacity, int threadPriority) {
+        this(name, threads, new ArrayBlockingQueue<>(queueCapacity), threadPriority);
+    }
+
+    /**
+     * Creates a pool whose queue never fills, for callers such as Room that cannot handle a
+     * rejection. Queue depth and wait times still show saturation.
+     * @param name Pool name, used for thread names and logs
+     * @param threads Number of threads
+     * @param threadPriority Android thread priority, e.g. {@link Process#THREAD_PRIORITY_BACKGROUND}
+     */
+    public MeteredExecutor(String name, int threads, int threadPriority) {
+        this(name, threads, new LinkedBlockingQueue<>(), threadPriority);
+    }
+
+    private MeteredExecutor(String name, int threads, BlockingQueue<Runnable> queue, int threadPriority) {
+        super(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue,
+            new PriorityThreadFactory(name, threadPriority));
+        this.name = name;
+        allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        long enqueuedNanos = System.nanoTime();
+        try {
+            super.execute(() -> {
+                long startNanos = System.nanoTime();
+                record(totalWaitNanos, maxWaitNanos, startNanos - enqueuedNanos);
+                try {
+                    command.run();
+                } finally {
+                    record(totalRunNanos, maxRunNanos, System.nanoTime() - startNanos);
+                    finished.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            if (!isShutdown()) {
+                Log.w(TAG, name + " queue full, task rejected");
+            }
+            throw e;
+        }
+    }
+
+    private static void record(AtomicLong total, AtomicLong max, long nanos) {
+        total.addAndGet(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /** @return Pool name */
+    public String getName() {
+        return name;
+    }
+
+    /** @return Tasks waiting for a thread */
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    /** @return Tasks turned away because the queue was full */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /** @return Mean time from submission to start, in milliseconds */
+    public double getAverageWaitMillis() {
+        long count = finished.get();
+        return count == 0 ? 0.0 : totalWaitNanos.get() / 1e6 / count;
+    }
+
+    /** @return Longest time a task waited to start, in milliseconds */
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1e6;
+    }
+
+    /** @return Mean task run time, in milliseconds */
+    public double getAverageRunMillis() {
+        long count = finished.get();
+        return count == 0 ? 0.0 : totalRunNanos.get() / 1e6 / count;
+    }
+
+    /** @return Longest task run time, in milliseconds */
+    public double getMaxRunMillis() {
+        return maxRunNanos.get() / 1e6;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+            "%s: %d threads, %d active, %d queued, %d done, %d rejected, wait avg %.1f max %.1f ms, run avg %.1f max %.1f ms",
+            name, getPoolSize(), getActiveCount(), getQueueDepth(), finished.get(), rejected.get(),
+            getAverageWaitMillis(), getMaxWaitMillis(), getAverageRunMillis(), getMaxRunMillis());
+    }
+
+    private static final class PriorityThreadFactory implements ThreadFactory {
+        private final String name;
+        private final int priority;
+        private final AtomicInteger count = new AtomicInteger();
+
+        PriorityThreadFactory(String name, int priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            return new Thread(() -> {
+                try {
+                    Process.setThreadPriority(priority);
+                } catch (SecurityException e) {
+                    Log.w(TAG, "Cannot set priority " + priority + " for " + name);
+                }
+                runnable.run();
+            }, "fitform-" + name + "-" + count.incrementAndGet());
+        }
+    }
+}
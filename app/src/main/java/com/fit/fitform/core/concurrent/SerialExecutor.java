@@ -0,0 +1,125 @@
+package com.fit.fitform.core.concurrent;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs tasks one at a time, in submission order, on a shared pool.
+ * Gives a component the guarantees of its own single thread, so state can stay confined to
+ * "the executor", without owning a thread. Shutting it down only affects this queue.
+ * A task that was accepted always runs: if the pool rejects the hand-off to the next queued
+ * task, the thread that finished the previous one runs it, so futures queued behind a write
+ * still complete when the pool is saturated.
+ */
+public final class SerialExecutor implements Executor {
+
+    private static final String TAG = "SerialExecutor";
+
+    private final Executor delegate;
+    private final Runnable runNext = this::runNext;
+
+    // Guarded by this
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    private boolean active;
+    private boolean shutdown;
+
+    /**
+     * @param delegate Pool the tasks run on
+     */
+    public SerialExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @throws RejectedExecutionException If shut down, or if the queue was idle and the pool
+     *                                    rejected the task; nothing else is dropped
+     */
+    @Override
+    public synchronized void execute(@NonNull Runnable command) {
+        if (shutdown) {
+            throw new RejectedExecutionException("SerialExecutor shut down");
+        }
+        tasks.add(command);
+        if (!active) {
+            try {
+                delegate.execute(runNext);
+                active = true;
+            } catch (RejectedExecutionException e) {
+                // The queue was idle, so this is the only task in it
+                tasks.clear();
+                throw e;
+            }
+        }
+    }
+
+    // Runs on a pool thread, one at a time
+    private void runNext() {
+        Runnable task;
+        synchronized (this) {
+            task = tasks.poll();
+        }
+        try {
+            if (task != null) {
+                task.run();
+            }
+        } finally {
+            scheduleNext();
+        }
+    }
+
+    private void scheduleNext() {
+        while (true) {
+            Runnable task;
+            synchronized (this) {
+                if (tasks.isEmpty()) {
+                    active = false;
+                    return;
+                }
+                try {
+                    delegate.execute(runNext);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Pool saturated or gone: run the next task here, still in order
+                    task = tasks.poll();
+                }
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Task failed", e);
+            }
+        }
+    }
+
+    /**
+     * Rejects new tasks; queued ones still run
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+    }
+
+    /**
+     * Rejects new tasks and drops queued ones, cancelling those that are futures; a running
+     * task finishes
+     */
+    public void shutdownNow() {
+        List<Runnable> dropped;
+        synchronized (this) {
+            shutdown = true;
+            dropped = new ArrayList<>(tasks);
+            tasks.clear();
+        }
+        // Outside the lock, since cancelling runs the futures' listeners
+        for (Runnable task : dropped) {
+            if (task instanceof Future) {
+                ((Future<?>) task).cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.fit.fitform.core.session;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.core.concurrent.SerialExecutor;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.entity.User;
+import com.fit.fitform.data.repository.UserRepository;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import java.util.Objects;
+
+/**
+ * Process-wide source of the signed-in user's Room row.
+ * The Firebase uid is resolved to a {@link User} once, creating the row on first sign-in, and
+ * the result is kept until Firebase reports a different auth state. The lookup is an async
+ * query on Room's executor; only creating a missing row goes through a serial executor, so
+ * two lookups for the same uid cannot both insert it. Screens observe
+ * {@link #getUser()}; background work chains onto {@link #getUserIdAsync()}.
+ */
+public final class CurrentUserProvider implements FirebaseAuth.AuthStateListener {
+
+    private static final String TAG = "CurrentUserProvider";
+
+    private static volatile CurrentUserProvider instance;
+
+    private final UserRepository userRepository;
+    private final SerialExecutor executor = new SerialExecutor(AppExecutors.diskIo());
+    private final MutableLiveData<User> user = new MutableLiveData<>();
+
+    // Guarded by this
+    private String resolvedUid;
+    private ListenableFuture<User> resolution;
+
+    private CurrentUserProvider(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Gets the provider, starting to follow Firebase auth state on first use
+     * @param context Any context; the application context is kept
+     * @return Shared provider
+     */
+    public static CurrentUserProvider get(Context context) {
+        if (instance == null) {
+            synchronized (CurrentUserProvider.class) {
+                if (instance == null) {
+                    CurrentUserProvider provider = new CurrentUserProvider(new UserRepository(
+                        FitFormDatabase.getDatabase(context.getApplicationContext()).userDao()));
+                    // Called back right away with the current state, which starts the first lookup
+                    FirebaseAuth.getInstance().addAuthStateListener(provider);
+                    instance = provider;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return LiveData of the signed-in user, null while signed out; unset until first resolved
+     */
+    public LiveData<User> getUser() {
+        return user;
+    }
+
+    /**
+     * Resolves the signed-in user's id without blocking. Chain work onto the future rather than
+     * waiting for it on a pool thread, which could starve the pool that runs the lookup.
+     * @return Future of the user's id, or of -1 if signed out or the lookup failed; never fails
+     */
+    public ListenableFuture<Long> getUserIdAsync() {
+        ListenableFuture<User> future = refresh(FirebaseAuth.getInstance().getCurrentUser());
+        ListenableFuture<User> recovered = Futures.catching(future, Exception.class, e -> {
+            Log.e(TAG, "Failed to resolve the current user", e);
+            synchronized (this) {
+                // Let the next call retry
+                if (resolution == future) {
+                    resolution = null;
+                }
+            }
+            return null;
+        }, MoreExecutors.directExecutor());
+        return Futures.transform(recovered, current -> current != null ? current.getId() : -1L,
+            MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public void onAuthStateChanged(@NonNull FirebaseAuth auth) {
+        refresh(auth.getCurrentUser());
+    }
+
+    /**
+     * Starts a lookup unless one for the same uid is done or running
+     */
+    private synchronized ListenableFuture<User> refresh(FirebaseUser firebaseUser) {
+        String uid = firebaseUser != null ? firebaseUser.getUid() : null;
+        if (resolution != null && Objects.equals(uid, resolvedUid)) {
+            return resolution;
+        }
+        resolvedUid = uid;
+        if (uid == null) {
+            resolution = Futures.immediateFuture(null);
+            user.postValue(null);
+            return resolution;
+        }
+        String email = firebaseUser.getEmail();
+        String displayName = firebaseUser.getDisplayName();
+        ListenableFuture<User> lookup = Futures.transformAsync(userRepository.getUserByFirebaseUidAsync(uid),
+            existing -> existing != null ? Futures.immediateFuture(existing) : create(uid, email, displayName),
+            MoreExecutors.directExecutor());
+        // Sign-out posts null without waiting for a lookup, so only the still-current uid posts its user
+        resolution = Futures.transform(lookup, resolved -> {
+            synchronized (this) {
+                if (uid.equals(resolvedUid)) {
+                    user.postValue(resolved);
+                }
+            }
+            return resolved;
+        }, MoreExecutors.directExecutor());
+        return resolution;
+    }
+
+    /**
+     * Inserts the user's row on the serial executor, unless an earlier lookup already did
+     * @return Future of the user; fails if the disk pool rejects the insert, which the next
+     *     {@link #getUserIdAsync()} retries
+     */
+    private ListenableFuture<User> create(String uid, String email, String displayName) {
+        ListenableFutureTask<User> task = ListenableFutureTask.create(() -> {
+            User existing = userRepository.getUserByFirebaseUid(uid);
+            if (existing != null) {
+                return existing;
+            }
+            User created = new User(uid, email, displayName);
+            created.setId(userRepository.insertUser(created));
+            Log.d(TAG, "Created local user " + created.getId());
+            return created;
+        });
+        executor.execute(task);
+        return task;
+    }
+}
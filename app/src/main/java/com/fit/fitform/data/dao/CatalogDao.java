@@ -0,0 +1,106 @@
+package com.fit.fitform.data.dao;
+
+import androidx.room.*;
+import com.fit.fitform.data.entity.CatalogMeta;
+import com.fit.fitform.data.entity.Exercise;
+import com.fit.fitform.data.entity.Workout;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) interface for maintaining the built-in workout catalog.
+ * System workouts are identified by name and their exercises by (workoutId, name); these
+ * natural keys are what seeding matches on and what duplicates are merged by.
+ */
+@Dao
+public interface CatalogDao {
+
+    /** System workouts beyond the first of each name */
+    String DUPLICATE_WORKOUTS = "SELECT id FROM workouts WHERE userId = 0 AND isCustom = 0 AND name IS NOT NULL AND id NOT IN "
+        + "(SELECT MIN(id) FROM workouts WHERE userId = 0 AND isCustom = 0 GROUP BY name)";
+
+    /** Exercises of system workouts beyond the first of each (workoutId, name) */
+    String DUPLICATE_EXERCISES = "SELECT id FROM exercises "
+        + "WHERE workoutId IN (SELECT id FROM workouts WHERE userId = 0 AND isCustom = 0) "
+        + "AND name IS NOT NULL AND id NOT IN "
+        + "(SELECT MIN(id) FROM exercises GROUP BY workoutId, name)";
+
+    /** Points sessions of duplicate workouts at the kept workout */
+    String MERGE_WORKOUT_SESSIONS = "UPDATE workout_sessions SET workoutId = "
+        + "(SELECT MIN(k.id) FROM workouts k, workouts d WHERE d.id = workout_sessions.workoutId "
+        + "AND k.userId = 0 AND k.isCustom = 0 AND k.name = d.name) "
+        + "WHERE workoutId IN (" + DUPLICATE_WORKOUTS + ")";
+
+    /** Moves exercises of duplicate workouts to the kept workout, where they are merged in turn */
+    String MOVE_DUPLICATE_WORKOUT_EXERCISES = "UPDATE exercises SET workoutId = "
+        + "(SELECT MIN(k.id) FROM workouts k, workouts d WHERE d.id = exercises.workoutId "
+        + "AND k.userId = 0 AND k.isCustom = 0 AND k.name = d.name) "
+        + "WHERE workoutId IN (" + DUPLICATE_WORKOUTS + ")";
+
+    String DELETE_DUPLICATE_WORKOUTS = "DELETE FROM workouts WHERE id IN (" + DUPLICATE_WORKOUTS + ")";
+
+    /** Points sets of duplicate exercises at the kept exercise */
+    String MERGE_EXERCISE_SETS = "UPDATE exercise_sets SET exerciseId = "
+        + "(SELECT MIN(k.id) FROM exercises k, exercises d WHERE d.id = exercise_sets.exerciseId "
+        + "AND k.workoutId = d.workoutId AND k.name = d.name) "
+        + "WHERE exerciseId IN (" + DUPLICATE_EXERCISES + ")";
+
+    String DELETE_DUPLICATE_EXERCISES = "DELETE FROM exercises WHERE id IN (" + DUPLICATE_EXERCISES + ")";
+
+    /**
+     * Retrieves the seeding record of a catalog
+     * @param catalog Catalog key, e.g. {@link CatalogMeta#SYSTEM_CATALOG}
+     * @return CatalogMeta if the catalog was seeded, null otherwise
+     */
+    @Query("SELECT * FROM catalog_meta WHERE catalog = :catalog")
+    CatalogMeta getMeta(String catalog);
+
+    /**
+     * Inserts or replaces the seeding record of a catalog
+     * @param meta Seeding record
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertMeta(CatalogMeta meta);
+
+    /**
+     * Retrieves all system (non-custom, unowned) workouts
+     * @return List of system workouts
+     */
+    @Query("SELECT * FROM workouts WHERE userId = 0 AND isCustom = 0 ORDER BY id ASC")
+    List<Workout> getSystemWorkouts();
+
+    /**
+     * Retrieves the exercises of all system workouts
+     * @return List of exercises
+     */
+    @Query("SELECT * FROM exercises WHERE workoutId IN "
+        + "(SELECT id FROM workouts WHERE userId = 0 AND isCustom = 0) ORDER BY id ASC")
+    List<Exercise> getSystemExercises();
+
+    /**
+     * Merges system workouts and exercises that share a natural key into the oldest row,
+     * moving sessions and sets that refer to the removed rows
+     */
+    @Transaction
+    default void removeDuplicates() {
+        mergeWorkoutSessions();
+        moveDuplicateWorkoutExercises();
+        deleteDuplicateWorkouts();
+        mergeExerciseSets();
+        deleteDuplicateExercises();
+    }
+
+    @Query(MERGE_WORKOUT_SESSIONS)
+    void mergeWorkoutSessions();
+
+    @Query(MOVE_DUPLICATE_WORKOUT_EXERCISES)
+    void moveDuplicateWorkoutExercises();
+
+    @Query(DELETE_DUPLICATE_WORKOUTS)
+    int deleteDuplicateWorkouts();
+
+    @Query(MERGE_EXERCISE_SETS)
+    void mergeExerciseSets();
+
+    @Query(DELETE_DUPLICATE_EXERCISES)
+    int deleteDuplicateExercises();
+}
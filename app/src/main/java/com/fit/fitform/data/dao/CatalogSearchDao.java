@@ -0,0 +1,72 @@
+package com.fit.fitform.data.dao;
+
+import androidx.room.*;
+import com.fit.fitform.data.model.CatalogSearchHit;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) interface for the catalog_search full-text index.
+ * The index is maintained entirely by triggers on workouts and exercises, so DAOs writing
+ * those tables need no changes. MIGRATION_11_12 creates the table and triggers on upgraded
+ * databases, and the prepackaged catalog ships with them for new installs.
+ * Searches return matchinfo blobs that CatalogSearchRepository ranks with BM25.
+ */
+@Dao
+public interface CatalogSearchDao {
+
+    /** Index columns, in table order; matchinfo reports per-column statistics in this order */
+    String COLUMNS = "rowid, workoutId, exerciseId, ownerId, name, description, instructions, "
+        + "targetMuscles, equipment, workoutName, category";
+
+    /** Owner of a workout's rows: the user for custom workouts, 0 for the built-in catalog */
+    String OWNER = "COALESCE(CASE WHEN w.isCustom THEN w.userId ELSE 0 END, 0)";
+
+    /** Index rows of exercises e joined to their workouts w; append a WHERE clause */
+    String EXERCISE_ROWS = "INSERT INTO catalog_search (" + COLUMNS + ") "
+        + "SELECT e.id * 2, e.workoutId, e.id, " + OWNER + ", e.name, e.description, e.instructions, "
+        + "e.targetMuscles, e.equipment, w.name, w.category "
+        + "FROM exercises e LEFT JOIN workouts w ON w.id = e.workoutId ";
+
+    /** Index rows of workouts w; append a WHERE clause */
+    String WORKOUT_ROWS = "INSERT INTO catalog_search (" + COLUMNS + ") "
+        + "SELECT w.id * 2 + 1, w.id, 0, " + OWNER + ", w.name, w.description, NULL, NULL, NULL, NULL, w.category "
+        + "FROM workouts w ";
+
+    /** Merges the index's b-tree segments, which keeps prefix queries fast after bulk writes */
+    String OPTIMIZE = "INSERT INTO catalog_search (catalog_search) VALUES ('optimize')";
+
+    /**
+     * Finds index rows matching a full-text query among the built-in catalog and a user's own workouts
+     * @param match FTS4 MATCH expression, e.g. {@code "push* up*"}
+     * @param userId User whose custom workouts are included
+     * @param limit Most rows returned; ranking happens on the caller's side
+     * @return Matching rows with their matchinfo('pcnalx') statistics, unordered
+     */
+    @Query("SELECT workoutId, exerciseId, name, workoutName, category, "
+        + "matchinfo(catalog_search, 'pcnalx') AS matchInfo FROM catalog_search "
+        + "WHERE catalog_search MATCH :match AND ownerId IN (0, :userId) LIMIT :limit")
+    List<CatalogSearchHit> search(String match, long userId, int limit);
+
+    /**
+     * Rebuilds the whole index from the workout and exercise tables
+     */
+    @Transaction
+    default void rebuild() {
+        deleteAll();
+        insertWorkoutRows();
+        insertExerciseRows();
+        optimize();
+    }
+
+    @Query("DELETE FROM catalog_search")
+    void deleteAll();
+
+    @Query(WORKOUT_ROWS)
+    void insertWorkoutRows();
+
+    @Query(EXERCISE_ROWS)
+    void insertExerciseRows();
+
+    @Query(OPTIMIZE)
+    void optimize();
+}
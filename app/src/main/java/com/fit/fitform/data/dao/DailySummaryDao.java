@@ -0,0 +1,147 @@
+package com.fit.fitform.data.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.*;
+import com.fit.fitform.data.entity.DailySummary;
+import com.fit.fitform.data.model.SummaryTotals;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) interface for the daily_summaries rollup table.
+ * Totals are bumped incrementally whenever a session is completed, recovered or imported, and
+ * a user's rows can be rebuilt from the session and set tables, e.g. after a timezone change
+ * moved day boundaries. Range reads touch at most one row per day, however long the history.
+ */
+@Dao
+public interface DailySummaryDao {
+
+    /** Local calendar day of s.startTime, in days since 1970-01-01; matches {@link DailySummary#dayOf} */
+    String SESSION_DAY = "CAST(strftime('%s', s.startTime / 1000, 'unixepoch', 'localtime') AS INTEGER) / 86400";
+
+    /** Rebuild step 1: session totals into each day's '*' row */
+    String REBUILD_SESSIONS = "INSERT INTO daily_summaries (userId, day, exercise, sessionCount, "
+        + "totalMinutes, totalCalories, setCount, repCount, holdSeconds, formScoreSum, formScoreCount) "
+        + "SELECT s.userId, " + SESSION_DAY + ", '*', COUNT(*), COALESCE(SUM(s.totalDuration), 0), "
+        + "COALESCE(SUM(s.caloriesBurned), 0), 0, 0, 0, 0, 0 "
+        + "FROM workout_sessions s WHERE s.userId = :userId AND s.isCompleted = 1 GROUP BY 1, 2";
+
+    /** Rebuild step 2: set totals into per-exercise rows */
+    String REBUILD_SETS = "INSERT INTO daily_summaries (userId, day, exercise, sessionCount, "
+        + "totalMinutes, totalCalories, setCount, repCount, holdSeconds, formScoreSum, formScoreCount) "
+        + "SELECT s.userId, " + SESSION_DAY + ", COALESCE(e.exerciseType, 'UNKNOWN'), 0, 0, 0, "
+        + "COUNT(*), SUM(e.reps), COALESCE(SUM(e.duration), 0), COALESCE(SUM(e.formScore), 0), "
+        + "COUNT(e.formScore) "
+        + "FROM exercise_sets e JOIN workout_sessions s ON s.id = e.sessionId "
+        + "WHERE s.userId = :userId AND s.isCompleted = 1 GROUP BY 1, 2, 3";
+
+    /** Per-exercise rows of the outer row's user and day */
+    String SAME_DAY = "WHERE x.userId = daily_summaries.userId AND x.day = daily_summaries.day AND x.exercise <> '*'";
+
+    /** Rebuild step 3: per-exercise set totals summed into each day's '*' row */
+    String REBUILD_DAY_TOTALS = "UPDATE daily_summaries SET "
+        + "setCount = (SELECT COALESCE(SUM(x.setCount), 0) FROM daily_summaries x " + SAME_DAY + "), "
+        + "repCount = (SELECT COALESCE(SUM(x.repCount), 0) FROM daily_summaries x " + SAME_DAY + "), "
+        + "holdSeconds = (SELECT COALESCE(SUM(x.holdSeconds), 0) FROM daily_summaries x " + SAME_DAY + "), "
+        + "formScoreSum = (SELECT COALESCE(SUM(x.formScoreSum), 0) FROM daily_summaries x " + SAME_DAY + "), "
+        + "formScoreCount = (SELECT COALESCE(SUM(x.formScoreCount), 0) FROM daily_summaries x " + SAME_DAY + ") "
+        + "WHERE userId = :userId AND exercise = '*'";
+
+    String TOTALS = "SELECT COALESCE(SUM(sessionCount), 0) AS sessions, COALESCE(SUM(totalMinutes), 0) AS minutes, "
+        + "COALESCE(SUM(totalCalories), 0) AS calories, COALESCE(SUM(setCount), 0) AS sets, "
+        + "COALESCE(SUM(repCount), 0) AS reps, COALESCE(SUM(holdSeconds), 0) AS holdSeconds, "
+        + "COALESCE(SUM(formScoreSum), 0) AS formScoreSum, COALESCE(SUM(formScoreCount), 0) AS formScoreCount "
+        + "FROM daily_summaries WHERE userId = :userId AND exercise = :exercise AND day BETWEEN :fromDay AND :toDay";
+
+    /**
+     * Sums a user's totals over a range of days
+     * @param userId User's unique identifier
+     * @param exercise Exercise key, or {@link DailySummary#ALL_EXERCISES} for every exercise
+     * @param fromDay First day, inclusive, from {@link DailySummary#dayOf}
+     * @param toDay Last day, inclusive
+     * @return LiveData totals, zero when nothing was recorded
+     */
+    @Query(TOTALS)
+    LiveData<SummaryTotals> getTotals(long userId, String exercise, long fromDay, long toDay);
+
+    /**
+     * Retrieves one row per active day, for charts
+     * @param userId User's unique identifier
+     * @param exercise Exercise key, or {@link DailySummary#ALL_EXERCISES} for every exercise
+     * @param fromDay First day, inclusive
+     * @param toDay Last day, inclusive
+     * @return LiveData list of daily rows in day order; days without activity are missing
+     */
+    @Query("SELECT * FROM daily_summaries WHERE userId = :userId AND exercise = :exercise "
+        + "AND day BETWEEN :fromDay AND :toDay ORDER BY day ASC")
+    LiveData<List<DailySummary>> getDailySummaries(long userId, String exercise, long fromDay, long toDay);
+
+    /**
+     * Adds a completed session to its day's totals. Call inside the transaction that completes it.
+     * @param userId User's unique identifier
+     * @param day Day the session started, from {@link DailySummary#dayOf}
+     * @param minutes Session duration in minutes
+     * @param calories Calories burned
+     */
+    @Transaction
+    default void addSession(long userId, long day, int minutes, int calories) {
+        insertIfAbsent(new DailySummary(userId, day, DailySummary.ALL_EXERCISES));
+        bumpSession(userId, day, minutes, calories);
+    }
+
+    /**
+     * Adds a saved set to its exercise's and its day's totals. Call inside the transaction
+     * that completes the session.
+     * @param userId User's unique identifier
+     * @param day Day the session started, from {@link DailySummary#dayOf}
+     * @param exercise Exercise key of the set
+     * @param reps Correct reps
+     * @param holdSeconds Seconds held for time-based sets
+     * @param formScore Set form score, or null if not scored
+     */
+    @Transaction
+    default void addSet(long userId, long day, String exercise, int reps, int holdSeconds, Float formScore) {
+        double score = formScore != null ? formScore : 0.0;
+        int scored = formScore != null ? 1 : 0;
+        insertIfAbsent(new DailySummary(userId, day, exercise));
+        bumpSet(userId, day, exercise, reps, holdSeconds, score, scored);
+        insertIfAbsent(new DailySummary(userId, day, DailySummary.ALL_EXERCISES));
+        bumpSet(userId, day, DailySummary.ALL_EXERCISES, reps, holdSeconds, score, scored);
+    }
+
+    /**
+     * Recomputes a user's rows from the session and set tables, on today's day boundaries
+     * @param userId User's unique identifier
+     */
+    @Transaction
+    default void rebuild(long userId) {
+        deleteForUser(userId);
+        insertSessionRollups(userId);
+        insertSetRollups(userId);
+        fillDayTotals(userId);
+    }
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertIfAbsent(DailySummary summary);
+
+    @Query("UPDATE daily_summaries SET sessionCount = sessionCount + 1, totalMinutes = totalMinutes + :minutes, "
+        + "totalCalories = totalCalories + :calories WHERE userId = :userId AND day = :day AND exercise = '*'")
+    void bumpSession(long userId, long day, int minutes, int calories);
+
+    @Query("UPDATE daily_summaries SET setCount = setCount + 1, repCount = repCount + :reps, "
+        + "holdSeconds = holdSeconds + :holdSeconds, formScoreSum = formScoreSum + :formScore, "
+        + "formScoreCount = formScoreCount + :scored "
+        + "WHERE userId = :userId AND day = :day AND exercise = :exercise")
+    void bumpSet(long userId, long day, String exercise, int reps, int holdSeconds, double formScore, int scored);
+
+    @Query("DELETE FROM daily_summaries WHERE userId = :userId")
+    void deleteForUser(long userId);
+
+    @Query(REBUILD_SESSIONS)
+    void insertSessionRollups(long userId);
+
+    @Query(REBUILD_SETS)
+    void insertSetRollups(long userId);
+
+    @Query(REBUILD_DAY_TOTALS)
+    void fillDayTotals(long userId);
+}
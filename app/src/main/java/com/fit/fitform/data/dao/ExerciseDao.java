@@ -2,6 +2,7 @@ package com.fit.fitform.data.dao;
 import androidx.lifecycle.LiveData;
 import androidx.room.*;
 import com.fit.fitform.data.entity.Exercise;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.List;
 
 /**
@@ -28,6 +29,23 @@ public interface ExerciseDao {
     @Query("SELECT * FROM exercises WHERE id = :exerciseId")
     Exercise getExerciseById(long exerciseId);
     
+    /**
+     * Async variant of {@link #getExerciseById}, run on the Room query executor
+     * @param exerciseId Exercise's unique identifier
+     * @return Future of the exercise, or of null if not found
+     */
+    @Query("SELECT * FROM exercises WHERE id = :exerciseId")
+    ListenableFuture<Exercise> getExerciseByIdAsync(long exerciseId);
+    
+    /**
+     * Finds an exercise of a workout by name
+     * @param workoutId Workout's unique identifier
+     * @param name Exercise name
+     * @return Exercise id, or null if the workout has no exercise of that name
+     */
+    @Query("SELECT id FROM exercises WHERE workoutId = :workoutId AND name = :name LIMIT 1")
+    Long findExerciseIdByName(long workoutId, String name);
+    
     /**
      * Retrieves all exercises that support form analysis
      * @return LiveData list of exercises with form analysis capabilities
@@ -35,6 +53,14 @@ public interface ExerciseDao {
     @Query("SELECT * FROM exercises WHERE hasFormAnalysis = 1")
     LiveData<List<Exercise>> getExercisesWithFormAnalysis();
     
+    /**
+     * Retrieves the encoded reference rep trajectories of a catalog exercise
+     * @param name Exercise name, e.g. "Squats"
+     * @return Encoded templates, or null if the exercise has none
+     */
+    @Query("SELECT referenceTrajectories FROM exercises WHERE name = :name AND referenceTrajectories IS NOT NULL LIMIT 1")
+    byte[] getReferenceTrajectories(String name);
+    
     /**
      * Inserts a new exercise into the database
      * @param exercise Exercise object to insert
@@ -43,6 +69,14 @@ public interface ExerciseDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insertExercise(Exercise exercise);
     
+    /**
+     * Inserts several exercises with one prepared statement
+     * @param exercises Exercise objects to insert
+     * @return The IDs of the newly inserted exercises, in order
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    List<Long> insertExercises(List<Exercise> exercises);
+    
     /**
      * Updates an existing exercise in the database
      * @param exercise Exercise object with updated information
@@ -3,6 +3,7 @@ package com.fit.fitform.data.dao;
 import androidx.lifecycle.LiveData;
 import androidx.room.*;
 import com.fit.fitform.data.entity.ExerciseSet;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.List;
 
 /**
@@ -21,6 +22,22 @@ public interface ExerciseSetDao {
     @Query("SELECT * FROM exercise_sets WHERE sessionId = :sessionId ORDER BY completedAt ASC")
     LiveData<List<ExerciseSet>> getSetsBySession(long sessionId);
     
+    /**
+     * Retrieves all exercise sets for a session, for background work
+     * @param sessionId Session's unique identifier
+     * @return Exercise sets in completion order
+     */
+    @Query("SELECT * FROM exercise_sets WHERE sessionId = :sessionId ORDER BY completedAt ASC")
+    List<ExerciseSet> getSetsForSession(long sessionId);
+    
+    /**
+     * Async variant of {@link #getSetsForSession}, run on the Room query executor
+     * @param sessionId Session's unique identifier
+     * @return Future of the sets in completion order
+     */
+    @Query("SELECT * FROM exercise_sets WHERE sessionId = :sessionId ORDER BY completedAt ASC")
+    ListenableFuture<List<ExerciseSet>> getSetsForSessionAsync(long sessionId);
+    
     /**
      * Retrieves all exercise sets for a specific exercise within a session
      * @param exerciseId Exercise's unique identifier
@@ -38,6 +55,30 @@ public interface ExerciseSetDao {
     @Query("SELECT * FROM exercise_sets WHERE id = :setId")
     ExerciseSet getSetById(long setId);
     
+    /**
+     * Async variant of {@link #getSetById}
+     * @param setId Exercise set's unique identifier
+     * @return Future of the set, or of null if not found
+     */
+    @Query("SELECT * FROM exercise_sets WHERE id = :setId")
+    ListenableFuture<ExerciseSet> getSetByIdAsync(long setId);
+    
+    /**
+     * Filters set ids down to the sets that still exist, e.g. to find orphaned telemetry
+     * @param setIds Exercise set ids
+     * @return Ids of existing sets
+     */
+    @Query("SELECT id FROM exercise_sets WHERE id IN (:setIds)")
+    List<Long> getExistingSetIds(List<Long> setIds);
+    
+    /**
+     * Retrieves the sets of several sessions, for export
+     * @param sessionIds Sessions' unique identifiers
+     * @return Sets grouped by session, in set order
+     */
+    @Query("SELECT * FROM exercise_sets WHERE sessionId IN (:sessionIds) ORDER BY sessionId, setNumber")
+    List<ExerciseSet> getSetsForSessions(List<Long> sessionIds);
+    
     /**
      * Inserts a new exercise set into the database
      * @param exerciseSet ExerciseSet object to insert
@@ -46,6 +87,13 @@ public interface ExerciseSetDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insertSet(ExerciseSet exerciseSet);
     
+    /**
+     * Inserts several exercise sets in one statement batch
+     * @param exerciseSets Sets to insert
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertSets(List<ExerciseSet> exerciseSets);
+    
     /**
      * Updates an existing exercise set in the database
      * @param exerciseSet ExerciseSet object with updated information
@@ -67,6 +115,30 @@ public interface ExerciseSetDao {
     @Query("DELETE FROM exercise_sets WHERE sessionId = :sessionId")
     void deleteSetsBySession(long sessionId);
     
+    /**
+     * Deletes a session's sets from a set number on, e.g. checkpointed rows about to be rewritten
+     * @param sessionId Session's unique identifier
+     * @param fromSetNumber First set number deleted
+     */
+    @Query("DELETE FROM exercise_sets WHERE sessionId = :sessionId AND setNumber >= :fromSetNumber")
+    void deleteSetsFrom(long sessionId, int fromSetNumber);
+    
+    /**
+     * Highest set number recorded for a session
+     * @param sessionId Session's unique identifier
+     * @return Highest set number, or 0 if the session has no sets
+     */
+    @Query("SELECT COALESCE(MAX(setNumber), 0) FROM exercise_sets WHERE sessionId = :sessionId")
+    int getMaxSetNumber(long sessionId);
+    
+    /**
+     * Async variant of {@link #getMaxSetNumber}
+     * @param sessionId Session's unique identifier
+     * @return Future of the highest set number, or of 0 if the session has no sets
+     */
+    @Query("SELECT COALESCE(MAX(setNumber), 0) FROM exercise_sets WHERE sessionId = :sessionId")
+    ListenableFuture<Integer> getMaxSetNumberAsync(long sessionId);
+    
     /**
      * Calculates the average form score for a specific exercise
      * @param exerciseId Exercise's unique identifier
@@ -74,4 +146,12 @@ public interface ExerciseSetDao {
      */
     @Query("SELECT AVG(formScore) FROM exercise_sets WHERE exerciseId = :exerciseId AND formScore IS NOT NULL")
     Float getAverageFormScore(long exerciseId);
+    
+    /**
+     * Async variant of {@link #getAverageFormScore}
+     * @param exerciseId Exercise's unique identifier
+     * @return Future of the average form score, or of null if none
+     */
+    @Query("SELECT AVG(formScore) FROM exercise_sets WHERE exerciseId = :exerciseId AND formScore IS NOT NULL")
+    ListenableFuture<Float> getAverageFormScoreAsync(long exerciseId);
 }
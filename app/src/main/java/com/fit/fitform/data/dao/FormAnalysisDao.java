@@ -2,16 +2,51 @@ package com.fit.fitform.data.dao;
 
 import androidx.lifecycle.LiveData;
 import androidx.room.*;
+import com.fit.fitform.analysis.CheckpointVector;
 import com.fit.fitform.data.entity.FormAnalysis;
+import com.fit.fitform.data.entity.SetAnalysisRollup;
+import com.fit.fitform.data.model.SetAnalysisSummary;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.List;
 
 /**
  * Data Access Object (DAO) interface for FormAnalysis entity operations.
  * Provides methods for storing and retrieving ML-based form analysis results.
  * Uses Room database for data persistence with LiveData for reactive UI updates.
+ * Belongs to {@link com.fit.fitform.data.database.TelemetryDatabase}.
  */
 @Dao
 public interface FormAnalysisDao {
+
+    /** Per-rep aggregates of raw rows, followed by the rollups of sets past retention */
+    String SET_SUMMARIES = "SELECT exerciseSetId, COUNT(*) AS repCount, AVG(overallScore) AS averageScore, "
+        + "MIN(overallScore) AS minScore, AVG(rangeOfMotion) AS averageRangeOfMotion, "
+        + "AVG(eccentricMs) AS averageEccentricMs, AVG(concentricMs) AS averageConcentricMs "
+        + "FROM form_analysis WHERE exerciseSetId IN (:exerciseSetIds) AND repNumber > 0 "
+        + "GROUP BY exerciseSetId "
+        + "UNION ALL SELECT exerciseSetId, repCount, averageScore, minScore, averageRangeOfMotion, "
+        + "averageEccentricMs, averageConcentricMs FROM set_analysis_rollups "
+        + "WHERE exerciseSetId IN (:exerciseSetIds) AND repCount > 0";
+
+    /** Mean overall score of a set, from its raw rows or else its rollup */
+    String AVERAGE_SCORE = "SELECT COALESCE("
+        + "(SELECT AVG(overallScore) FROM form_analysis WHERE exerciseSetId = :exerciseSetId), "
+        + "(SELECT setScore FROM set_analysis_rollups WHERE exerciseSetId = :exerciseSetId))";
+
+    /**
+     * Folds the raw rows of each set into rollup columns; vectors are averaged by the caller.
+     * Walks sets in id order from a key, keeping only sets whose newest row is older than a cutoff.
+     */
+    String OLD_SET_ROLLUPS = "SELECT exerciseSetId, COUNT(*) AS rowCount, SUM(repNumber > 0) AS repCount, "
+        + "AVG(overallScore) AS setScore, "
+        + "AVG(CASE WHEN repNumber > 0 THEN overallScore END) AS averageScore, "
+        + "MIN(CASE WHEN repNumber > 0 THEN overallScore END) AS minScore, "
+        + "AVG(CASE WHEN repNumber > 0 THEN rangeOfMotion END) AS averageRangeOfMotion, "
+        + "AVG(CASE WHEN repNumber > 0 THEN eccentricMs END) AS averageEccentricMs, "
+        + "AVG(CASE WHEN repNumber > 0 THEN concentricMs END) AS averageConcentricMs, "
+        + "MIN(timestamp) AS firstTimestamp, MAX(timestamp) AS lastTimestamp "
+        + "FROM form_analysis WHERE exerciseSetId > :afterSetId GROUP BY exerciseSetId "
+        + "HAVING MAX(timestamp) < :cutoff ORDER BY exerciseSetId LIMIT :limit";
     
     /**
      * Retrieves all form analysis records for a specific exercise set, ordered by timestamp
@@ -21,6 +56,18 @@ public interface FormAnalysisDao {
     @Query("SELECT * FROM form_analysis WHERE exerciseSetId = :exerciseSetId ORDER BY timestamp ASC")
     LiveData<List<FormAnalysis>> getAnalysisByExerciseSet(long exerciseSetId);
     
+    /**
+     * Retrieves only the checkpoint scores of an exercise set, for aggregation without
+     * loading whole rows
+     * @param exerciseSetId Exercise set's unique identifier
+     * @return Checkpoint score vectors, read directly from their stored bytes; a set past
+     *         retention has a single, averaged vector
+     */
+    @Query("SELECT keyPointScores FROM form_analysis WHERE exerciseSetId = :exerciseSetId AND keyPointScores IS NOT NULL "
+        + "UNION ALL SELECT keyPointScores FROM set_analysis_rollups "
+        + "WHERE exerciseSetId = :exerciseSetId AND keyPointScores IS NOT NULL")
+    List<CheckpointVector> getKeyPointScoresForSet(long exerciseSetId);
+    
     /**
      * Retrieves a form analysis record by its unique ID
      * @param analysisId Form analysis record's unique identifier
@@ -37,6 +84,14 @@ public interface FormAnalysisDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     long insertAnalysis(FormAnalysis analysis);
     
+    /**
+     * Inserts a batch of form analysis records in a single transaction
+     * @param analyses FormAnalysis objects to insert
+     * @return The IDs of the inserted records, in order
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    List<Long> insertAnalyses(List<FormAnalysis> analyses);
+    
     /**
      * Updates an existing form analysis record in the database
      * @param analysis FormAnalysis object with updated information
@@ -56,13 +111,104 @@ public interface FormAnalysisDao {
      * @param exerciseSetId Exercise set's unique identifier
      * @return Average overall score (0.0 to 1.0) or null if no scores available
      */
-    @Query("SELECT AVG(overallScore) FROM form_analysis WHERE exerciseSetId = :exerciseSetId")
+    @Query(AVERAGE_SCORE)
     Float getAverageScoreForSet(long exerciseSetId);
     
+    /**
+     * Async variant of {@link #getAverageScoreForSet}, run on the telemetry query executor
+     * @param exerciseSetId Exercise set's unique identifier
+     * @return Future of the average score, or of null if none
+     */
+    @Query(AVERAGE_SCORE)
+    ListenableFuture<Float> getAverageScoreForSetAsync(long exerciseSetId);
+    
+    /**
+     * Aggregates the per-rep analysis of several sets in one pass over the
+     * (exerciseSetId, timestamp) index, reading rollups for sets past retention
+     * @param exerciseSetIds Exercise set ids, from the main database
+     * @return One summary per set that has analysed reps
+     */
+    @Query(SET_SUMMARIES)
+    List<SetAnalysisSummary> getSetSummaries(List<Long> exerciseSetIds);
+    
+    /**
+     * Async variant of {@link #getSetSummaries}
+     * @param exerciseSetIds Exercise set ids, from the main database
+     * @return Future of one summary per set that has analysed reps
+     */
+    @Query(SET_SUMMARIES)
+    ListenableFuture<List<SetAnalysisSummary>> getSetSummariesAsync(List<Long> exerciseSetIds);
+    
     /**
      * Deletes all form analysis records for a specific exercise set
      * @param exerciseSetId Exercise set's unique identifier
      */
     @Query("DELETE FROM form_analysis WHERE exerciseSetId = :exerciseSetId")
     void deleteAnalysisByExerciseSet(long exerciseSetId);
+    
+    /**
+     * Builds rollups for the next sets whose analysis is past retention, without vectors
+     * @param afterSetId Last set id of the previous batch, or 0
+     * @param cutoff Sets with any row at or after this time are skipped, epoch milliseconds
+     * @param limit Most sets returned
+     * @return Rollups in set id order
+     */
+    @Query(OLD_SET_ROLLUPS)
+    List<SetAnalysisRollup> getOldSetRollups(long afterSetId, long cutoff, int limit);
+    
+    /**
+     * Retrieves the raw rows of several sets
+     * @param exerciseSetIds Exercise set ids
+     * @return Rows grouped by set, in time order
+     */
+    @Query("SELECT * FROM form_analysis WHERE exerciseSetId IN (:exerciseSetIds) ORDER BY exerciseSetId, timestamp")
+    List<FormAnalysis> getAnalysesForSets(List<Long> exerciseSetIds);
+    
+    /**
+     * Pages through the raw rows of some sets in id order, for export
+     * @param exerciseSetIds Sets' unique identifiers
+     * @param afterId Id of the last row of the previous page, 0 for the first page
+     * @param limit Page size
+     * @return Next page of rows, empty at the end
+     */
+    @Query("SELECT * FROM form_analysis WHERE exerciseSetId IN (:exerciseSetIds) AND id > :afterId "
+        + "ORDER BY id LIMIT :limit")
+    List<FormAnalysis> getAnalysesForSetsAfter(List<Long> exerciseSetIds, long afterId, int limit);
+    
+    /**
+     * Retrieves the rollups of some sets
+     * @param exerciseSetIds Sets' unique identifiers
+     * @return Rollups of those sets that are past retention
+     */
+    @Query("SELECT * FROM set_analysis_rollups WHERE exerciseSetId IN (:exerciseSetIds) ORDER BY exerciseSetId")
+    List<SetAnalysisRollup> getRollupsForSets(List<Long> exerciseSetIds);
+    
+    /**
+     * Inserts or replaces set rollups
+     * @param rollups Rollups to store
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertRollups(List<SetAnalysisRollup> rollups);
+    
+    /**
+     * Deletes the raw rows of several sets
+     * @param exerciseSetIds Exercise set ids
+     * @return Number of rows deleted
+     */
+    @Query("DELETE FROM form_analysis WHERE exerciseSetId IN (:exerciseSetIds)")
+    int deleteAnalysesForSets(List<Long> exerciseSetIds);
+    
+    /**
+     * Replaces the raw rows of a batch of sets with rollups in one short transaction
+     * @param rollups Rollups of the sets that still exist
+     * @param exerciseSetIds Every set in the batch; rows of deleted sets are dropped without a rollup
+     * @return Number of raw rows deleted
+     */
+    @Transaction
+    default int downsample(List<SetAnalysisRollup> rollups, List<Long> exerciseSetIds) {
+        if (!rollups.isEmpty()) {
+            insertRollups(rollups);
+        }
+        return deleteAnalysesForSets(exerciseSetIds);
+    }
 }
@@ -2,6 +2,7 @@ package com.fit.fitform.data.dao;
 import androidx.lifecycle.LiveData;
 import androidx.room.*;
 import com.fit.fitform.data.entity.User;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.List;
 
 /**
@@ -20,6 +21,14 @@ public interface UserDao {
     @Query("SELECT * FROM users WHERE firebaseUid = :firebaseUid")
     User getUserByFirebaseUid(String firebaseUid);
     
+    /**
+     * Async variant of {@link #getUserByFirebaseUid}, run on the Room query executor
+     * @param firebaseUid Firebase Authentication UID
+     * @return Future of the user, or of null if not found
+     */
+    @Query("SELECT * FROM users WHERE firebaseUid = :firebaseUid")
+    ListenableFuture<User> getUserByFirebaseUidAsync(String firebaseUid);
+    
     /**
      * Retrieves a user by email address
      * @param email User's email address
@@ -36,6 +45,14 @@ public interface UserDao {
     @Query("SELECT * FROM users WHERE id = :userId")
     User getUserById(long userId);
     
+    /**
+     * Async variant of {@link #getUserById}
+     * @param userId User's unique identifier
+     * @return Future of the user, or of null if not found
+     */
+    @Query("SELECT * FROM users WHERE id = :userId")
+    ListenableFuture<User> getUserByIdAsync(long userId);
+    
     /**
      * Inserts a new user into the database
      * @param user User object to insert
@@ -2,6 +2,8 @@ package com.fit.fitform.data.dao;
 import androidx.lifecycle.LiveData;
 import androidx.room.*;
 import com.fit.fitform.data.entity.Workout;
+import com.fit.fitform.data.model.WorkoutWithExercises;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.List;
 
 /**
@@ -28,6 +30,41 @@ public interface WorkoutDao {
     @Query("SELECT * FROM workouts WHERE id = :workoutId")
     Workout getWorkoutById(long workoutId);
     
+    /**
+     * Finds a built-in or the user's own workout by name, preferring the built-in one
+     * @param name Workout name
+     * @param userId User whose custom workouts are considered
+     * @return Workout id, or null if none has that name
+     */
+    @Query("SELECT id FROM workouts WHERE name = :name AND (isCustom = 0 OR userId = :userId) "
+        + "ORDER BY isCustom LIMIT 1")
+    Long findWorkoutIdByName(String name, long userId);
+    
+    /**
+     * Async variant of {@link #getWorkoutById}, run on the Room query executor
+     * @param workoutId Workout's unique identifier
+     * @return Future of the workout, or of null if not found
+     */
+    @Query("SELECT * FROM workouts WHERE id = :workoutId")
+    ListenableFuture<Workout> getWorkoutByIdAsync(long workoutId);
+    
+    /**
+     * Retrieves a workout with its exercises
+     * @param workoutId Workout's unique identifier
+     * @return LiveData workout with exercises, null if not found
+     */
+    @Transaction
+    @Query("SELECT * FROM workouts WHERE id = :workoutId")
+    LiveData<WorkoutWithExercises> getWorkoutWithExercises(long workoutId);
+    
+    /**
+     * Retrieves all pre-built workouts with their exercises, two queries in total
+     * @return LiveData list of pre-built workouts with exercises
+     */
+    @Transaction
+    @Query("SELECT * FROM workouts WHERE isCustom = 0")
+    LiveData<List<WorkoutWithExercises>> getPreBuiltWorkoutsWithExercises();
+    
     /**
      * Retrieves workouts by category
      * @param category Workout category (e.g., Strength, Cardio, Flexibility)
@@ -3,6 +3,9 @@ package com.fit.fitform.data.dao;
 import androidx.lifecycle.LiveData;
 import androidx.room.*;
 import com.fit.fitform.data.entity.WorkoutSession;
+import com.fit.fitform.data.model.SessionListItem;
+import com.fit.fitform.data.model.SessionWithWorkoutAndSets;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.List;
 
 /**
@@ -12,6 +15,16 @@ import java.util.List;
  */
 @Dao
 public interface WorkoutSessionDao {
+
+    /**
+     * Selects {@link SessionListItem} columns from workout_sessions s; append a WHERE clause.
+     * The set columns are correlated lookups on the (sessionId, completedAt) index.
+     */
+    String LIST_ITEM_SELECT = "SELECT s.id, s.startTime, s.totalDuration, s.caloriesBurned, "
+        + "w.name AS workoutName, "
+        + "(SELECT GROUP_CONCAT(DISTINCT e.exerciseType) FROM exercise_sets e WHERE e.sessionId = s.id) AS exerciseTypes, "
+        + "(SELECT COUNT(*) FROM exercise_sets e WHERE e.sessionId = s.id) AS setCount "
+        + "FROM workout_sessions s LEFT JOIN workouts w ON w.id = s.workoutId ";
     
     /**
      * Retrieves all workout sessions for a specific user, ordered by start time (most recent first)
@@ -29,6 +42,14 @@ public interface WorkoutSessionDao {
     @Query("SELECT * FROM workout_sessions WHERE id = :sessionId")
     WorkoutSession getSessionById(long sessionId);
     
+    /**
+     * Async variant of {@link #getSessionById}, run on the Room query executor
+     * @param sessionId Session's unique identifier
+     * @return Future of the session, or of null if not found
+     */
+    @Query("SELECT * FROM workout_sessions WHERE id = :sessionId")
+    ListenableFuture<WorkoutSession> getSessionByIdAsync(long sessionId);
+    
     /**
      * Retrieves recent completed workout sessions for a user
      * @param userId User's unique identifier
@@ -37,6 +58,84 @@ public interface WorkoutSessionDao {
      */
     @Query("SELECT * FROM workout_sessions WHERE userId = :userId AND isCompleted = 1 ORDER BY startTime DESC LIMIT :limit")
     LiveData<List<WorkoutSession>> getRecentCompletedSessions(long userId, int limit);
+
+    /**
+     * Retrieves display rows for a user's recent completed sessions in one query
+     * @param userId User's unique identifier
+     * @param limit Maximum number of sessions to retrieve
+     * @return LiveData list of session rows, newest first
+     */
+    @Query(LIST_ITEM_SELECT + "WHERE s.userId = :userId AND s.isCompleted = 1 "
+        + "ORDER BY s.startTime DESC, s.id DESC LIMIT :limit")
+    LiveData<List<SessionListItem>> getRecentSessionItems(long userId, int limit);
+
+    /**
+     * Retrieves a session with its workout and sets
+     * @param sessionId Session's unique identifier
+     * @return LiveData session with relations, null if not found
+     */
+    @Transaction
+    @Query("SELECT * FROM workout_sessions WHERE id = :sessionId")
+    LiveData<SessionWithWorkoutAndSets> getSessionWithWorkoutAndSets(long sessionId);
+
+    /**
+     * Retrieves the newest page of a user's completed sessions
+     * @param userId User's unique identifier
+     * @param limit Page size
+     * @return Session rows ordered by start time, then id, newest first
+     */
+    @Query(LIST_ITEM_SELECT + "WHERE s.userId = :userId AND s.isCompleted = 1 "
+        + "ORDER BY s.startTime DESC, s.id DESC LIMIT :limit")
+    List<SessionListItem> getCompletedSessionsFirstPage(long userId, int limit);
+
+    /**
+     * Retrieves the page of completed sessions that follows a key, seeking on the
+     * (userId, isCompleted, startTime) index rather than skipping rows with OFFSET
+     * @param userId User's unique identifier
+     * @param startTime Start time of the key session
+     * @param id Id of the key session; the key itself is excluded
+     * @param limit Page size
+     * @return Older session rows, newest first
+     */
+    @Query(LIST_ITEM_SELECT + "WHERE s.userId = :userId AND s.isCompleted = 1 "
+        + "AND s.startTime <= :startTime AND (s.startTime < :startTime OR s.id < :id) "
+        + "ORDER BY s.startTime DESC, s.id DESC LIMIT :limit")
+    List<SessionListItem> getCompletedSessionsBefore(long userId, long startTime, long id, int limit);
+
+    /**
+     * Retrieves the page of completed sessions that precedes a key
+     * @param userId User's unique identifier
+     * @param startTime Start time of the key session
+     * @param id Id of the key session; the key itself is excluded
+     * @param limit Page size
+     * @return Newer session rows, oldest first
+     */
+    @Query(LIST_ITEM_SELECT + "WHERE s.userId = :userId AND s.isCompleted = 1 "
+        + "AND s.startTime >= :startTime AND (s.startTime > :startTime OR s.id > :id) "
+        + "ORDER BY s.startTime ASC, s.id ASC LIMIT :limit")
+    List<SessionListItem> getCompletedSessionsAfter(long userId, long startTime, long id, int limit);
+
+    /**
+     * Counts completed sessions older than a key, for list placeholders
+     * @param userId User's unique identifier
+     * @param startTime Start time of the key session
+     * @param id Id of the key session; the key itself is excluded
+     * @return Number of older sessions
+     */
+    @Query("SELECT COUNT(*) FROM workout_sessions WHERE userId = :userId AND isCompleted = 1 "
+        + "AND startTime <= :startTime AND (startTime < :startTime OR id < :id)")
+    int countCompletedSessionsBefore(long userId, long startTime, long id);
+
+    /**
+     * Counts completed sessions newer than a key, for list placeholders
+     * @param userId User's unique identifier
+     * @param startTime Start time of the key session
+     * @param id Id of the key session; the key itself is excluded
+     * @return Number of newer sessions
+     */
+    @Query("SELECT COUNT(*) FROM workout_sessions WHERE userId = :userId AND isCompleted = 1 "
+        + "AND startTime >= :startTime AND (startTime > :startTime OR id > :id)")
+    int countCompletedSessionsAfter(long userId, long startTime, long id);
     
     /**
      * Inserts a new workout session into the database
@@ -68,6 +167,14 @@ public interface WorkoutSessionDao {
     @Query("SELECT COUNT(*) FROM workout_sessions WHERE userId = :userId AND isCompleted = 1")
     int getCompletedWorkoutCount(long userId);
     
+    /**
+     * Async variant of {@link #getCompletedWorkoutCount}
+     * @param userId User's unique identifier
+     * @return Future of the number of completed workout sessions
+     */
+    @Query("SELECT COUNT(*) FROM workout_sessions WHERE userId = :userId AND isCompleted = 1")
+    ListenableFuture<Integer> getCompletedWorkoutCountAsync(long userId);
+    
     /**
      * Retrieves the currently active (incomplete) workout session for a user
      * @param userId User's unique identifier
@@ -75,4 +182,71 @@ public interface WorkoutSessionDao {
      */
     @Query("SELECT * FROM workout_sessions WHERE userId = :userId AND isCompleted = 0")
     WorkoutSession getActiveSession(long userId);
+    
+    /**
+     * Async variant of {@link #getActiveSession}
+     * @param userId User's unique identifier
+     * @return Future of the active session, or of null if none
+     */
+    @Query("SELECT * FROM workout_sessions WHERE userId = :userId AND isCompleted = 0")
+    ListenableFuture<WorkoutSession> getActiveSessionAsync(long userId);
+    
+    /**
+     * Retrieves a user's incomplete sessions, for recovery after the app was killed mid-workout
+     * @param userId User's unique identifier
+     * @return Incomplete sessions, oldest first
+     */
+    @Query("SELECT * FROM workout_sessions WHERE userId = :userId AND isCompleted = 0 ORDER BY startTime ASC")
+    List<WorkoutSession> getIncompleteSessions(long userId);
+    
+    /**
+     * Retrieves the newest incomplete session of a workout that saw progress recently enough to resume
+     * @param userId User's unique identifier
+     * @param workoutId Workout being started
+     * @param since Oldest last checkpoint, or start time if never checkpointed, that can be resumed
+     * @return Resumable session, or null if none
+     */
+    @Query("SELECT * FROM workout_sessions WHERE userId = :userId AND isCompleted = 0 AND workoutId = :workoutId "
+        + "AND COALESCE(lastCheckpointAt, startTime) >= :since ORDER BY startTime DESC LIMIT 1")
+    WorkoutSession getResumableSession(long userId, long workoutId, long since);
+    
+    /**
+     * Async variant of {@link #getResumableSession}
+     * @param userId User's unique identifier
+     * @param workoutId Workout being started
+     * @param since Oldest last checkpoint, or start time if never checkpointed, that can be resumed
+     * @return Future of the resumable session, or of null if none
+     */
+    @Query("SELECT * FROM workout_sessions WHERE userId = :userId AND isCompleted = 0 AND workoutId = :workoutId "
+        + "AND COALESCE(lastCheckpointAt, startTime) >= :since ORDER BY startTime DESC LIMIT 1")
+    ListenableFuture<WorkoutSession> getResumableSessionAsync(long userId, long workoutId, long since);
+    
+    /**
+     * Stamps an incomplete session with the time of its latest progress checkpoint
+     * @param sessionId Session's unique identifier
+     * @param checkpointAt Checkpoint time, epoch milliseconds
+     * @return 1 if stamped, 0 if the session is gone or already completed
+     */
+    @Query("UPDATE workout_sessions SET lastCheckpointAt = :checkpointAt WHERE id = :sessionId AND isCompleted = 0")
+    int markCheckpoint(long sessionId, long checkpointAt);
+    
+    /**
+     * Pages through a user's completed sessions in id order, for export
+     * @param userId User's unique identifier
+     * @param afterId Id of the last session of the previous page, 0 for the first page
+     * @param limit Page size
+     * @return Next page of sessions, empty at the end
+     */
+    @Query("SELECT * FROM workout_sessions WHERE userId = :userId AND isCompleted = 1 AND id > :afterId "
+        + "ORDER BY id LIMIT :limit")
+    List<WorkoutSession> getCompletedSessionsAfter(long userId, long afterId, int limit);
+    
+    /**
+     * Finds a user's session by its start time, so importing the same history twice adds nothing
+     * @param userId User's unique identifier
+     * @param startTime Session start time, epoch milliseconds
+     * @return Session id, or null if none started at that time
+     */
+    @Query("SELECT id FROM workout_sessions WHERE userId = :userId AND startTime = :startTime LIMIT 1")
+    Long findSessionIdByStartTime(long userId, long startTime);
 }
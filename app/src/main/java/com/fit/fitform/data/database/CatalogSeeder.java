@@ -0,0 +1,218 @@
+package com.fit.fitform.data.database;
+import android.util.Log;
+import com.fit.fitform.data.dao.CatalogDao;
+import com.fit.fitform.data.dao.ExerciseDao;
+import com.fit.fitform.data.dao.WorkoutDao;
+import com.fit.fitform.data.entity.CatalogMeta;
+import com.fit.fitform.data.entity.Exercise;
+import com.fit.fitform.data.entity.Workout;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the system workout catalog in the database in step with {@link DatabaseInitializer#buildCatalog()}.
+ * The seeded version and a content hash are recorded in catalog_meta; when they match, seeding
+ * is a single primary-key lookup. Otherwise duplicates left by earlier seeding are merged and
+ * rows are matched on their natural keys, so only new or changed rows are written. Safe to run
+ * any number of times.
+ */
+public class CatalogSeeder {
+
+    private static final String TAG = "CatalogSeeder";
+
+    /** Bump when the catalog content changes */
+    public static final int CATALOG_VERSION = 1;
+
+    // The catalog cannot change while the process runs, so it is checked once
+    private static final AtomicBoolean checked = new AtomicBoolean(false);
+
+    private final FitFormDatabase database;
+
+    /**
+     * Constructor for CatalogSeeder
+     * @param database Database the catalog is written to
+     */
+    public CatalogSeeder(FitFormDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Seeds or updates the catalog if its version or content differs from what was seeded.
+     * Blocks, so call off the main thread.
+     * @return True if the database was written to
+     */
+    public boolean seedIfNeeded() {
+        if (checked.get()) {
+            return false;
+        }
+        Map<Workout, List<Exercise>> catalog = DatabaseInitializer.buildCatalog();
+        String hash = contentHash(catalog);
+        CatalogDao catalogDao = database.catalogDao();
+        boolean written = database.runInTransaction(() -> {
+            CatalogMeta meta = catalogDao.getMeta(CatalogMeta.SYSTEM_CATALOG);
+            if (meta != null && meta.getVersion() == CATALOG_VERSION && hash.equals(meta.getContentHash())) {
+                return false;
+            }
+            catalogDao.removeDuplicates();
+            int changed = upsert(catalog);
+            catalogDao.upsertMeta(new CatalogMeta(CatalogMeta.SYSTEM_CATALOG, CATALOG_VERSION, hash));
+            Log.d(TAG, "Catalog v" + CATALOG_VERSION + " seeded, " + changed + " rows written");
+            return true;
+        });
+        checked.set(true);
+        return written;
+    }
+
+    /**
+     * Inserts missing rows and updates changed ones, matching workouts by name and exercises
+     * by (workout, name). Runs inside the seeding transaction.
+     * @return Number of rows written
+     */
+    private int upsert(Map<Workout, List<Exercise>> catalog) {
+        CatalogDao catalogDao = database.catalogDao();
+        WorkoutDao workoutDao = database.workoutDao();
+        ExerciseDao exerciseDao = database.exerciseDao();
+
+        Map<String, Workout> workoutsByName = new HashMap<>();
+        for (Workout workout : catalogDao.getSystemWorkouts()) {
+            workoutsByName.put(workout.getName(), workout);
+        }
+        Map<Long, Map<String, Exercise>> exercisesByWorkout = new HashMap<>();
+        for (Exercise exercise : catalogDao.getSystemExercises()) {
+            exercisesByWorkout.computeIfAbsent(exercise.getWorkoutId(), id -> new HashMap<>())
+                .put(exercise.getName(), exercise);
+        }
+
+        int written = 0;
+        List<Exercise> inserts = new ArrayList<>();
+        for (Map.Entry<Workout, List<Exercise>> entry : catalog.entrySet()) {
+            Workout workout = entry.getKey();
+            Workout existing = workoutsByName.get(workout.getName());
+            long workoutId;
+            if (existing == null) {
+                workoutId = workoutDao.insertWorkout(workout);
+                written++;
+            } else {
+                workoutId = existing.getId();
+                if (!sameContent(existing, workout)) {
+                    workout.setId(workoutId);
+                    workout.setCreatedAt(existing.getCreatedAt());
+                    workoutDao.updateWorkout(workout);
+                    written++;
+                }
+            }
+
+            Map<String, Exercise> existingExercises = exercisesByWorkout.get(workoutId);
+            for (Exercise exercise : entry.getValue()) {
+                exercise.setWorkoutId(workoutId);
+                Exercise current = existingExercises != null ? existingExercises.get(exercise.getName()) : null;
+                if (current == null) {
+                    inserts.add(exercise);
+                } else if (!sameContent(current, exercise)) {
+                    exercise.setId(current.getId());
+                    exerciseDao.updateExercise(exercise);
+                    written++;
+                }
+            }
+        }
+        if (!inserts.isEmpty()) {
+            exerciseDao.insertExercises(inserts);
+            written += inserts.size();
+        }
+        return written;
+    }
+
+    private static boolean sameContent(Workout a, Workout b) {
+        return Objects.equals(a.getName(), b.getName())
+            && Objects.equals(a.getDescription(), b.getDescription())
+            && Objects.equals(a.getCategory(), b.getCategory())
+            && a.getEstimatedDuration() == b.getEstimatedDuration()
+            && Objects.equals(a.getDifficulty(), b.getDifficulty());
+    }
+
+    private static boolean sameContent(Exercise a, Exercise b) {
+        return Objects.equals(a.getName(), b.getName())
+            && Objects.equals(a.getDescription(), b.getDescription())
+            && Objects.equals(a.getInstructions(), b.getInstructions())
+            && Objects.equals(a.getTargetMuscles(), b.getTargetMuscles())
+            && Objects.equals(a.getEquipment(), b.getEquipment())
+            && a.getSets() == b.getSets()
+            && a.getReps() == b.getReps()
+            && a.getRestTime() == b.getRestTime()
+            && a.getOrder() == b.getOrder()
+            && a.isHasFormAnalysis() == b.isHasFormAnalysis()
+            && Objects.equals(a.getFormCheckpoints(), b.getFormCheckpoints())
+            && Objects.equals(a.getGifUrl(), b.getGifUrl())
+            && Arrays.equals(a.getReferenceTrajectories(), b.getReferenceTrajectories());
+    }
+
+    /**
+     * @param catalog Catalog from {@link DatabaseInitializer#buildCatalog()}
+     * @return SHA-256 over every seeded field, in catalog order, as hex
+     */
+    static String contentHash(Map<Workout, List<Exercise>> catalog) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (Map.Entry<Workout, List<Exercise>> entry : catalog.entrySet()) {
+                Workout workout = entry.getKey();
+                writeString(out, workout.getName());
+                writeString(out, workout.getDescription());
+                writeString(out, workout.getCategory());
+                out.writeInt(workout.getEstimatedDuration());
+                writeString(out, workout.getDifficulty());
+                out.writeInt(entry.getValue().size());
+                for (Exercise exercise : entry.getValue()) {
+                    writeString(out, exercise.getName());
+                    writeString(out, exercise.getDescription());
+                    writeString(out, exercise.getInstructions());
+                    writeString(out, exercise.getTargetMuscles());
+                    writeString(out, exercise.getEquipment());
+                    out.writeInt(exercise.getSets());
+                    out.writeInt(exercise.getReps());
+                    out.writeInt(exercise.getRestTime());
+                    out.writeInt(exercise.getOrder());
+                    out.writeBoolean(exercise.isHasFormAnalysis());
+                    writeBytes(out, exercise.getFormCheckpoints() != null ? exercise.getFormCheckpoints().toBytes() : null);
+                    writeString(out, exercise.getGifUrl());
+                    writeBytes(out, exercise.getReferenceTrajectories());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray());
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value != null ? value.length : -1);
+        if (value != null) {
+            out.write(value);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.fit.fitform.data.database;
+import androidx.room.TypeConverter;
+import com.fit.fitform.analysis.CheckpointVector;
+
+/**
+ * Room type converters for columns stored in binary form.
+ * Conversions wrap or expose the stored bytes without copying.
+ */
+public final class Converters {
+
+    private Converters() {}
+
+    @TypeConverter
+    public static CheckpointVector toCheckpointVector(byte[] data) {
+        return CheckpointVector.wrap(data);
+    }
+
+    @TypeConverter
+    public static byte[] fromCheckpointVector(CheckpointVector vector) {
+        return vector != null ? vector.toBytes() : null;
+    }
+}
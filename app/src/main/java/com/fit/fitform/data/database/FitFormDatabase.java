@@ -3,6 +3,8 @@ import android.content.Context;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+import com.fit.fitform.core.concurrent.AppExecutors;
 import com.fit.fitform.data.dao.*;
 import com.fit.fitform.data.entity.*;
 
@@ -10,6 +12,8 @@ import com.fit.fitform.data.entity.*;
  * Room database class for the FitForm application.
  * Manages all database entities and provides access to DAO interfaces.
  * Implements singleton pattern for database instance management.
+ * High-rate analysis rows live in {@link TelemetryDatabase} so their writes do not run
+ * this database's invalidation tracking.
  */
 @Database(
     entities = {
@@ -18,11 +22,14 @@ import com.fit.fitform.data.entity.*;
         Exercise.class,
         WorkoutSession.class,
         ExerciseSet.class,
-        FormAnalysis.class
+        DailySummary.class,
+        CatalogMeta.class,
+        CatalogSearchEntry.class
     },
-    version = 3,
-    exportSchema = false
+    version = 12,
+    exportSchema = true
 )
+@TypeConverters(Converters.class)
 public abstract class FitFormDatabase extends RoomDatabase {
     
     // Abstract methods to get DAO instances
@@ -31,7 +38,16 @@ public abstract class FitFormDatabase extends RoomDatabase {
     public abstract ExerciseDao exerciseDao();
     public abstract WorkoutSessionDao workoutSessionDao();
     public abstract ExerciseSetDao exerciseSetDao();
-    public abstract FormAnalysisDao formAnalysisDao();
+    public abstract DailySummaryDao dailySummaryDao();
+    public abstract CatalogDao catalogDao();
+    public abstract CatalogSearchDao catalogSearchDao();
+
+    /**
+     * Prepackaged database holding the system catalog, copied on first launch. It is at the
+     * current version with the search index, its rows and its triggers in place, so new installs
+     * never go through onCreate; app/catalog/fitform_catalog.sql builds it.
+     */
+    public static final String CATALOG_ASSET = "databases/fitform_catalog.db";
 
     // Singleton instance
     private static volatile FitFormDatabase INSTANCE;
@@ -49,7 +65,12 @@ public abstract class FitFormDatabase extends RoomDatabase {
                         context.getApplicationContext(),
                         FitFormDatabase.class,
                         "fitform_database"
-                    ).build();
+                    )
+                    .setQueryExecutor(AppExecutors.database())
+                    .setTransactionExecutor(AppExecutors.database())
+                    .createFromAsset(CATALOG_ASSET)
+                    .addMigrations(Migrations.ALL)
+                    .build();
                 }
             }
         }
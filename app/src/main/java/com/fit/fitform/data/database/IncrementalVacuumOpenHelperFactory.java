@@ -0,0 +1,76 @@
+package com.fit.fitform.data.database;
+import android.database.Cursor;
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteOpenHelper;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+
+/**
+ * Opens databases through the framework helper, switching a new file to incremental
+ * auto-vacuum before Room creates its tables. Write-ahead logging has already written the file
+ * header by then, so the switch needs a VACUUM, which costs nothing while the file is empty.
+ * Converting a file that has tables takes a full VACUUM, which {@link TelemetryMaintenance}
+ * leaves for when the device is charging.
+ */
+final class IncrementalVacuumOpenHelperFactory implements SupportSQLiteOpenHelper.Factory {
+
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private final SupportSQLiteOpenHelper.Factory delegate = new FrameworkSQLiteOpenHelperFactory();
+
+    @NonNull
+    @Override
+    public SupportSQLiteOpenHelper create(@NonNull SupportSQLiteOpenHelper.Configuration configuration) {
+        SupportSQLiteOpenHelper.Callback roomCallback = configuration.callback;
+        SupportSQLiteOpenHelper.Callback callback = new SupportSQLiteOpenHelper.Callback(roomCallback.version) {
+            @Override
+            public void onConfigure(@NonNull SupportSQLiteDatabase db) {
+                roomCallback.onConfigure(db);
+                // Runs outside a transaction and before onCreate, while a new file only holds the
+                // framework's locale table
+                if (queryLong(db, "SELECT COUNT(*) FROM sqlite_master WHERE name <> 'android_metadata'") == 0
+                        && queryLong(db, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+                    db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+                    db.execSQL("VACUUM");
+                }
+            }
+
+            @Override
+            public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                roomCallback.onCreate(db);
+            }
+
+            @Override
+            public void onUpgrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+                roomCallback.onUpgrade(db, oldVersion, newVersion);
+            }
+
+            @Override
+            public void onDowngrade(@NonNull SupportSQLiteDatabase db, int oldVersion, int newVersion) {
+                roomCallback.onDowngrade(db, oldVersion, newVersion);
+            }
+
+            @Override
+            public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                roomCallback.onOpen(db);
+            }
+
+            @Override
+            public void onCorruption(@NonNull SupportSQLiteDatabase db) {
+                roomCallback.onCorruption(db);
+            }
+        };
+        return delegate.create(SupportSQLiteOpenHelper.Configuration.builder(configuration.context)
+            .name(configuration.name)
+            .callback(callback)
+            .noBackupDirectory(configuration.useNoBackupDirectory)
+            .allowDataLossOnRecovery(configuration.allowDataLossOnRecovery)
+            .build());
+    }
+
+    private static long queryLong(SupportSQLiteDatabase db, String sql) {
+        try (Cursor cursor = db.query(sql)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0L;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.fit.fitform.data.database;
+import android.database.Cursor;
+import android.util.Log;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import java.io.IOException;
+
+/**
+ * Moves form_analysis rows left in FitFormDatabase by MIGRATION_9_10 into TelemetryDatabase.
+ * Runs while the telemetry file is being opened, before Room hands it to any DAO, so new
+ * analyses cannot take ids that a legacy row still needs. Rows are copied in id order with
+ * their ids kept, so an interrupted import simply repeats on the next launch. The legacy table
+ * is dropped once everything is copied.
+ */
+final class LegacyTelemetryImport {
+
+    private static final String TAG = "LegacyTelemetryImport";
+    private static final int BATCH = 500;
+    private static final String COLUMNS = "id, exerciseSetId, timestamp, overallScore, feedback, "
+        + "keyPointScores, recommendations, repNumber, eccentricMs, concentricMs, rangeOfMotion, "
+        + "peakAngularVelocity";
+    private static final int COLUMN_COUNT = 12;
+
+    private LegacyTelemetryImport() {}
+
+    /**
+     * @param main Main database holding the legacy table, if it is still there
+     * @param telemetry Telemetry database being opened; written through directly, since its DAOs
+     *                  cannot be used until the open completes
+     */
+    static void run(FitFormDatabase main, SupportSQLiteDatabase telemetry) throws IOException {
+        long maxId;
+        try (Cursor cursor = main.query("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?",
+                new Object[] {TelemetryDatabase.LEGACY_TABLE})) {
+            if (!cursor.moveToFirst()) {
+                return;
+            }
+        }
+        try (Cursor cursor = main.query("SELECT COALESCE(MAX(id), 0) FROM `" + TelemetryDatabase.LEGACY_TABLE + "`",
+                null)) {
+            maxId = cursor.moveToFirst() ? cursor.getLong(0) : 0L;
+        }
+        // AUTOINCREMENT never reuses an id at or below the sequence, so should the import fail
+        // part way, rows written before the retry cannot take an id a legacy row still needs
+        telemetry.execSQL("UPDATE sqlite_sequence SET seq = MAX(seq, ?) WHERE name = 'form_analysis'",
+            new Object[] {maxId});
+        telemetry.execSQL("INSERT INTO sqlite_sequence (name, seq) SELECT 'form_analysis', ? "
+            + "WHERE NOT EXISTS (SELECT 1 FROM sqlite_sequence WHERE name = 'form_analysis')", new Object[] {maxId});
+
+        long lastId = 0;
+        int copied = 0;
+        try (SupportSQLiteStatement insert = telemetry.compileStatement(
+                "INSERT OR REPLACE INTO form_analysis (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            while (true) {
+                int rows = 0;
+                telemetry.beginTransaction();
+                try (Cursor cursor = main.query("SELECT " + COLUMNS + " FROM `" + TelemetryDatabase.LEGACY_TABLE
+                        + "` WHERE id > ? ORDER BY id LIMIT ?", new Object[] {lastId, BATCH})) {
+                    while (cursor.moveToNext()) {
+                        bind(insert, cursor);
+                        insert.executeInsert();
+                        lastId = cursor.getLong(0);
+                        rows++;
+                    }
+                    telemetry.setTransactionSuccessful();
+                } finally {
+                    telemetry.endTransaction();
+                }
+                if (rows == 0) {
+                    break;
+                }
+                copied += rows;
+            }
+        }
+        main.getOpenHelper().getWritableDatabase().execSQL("DROP TABLE IF EXISTS `" + TelemetryDatabase.LEGACY_TABLE + "`");
+        Log.d(TAG, "Moved " + copied + " form analysis rows to the telemetry database");
+    }
+
+    // Both tables have the same columns, so values are copied as stored
+    private static void bind(SupportSQLiteStatement insert, Cursor cursor) {
+        insert.clearBindings();
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            switch (cursor.getType(i)) {
+                case Cursor.FIELD_TYPE_NULL:
+                    insert.bindNull(i + 1);
+                    break;
+                case Cursor.FIELD_TYPE_INTEGER:
+                    insert.bindLong(i + 1, cursor.getLong(i));
+                    break;
+                case Cursor.FIELD_TYPE_FLOAT:
+                    insert.bindDouble(i + 1, cursor.getDouble(i));
+                    break;
+                case Cursor.FIELD_TYPE_STRING:
+                    insert.bindString(i + 1, cursor.getString(i));
+                    break;
+                default:
+                    insert.bindBlob(i + 1, cursor.getBlob(i));
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.fit.fitform.data.database;
+import android.database.Cursor;
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import com.fit.fitform.analysis.CheckpointVector;
+import com.fit.fitform.analysis.FormCheckpoint;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Schema migrations for FitFormDatabase.
+ * Each migration upgrades existing user data in place; register new ones in {@link #ALL}.
+ * Migrations spell out their own SQL rather than sharing DAO constants, so later DAO changes
+ * cannot alter what an old migration does.
+ */
+public final class Migrations {
+
+    private static final Gson GSON = new Gson();
+
+    private Migrations() {}
+
+    /**
+     * Version 3 -> 4: per-rep tempo columns on exercise_sets and form_analysis
+     */
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE exercise_sets ADD COLUMN avgEccentricMs INTEGER");
+            db.execSQL("ALTER TABLE exercise_sets ADD COLUMN avgConcentricMs INTEGER");
+            db.execSQL("ALTER TABLE exercise_sets ADD COLUMN timeUnderTensionMs INTEGER");
+            db.execSQL("ALTER TABLE exercise_sets ADD COLUMN avgRangeOfMotion REAL");
+            db.execSQL("ALTER TABLE exercise_sets ADD COLUMN peakAngularVelocity REAL");
+
+            db.execSQL("ALTER TABLE form_analysis ADD COLUMN repNumber INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE form_analysis ADD COLUMN eccentricMs INTEGER");
+            db.execSQL("ALTER TABLE form_analysis ADD COLUMN concentricMs INTEGER");
+            db.execSQL("ALTER TABLE form_analysis ADD COLUMN rangeOfMotion REAL");
+            db.execSQL("ALTER TABLE form_analysis ADD COLUMN peakAngularVelocity REAL");
+        }
+    };
+
+    /**
+     * Version 4 -> 5: reference rep trajectories on exercises. The column starts out empty;
+     * {@link CatalogSeeder} writes the catalog's templates on the next start, since a v4 database
+     * has no catalog_meta row, and scoring falls back to the built-in templates until then.
+     */
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE exercises ADD COLUMN referenceTrajectories BLOB");
+        }
+    };
+
+    /**
+     * Version 5 -> 6: indices matching each DAO query's filter and sort columns, and a unique
+     * firebaseUid. Duplicate users from earlier versions are merged into the oldest row first.
+     */
+    public static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            String keeper = "(SELECT MIN(k.id) FROM users k WHERE k.firebaseUid = "
+                + "(SELECT d.firebaseUid FROM users d WHERE d.id = %1$s.userId))";
+            String duplicates = "SELECT id FROM users WHERE firebaseUid IS NOT NULL AND id NOT IN "
+                + "(SELECT MIN(id) FROM users WHERE firebaseUid IS NOT NULL GROUP BY firebaseUid)";
+            db.execSQL("UPDATE workout_sessions SET userId = " + String.format(keeper, "workout_sessions")
+                + " WHERE userId IN (" + duplicates + ")");
+            db.execSQL("UPDATE workouts SET userId = " + String.format(keeper, "workouts")
+                + " WHERE userId IN (" + duplicates + ")");
+            db.execSQL("DELETE FROM users WHERE id IN (" + duplicates + ")");
+
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_users_firebaseUid` ON `users` (`firebaseUid`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_users_email` ON `users` (`email`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_workouts_userId` ON `workouts` (`userId`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_workouts_category` ON `workouts` (`category`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_workouts_isCustom` ON `workouts` (`isCustom`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_exercises_workoutId_order` ON `exercises` (`workoutId`, `order`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_exercises_name` ON `exercises` (`name`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_workout_sessions_userId_isCompleted_startTime` "
+                + "ON `workout_sessions` (`userId`, `isCompleted`, `startTime`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_workout_sessions_userId_startTime` "
+                + "ON `workout_sessions` (`userId`, `startTime`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_exercise_sets_sessionId_completedAt` "
+                + "ON `exercise_sets` (`sessionId`, `completedAt`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_exercise_sets_exerciseId_sessionId` "
+                + "ON `exercise_sets` (`exerciseId`, `sessionId`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_form_analysis_exerciseSetId_timestamp` "
+                + "ON `form_analysis` (`exerciseSetId`, `timestamp`)");
+            // Give the query planner statistics for the new indices
+            db.execSQL("ANALYZE");
+        }
+    };
+
+    /**
+     * Version 6 -> 7: feedback, keyPointScores and formCheckpoints change from JSON text to
+     * binary checkpoint vectors. SQLite cannot change a column type, so both tables are rebuilt
+     * and the JSON values are converted row by row inside the migration transaction.
+     */
+    public static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `form_analysis_new` ("
+                + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `exerciseSetId` INTEGER NOT NULL, "
+                + "`timestamp` INTEGER NOT NULL, `overallScore` REAL NOT NULL, `feedback` BLOB, "
+                + "`keyPointScores` BLOB, `recommendations` TEXT, `repNumber` INTEGER NOT NULL DEFAULT 0, "
+                + "`eccentricMs` INTEGER, `concentricMs` INTEGER, `rangeOfMotion` REAL, "
+                + "`peakAngularVelocity` REAL)");
+            db.execSQL("INSERT INTO `form_analysis_new` (id, exerciseSetId, timestamp, overallScore, "
+                + "recommendations, repNumber, eccentricMs, concentricMs, rangeOfMotion, peakAngularVelocity) "
+                + "SELECT id, exerciseSetId, timestamp, overallScore, recommendations, repNumber, "
+                + "eccentricMs, concentricMs, rangeOfMotion, peakAngularVelocity FROM `form_analysis`");
+            convertJsonColumns(db, "form_analysis", "form_analysis_new", "feedback", "keyPointScores");
+            db.execSQL("DROP TABLE `form_analysis`");
+            db.execSQL("ALTER TABLE `form_analysis_new` RENAME TO `form_analysis`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_form_analysis_exerciseSetId_timestamp` "
+                + "ON `form_analysis` (`exerciseSetId`, `timestamp`)");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `exercises_new` ("
+                + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `workoutId` INTEGER NOT NULL, "
+                + "`name` TEXT, `description` TEXT, `instructions` TEXT, `targetMuscles` TEXT, "
+                + "`equipment` TEXT, `sets` INTEGER NOT NULL, `reps` INTEGER NOT NULL, "
+                + "`restTime` INTEGER NOT NULL, `order` INTEGER NOT NULL, `hasFormAnalysis` INTEGER NOT NULL, "
+                + "`formCheckpoints` BLOB, `gifUrl` TEXT, `referenceTrajectories` BLOB)");
+            db.execSQL("INSERT INTO `exercises_new` (id, workoutId, name, description, instructions, "
+                + "targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, gifUrl, "
+                + "referenceTrajectories) SELECT id, workoutId, name, description, instructions, "
+                + "targetMuscles, equipment, sets, reps, restTime, `order`, hasFormAnalysis, gifUrl, "
+                + "referenceTrajectories FROM `exercises`");
+            convertJsonColumns(db, "exercises", "exercises_new", "formCheckpoints");
+            db.execSQL("DROP TABLE `exercises`");
+            db.execSQL("ALTER TABLE `exercises_new` RENAME TO `exercises`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_exercises_workoutId_order` ON `exercises` (`workoutId`, `order`)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_exercises_name` ON `exercises` (`name`)");
+        }
+    };
+
+    /**
+     * Version 7 -> 8: exercise type on exercise_sets and the daily_summaries rollup table,
+     * backfilled from completed sessions. Sets saved earlier count as unknown exercises.
+     */
+    public static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE exercise_sets ADD COLUMN exerciseType TEXT");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `daily_summaries` (`userId` INTEGER NOT NULL, "
+                + "`day` INTEGER NOT NULL, `exercise` TEXT NOT NULL, `sessionCount` INTEGER NOT NULL, "
+                + "`totalMinutes` INTEGER NOT NULL, `totalCalories` INTEGER NOT NULL, "
+                + "`setCount` INTEGER NOT NULL, `repCount` INTEGER NOT NULL, `holdSeconds` INTEGER NOT NULL, "
+                + "`formScoreSum` REAL NOT NULL, `formScoreCount` INTEGER NOT NULL, "
+                + "PRIMARY KEY(`userId`, `day`, `exercise`))");
+            // Local calendar day of the session start, matching DailySummary.dayOf
+            String day = "CAST(strftime('%s', s.startTime / 1000, 'unixepoch', 'localtime') AS INTEGER) / 86400";
+            String columns = "INSERT INTO daily_summaries (userId, day, exercise, sessionCount, totalMinutes, "
+                + "totalCalories, setCount, repCount, holdSeconds, formScoreSum, formScoreCount) ";
+            db.execSQL(columns + "SELECT s.userId, " + day + ", '*', COUNT(*), COALESCE(SUM(s.totalDuration), 0), "
+                + "COALESCE(SUM(s.caloriesBurned), 0), 0, 0, 0, 0, 0 "
+                + "FROM workout_sessions s WHERE s.isCompleted = 1 GROUP BY 1, 2");
+            db.execSQL(columns + "SELECT s.userId, " + day + ", COALESCE(e.exerciseType, 'UNKNOWN'), 0, 0, 0, "
+                + "COUNT(*), SUM(e.reps), COALESCE(SUM(e.duration), 0), COALESCE(SUM(e.formScore), 0), "
+                + "COUNT(e.formScore) "
+                + "FROM exercise_sets e JOIN workout_sessions s ON s.id = e.sessionId "
+                + "WHERE s.isCompleted = 1 GROUP BY 1, 2, 3");
+            // Each day's '*' row also carries the sum of its per-exercise set totals
+            String sameDay = "FROM daily_summaries x WHERE x.userId = daily_summaries.userId "
+                + "AND x.day = daily_summaries.day AND x.exercise <> '*'";
+            db.execSQL("UPDATE daily_summaries SET "
+                + "setCount = (SELECT COALESCE(SUM(x.setCount), 0) " + sameDay + "), "
+                + "repCount = (SELECT COALESCE(SUM(x.repCount), 0) " + sameDay + "), "
+                + "holdSeconds = (SELECT COALESCE(SUM(x.holdSeconds), 0) " + sameDay + "), "
+                + "formScoreSum = (SELECT COALESCE(SUM(x.formScoreSum), 0) " + sameDay + "), "
+                + "formScoreCount = (SELECT COALESCE(SUM(x.formScoreCount), 0) " + sameDay + ") "
+                + "WHERE exercise = '*'");
+        }
+    };
+
+    /**
+     * Version 8 -> 9: catalog_meta records the seeded catalog version and content hash.
+     * System workouts and exercises duplicated by earlier seeding are merged here; CatalogSeeder
+     * then fills in anything missing on next use.
+     */
+    public static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `catalog_meta` (`catalog` TEXT NOT NULL, "
+                + "`version` INTEGER NOT NULL, `contentHash` TEXT, `seededAt` INTEGER NOT NULL, "
+                + "PRIMARY KEY(`catalog`))");
+            // System workouts sharing a name, and exercises sharing a workout and name, all but the oldest
+            String duplicateWorkouts = "SELECT id FROM workouts WHERE userId = 0 AND isCustom = 0 "
+                + "AND name IS NOT NULL AND id NOT IN "
+                + "(SELECT MIN(id) FROM workouts WHERE userId = 0 AND isCustom = 0 GROUP BY name)";
+            String duplicateExercises = "SELECT id FROM exercises "
+                + "WHERE workoutId IN (SELECT id FROM workouts WHERE userId = 0 AND isCustom = 0) "
+                + "AND name IS NOT NULL AND id NOT IN "
+                + "(SELECT MIN(id) FROM exercises GROUP BY workoutId, name)";
+            String keeperWorkout = "(SELECT MIN(k.id) FROM workouts k, workouts d WHERE d.id = %1$s.workoutId "
+                + "AND k.userId = 0 AND k.isCustom = 0 AND k.name = d.name)";
+            db.execSQL("UPDATE workout_sessions SET workoutId = " + String.format(keeperWorkout, "workout_sessions")
+                + " WHERE workoutId IN (" + duplicateWorkouts + ")");
+            db.execSQL("UPDATE exercises SET workoutId = " + String.format(keeperWorkout, "exercises")
+                + " WHERE workoutId IN (" + duplicateWorkouts + ")");
+            db.execSQL("DELETE FROM workouts WHERE id IN (" + duplicateWorkouts + ")");
+            db.execSQL("UPDATE exercise_sets SET exerciseId = "
+                + "(SELECT MIN(k.id) FROM exercises k, exercises d WHERE d.id = exercise_sets.exerciseId "
+                + "AND k.workoutId = d.workoutId AND k.name = d.name) "
+                + "WHERE exerciseId IN (" + duplicateExercises + ")");
+            db.execSQL("DELETE FROM exercises WHERE id IN (" + duplicateExercises + ")");
+        }
+    };
+
+    /**
+     * Version 9 -> 10: form_analysis moves to {@link TelemetryDatabase}.
+     * Existing rows are kept under {@link TelemetryDatabase#LEGACY_TABLE} until the telemetry
+     * database copies them over and drops the table.
+     */
+    public static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DROP INDEX IF EXISTS `index_form_analysis_exerciseSetId_timestamp`");
+            db.execSQL("ALTER TABLE `form_analysis` RENAME TO `" + TelemetryDatabase.LEGACY_TABLE + "`");
+        }
+    };
+
+    /**
+     * Version 10 -> 11: sessions record when their progress was last checkpointed, so
+     * sessions left incomplete by a killed process can be told apart from live ones
+     */
+    public static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `workout_sessions` ADD COLUMN `lastCheckpointAt` INTEGER");
+        }
+    };
+
+    /**
+     * Version 11 -> 12: full-text index over workouts and exercises, filled from the existing
+     * rows and kept in sync by triggers from then on
+     */
+    public static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `catalog_search` USING FTS4("
+                + "`workoutId` INTEGER NOT NULL, `exerciseId` INTEGER NOT NULL, `ownerId` INTEGER NOT NULL, "
+                + "`name` TEXT, `description` TEXT, `instructions` TEXT, `targetMuscles` TEXT, `equipment` TEXT, "
+                + "`workoutName` TEXT, `category` TEXT, tokenize=unicode61, "
+                + "notindexed=`workoutId`, notindexed=`exerciseId`, notindexed=`ownerId`, prefix=`2,3`)");
+            // Exercises take even rowids and workouts odd ones; both statements take a WHERE clause
+            String columns = "rowid, workoutId, exerciseId, ownerId, name, description, instructions, "
+                + "targetMuscles, equipment, workoutName, category";
+            String owner = "COALESCE(CASE WHEN w.isCustom THEN w.userId ELSE 0 END, 0)";
+            String exerciseRows = "INSERT INTO catalog_search (" + columns + ") "
+                + "SELECT e.id * 2, e.workoutId, e.id, " + owner + ", e.name, e.description, e.instructions, "
+                + "e.targetMuscles, e.equipment, w.name, w.category "
+                + "FROM exercises e LEFT JOIN workouts w ON w.id = e.workoutId ";
+            String workoutRows = "INSERT INTO catalog_search (" + columns + ") "
+                + "SELECT w.id * 2 + 1, w.id, 0, " + owner + ", w.name, w.description, NULL, NULL, NULL, NULL, "
+                + "w.category FROM workouts w ";
+            db.execSQL(workoutRows);
+            db.execSQL(exerciseRows);
+            db.execSQL("INSERT INTO catalog_search (catalog_search) VALUES ('optimize')");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `catalog_search_exercise_insert` "
+                + "AFTER INSERT ON `exercises` BEGIN "
+                + exerciseRows + "WHERE e.id = new.id; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `catalog_search_exercise_update` "
+                + "AFTER UPDATE ON `exercises` WHEN old.workoutId IS NOT new.workoutId OR old.name IS NOT new.name "
+                + "OR old.description IS NOT new.description OR old.instructions IS NOT new.instructions "
+                + "OR old.targetMuscles IS NOT new.targetMuscles OR old.equipment IS NOT new.equipment BEGIN "
+                + "DELETE FROM catalog_search WHERE rowid = old.id * 2; "
+                + exerciseRows + "WHERE e.id = new.id; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `catalog_search_exercise_delete` "
+                + "AFTER DELETE ON `exercises` BEGIN "
+                + "DELETE FROM catalog_search WHERE rowid = old.id * 2; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `catalog_search_workout_insert` "
+                + "AFTER INSERT ON `workouts` BEGIN "
+                + workoutRows + "WHERE w.id = new.id; END");
+            // A renamed or recategorised workout also rewrites its exercises' rows
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `catalog_search_workout_update` "
+                + "AFTER UPDATE ON `workouts` WHEN old.name IS NOT new.name OR old.description IS NOT new.description "
+                + "OR old.category IS NOT new.category OR old.userId IS NOT new.userId "
+                + "OR old.isCustom IS NOT new.isCustom BEGIN "
+                + "DELETE FROM catalog_search WHERE rowid = old.id * 2 + 1; "
+                + workoutRows + "WHERE w.id = new.id; "
+                + "DELETE FROM catalog_search WHERE rowid IN (SELECT id * 2 FROM exercises WHERE workoutId = new.id); "
+                + exerciseRows + "WHERE e.workoutId = new.id; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `catalog_search_workout_delete` "
+                + "AFTER DELETE ON `workouts` BEGIN "
+                + "DELETE FROM catalog_search WHERE rowid = old.id * 2 + 1; END");
+        }
+    };
+
+    /**
+     * Copies JSON object columns from one table to another as checkpoint vectors.
+     * Keys are checkpoint keys; numbers are kept, true becomes 1.0, anything else is dropped.
+     */
+    private static void convertJsonColumns(SupportSQLiteDatabase db, String from, String to, String... columns) {
+        StringBuilder select = new StringBuilder("SELECT id");
+        for (String column : columns) {
+            select.append(", `").append(column).append('`');
+        }
+        select.append(" FROM `").append(from).append('`');
+        for (String column : columns) {
+            SupportSQLiteStatement update = db.compileStatement(
+                "UPDATE `" + to + "` SET `" + column + "` = ? WHERE id = ?");
+            try (Cursor cursor = db.query(select.toString() + " WHERE `" + column + "` IS NOT NULL")) {
+                int index = cursor.getColumnIndexOrThrow(column);
+                while (cursor.moveToNext()) {
+                    CheckpointVector vector = parseCheckpoints(cursor.getString(index));
+                    if (vector == null) {
+                        continue;
+                    }
+                    update.clearBindings();
+                    update.bindBlob(1, vector.toBytes());
+                    update.bindLong(2, cursor.getLong(0));
+                    update.executeUpdateDelete();
+                }
+            }
+        }
+    }
+
+    private static CheckpointVector parseCheckpoints(String json) {
+        JsonObject object;
+        try {
+            object = GSON.fromJson(json, JsonObject.class);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        if (object == null) {
+            return null;
+        }
+        float[] values = new float[FormCheckpoint.COUNT];
+        Arrays.fill(values, Float.NaN);
+        boolean any = false;
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            FormCheckpoint checkpoint = FormCheckpoint.fromKey(entry.getKey());
+            JsonElement value = entry.getValue();
+            if (checkpoint == null || !value.isJsonPrimitive()) {
+                continue;
+            }
+            JsonPrimitive primitive = value.getAsJsonPrimitive();
+            if (primitive.isNumber()) {
+                values[checkpoint.getId()] = primitive.getAsFloat();
+                any = true;
+            } else if (primitive.isBoolean() && primitive.getAsBoolean()) {
+                values[checkpoint.getId()] = 1f;
+                any = true;
+            }
+        }
+        return any ? CheckpointVector.of(values) : null;
+    }
+
+    /** All migrations, in version order */
+    public static final Migration[] ALL = {
+        MIGRATION_3_4,
+        MIGRATION_4_5,
+        MIGRATION_5_6,
+        MIGRATION_6_7,
+        MIGRATION_7_8,
+        MIGRATION_8_9,
+        MIGRATION_9_10,
+        MIGRATION_10_11,
+        MIGRATION_11_12
+    };
+}
@@ -0,0 +1,87 @@
+package com.fit.fitform.data.database;
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.data.dao.FormAnalysisDao;
+import com.fit.fitform.data.entity.FormAnalysis;
+import com.fit.fitform.data.entity.SetAnalysisRollup;
+
+/**
+ * Room database for high-rate analysis telemetry, kept in its own file.
+ * Writes here take their own write lock and invalidation tracker, so recording analysis
+ * during a set does not wake LiveData queries on {@link FitFormDatabase}. Rows refer to
+ * exercise sets by id only; queries that need both databases go through
+ * {@link com.fit.fitform.data.repository.SessionAnalysisRepository}. Old rows are folded into
+ * per-set rollups by {@link TelemetryMaintenance}.
+ */
+@Database(
+    entities = {
+        FormAnalysis.class,
+        SetAnalysisRollup.class
+    },
+    version = 2,
+    exportSchema = true
+)
+@TypeConverters(Converters.class)
+public abstract class TelemetryDatabase extends RoomDatabase {
+
+    private static final String TAG = "TelemetryDatabase";
+
+    public abstract FormAnalysisDao formAnalysisDao();
+
+    /** Table FitFormDatabase keeps its form_analysis rows in until they are copied here */
+    public static final String LEGACY_TABLE = "legacy_form_analysis";
+
+    private static volatile TelemetryDatabase INSTANCE;
+
+    /**
+     * Gets the database instance using singleton pattern
+     * @param context Application context
+     * @return TelemetryDatabase instance
+     */
+    public static TelemetryDatabase getDatabase(Context context) {
+        if (INSTANCE == null) {
+            synchronized (TelemetryDatabase.class) {
+                if (INSTANCE == null) {
+                    FitFormDatabase main = FitFormDatabase.getDatabase(context);
+                    TelemetryDatabase database = Room.databaseBuilder(
+                        context.getApplicationContext(),
+                        TelemetryDatabase.class,
+                        "fitform_telemetry"
+                    )
+                    .setJournalMode(JournalMode.WRITE_AHEAD_LOGGING)
+                    // New files start in incremental auto-vacuum, so maintenance never needs a full VACUUM
+                    .openHelperFactory(new IncrementalVacuumOpenHelperFactory())
+                    .addMigrations(TelemetryMigrations.ALL)
+                    .setQueryExecutor(AppExecutors.telemetryDatabase())
+                    .setTransactionExecutor(AppExecutors.telemetryDatabase())
+                    .addCallback(new Callback() {
+                        @Override
+                        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                            // WAL stays consistent on power loss with NORMAL; only the last
+                            // commits can be lost, which is acceptable for telemetry
+                            db.execSQL("PRAGMA synchronous = NORMAL");
+                            // Before any DAO can write, so new rows cannot collide with legacy ids
+                            try {
+                                LegacyTelemetryImport.run(main, db);
+                            } catch (Exception e) {
+                                Log.e(TAG, "Legacy telemetry import failed; retried on next open", e);
+                            }
+                        }
+                    })
+                    .build();
+                    // Open in the background, so the import is usually done before a screen needs the file
+                    AppExecutors.telemetryDatabase().execute(() -> database.getOpenHelper().getWritableDatabase());
+                    INSTANCE = database;
+                }
+            }
+        }
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,247 @@
+package com.fit.fitform.data.database;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.os.BatteryManager;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import com.fit.fitform.analysis.CheckpointVector;
+import com.fit.fitform.analysis.FormCheckpoint;
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.data.dao.FormAnalysisDao;
+import com.fit.fitform.data.entity.FormAnalysis;
+import com.fit.fitform.data.entity.SetAnalysisRollup;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps TelemetryDatabase bounded over years of daily training.
+ * Raw form_analysis rows of sets older than the retention age are folded into one
+ * {@link SetAnalysisRollup} per set and deleted, a few sets per transaction so the write lock
+ * is only held briefly. Rows of sets that no longer exist in FitFormDatabase are dropped without
+ * a rollup. Freed pages are then returned to the file system in small incremental vacuum steps,
+ * the WAL is truncated and {@code PRAGMA optimize} refreshes planner statistics.
+ */
+public class TelemetryMaintenance {
+
+    private static final String TAG = "TelemetryMaintenance";
+
+    /** Age after which raw analysis rows are downsampled */
+    public static final long DEFAULT_RETENTION_MS = 90L * 24 * 60 * 60 * 1000;
+    /** Shortest time between two runs */
+    public static final long RUN_INTERVAL_MS = 24L * 60 * 60 * 1000;
+
+    private static final String PREFS = "telemetry_maintenance";
+    private static final String KEY_LAST_RUN = "last_run";
+    // Sets folded per transaction; a set holds tens of rep rows
+    private static final int SETS_PER_BATCH = 32;
+    // Pages freed per incremental vacuum step
+    private static final int VACUUM_PAGES_PER_STEP = 256;
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private static final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final FitFormDatabase main;
+    private final TelemetryDatabase telemetry;
+    private final long retentionMs;
+
+    /**
+     * Constructor for TelemetryMaintenance
+     * @param main Database holding the exercise sets
+     * @param telemetry Database holding the analysis rows
+     * @param retentionMs Age after which raw rows are downsampled
+     */
+    public TelemetryMaintenance(FitFormDatabase main, TelemetryDatabase telemetry, long retentionMs) {
+        this.main = main;
+        this.telemetry = telemetry;
+        this.retentionMs = retentionMs;
+    }
+
+    /**
+     * Runs maintenance on the telemetry executor if the last run was more than
+     * {@link #RUN_INTERVAL_MS} ago. Safe to call from the main thread on every launch.
+     * @param context Any context; the application context is used
+     */
+    public static void runIfDue(Context context) {
+        Context app = context.getApplicationContext();
+        try {
+            AppExecutors.telemetry().execute(() -> {
+                SharedPreferences prefs = app.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+                long now = System.currentTimeMillis();
+                if (now - prefs.getLong(KEY_LAST_RUN, 0L) < RUN_INTERVAL_MS
+                        || !running.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    BatteryManager battery = app.getSystemService(BatteryManager.class);
+                    boolean charging = battery != null && battery.isCharging();
+                    new TelemetryMaintenance(FitFormDatabase.getDatabase(app), TelemetryDatabase.getDatabase(app),
+                        DEFAULT_RETENTION_MS).run(charging);
+                    prefs.edit().putLong(KEY_LAST_RUN, now).apply();
+                } catch (Exception e) {
+                    Log.e(TAG, "Telemetry maintenance failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Telemetry pool saturated; maintenance runs on a later launch");
+        }
+    }
+
+    /**
+     * Downsamples, vacuums and optimizes. Blocks, so call off the main thread.
+     * @param charging True if the device is charging, which allows the one-off full VACUUM that
+     *                 converts a file created before incremental auto-vacuum
+     * @return Number of raw rows deleted
+     */
+    public int run(boolean charging) {
+        long startMs = SystemClock.elapsedRealtime();
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        FormAnalysisDao dao = telemetry.formAnalysisDao();
+        int rowsDeleted = 0;
+        int setsRolledUp = 0;
+        int orphanSets = 0;
+        long afterSetId = 0;
+        while (true) {
+            List<SetAnalysisRollup> batch = dao.getOldSetRollups(afterSetId, cutoff, SETS_PER_BATCH);
+            if (batch.isEmpty()) {
+                break;
+            }
+            afterSetId = batch.get(batch.size() - 1).getExerciseSetId();
+            List<Long> setIds = new ArrayList<>(batch.size());
+            for (SetAnalysisRollup rollup : batch) {
+                setIds.add(rollup.getExerciseSetId());
+            }
+            Set<Long> existing = new HashSet<>(main.exerciseSetDao().getExistingSetIds(setIds));
+            List<SetAnalysisRollup> kept = new ArrayList<>(existing.size());
+            for (SetAnalysisRollup rollup : batch) {
+                if (existing.contains(rollup.getExerciseSetId())) {
+                    kept.add(rollup);
+                }
+            }
+            if (!kept.isEmpty()) {
+                averageVectors(kept, dao.getAnalysesForSets(new ArrayList<>(existing)));
+            }
+            rowsDeleted += dao.downsample(kept, setIds);
+            setsRolledUp += kept.size();
+            orphanSets += batch.size() - kept.size();
+        }
+
+        SupportSQLiteDatabase db = telemetry.getOpenHelper().getWritableDatabase();
+        long pagesFreed = vacuum(db, charging);
+        drain(db.query("PRAGMA wal_checkpoint(TRUNCATE)"));
+        drain(db.query("PRAGMA optimize"));
+        drain(main.getOpenHelper().getWritableDatabase().query("PRAGMA optimize"));
+        Log.d(TAG, setsRolledUp + " sets rolled up, " + orphanSets + " orphaned sets dropped, "
+            + rowsDeleted + " rows deleted, " + pagesFreed + " pages freed in "
+            + (SystemClock.elapsedRealtime() - startMs) + "ms");
+        return rowsDeleted;
+    }
+
+    /**
+     * Sets each rollup's feedback and checkpoint scores to the per-checkpoint mean of its rows
+     */
+    private static void averageVectors(List<SetAnalysisRollup> rollups, List<FormAnalysis> rows) {
+        Map<Long, List<FormAnalysis>> bySet = new HashMap<>();
+        for (FormAnalysis row : rows) {
+            bySet.computeIfAbsent(row.getExerciseSetId(), id -> new ArrayList<>()).add(row);
+        }
+        for (SetAnalysisRollup rollup : rollups) {
+            List<FormAnalysis> setRows = bySet.get(rollup.getExerciseSetId());
+            if (setRows == null) {
+                continue;
+            }
+            List<CheckpointVector> feedback = new ArrayList<>(setRows.size());
+            List<CheckpointVector> scores = new ArrayList<>(setRows.size());
+            for (FormAnalysis row : setRows) {
+                feedback.add(row.getFeedback());
+                scores.add(row.getKeyPointScores());
+            }
+            rollup.setFeedback(mean(feedback));
+            rollup.setKeyPointScores(mean(scores));
+        }
+    }
+
+    /**
+     * @return Mean of each slot over the vectors that have a value there, or null if none do
+     */
+    private static CheckpointVector mean(List<CheckpointVector> vectors) {
+        float[] sums = new float[FormCheckpoint.COUNT];
+        int[] counts = new int[FormCheckpoint.COUNT];
+        boolean any = false;
+        for (CheckpointVector vector : vectors) {
+            if (vector == null) {
+                continue;
+            }
+            for (int id = 0; id < FormCheckpoint.COUNT; id++) {
+                float value = vector.get(id);
+                if (!Float.isNaN(value)) {
+                    sums[id] += value;
+                    counts[id]++;
+                    any = true;
+                }
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        for (int id = 0; id < sums.length; id++) {
+            sums[id] = counts[id] > 0 ? sums[id] / counts[id] : Float.NaN;
+        }
+        return CheckpointVector.of(sums);
+    }
+
+    /**
+     * Returns free pages to the file system in short steps. Files are created in incremental
+     * auto-vacuum by {@link IncrementalVacuumOpenHelperFactory}; an older file is switched over
+     * with one full VACUUM, which rewrites the whole file and so waits for a run while charging.
+     * Until then its free pages are reused by new rows.
+     * @return Pages freed
+     */
+    private static long vacuum(SupportSQLiteDatabase db, boolean charging) {
+        if (pragmaLong(db, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            if (!charging) {
+                return 0;
+            }
+            long before = pragmaLong(db, "PRAGMA page_count");
+            db.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+            db.execSQL("VACUUM");
+            return Math.max(0, before - pragmaLong(db, "PRAGMA page_count"));
+        }
+        long freed = 0;
+        long free = pragmaLong(db, "PRAGMA freelist_count");
+        while (free > 0) {
+            // Each step is its own short write; camera writes can interleave between steps
+            drain(db.query("PRAGMA incremental_vacuum(" + VACUUM_PAGES_PER_STEP + ")"));
+            long remaining = pragmaLong(db, "PRAGMA freelist_count");
+            if (remaining >= free) {
+                break;
+            }
+            freed += free - remaining;
+            free = remaining;
+        }
+        return freed;
+    }
+
+    private static long pragmaLong(SupportSQLiteDatabase db, String pragma) {
+        try (Cursor cursor = db.query(pragma)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0L;
+        }
+    }
+
+    private static void drain(Cursor cursor) {
+        try (Cursor c = cursor) {
+            while (c.moveToNext()) {
+                // Stepping runs the pragma
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.fit.fitform.data.database;
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Schema migrations for TelemetryDatabase.
+ * Each migration upgrades existing user data in place; register new ones in {@link #ALL}.
+ */
+public final class TelemetryMigrations {
+
+    private TelemetryMigrations() {}
+
+    /**
+     * Version 1 -> 2: per-set rollups that replace raw analysis rows past retention
+     */
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `set_analysis_rollups` (`exerciseSetId` INTEGER NOT NULL, "
+                + "`rowCount` INTEGER NOT NULL, `repCount` INTEGER NOT NULL, `setScore` REAL, "
+                + "`averageScore` REAL, `minScore` REAL, `averageRangeOfMotion` REAL, "
+                + "`averageEccentricMs` REAL, `averageConcentricMs` REAL, `firstTimestamp` INTEGER NOT NULL, "
+                + "`lastTimestamp` INTEGER NOT NULL, `feedback` BLOB, `keyPointScores` BLOB, "
+                + "PRIMARY KEY(`exerciseSetId`))");
+        }
+    };
+
+    /** All migrations, in version order */
+    public static final Migration[] ALL = {
+        MIGRATION_1_2
+    };
+}
@@ -0,0 +1,69 @@
+package com.fit.fitform.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * CatalogMeta entity class recording which version of a built-in catalog was last seeded.
+ * The content hash lets seeding be skipped when nothing changed and redone when the catalog
+ * content changed without a version bump.
+ * This entity is used with Room database for data persistence.
+ */
+@Entity(tableName = "catalog_meta")
+public class CatalogMeta {
+
+    /** Key of the system workout and exercise catalog */
+    public static final String SYSTEM_CATALOG = "system";
+
+    @PrimaryKey
+    @NonNull
+    private String catalog = SYSTEM_CATALOG;
+    private int version;
+    private String contentHash; // SHA-256 of the seeded content, hex
+    private long seededAt = System.currentTimeMillis();
+
+    // Default constructor
+    public CatalogMeta() {}
+
+    // Constructor with parameters
+    public CatalogMeta(@NonNull String catalog, int version, String contentHash) {
+        this.catalog = catalog;
+        this.version = version;
+        this.contentHash = contentHash;
+    }
+
+    // Getters and Setters
+    @NonNull
+    public String getCatalog() {
+        return catalog;
+    }
+
+    public void setCatalog(@NonNull String catalog) {
+        this.catalog = catalog;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public long getSeededAt() {
+        return seededAt;
+    }
+
+    public void setSeededAt(long seededAt) {
+        this.seededAt = seededAt;
+    }
+}
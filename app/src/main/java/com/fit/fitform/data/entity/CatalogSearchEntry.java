@@ -0,0 +1,128 @@
+package com.fit.fitform.data.entity;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+import androidx.room.PrimaryKey;
+
+/**
+ * CatalogSearchEntry entity class for the full-text index over workouts and their exercises.
+ * One row per exercise, carrying its workout's name and category, and one row per workout.
+ * Rows are written only by the triggers created in
+ * {@link com.fit.fitform.data.database.Migrations#MIGRATION_11_12} and shipped in the catalog
+ * asset, and by {@link com.fit.fitform.data.dao.CatalogSearchDao#rebuild()}; an exercise's row id is twice its id and a workout's is twice its id plus one.
+ * Prefix indexes of two and three characters keep search-as-you-type queries index-only.
+ */
+@Fts4(
+    tokenizer = FtsOptions.TOKENIZER_UNICODE61,
+    prefix = {2, 3},
+    notIndexed = {"workoutId", "exerciseId", "ownerId"}
+)
+@Entity(tableName = "catalog_search")
+public class CatalogSearchEntry {
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private long rowId;
+    private long workoutId;
+    private long exerciseId; // 0 for a workout's own row
+    private long ownerId; // user of a custom workout, 0 for the built-in catalog
+    private String name;
+    private String description;
+    private String instructions;
+    private String targetMuscles;
+    private String equipment;
+    private String workoutName; // null for a workout's own row
+    private String category;
+
+    // Default constructor
+    public CatalogSearchEntry() {}
+
+    // Getters and Setters
+    public long getRowId() {
+        return rowId;
+    }
+
+    public void setRowId(long rowId) {
+        this.rowId = rowId;
+    }
+
+    public long getWorkoutId() {
+        return workoutId;
+    }
+
+    public void setWorkoutId(long workoutId) {
+        this.workoutId = workoutId;
+    }
+
+    public long getExerciseId() {
+        return exerciseId;
+    }
+
+    public void setExerciseId(long exerciseId) {
+        this.exerciseId = exerciseId;
+    }
+
+    public long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getInstructions() {
+        return instructions;
+    }
+
+    public void setInstructions(String instructions) {
+        this.instructions = instructions;
+    }
+
+    public String getTargetMuscles() {
+        return targetMuscles;
+    }
+
+    public void setTargetMuscles(String targetMuscles) {
+        this.targetMuscles = targetMuscles;
+    }
+
+    public String getEquipment() {
+        return equipment;
+    }
+
+    public void setEquipment(String equipment) {
+        this.equipment = equipment;
+    }
+
+    public String getWorkoutName() {
+        return workoutName;
+    }
+
+    public void setWorkoutName(String workoutName) {
+        this.workoutName = workoutName;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+}
@@ -0,0 +1,149 @@
+package com.fit.fitform.data.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+import java.util.TimeZone;
+
+/**
+ * DailySummary entity class holding running totals for one user, day and exercise.
+ * Rows are bumped when a session completes, so dashboard totals read a handful of rows
+ * instead of scanning the user's whole history. The {@link #ALL_EXERCISES} row of each day
+ * carries the session-level totals (sessions, minutes, calories) plus the sums over all sets.
+ * This entity is used with Room database for data persistence.
+ */
+@Entity(
+    tableName = "daily_summaries",
+    primaryKeys = {"userId", "day", "exercise"}
+)
+public class DailySummary {
+
+    /** Exercise key of the per-day row covering every exercise */
+    public static final String ALL_EXERCISES = "*";
+    /** Exercise key for sets recorded before exercises were tracked on sets */
+    public static final String UNKNOWN_EXERCISE = "UNKNOWN";
+
+    private static final long DAY_MS = 86_400_000L;
+
+    private long userId;
+    private long day; // local calendar day, in days since 1970-01-01
+    @NonNull
+    private String exercise = ALL_EXERCISES;
+    private int sessionCount = 0;
+    private int totalMinutes = 0;
+    private int totalCalories = 0;
+    private int setCount = 0;
+    private int repCount = 0;
+    private int holdSeconds = 0;
+    private double formScoreSum = 0.0;
+    private int formScoreCount = 0;
+
+    // Default constructor
+    public DailySummary() {}
+
+    // Constructor for an empty row
+    public DailySummary(long userId, long day, @NonNull String exercise) {
+        this.userId = userId;
+        this.day = day;
+        this.exercise = exercise;
+    }
+
+    /**
+     * Local calendar day of a timestamp, matching SQLite's 'localtime' modifier
+     * @param timeMs Epoch milliseconds
+     * @return Days since 1970-01-01 in the device time zone
+     */
+    public static long dayOf(long timeMs) {
+        return Math.floorDiv(timeMs + TimeZone.getDefault().getOffset(timeMs), DAY_MS);
+    }
+
+    // Getters and Setters
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public long getDay() {
+        return day;
+    }
+
+    public void setDay(long day) {
+        this.day = day;
+    }
+
+    @NonNull
+    public String getExercise() {
+        return exercise;
+    }
+
+    public void setExercise(@NonNull String exercise) {
+        this.exercise = exercise;
+    }
+
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    public void setSessionCount(int sessionCount) {
+        this.sessionCount = sessionCount;
+    }
+
+    public int getTotalMinutes() {
+        return totalMinutes;
+    }
+
+    public void setTotalMinutes(int totalMinutes) {
+        this.totalMinutes = totalMinutes;
+    }
+
+    public int getTotalCalories() {
+        return totalCalories;
+    }
+
+    public void setTotalCalories(int totalCalories) {
+        this.totalCalories = totalCalories;
+    }
+
+    public int getSetCount() {
+        return setCount;
+    }
+
+    public void setSetCount(int setCount) {
+        this.setCount = setCount;
+    }
+
+    public int getRepCount() {
+        return repCount;
+    }
+
+    public void setRepCount(int repCount) {
+        this.repCount = repCount;
+    }
+
+    public int getHoldSeconds() {
+        return holdSeconds;
+    }
+
+    public void setHoldSeconds(int holdSeconds) {
+        this.holdSeconds = holdSeconds;
+    }
+
+    public double getFormScoreSum() {
+        return formScoreSum;
+    }
+
+    public void setFormScoreSum(double formScoreSum) {
+        this.formScoreSum = formScoreSum;
+    }
+
+    public int getFormScoreCount() {
+        return formScoreCount;
+    }
+
+    public void setFormScoreCount(int formScoreCount) {
+        this.formScoreCount = formScoreCount;
+    }
+}
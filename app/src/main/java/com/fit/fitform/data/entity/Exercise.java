@@ -2,14 +2,22 @@ package com.fit.fitform.data.entity;
 import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
+import com.fit.fitform.analysis.CheckpointVector;
 
 /**
  * Exercise entity class representing an individual exercise within a workout.
  * Stores exercise details including instructions, target muscles, and form analysis capabilities.
  * This entity is used with Room database for data persistence.
  */
-@Entity(tableName = "exercises")
+@Entity(
+    tableName = "exercises",
+    indices = {
+        @Index({"workoutId", "order"}),
+        @Index("name")
+    }
+)
 public class Exercise implements Parcelable {
     @PrimaryKey(autoGenerate = true)
     private long id = 0;
@@ -24,8 +32,9 @@ public class Exercise implements Parcelable {
     private int restTime; // in seconds
     private int order; // Order in workout
     private boolean hasFormAnalysis = false; // Whether this exercise supports ML form analysis
-    private String formCheckpoints; // JSON string of key points to check
+    private CheckpointVector formCheckpoints; // Checkpoints to check, 1.0 per enabled checkpoint id
     private String gifUrl; // URL or resource path for exercise demonstration GIF
+    private byte[] referenceTrajectories = null; // Encoded reference reps for DTW matching, see TrajectoryTemplates
 
     // Default constructor
     public Exercise() {}
@@ -142,11 +151,11 @@ public class Exercise implements Parcelable {
         this.hasFormAnalysis = hasFormAnalysis;
     }
 
-    public String getFormCheckpoints() {
+    public CheckpointVector getFormCheckpoints() {
         return formCheckpoints;
     }
 
-    public void setFormCheckpoints(String formCheckpoints) {
+    public void setFormCheckpoints(CheckpointVector formCheckpoints) {
         this.formCheckpoints = formCheckpoints;
     }
 
@@ -158,6 +167,14 @@ public class Exercise implements Parcelable {
         this.gifUrl = gifUrl;
     }
 
+    public byte[] getReferenceTrajectories() {
+        return referenceTrajectories;
+    }
+
+    public void setReferenceTrajectories(byte[] referenceTrajectories) {
+        this.referenceTrajectories = referenceTrajectories;
+    }
+
     public boolean isRequiresCamera() {
         return hasFormAnalysis;
     }
@@ -176,8 +193,9 @@ public class Exercise implements Parcelable {
         restTime = in.readInt();
         order = in.readInt();
         hasFormAnalysis = in.readByte() != 0;
-        formCheckpoints = in.readString();
+        formCheckpoints = CheckpointVector.wrap(in.createByteArray());
         gifUrl = in.readString();
+        referenceTrajectories = in.createByteArray();
     }
 
     public static final Creator<Exercise> CREATOR = new Creator<Exercise>() {
@@ -211,7 +229,8 @@ public class Exercise implements Parcelable {
         dest.writeInt(restTime);
         dest.writeInt(order);
         dest.writeByte((byte) (hasFormAnalysis ? 1 : 0));
-        dest.writeString(formCheckpoints);
+        dest.writeByteArray(formCheckpoints != null ? formCheckpoints.toBytes() : null);
         dest.writeString(gifUrl);
+        dest.writeByteArray(referenceTrajectories);
     }
 }
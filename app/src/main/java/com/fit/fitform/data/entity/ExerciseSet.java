@@ -1,5 +1,6 @@
 package com.fit.fitform.data.entity;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
@@ -7,18 +8,31 @@ import androidx.room.PrimaryKey;
  * Tracks reps, weight, duration, and form score for each set performed.
  * This entity is used with Room database for data persistence.
  */
-@Entity(tableName = "exercise_sets")
+@Entity(
+    tableName = "exercise_sets",
+    indices = {
+        @Index({"sessionId", "completedAt"}),
+        @Index({"exerciseId", "sessionId"})
+    }
+)
 public class ExerciseSet {
     @PrimaryKey(autoGenerate = true)
     private long id = 0;
     private long sessionId;
     private long exerciseId;
+    private String exerciseType = null; // ExerciseType name from pose analysis, null if unknown
     private int setNumber;
     private int reps;
     private Float weight = null; // in kg
     private Integer duration = null; // in seconds for time-based exercises
     private Float formScore = null; // 0.0 to 1.0, calculated by ML analysis
     private long completedAt = System.currentTimeMillis();
+    // Tempo summary from live pose analysis, null for sets without rep tracking
+    private Integer avgEccentricMs = null; // lowering phase per rep
+    private Integer avgConcentricMs = null; // raising phase per rep
+    private Integer timeUnderTensionMs = null; // summed over all reps
+    private Float avgRangeOfMotion = null; // driving joint, in degrees
+    private Float peakAngularVelocity = null; // fastest concentric phase, in degrees/second
 
     // Default constructor
     public ExerciseSet() {}
@@ -56,6 +70,14 @@ public class ExerciseSet {
         this.exerciseId = exerciseId;
     }
 
+    public String getExerciseType() {
+        return exerciseType;
+    }
+
+    public void setExerciseType(String exerciseType) {
+        this.exerciseType = exerciseType;
+    }
+
     public int getSetNumber() {
         return setNumber;
     }
@@ -103,4 +125,44 @@ public class ExerciseSet {
     public void setCompletedAt(long completedAt) {
         this.completedAt = completedAt;
     }
+
+    public Integer getAvgEccentricMs() {
+        return avgEccentricMs;
+    }
+
+    public void setAvgEccentricMs(Integer avgEccentricMs) {
+        this.avgEccentricMs = avgEccentricMs;
+    }
+
+    public Integer getAvgConcentricMs() {
+        return avgConcentricMs;
+    }
+
+    public void setAvgConcentricMs(Integer avgConcentricMs) {
+        this.avgConcentricMs = avgConcentricMs;
+    }
+
+    public Integer getTimeUnderTensionMs() {
+        return timeUnderTensionMs;
+    }
+
+    public void setTimeUnderTensionMs(Integer timeUnderTensionMs) {
+        this.timeUnderTensionMs = timeUnderTensionMs;
+    }
+
+    public Float getAvgRangeOfMotion() {
+        return avgRangeOfMotion;
+    }
+
+    public void setAvgRangeOfMotion(Float avgRangeOfMotion) {
+        this.avgRangeOfMotion = avgRangeOfMotion;
+    }
+
+    public Float getPeakAngularVelocity() {
+        return peakAngularVelocity;
+    }
+
+    public void setPeakAngularVelocity(Float peakAngularVelocity) {
+        this.peakAngularVelocity = peakAngularVelocity;
+    }
 }
@@ -1,29 +1,43 @@
 package com.fit.fitform.data.entity;
+import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
+import com.fit.fitform.analysis.CheckpointVector;
 
 /**
  * FormAnalysis entity class representing ML-based form analysis results for exercise sets.
  * Stores detailed feedback, scores, and recommendations from the AI form analysis system.
  * This entity is used with Room database for data persistence.
  */
-@Entity(tableName = "form_analysis")
+@Entity(
+    tableName = "form_analysis",
+    indices = {
+        @Index({"exerciseSetId", "timestamp"})
+    }
+)
 public class FormAnalysis {
     @PrimaryKey(autoGenerate = true)
     private long id = 0;
     private long exerciseSetId;
     private long timestamp;
     private float overallScore; // 0.0 to 1.0
-    private String feedback; // JSON string with detailed feedback
-    private String keyPointScores; // JSON string with scores for each key point
+    private CheckpointVector feedback; // Fault rate per checkpoint id
+    private CheckpointVector keyPointScores; // Score per checkpoint id
     private String recommendations = null; // Suggestions for improvement
+    @ColumnInfo(defaultValue = "0")
+    private int repNumber = 0; // 1-based rep within the set, 0 for set-level analysis
+    private Integer eccentricMs = null; // lowering phase duration
+    private Integer concentricMs = null; // raising phase duration
+    private Float rangeOfMotion = null; // driving joint, in degrees
+    private Float peakAngularVelocity = null; // in degrees/second
 
     // Default constructor
     public FormAnalysis() {}
 
     // Constructor with parameters
     public FormAnalysis(long exerciseSetId, long timestamp, float overallScore, 
-                       String feedback, String keyPointScores) {
+                       CheckpointVector feedback, CheckpointVector keyPointScores) {
         this.exerciseSetId = exerciseSetId;
         this.timestamp = timestamp;
         this.overallScore = overallScore;
@@ -64,19 +78,19 @@ public class FormAnalysis {
         this.overallScore = overallScore;
     }
 
-    public String getFeedback() {
+    public CheckpointVector getFeedback() {
         return feedback;
     }
 
-    public void setFeedback(String feedback) {
+    public void setFeedback(CheckpointVector feedback) {
         this.feedback = feedback;
     }
 
-    public String getKeyPointScores() {
+    public CheckpointVector getKeyPointScores() {
         return keyPointScores;
     }
 
-    public void setKeyPointScores(String keyPointScores) {
+    public void setKeyPointScores(CheckpointVector keyPointScores) {
         this.keyPointScores = keyPointScores;
     }
 
@@ -87,4 +101,44 @@ public class FormAnalysis {
     public void setRecommendations(String recommendations) {
         this.recommendations = recommendations;
     }
+
+    public int getRepNumber() {
+        return repNumber;
+    }
+
+    public void setRepNumber(int repNumber) {
+        this.repNumber = repNumber;
+    }
+
+    public Integer getEccentricMs() {
+        return eccentricMs;
+    }
+
+    public void setEccentricMs(Integer eccentricMs) {
+        this.eccentricMs = eccentricMs;
+    }
+
+    public Integer getConcentricMs() {
+        return concentricMs;
+    }
+
+    public void setConcentricMs(Integer concentricMs) {
+        this.concentricMs = concentricMs;
+    }
+
+    public Float getRangeOfMotion() {
+        return rangeOfMotion;
+    }
+
+    public void setRangeOfMotion(Float rangeOfMotion) {
+        this.rangeOfMotion = rangeOfMotion;
+    }
+
+    public Float getPeakAngularVelocity() {
+        return peakAngularVelocity;
+    }
+
+    public void setPeakAngularVelocity(Float peakAngularVelocity) {
+        this.peakAngularVelocity = peakAngularVelocity;
+    }
 }
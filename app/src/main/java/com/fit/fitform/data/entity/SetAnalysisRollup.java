@@ -0,0 +1,136 @@
+package com.fit.fitform.data.entity;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+import com.fit.fitform.analysis.CheckpointVector;
+
+/**
+ * SetAnalysisRollup entity class holding the downsampled form analysis of one exercise set.
+ * Once a set's raw form_analysis rows pass the retention age they are folded into one of these
+ * rows and deleted, so old history keeps its per-set scores at a fixed cost per set.
+ * Stored in {@link com.fit.fitform.data.database.TelemetryDatabase}.
+ */
+@Entity(tableName = "set_analysis_rollups")
+public class SetAnalysisRollup {
+    @PrimaryKey
+    private long exerciseSetId;
+    private int rowCount; // raw rows folded in
+    private int repCount; // rows with a rep number
+    private Float setScore = null; // mean overall score over all rows
+    private Float averageScore = null; // mean overall score over reps, null without reps
+    private Float minScore = null; // lowest rep score
+    private Float averageRangeOfMotion = null;
+    private Float averageEccentricMs = null;
+    private Float averageConcentricMs = null;
+    private long firstTimestamp;
+    private long lastTimestamp;
+    private CheckpointVector feedback = null; // mean fault rate per checkpoint id
+    private CheckpointVector keyPointScores = null; // mean score per checkpoint id
+
+    // Default constructor
+    public SetAnalysisRollup() {}
+
+    // Getters and Setters
+    public long getExerciseSetId() {
+        return exerciseSetId;
+    }
+
+    public void setExerciseSetId(long exerciseSetId) {
+        this.exerciseSetId = exerciseSetId;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public int getRepCount() {
+        return repCount;
+    }
+
+    public void setRepCount(int repCount) {
+        this.repCount = repCount;
+    }
+
+    public Float getSetScore() {
+        return setScore;
+    }
+
+    public void setSetScore(Float setScore) {
+        this.setScore = setScore;
+    }
+
+    public Float getAverageScore() {
+        return averageScore;
+    }
+
+    public void setAverageScore(Float averageScore) {
+        this.averageScore = averageScore;
+    }
+
+    public Float getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(Float minScore) {
+        this.minScore = minScore;
+    }
+
+    public Float getAverageRangeOfMotion() {
+        return averageRangeOfMotion;
+    }
+
+    public void setAverageRangeOfMotion(Float averageRangeOfMotion) {
+        this.averageRangeOfMotion = averageRangeOfMotion;
+    }
+
+    public Float getAverageEccentricMs() {
+        return averageEccentricMs;
+    }
+
+    public void setAverageEccentricMs(Float averageEccentricMs) {
+        this.averageEccentricMs = averageEccentricMs;
+    }
+
+    public Float getAverageConcentricMs() {
+        return averageConcentricMs;
+    }
+
+    public void setAverageConcentricMs(Float averageConcentricMs) {
+        this.averageConcentricMs = averageConcentricMs;
+    }
+
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public void setFirstTimestamp(long firstTimestamp) {
+        this.firstTimestamp = firstTimestamp;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(long lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public CheckpointVector getFeedback() {
+        return feedback;
+    }
+
+    public void setFeedback(CheckpointVector feedback) {
+        this.feedback = feedback;
+    }
+
+    public CheckpointVector getKeyPointScores() {
+        return keyPointScores;
+    }
+
+    public void setKeyPointScores(CheckpointVector keyPointScores) {
+        this.keyPointScores = keyPointScores;
+    }
+}
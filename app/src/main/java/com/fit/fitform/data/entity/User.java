@@ -1,6 +1,7 @@
 package com.fit.fitform.data.entity;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
@@ -8,7 +9,13 @@ import androidx.room.PrimaryKey;
  * Stores user profile information including username and email.
  * This entity is used with Room database for data persistence.
  */
-@Entity(tableName = "users")
+@Entity(
+    tableName = "users",
+    indices = {
+        @Index(value = "firebaseUid", unique = true),
+        @Index("email")
+    }
+)
 public class User {
     @PrimaryKey(autoGenerate = true)
     private long id = 0;
@@ -1,6 +1,7 @@
 package com.fit.fitform.data.entity;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
@@ -8,7 +9,14 @@ import androidx.room.PrimaryKey;
  * Stores workout information including name, description, category, and difficulty level.
  * This entity is used with Room database for data persistence.
  */
-@Entity(tableName = "workouts")
+@Entity(
+    tableName = "workouts",
+    indices = {
+        @Index("userId"),
+        @Index("category"),
+        @Index("isCustom")
+    }
+)
 public class Workout {
     @PrimaryKey(autoGenerate = true)
     private long id = 0;
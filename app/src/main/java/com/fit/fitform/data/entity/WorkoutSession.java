@@ -1,6 +1,7 @@
 package com.fit.fitform.data.entity;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
@@ -8,7 +9,13 @@ import androidx.room.PrimaryKey;
  * Tracks when a user starts and completes a workout, including duration and calories burned.
  * This entity is used with Room database for data persistence.
  */
-@Entity(tableName = "workout_sessions")
+@Entity(
+    tableName = "workout_sessions",
+    indices = {
+        @Index({"userId", "isCompleted", "startTime"}),
+        @Index({"userId", "startTime"})
+    }
+)
 public class WorkoutSession {
     @PrimaryKey(autoGenerate = true)
     private long id = 0;
@@ -20,6 +27,7 @@ public class WorkoutSession {
     private Integer caloriesBurned = null;
     private boolean isCompleted = false;
     private String notes = null;
+    private Long lastCheckpointAt = null; // last progress write while incomplete, epoch ms
 
     // Default constructor
     public WorkoutSession() {}
@@ -103,4 +111,12 @@ public class WorkoutSession {
     public void setNotes(String notes) {
         this.notes = notes;
     }
+
+    public Long getLastCheckpointAt() {
+        return lastCheckpointAt;
+    }
+
+    public void setLastCheckpointAt(Long lastCheckpointAt) {
+        this.lastCheckpointAt = lastCheckpointAt;
+    }
 }
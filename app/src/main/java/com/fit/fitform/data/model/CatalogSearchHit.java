@@ -0,0 +1,78 @@
+package com.fit.fitform.data.model;
+
+import androidx.room.Ignore;
+
+/**
+ * One catalog_search row matching a query, as returned by CatalogSearchDao#search.
+ * The raw matchinfo statistics are turned into a score by CatalogSearchRepository.
+ */
+public class CatalogSearchHit {
+    private long workoutId;
+    private long exerciseId; // 0 when the workout itself matched
+    private String name;
+    private String workoutName;
+    private String category;
+    private byte[] matchInfo; // matchinfo(catalog_search, 'pcnalx')
+
+    @Ignore
+    private double score;
+
+    public CatalogSearchHit() {}
+
+    // Getters and Setters
+    public long getWorkoutId() {
+        return workoutId;
+    }
+
+    public void setWorkoutId(long workoutId) {
+        this.workoutId = workoutId;
+    }
+
+    public long getExerciseId() {
+        return exerciseId;
+    }
+
+    public void setExerciseId(long exerciseId) {
+        this.exerciseId = exerciseId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getWorkoutName() {
+        return workoutName;
+    }
+
+    public void setWorkoutName(String workoutName) {
+        this.workoutName = workoutName;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public byte[] getMatchInfo() {
+        return matchInfo;
+    }
+
+    public void setMatchInfo(byte[] matchInfo) {
+        this.matchInfo = matchInfo;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -0,0 +1,111 @@
+package com.fit.fitform.data.model;
+
+import java.util.Objects;
+
+/**
+ * The columns a session list row displays, with the workout name and set count joined in.
+ * Filled by Room from the list queries in WorkoutSessionDao, one query per list.
+ */
+public class SessionListItem {
+    private long id;
+    private long startTime;
+    private Integer totalDuration; // in minutes
+    private Integer caloriesBurned;
+    private String workoutName; // null for free sessions
+    private String exerciseTypes; // comma-separated ExerciseType names of the recorded sets
+    private int setCount;
+
+    /**
+     * @return Workout name, else the exercises performed, e.g. "Push-up, Squat"
+     */
+    public String getTitle() {
+        if (workoutName != null) {
+            return workoutName;
+        }
+        if (exerciseTypes == null || exerciseTypes.isEmpty()) {
+            return "Workout";
+        }
+        StringBuilder title = new StringBuilder();
+        for (String type : exerciseTypes.split(",")) {
+            if (title.length() > 0) {
+                title.append(", ");
+            }
+            switch (type) {
+                case "PUSHUP": title.append("Push-up"); break;
+                case "SQUAT": title.append("Squat"); break;
+                case "PLANK": title.append("Plank"); break;
+                default: title.append(type.charAt(0)).append(type.substring(1).toLowerCase());
+            }
+        }
+        return title.toString();
+    }
+
+    /**
+     * @return True if every displayed column matches, for list diffing
+     */
+    public boolean sameContent(SessionListItem other) {
+        return startTime == other.startTime
+            && setCount == other.setCount
+            && Objects.equals(totalDuration, other.totalDuration)
+            && Objects.equals(caloriesBurned, other.caloriesBurned)
+            && Objects.equals(workoutName, other.workoutName)
+            && Objects.equals(exerciseTypes, other.exerciseTypes);
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public Integer getTotalDuration() {
+        return totalDuration;
+    }
+
+    public void setTotalDuration(Integer totalDuration) {
+        this.totalDuration = totalDuration;
+    }
+
+    public Integer getCaloriesBurned() {
+        return caloriesBurned;
+    }
+
+    public void setCaloriesBurned(Integer caloriesBurned) {
+        this.caloriesBurned = caloriesBurned;
+    }
+
+    public String getWorkoutName() {
+        return workoutName;
+    }
+
+    public void setWorkoutName(String workoutName) {
+        this.workoutName = workoutName;
+    }
+
+    public String getExerciseTypes() {
+        return exerciseTypes;
+    }
+
+    public void setExerciseTypes(String exerciseTypes) {
+        this.exerciseTypes = exerciseTypes;
+    }
+
+    public int getSetCount() {
+        return setCount;
+    }
+
+    public void setSetCount(int setCount) {
+        this.setCount = setCount;
+    }
+}
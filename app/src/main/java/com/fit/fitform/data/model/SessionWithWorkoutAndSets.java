@@ -0,0 +1,55 @@
+package com.fit.fitform.data.model;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+import com.fit.fitform.data.entity.ExerciseSet;
+import com.fit.fitform.data.entity.Workout;
+import com.fit.fitform.data.entity.WorkoutSession;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A workout session with the workout it followed and the sets it recorded.
+ * Filled by Room from one @Transaction query. The workout is null for free sessions
+ * started from the dashboard, which have no workout.
+ */
+public class SessionWithWorkoutAndSets {
+    @Embedded
+    private WorkoutSession session;
+
+    @Relation(parentColumn = "workoutId", entityColumn = "id")
+    private Workout workout;
+
+    @Relation(parentColumn = "id", entityColumn = "sessionId")
+    private List<ExerciseSet> sets = new ArrayList<>();
+
+    // Getters and Setters
+    public WorkoutSession getSession() {
+        return session;
+    }
+
+    public void setSession(WorkoutSession session) {
+        this.session = session;
+    }
+
+    public Workout getWorkout() {
+        return workout;
+    }
+
+    public void setWorkout(Workout workout) {
+        this.workout = workout;
+    }
+
+    /**
+     * @return Sets in the order they were completed
+     */
+    public List<ExerciseSet> getSets() {
+        return sets;
+    }
+
+    public void setSets(List<ExerciseSet> sets) {
+        sets.sort(Comparator.comparingLong(ExerciseSet::getCompletedAt));
+        this.sets = sets;
+    }
+}
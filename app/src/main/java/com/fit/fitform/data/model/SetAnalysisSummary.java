@@ -0,0 +1,98 @@
+package com.fit.fitform.data.model;
+
+import androidx.room.Ignore;
+import com.fit.fitform.data.entity.ExerciseSet;
+
+/**
+ * Per-rep analysis of one exercise set, aggregated in the telemetry database.
+ * Filled by Room from FormAnalysisDao; the set itself is attached afterwards from the main
+ * database by SessionAnalysisRepository.
+ */
+public class SetAnalysisSummary {
+    private long exerciseSetId;
+    private int repCount;
+    private Float averageScore; // null when no reps were analysed
+    private Float minScore;
+    private Float averageRangeOfMotion;
+    private Float averageEccentricMs;
+    private Float averageConcentricMs;
+
+    @Ignore
+    private ExerciseSet set;
+
+    public SetAnalysisSummary() {}
+
+    /**
+     * @param set Set with no analysed reps
+     */
+    @Ignore
+    public SetAnalysisSummary(ExerciseSet set) {
+        this.exerciseSetId = set.getId();
+        this.set = set;
+    }
+
+    // Getters and Setters
+    public long getExerciseSetId() {
+        return exerciseSetId;
+    }
+
+    public void setExerciseSetId(long exerciseSetId) {
+        this.exerciseSetId = exerciseSetId;
+    }
+
+    public int getRepCount() {
+        return repCount;
+    }
+
+    public void setRepCount(int repCount) {
+        this.repCount = repCount;
+    }
+
+    public Float getAverageScore() {
+        return averageScore;
+    }
+
+    public void setAverageScore(Float averageScore) {
+        this.averageScore = averageScore;
+    }
+
+    public Float getMinScore() {
+        return minScore;
+    }
+
+    public void setMinScore(Float minScore) {
+        this.minScore = minScore;
+    }
+
+    public Float getAverageRangeOfMotion() {
+        return averageRangeOfMotion;
+    }
+
+    public void setAverageRangeOfMotion(Float averageRangeOfMotion) {
+        this.averageRangeOfMotion = averageRangeOfMotion;
+    }
+
+    public Float getAverageEccentricMs() {
+        return averageEccentricMs;
+    }
+
+    public void setAverageEccentricMs(Float averageEccentricMs) {
+        this.averageEccentricMs = averageEccentricMs;
+    }
+
+    public Float getAverageConcentricMs() {
+        return averageConcentricMs;
+    }
+
+    public void setAverageConcentricMs(Float averageConcentricMs) {
+        this.averageConcentricMs = averageConcentricMs;
+    }
+
+    public ExerciseSet getSet() {
+        return set;
+    }
+
+    public void setSet(ExerciseSet set) {
+        this.set = set;
+    }
+}
@@ -0,0 +1,88 @@
+package com.fit.fitform.data.model;
+
+/**
+ * Totals summed over a range of daily summary rows.
+ * Filled by Room from the aggregate queries in DailySummaryDao.
+ */
+public class SummaryTotals {
+    private int sessions;
+    private int minutes;
+    private int calories;
+    private int sets;
+    private int reps;
+    private int holdSeconds;
+    private double formScoreSum;
+    private int formScoreCount;
+
+    /**
+     * @return Mean form score (0.0 to 1.0) over all scored sets, or null if none were scored
+     */
+    public Float getAverageFormScore() {
+        return formScoreCount > 0 ? (float) (formScoreSum / formScoreCount) : null;
+    }
+
+    // Getters and Setters
+    public int getSessions() {
+        return sessions;
+    }
+
+    public void setSessions(int sessions) {
+        this.sessions = sessions;
+    }
+
+    public int getMinutes() {
+        return minutes;
+    }
+
+    public void setMinutes(int minutes) {
+        this.minutes = minutes;
+    }
+
+    public int getCalories() {
+        return calories;
+    }
+
+    public void setCalories(int calories) {
+        this.calories = calories;
+    }
+
+    public int getSets() {
+        return sets;
+    }
+
+    public void setSets(int sets) {
+        this.sets = sets;
+    }
+
+    public int getReps() {
+        return reps;
+    }
+
+    public void setReps(int reps) {
+        this.reps = reps;
+    }
+
+    public int getHoldSeconds() {
+        return holdSeconds;
+    }
+
+    public void setHoldSeconds(int holdSeconds) {
+        this.holdSeconds = holdSeconds;
+    }
+
+    public double getFormScoreSum() {
+        return formScoreSum;
+    }
+
+    public void setFormScoreSum(double formScoreSum) {
+        this.formScoreSum = formScoreSum;
+    }
+
+    public int getFormScoreCount() {
+        return formScoreCount;
+    }
+
+    public void setFormScoreCount(int formScoreCount) {
+        this.formScoreCount = formScoreCount;
+    }
+}
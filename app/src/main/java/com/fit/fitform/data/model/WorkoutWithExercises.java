@@ -0,0 +1,44 @@
+package com.fit.fitform.data.model;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+import com.fit.fitform.data.entity.Exercise;
+import com.fit.fitform.data.entity.Workout;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A workout together with its exercises.
+ * Filled by Room from one @Transaction query: the workouts, then every exercise of those
+ * workouts in a single IN query.
+ */
+public class WorkoutWithExercises {
+    @Embedded
+    private Workout workout;
+
+    @Relation(parentColumn = "id", entityColumn = "workoutId")
+    private List<Exercise> exercises = new ArrayList<>();
+
+    // Getters and Setters
+    public Workout getWorkout() {
+        return workout;
+    }
+
+    public void setWorkout(Workout workout) {
+        this.workout = workout;
+    }
+
+    /**
+     * @return Exercises in the order they are performed
+     */
+    public List<Exercise> getExercises() {
+        return exercises;
+    }
+
+    public void setExercises(List<Exercise> exercises) {
+        // Relations come back in table order
+        exercises.sort(Comparator.comparingInt(Exercise::getOrder));
+        this.exercises = exercises;
+    }
+}
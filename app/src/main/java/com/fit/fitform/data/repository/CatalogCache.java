@@ -0,0 +1,64 @@
+package com.fit.fitform.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.entity.Exercise;
+import com.fit.fitform.data.entity.Workout;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Process-wide caches of workouts and exercises by id, shared by every WorkoutRepository.
+ * Room's InvalidationTracker clears a cache whenever its table changes, including writes
+ * that bypass the repository, such as catalog seeding.
+ */
+final class CatalogCache {
+
+    private static final int MAX_WORKOUTS = 64;
+    private static final int MAX_EXERCISES = 256;
+
+    private static volatile CatalogCache instance;
+
+    final ReadThroughCache<Workout> workouts = new ReadThroughCache<>(MAX_WORKOUTS);
+    final ReadThroughCache<Exercise> exercises = new ReadThroughCache<>(MAX_EXERCISES);
+
+    private final InvalidationTracker invalidationTracker;
+    private final AtomicBoolean observing = new AtomicBoolean(false);
+
+    private CatalogCache(FitFormDatabase database) {
+        this.invalidationTracker = database.getInvalidationTracker();
+    }
+
+    static CatalogCache get(FitFormDatabase database) {
+        if (instance == null) {
+            synchronized (CatalogCache.class) {
+                if (instance == null) {
+                    instance = new CatalogCache(database);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Starts listening for table changes. Registering syncs Room's triggers, so this is called
+     * from the first lookup, which already runs off the main thread.
+     */
+    void ensureObserving() {
+        if (!observing.compareAndSet(false, true)) {
+            return;
+        }
+        invalidationTracker.addObserver(new InvalidationTracker.Observer("workouts", "exercises") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                if (tables.contains("workouts")) {
+                    workouts.invalidateAll();
+                }
+                if (tables.contains("exercises")) {
+                    exercises.invalidateAll();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package com.fit.fitform.data.repository;
+
+import android.os.SystemClock;
+import android.util.Log;
+import com.fit.fitform.data.dao.CatalogSearchDao;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.entity.Workout;
+import com.fit.fitform.data.model.CatalogSearchHit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Repository class for full-text search over workouts and exercises.
+ * Turns typed text into a prefix query on the catalog_search index, ranks the matching rows
+ * with BM25 weighted towards names, and returns the workouts they belong to, best first.
+ * An exercise match stands for its workout, so searching "lunge" finds leg workouts.
+ */
+public class CatalogSearchRepository {
+
+    private static final String TAG = "CatalogSearchRepository";
+
+    // Rows ranked per query; bounds latency for two-letter prefixes on a large catalog
+    private static final int MAX_CANDIDATES = 500;
+    // Shortest word searched; the index keeps prefixes from two characters, shorter ones scan every term
+    private static final int MIN_WORD_LENGTH = 2;
+    // Slowest search that is not worth a log line: one frame
+    private static final long SLOW_SEARCH_MS = 16L;
+
+    /**
+     * BM25 weight per catalog_search column, in {@link CatalogSearchDao#COLUMNS} order after rowid:
+     * workoutId, exerciseId, ownerId, name, description, instructions, targetMuscles, equipment,
+     * workoutName, category
+     */
+    private static final double[] COLUMN_WEIGHTS = {0, 0, 0, 10, 2, 1, 4, 3, 3, 3};
+
+    private final CatalogSearchDao catalogSearchDao;
+    private final WorkoutRepository workoutRepository;
+
+    /**
+     * Constructor for CatalogSearchRepository
+     * @param database Database holding the index; workouts are read through the shared cache
+     */
+    public CatalogSearchRepository(FitFormDatabase database) {
+        this.catalogSearchDao = database.catalogSearchDao();
+        this.workoutRepository = new WorkoutRepository(database);
+    }
+
+    /**
+     * Searches the built-in catalog and the user's own workouts. Blocks, so call off the main thread.
+     * @param text Text as typed; every word matches as a prefix
+     * @param userId User whose custom workouts are searched too
+     * @param limit Most workouts returned
+     * @return Matching workouts, most relevant first; empty for blank text
+     */
+    public List<Workout> searchWorkouts(String text, long userId, int limit) {
+        String match = toMatchExpression(text);
+        if (match == null) {
+            return new ArrayList<>();
+        }
+        long startMs = SystemClock.elapsedRealtime();
+        List<CatalogSearchHit> hits = catalogSearchDao.search(match, userId, MAX_CANDIDATES);
+        for (CatalogSearchHit hit : hits) {
+            hit.setScore(Bm25.score(hit.getMatchInfo(), COLUMN_WEIGHTS));
+        }
+        hits.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+
+        // Keep each workout's best-scoring row, in rank order
+        Map<Long, CatalogSearchHit> best = new LinkedHashMap<>();
+        for (CatalogSearchHit hit : hits) {
+            best.putIfAbsent(hit.getWorkoutId(), hit);
+            if (best.size() == limit) {
+                break;
+            }
+        }
+        List<Workout> workouts = new ArrayList<>(best.size());
+        for (long workoutId : best.keySet()) {
+            Workout workout = workoutRepository.getWorkoutById(workoutId);
+            if (workout != null) {
+                workouts.add(workout);
+            }
+        }
+        long elapsed = SystemClock.elapsedRealtime() - startMs;
+        if (elapsed > SLOW_SEARCH_MS) {
+            Log.w(TAG, "Search for '" + match + "' took " + elapsed + "ms over " + hits.size() + " rows");
+        }
+        return workouts;
+    }
+
+    /**
+     * Builds an FTS4 MATCH expression requiring every word, each as a prefix.
+     * Only letters and digits are kept, so user input can never form FTS operators or syntax,
+     * and single-character words are skipped.
+     * @param text Text as typed
+     * @return Expression such as {@code "push* up*"}, or null if no words remain
+     */
+    static String toMatchExpression(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        StringBuilder word = new StringBuilder();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() >= MIN_WORD_LENGTH) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append(word).append('*');
+                word.setLength(0);
+            } else {
+                word.setLength(0);
+            }
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+}
@@ -0,0 +1,210 @@
+package com.fit.fitform.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.core.concurrent.SerialExecutor;
+import com.fit.fitform.data.dao.FormAnalysisDao;
+import com.fit.fitform.data.entity.FormAnalysis;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for FormAnalysis rows.
+ * Callers hand rows over without touching the database; rows are written in order on the
+ * shared telemetry pool, in a single transaction per batch, whenever {@code maxBatch} rows are
+ * waiting, {@code flushIntervalMs} after the first row of a batch arrives, when the buffer backs
+ * up, and when the observed lifecycle stops. Nothing is scheduled while the buffer is empty.
+ */
+public class FormAnalysisWriter implements DefaultLifecycleObserver {
+
+    private static final String TAG = "FormAnalysisWriter";
+
+    public static final int DEFAULT_MAX_BATCH = 32;
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 1000L;
+    // Waiting rows beyond which a flush is forced even if one is already queued
+    private static final int BACKPRESSURE_ROWS = 512;
+
+    private final FormAnalysisDao formAnalysisDao;
+    private final int maxBatch;
+    private final long flushIntervalMs;
+    private final SerialExecutor executor = new SerialExecutor(AppExecutors.telemetry());
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable timedFlush = () -> execute(this::drain);
+
+    // Guarded by this
+    private List<FormAnalysis> pending = new ArrayList<>();
+    private boolean flushQueued = false;
+    private boolean timerArmed = false;
+
+    // Counters
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong totalFlushMillis = new AtomicLong();
+    private final AtomicLong maxFlushMillis = new AtomicLong();
+    private final AtomicLong backpressureFlushes = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+
+    /**
+     * Creates a writer with the default batch size and flush interval
+     * @param formAnalysisDao DAO used for batch inserts
+     */
+    public FormAnalysisWriter(FormAnalysisDao formAnalysisDao) {
+        this(formAnalysisDao, DEFAULT_MAX_BATCH, DEFAULT_FLUSH_INTERVAL_MS);
+    }
+
+    /**
+     * @param formAnalysisDao DAO used for batch inserts
+     * @param maxBatch Rows that trigger an immediate flush
+     * @param flushIntervalMs Longest time a row waits before it is written
+     */
+    public FormAnalysisWriter(FormAnalysisDao formAnalysisDao, int maxBatch, long flushIntervalMs) {
+        this.formAnalysisDao = formAnalysisDao;
+        this.maxBatch = maxBatch;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    /**
+     * Queues a row for writing. Never blocks on the database; safe from any thread.
+     * @param analysis Row to insert
+     */
+    public void submit(FormAnalysis analysis) {
+        boolean schedule;
+        boolean backpressure;
+        synchronized (this) {
+            pending.add(analysis);
+            // The first row of a batch bounds how long the batch can wait
+            if (!timerArmed) {
+                timerArmed = true;
+                handler.postDelayed(timedFlush, flushIntervalMs);
+            }
+            backpressure = pending.size() >= BACKPRESSURE_ROWS;
+            schedule = (pending.size() >= maxBatch && !flushQueued) || backpressure;
+            if (schedule) {
+                flushQueued = true;
+            }
+        }
+        if (backpressure) {
+            backpressureFlushes.incrementAndGet();
+        }
+        if (schedule) {
+            execute(this::drain);
+        }
+    }
+
+    /**
+     * Writes all queued rows as soon as possible
+     * @return Future that completes once the rows queued so far are written; chain onto it
+     *         rather than waiting on a pool thread
+     */
+    public ListenableFuture<Void> flush() {
+        ListenableFutureTask<Void> task = ListenableFutureTask.create(this::drain, null);
+        try {
+            executor.execute(task);
+            return task;
+        } catch (RejectedExecutionException e) {
+            return Futures.immediateFuture(null);
+        }
+    }
+
+    @Override
+    public void onStop(@NonNull LifecycleOwner owner) {
+        flush();
+    }
+
+    /**
+     * Writes the remaining rows, then accepts no more flushes
+     */
+    public void close() {
+        flush();
+        executor.shutdown();
+        handler.removeCallbacks(timedFlush);
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Writer closed; rows stay queued");
+        }
+    }
+
+    // Runs on the serial executor only
+    private void drain() {
+        List<FormAnalysis> batch;
+        synchronized (this) {
+            flushQueued = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            // This batch is on its way; the next row arms a fresh timer
+            timerArmed = false;
+            handler.removeCallbacks(timedFlush);
+            batch = pending;
+            pending = new ArrayList<>(Math.max(maxBatch, batch.size()));
+        }
+        long startMs = SystemClock.elapsedRealtime();
+        try {
+            // One transaction for the whole batch
+            formAnalysisDao.insertAnalyses(batch);
+            rowsWritten.addAndGet(batch.size());
+        } catch (Exception e) {
+            failedRows.addAndGet(batch.size());
+            Log.e(TAG, "Failed to write " + batch.size() + " analyses", e);
+        }
+        long elapsed = SystemClock.elapsedRealtime() - startMs;
+        flushCount.incrementAndGet();
+        totalFlushMillis.addAndGet(elapsed);
+        maxFlushMillis.accumulateAndGet(elapsed, Math::max);
+    }
+
+    /** @return Number of batches written */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /** @return Number of rows written */
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    /** @return Mean rows per flush, or 0 before the first flush */
+    public double getAverageRowsPerFlush() {
+        long flushes = flushCount.get();
+        return flushes == 0 ? 0.0 : (double) (rowsWritten.get() + failedRows.get()) / flushes;
+    }
+
+    /** @return Mean time spent in one batch insert, in milliseconds */
+    public double getAverageFlushMillis() {
+        long flushes = flushCount.get();
+        return flushes == 0 ? 0.0 : (double) totalFlushMillis.get() / flushes;
+    }
+
+    /** @return Longest batch insert so far, in milliseconds */
+    public long getMaxFlushMillis() {
+        return maxFlushMillis.get();
+    }
+
+    /** @return Flushes forced because too many rows were waiting */
+    public long getBackpressureFlushes() {
+        return backpressureFlushes.get();
+    }
+
+    /** @return Rows dropped because their batch failed to insert */
+    public long getFailedRows() {
+        return failedRows.get();
+    }
+}
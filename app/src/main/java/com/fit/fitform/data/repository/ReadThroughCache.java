@@ -0,0 +1,90 @@
+package com.fit.fitform.data.repository;
+
+import android.util.LruCache;
+
+/**
+ * Bounded, id-keyed read-through cache over entity lookups.
+ * Misses are loaded by the caller's loader and kept in least-recently-used order. A load that
+ * overlaps an invalidation is returned but not cached, so a stale row never outlives it.
+ * Thread-safe. Cached objects are shared between callers and must not be modified.
+ * @param <V> Entity type
+ */
+public final class ReadThroughCache<V> {
+
+    /**
+     * Loads a value on a miss, typically a DAO lookup by id
+     * @param <V> Entity type
+     */
+    public interface Loader<V> {
+        V load(long id);
+    }
+
+    private final LruCache<Long, V> cache;
+    // Bumped by every invalidation; guarded by this
+    private long generation = 0;
+
+    /**
+     * @param maxEntries Most values kept before the least recently used is evicted
+     */
+    public ReadThroughCache(int maxEntries) {
+        this.cache = new LruCache<>(maxEntries);
+    }
+
+    /**
+     * Returns the cached value or loads and caches it. Loads block, so call off the main thread.
+     * @param id Entity id
+     * @param loader Loader used on a miss
+     * @return Value, or null if the loader found none (not cached)
+     */
+    public V get(long id, Loader<V> loader) {
+        V value = cache.get(id);
+        if (value != null) {
+            return value;
+        }
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        value = loader.load(id);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    cache.put(id, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops one value, e.g. after writing that entity
+     * @param id Entity id
+     */
+    public synchronized void invalidate(long id) {
+        generation++;
+        cache.remove(id);
+    }
+
+    /**
+     * Drops every value, e.g. when the underlying table changed
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        cache.evictAll();
+    }
+
+    /** @return Lookups answered from memory */
+    public int getHitCount() {
+        return cache.hitCount();
+    }
+
+    /** @return Lookups that went to the loader */
+    public int getMissCount() {
+        return cache.missCount();
+    }
+
+    /** @return Values currently cached */
+    public int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,94 @@
+package com.fit.fitform.data.repository;
+
+import com.fit.fitform.data.dao.ExerciseSetDao;
+import com.fit.fitform.data.dao.FormAnalysisDao;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.database.TelemetryDatabase;
+import com.fit.fitform.data.entity.ExerciseSet;
+import com.fit.fitform.data.model.SetAnalysisSummary;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository class for summaries that combine session data with analysis telemetry.
+ * The two live in separate databases and cannot be joined in SQL, so each call reads the
+ * main database once and the telemetry database once, then matches rows by set id.
+ */
+public class SessionAnalysisRepository {
+
+    private final ExerciseSetDao exerciseSetDao;
+    private final FormAnalysisDao formAnalysisDao;
+
+    /**
+     * Constructor for SessionAnalysisRepository
+     * @param database Main database holding sessions and sets
+     * @param telemetry Telemetry database holding form analysis
+     */
+    public SessionAnalysisRepository(FitFormDatabase database, TelemetryDatabase telemetry) {
+        this.exerciseSetDao = database.exerciseSetDao();
+        this.formAnalysisDao = telemetry.formAnalysisDao();
+    }
+
+    /**
+     * Summarises the analysed reps of every set in a session.
+     * Blocks, so call off the main thread.
+     * @param sessionId Session's unique identifier
+     * @return One summary per set in completion order; sets without analysis have a rep count of 0
+     */
+    public List<SetAnalysisSummary> getSetSummaries(long sessionId) {
+        List<ExerciseSet> sets = exerciseSetDao.getSetsForSession(sessionId);
+        if (sets.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return attach(sets, formAnalysisDao.getSetSummaries(idsOf(sets)));
+    }
+
+    /**
+     * Summarises the analysed reps of every set in a session without blocking.
+     * The set query runs on the main database's executor, then the aggregate on the
+     * telemetry database's.
+     * @param sessionId Session's unique identifier
+     * @return Future of one summary per set, as {@link #getSetSummaries}
+     */
+    public ListenableFuture<List<SetAnalysisSummary>> getSetSummariesAsync(long sessionId) {
+        return Futures.transformAsync(exerciseSetDao.getSetsForSessionAsync(sessionId), sets -> {
+            if (sets.isEmpty()) {
+                return Futures.<List<SetAnalysisSummary>>immediateFuture(new ArrayList<>());
+            }
+            return Futures.transform(formAnalysisDao.getSetSummariesAsync(idsOf(sets)),
+                analysed -> attach(sets, analysed), MoreExecutors.directExecutor());
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static List<Long> idsOf(List<ExerciseSet> sets) {
+        List<Long> ids = new ArrayList<>(sets.size());
+        for (ExerciseSet set : sets) {
+            ids.add(set.getId());
+        }
+        return ids;
+    }
+
+    // Pairs each set with its summary, in set order
+    private static List<SetAnalysisSummary> attach(List<ExerciseSet> sets, List<SetAnalysisSummary> analysed) {
+        Map<Long, SetAnalysisSummary> byId = new HashMap<>();
+        for (SetAnalysisSummary summary : analysed) {
+            byId.put(summary.getExerciseSetId(), summary);
+        }
+        List<SetAnalysisSummary> summaries = new ArrayList<>(sets.size());
+        for (ExerciseSet set : sets) {
+            SetAnalysisSummary summary = byId.get(set.getId());
+            if (summary == null) {
+                summary = new SetAnalysisSummary(set);
+            } else {
+                summary.setSet(set);
+            }
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,252 @@
+package com.fit.fitform.data.repository;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.core.concurrent.SerialExecutor;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.entity.ExerciseSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Periodically saves the progress of a running session so a killed process loses at most a
+ * few seconds of it. Every {@code intervalMs} the main thread compares a cheap progress key;
+ * only when it changed are the sets copied into rows, which a background thread writes in
+ * one small transaction: the session's checkpoint time plus its set rows, replacing the
+ * previous checkpoint's. Snapshots that arrive while a write is waiting replace it, so slow
+ * storage never builds a queue. {@link SessionRecovery} closes or resumes what is left behind.
+ */
+public class SessionCheckpointer implements DefaultLifecycleObserver {
+
+    private static final String TAG = "SessionCheckpointer";
+
+    public static final long DEFAULT_INTERVAL_MS = 5000L;
+
+    // Sessions with a checkpointer in this process; recovery leaves them alone
+    private static final Set<Long> liveSessions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Progress of the running session, read on the main thread
+     */
+    public interface Source {
+        /**
+         * @return Value that changes whenever recorded progress changes; must be cheap
+         */
+        long progressKey();
+
+        /**
+         * @return One row per set so far, in order; session and set numbers are filled in by the checkpointer
+         */
+        List<ExerciseSet> snapshotSets();
+    }
+
+    private static final class Checkpoint {
+        final long sessionId;
+        final int firstSetNumber;
+        final long at;
+        final List<ExerciseSet> sets;
+
+        Checkpoint(long sessionId, int firstSetNumber, long at, List<ExerciseSet> sets) {
+            this.sessionId = sessionId;
+            this.firstSetNumber = firstSetNumber;
+            this.at = at;
+            this.sets = sets;
+        }
+    }
+
+    private final FitFormDatabase database;
+    private final Source source;
+    private final long intervalMs;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final SerialExecutor executor = new SerialExecutor(AppExecutors.diskIo());
+    private final AtomicReference<Checkpoint> pending = new AtomicReference<>();
+    private final Runnable tick = this::tick;
+
+    // Main thread only
+    private long sessionId = -1L;
+    private int firstSetNumber = 1;
+    private long lastKey = Long.MIN_VALUE;
+    private boolean closed = false;
+    private ListenableFutureTask<Void> drained;
+
+    // Counters
+    private final AtomicLong checkpoints = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong maxSnapshotMicros = new AtomicLong();
+    private final AtomicLong maxWriteMillis = new AtomicLong();
+
+    /**
+     * Creates a checkpointer with the default interval
+     * @param database Database the session lives in
+     * @param source Progress of the running session
+     */
+    public SessionCheckpointer(FitFormDatabase database, Source source) {
+        this(database, source, DEFAULT_INTERVAL_MS);
+    }
+
+    /**
+     * @param database Database the session lives in
+     * @param source Progress of the running session
+     * @param intervalMs Time between progress checks; at most one write per interval
+     */
+    public SessionCheckpointer(FitFormDatabase database, Source source, long intervalMs) {
+        this.database = database;
+        this.source = source;
+        this.intervalMs = intervalMs;
+    }
+
+    /**
+     * @param sessionId Session's unique identifier
+     * @return True if a checkpointer in this process is writing the session
+     */
+    public static boolean isLive(long sessionId) {
+        return liveSessions.contains(sessionId);
+    }
+
+    /**
+     * Starts checkpointing a session
+     * @param sessionId Session being recorded
+     * @param firstSetNumber Set number of the first set from the source; earlier sets of a
+     *                       resumed session are left as they are
+     */
+    @MainThread
+    public void start(long sessionId, int firstSetNumber) {
+        if (closed) return;
+        this.sessionId = sessionId;
+        this.firstSetNumber = firstSetNumber;
+        liveSessions.add(sessionId);
+        handler.postDelayed(tick, intervalMs);
+    }
+
+    /**
+     * Writes a checkpoint now if progress changed since the last one
+     */
+    @MainThread
+    public void checkpointNow() {
+        if (closed || sessionId <= 0) return;
+        long startNanos = SystemClock.elapsedRealtimeNanos();
+        long key = source.progressKey();
+        if (key == lastKey) return;
+        lastKey = key;
+        List<ExerciseSet> sets = source.snapshotSets();
+        for (int i = 0; i < sets.size(); i++) {
+            sets.get(i).setSessionId(sessionId);
+            sets.get(i).setSetNumber(firstSetNumber + i);
+        }
+        maxSnapshotMicros.accumulateAndGet((SystemClock.elapsedRealtimeNanos() - startNanos) / 1000L, Math::max);
+        if (pending.getAndSet(new Checkpoint(sessionId, firstSetNumber, System.currentTimeMillis(), sets)) != null) {
+            // The previous snapshot was never written; this one supersedes it
+            coalesced.incrementAndGet();
+            return;
+        }
+        try {
+            executor.execute(this::write);
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Checkpoint rejected; retried on the next change", e);
+            pending.set(null);
+            lastKey = Long.MIN_VALUE;
+        }
+    }
+
+    @Override
+    public void onStop(@NonNull LifecycleOwner owner) {
+        // The process is most likely to be killed while in the background
+        checkpointNow();
+    }
+
+    /**
+     * Stops checkpointing. Call before completing the session.
+     * @return Future that completes once any checkpoint already queued is written; chain the
+     *         session's completion onto it rather than waiting on a pool thread
+     */
+    @MainThread
+    public ListenableFuture<Void> close() {
+        if (drained != null) {
+            return drained;
+        }
+        closed = true;
+        handler.removeCallbacks(tick);
+        long id = sessionId;
+        drained = ListenableFutureTask.create(() -> {
+            liveSessions.remove(id);
+            return null;
+        });
+        try {
+            executor.execute(drained);
+        } catch (RejectedExecutionException e) {
+            drained.run();
+        }
+        Log.d(TAG, this.toString());
+        return drained;
+    }
+
+    // Main thread
+    private void tick() {
+        checkpointNow();
+        if (!closed) {
+            handler.postDelayed(tick, intervalMs);
+        }
+    }
+
+    // Runs on the serial executor
+    private void write() {
+        Checkpoint checkpoint = pending.getAndSet(null);
+        if (checkpoint == null) return;
+        long startMs = SystemClock.elapsedRealtime();
+        try {
+            database.runInTransaction(() -> {
+                // A session completed meanwhile keeps the sets its completion wrote
+                if (database.workoutSessionDao().markCheckpoint(checkpoint.sessionId, checkpoint.at) == 0) return;
+                database.exerciseSetDao().deleteSetsFrom(checkpoint.sessionId, checkpoint.firstSetNumber);
+                database.exerciseSetDao().insertSets(checkpoint.sets);
+            });
+            checkpoints.incrementAndGet();
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to checkpoint session " + checkpoint.sessionId, e);
+        }
+        maxWriteMillis.accumulateAndGet(SystemClock.elapsedRealtime() - startMs, Math::max);
+    }
+
+    /** @return Checkpoints written */
+    public long getCheckpointCount() {
+        return checkpoints.get();
+    }
+
+    /** @return Snapshots replaced by a newer one before they were written */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /** @return Longest main-thread snapshot so far, in microseconds */
+    public long getMaxSnapshotMicros() {
+        return maxSnapshotMicros.get();
+    }
+
+    /** @return Longest checkpoint transaction so far, in milliseconds */
+    public long getMaxWriteMillis() {
+        return maxWriteMillis.get();
+    }
+
+    @Override
+    public String toString() {
+        return "session " + sessionId + ": " + checkpoints.get() + " checkpoints, "
+            + coalesced.get() + " coalesced, max snapshot " + maxSnapshotMicros.get()
+            + "us, max write " + maxWriteMillis.get() + "ms";
+    }
+}
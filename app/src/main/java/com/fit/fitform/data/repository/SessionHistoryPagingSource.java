@@ -0,0 +1,149 @@
+package com.fit.fitform.data.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.paging.PagingState;
+import androidx.room.InvalidationTracker;
+import com.fit.fitform.data.dao.WorkoutSessionDao;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.model.SessionListItem;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import kotlin.Unit;
+
+/**
+ * PagingSource over display rows of a user's completed workout sessions, newest first.
+ * Pages are keyed on (startTime, id) and fetched with index seeks, so every page costs the
+ * same however deep the user scrolls. Counts for placeholders are computed on refresh only.
+ * The source invalidates itself when any table the rows are read from changes.
+ */
+public class SessionHistoryPagingSource extends ListenableFuturePagingSource<SessionHistoryPagingSource.Key, SessionListItem> {
+
+    /**
+     * Position between two sessions in (startTime DESC, id DESC) order
+     */
+    public static final class Key {
+        final long startTime;
+        final long id;
+
+        Key(long startTime, long id) {
+            this.startTime = startTime;
+            this.id = id;
+        }
+
+        static Key of(SessionListItem session) {
+            return new Key(session.getStartTime(), session.getId());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return startTime == key.startTime && id == key.id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(startTime, id);
+        }
+    }
+
+    private final WorkoutSessionDao workoutSessionDao;
+    private final InvalidationTracker invalidationTracker;
+    private final Executor executor;
+    private final long userId;
+    private final AtomicBoolean observing = new AtomicBoolean(false);
+    private final InvalidationTracker.Observer observer = new InvalidationTracker.Observer(
+        "workout_sessions", "workouts", "exercise_sets") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            invalidate();
+        }
+    };
+
+    /**
+     * Constructor for SessionHistoryPagingSource
+     * @param database Database providing the DAO, invalidation tracker and query executor
+     * @param userId User whose sessions are listed
+     */
+    public SessionHistoryPagingSource(FitFormDatabase database, long userId) {
+        this.workoutSessionDao = database.workoutSessionDao();
+        this.invalidationTracker = database.getInvalidationTracker();
+        this.executor = database.getQueryExecutor();
+        this.userId = userId;
+        registerInvalidatedCallback(() -> {
+            invalidationTracker.removeObserver(observer);
+            return Unit.INSTANCE;
+        });
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<Key, SessionListItem>> loadFuture(@NonNull LoadParams<Key> params) {
+        ListenableFutureTask<LoadResult<Key, SessionListItem>> task = ListenableFutureTask.create(() -> load(params));
+        executor.execute(task);
+        return task;
+    }
+
+    // Runs on the query executor
+    private LoadResult<Key, SessionListItem> load(LoadParams<Key> params) {
+        if (observing.compareAndSet(false, true)) {
+            // Registering syncs Room's triggers, so it is done off the main thread
+            invalidationTracker.addObserver(observer);
+        }
+        if (getInvalid()) {
+            return new LoadResult.Invalid<>();
+        }
+        Key key = params.getKey();
+        int limit = params.getLoadSize();
+        try {
+            if (params instanceof LoadParams.Prepend) {
+                List<SessionListItem> rows = workoutSessionDao.getCompletedSessionsAfter(userId, key.startTime, key.id, limit);
+                Collections.reverse(rows);
+                Key prevKey = rows.size() < limit ? null : Key.of(rows.get(0));
+                return new LoadResult.Page<>(rows, prevKey, rows.isEmpty() ? null : Key.of(rows.get(rows.size() - 1)));
+            }
+
+            List<SessionListItem> rows = key == null
+                ? workoutSessionDao.getCompletedSessionsFirstPage(userId, limit)
+                : workoutSessionDao.getCompletedSessionsBefore(userId, key.startTime, key.id, limit);
+            Key nextKey = rows.size() < limit ? null : Key.of(rows.get(rows.size() - 1));
+            if (params instanceof LoadParams.Append) {
+                return new LoadResult.Page<>(rows, rows.isEmpty() ? null : Key.of(rows.get(0)), nextKey);
+            }
+
+            // Refresh: count the rows on either side so the list can show placeholders
+            if (rows.isEmpty()) {
+                return new LoadResult.Page<>(rows, null, null, 0, 0);
+            }
+            Key first = Key.of(rows.get(0));
+            Key last = Key.of(rows.get(rows.size() - 1));
+            int itemsBefore = key == null ? 0 : workoutSessionDao.countCompletedSessionsAfter(userId, first.startTime, first.id);
+            int itemsAfter = nextKey == null ? 0 : workoutSessionDao.countCompletedSessionsBefore(userId, last.startTime, last.id);
+            return new LoadResult.Page<>(rows, itemsBefore == 0 ? null : first, nextKey, itemsBefore, itemsAfter);
+        } catch (Exception e) {
+            return new LoadResult.Error<>(e);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Key getRefreshKey(@NonNull PagingState<Key, SessionListItem> state) {
+        Integer anchorPosition = state.getAnchorPosition();
+        if (anchorPosition == null) {
+            return null;
+        }
+        // Start the reload half a window above the anchor so it stays in view
+        int start = Math.max(0, anchorPosition - state.getConfig().initialLoadSize / 2);
+        SessionListItem session = state.closestItemToPosition(start);
+        // Keys are exclusive; id + 1 makes the reload include this session
+        return session != null ? new Key(session.getStartTime(), session.getId() + 1) : null;
+    }
+}
@@ -0,0 +1,110 @@
+package com.fit.fitform.data.repository;
+
+import android.util.Log;
+
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.entity.DailySummary;
+import com.fit.fitform.data.entity.ExerciseSet;
+import com.fit.fitform.data.entity.WorkoutSession;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deals with sessions left incomplete when the process died mid-workout.
+ * A session whose last checkpoint is within {@link #RESUME_WINDOW_MS} is left open so starting
+ * the same workout again continues it. Older ones are closed as of their last checkpoint with
+ * the sets checkpointed so far, and counted in the daily rollups; those without any sets are
+ * deleted. Sessions still being recorded in this process are never touched. The same pass
+ * rebuilds the user's daily rollups, which are keyed by the local day at the time of each
+ * write, so a timezone change or a write that failed part way does not skew totals for good.
+ */
+public class SessionRecovery {
+
+    private static final String TAG = "SessionRecovery";
+
+    /** How long after its last checkpoint an interrupted session can still be resumed */
+    public static final long RESUME_WINDOW_MS = 15 * 60 * 1000L;
+
+    // Orphans can only appear when a process dies, so one pass per process is enough
+    private static final AtomicBoolean recovered = new AtomicBoolean(false);
+
+    private final FitFormDatabase database;
+
+    /**
+     * Constructor for SessionRecovery
+     * @param database Database the sessions live in
+     */
+    public SessionRecovery(FitFormDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Closes or deletes a user's interrupted sessions that can no longer be resumed, then
+     * rebuilds their daily rollups, once per process. Blocks, so call off the main thread.
+     * @param userId User's unique identifier
+     * @return Number of sessions closed or deleted
+     */
+    public int recoverIfNeeded(long userId) {
+        if (userId <= 0 || !recovered.compareAndSet(false, true)) {
+            return 0;
+        }
+        long cutoff = System.currentTimeMillis() - RESUME_WINDOW_MS;
+        int handled = 0;
+        for (WorkoutSession orphan : database.workoutSessionDao().getIncompleteSessions(userId)) {
+            if (SessionCheckpointer.isLive(orphan.getId()) || lastActivity(orphan) >= cutoff) {
+                continue;
+            }
+            try {
+                if (database.runInTransaction(() -> close(orphan.getId(), cutoff))) {
+                    handled++;
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to recover session " + orphan.getId(), e);
+            }
+        }
+        if (handled > 0) {
+            Log.d(TAG, "Recovered " + handled + " interrupted sessions");
+        }
+        try {
+            database.dailySummaryDao().rebuild(userId);
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to rebuild daily summaries", e);
+        }
+        return handled;
+    }
+
+    // Runs inside a transaction
+    private boolean close(long sessionId, long cutoff) {
+        WorkoutSession session = database.workoutSessionDao().getSessionById(sessionId);
+        // Re-checked in the transaction in case the session was resumed meanwhile
+        if (session == null || session.isCompleted() || lastActivity(session) >= cutoff) {
+            return false;
+        }
+        List<ExerciseSet> sets = database.exerciseSetDao().getSetsForSession(sessionId);
+        if (sets.isEmpty()) {
+            database.workoutSessionDao().deleteSession(session);
+            return true;
+        }
+        long endMs = lastActivity(session);
+        int durationMin = (int) Math.max(1, (endMs - session.getStartTime()) / 60000);
+        session.setEndTime(endMs);
+        session.setTotalDuration(durationMin);
+        // Same estimate as a session finished from the camera screen
+        session.setCaloriesBurned(Math.max(5, durationMin * 5));
+        session.setCompleted(true);
+        database.workoutSessionDao().updateSession(session);
+        long day = DailySummary.dayOf(session.getStartTime());
+        database.dailySummaryDao().addSession(session.getUserId(), day, durationMin, session.getCaloriesBurned());
+        for (ExerciseSet set : sets) {
+            String exercise = set.getExerciseType() != null ? set.getExerciseType() : DailySummary.UNKNOWN_EXERCISE;
+            database.dailySummaryDao().addSet(session.getUserId(), day, exercise,
+                set.getReps(), set.getDuration() != null ? set.getDuration() : 0, set.getFormScore());
+        }
+        return true;
+    }
+
+    private static long lastActivity(WorkoutSession session) {
+        return session.getLastCheckpointAt() != null ? session.getLastCheckpointAt() : session.getStartTime();
+    }
+}
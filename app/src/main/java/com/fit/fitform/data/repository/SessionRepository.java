@@ -0,0 +1,119 @@
+package com.fit.fitform.data.repository;
+
+import com.fit.fitform.data.dao.ExerciseSetDao;
+import com.fit.fitform.data.dao.WorkoutSessionDao;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.entity.ExerciseSet;
+import com.fit.fitform.data.entity.Workout;
+import com.fit.fitform.data.entity.WorkoutSession;
+import com.fit.fitform.data.model.SessionWithWorkoutAndSets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.List;
+
+/**
+ * Repository class for WorkoutSession and ExerciseSet reads.
+ * Every method returns a ListenableFuture that completes on a Room executor, so reads can
+ * be chained with {@link Futures#transformAsync} or fanned out and joined with
+ * {@link Futures#whenAllSucceed} without a thread blocking on any of them. Add a callback
+ * with the main executor to update views.
+ */
+public class SessionRepository {
+
+    private final WorkoutSessionDao workoutSessionDao;
+    private final ExerciseSetDao exerciseSetDao;
+    private final WorkoutRepository workoutRepository;
+
+    /**
+     * Constructor for SessionRepository
+     * @param database Database providing the DAOs; workouts are read through the catalog cache
+     */
+    public SessionRepository(FitFormDatabase database) {
+        this.workoutSessionDao = database.workoutSessionDao();
+        this.exerciseSetDao = database.exerciseSetDao();
+        this.workoutRepository = new WorkoutRepository(database);
+    }
+
+    /**
+     * @param sessionId Session's unique identifier
+     * @return Future of the session, or of null if not found
+     */
+    public ListenableFuture<WorkoutSession> getSessionByIdAsync(long sessionId) {
+        return workoutSessionDao.getSessionByIdAsync(sessionId);
+    }
+
+    /**
+     * @param userId User's unique identifier
+     * @return Future of the user's active session, or of null if none
+     */
+    public ListenableFuture<WorkoutSession> getActiveSessionAsync(long userId) {
+        return workoutSessionDao.getActiveSessionAsync(userId);
+    }
+
+    /**
+     * @param userId User's unique identifier
+     * @param workoutId Workout being started
+     * @param since Oldest last checkpoint, or start time if never checkpointed, that can be resumed
+     * @return Future of the newest resumable session of the workout, or of null if none
+     */
+    public ListenableFuture<WorkoutSession> getResumableSessionAsync(long userId, long workoutId, long since) {
+        return workoutSessionDao.getResumableSessionAsync(userId, workoutId, since);
+    }
+
+    /**
+     * @param sessionId Session's unique identifier
+     * @return Future of the highest set number recorded, or of 0 if none
+     */
+    public ListenableFuture<Integer> getMaxSetNumberAsync(long sessionId) {
+        return exerciseSetDao.getMaxSetNumberAsync(sessionId);
+    }
+
+    /**
+     * @param userId User's unique identifier
+     * @return Future of the number of completed workout sessions
+     */
+    public ListenableFuture<Integer> getCompletedWorkoutCountAsync(long userId) {
+        return workoutSessionDao.getCompletedWorkoutCountAsync(userId);
+    }
+
+    /**
+     * @param sessionId Session's unique identifier
+     * @return Future of the session's sets in completion order
+     */
+    public ListenableFuture<List<ExerciseSet>> getSetsForSessionAsync(long sessionId) {
+        return exerciseSetDao.getSetsForSessionAsync(sessionId);
+    }
+
+    /**
+     * @param exerciseId Exercise's unique identifier
+     * @return Future of the exercise's average form score over all sets, or of null if none
+     */
+    public ListenableFuture<Float> getAverageFormScoreAsync(long exerciseId) {
+        return exerciseSetDao.getAverageFormScoreAsync(exerciseId);
+    }
+
+    /**
+     * Loads a session, then its workout and sets in parallel.
+     * For LiveData, {@link WorkoutSessionDao#getSessionWithWorkoutAndSets} does the same in one
+     * transaction; this variant serves one-shot reads and reuses cached workouts.
+     * @param sessionId Session's unique identifier
+     * @return Future of the session with relations, or of null if not found
+     */
+    public ListenableFuture<SessionWithWorkoutAndSets> getSessionDetailAsync(long sessionId) {
+        return Futures.transformAsync(getSessionByIdAsync(sessionId), session -> {
+            if (session == null) {
+                return Futures.<SessionWithWorkoutAndSets>immediateFuture(null);
+            }
+            ListenableFuture<Workout> workout = workoutRepository.getWorkoutByIdAsync(session.getWorkoutId());
+            ListenableFuture<List<ExerciseSet>> sets = getSetsForSessionAsync(sessionId);
+            return Futures.whenAllSucceed(workout, sets).call(() -> {
+                SessionWithWorkoutAndSets detail = new SessionWithWorkoutAndSets();
+                detail.setSession(session);
+                detail.setWorkout(Futures.getDone(workout));
+                detail.setSets(Futures.getDone(sets));
+                return detail;
+            }, MoreExecutors.directExecutor());
+        }, MoreExecutors.directExecutor());
+    }
+}
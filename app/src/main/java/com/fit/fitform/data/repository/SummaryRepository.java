@@ -0,0 +1,68 @@
+package com.fit.fitform.data.repository;
+
+import androidx.lifecycle.LiveData;
+import com.fit.fitform.data.dao.DailySummaryDao;
+import com.fit.fitform.data.entity.DailySummary;
+import com.fit.fitform.data.model.SummaryTotals;
+import java.util.List;
+
+/**
+ * Repository class for the daily summary rollups.
+ * Provides dashboard and progress totals that read a bounded number of rows regardless of
+ * history length, and a rebuild that recomputes a user's rollups from the raw tables.
+ */
+public class SummaryRepository {
+
+    private final DailySummaryDao dailySummaryDao;
+
+    /**
+     * Constructor for SummaryRepository
+     * @param dailySummaryDao DailySummaryDao instance for rollup operations
+     */
+    public SummaryRepository(DailySummaryDao dailySummaryDao) {
+        this.dailySummaryDao = dailySummaryDao;
+    }
+
+    /**
+     * Retrieves a user's totals over the last seven days, today included
+     * @param userId User's unique identifier
+     * @return LiveData totals across all exercises
+     */
+    public LiveData<SummaryTotals> getWeekTotals(long userId) {
+        long today = DailySummary.dayOf(System.currentTimeMillis());
+        return dailySummaryDao.getTotals(userId, DailySummary.ALL_EXERCISES, today - 6, today);
+    }
+
+    /**
+     * Retrieves a user's totals for one exercise over a range of days
+     * @param userId User's unique identifier
+     * @param exercise Exercise key, or {@link DailySummary#ALL_EXERCISES}
+     * @param fromDay First day, inclusive, from {@link DailySummary#dayOf}
+     * @param toDay Last day, inclusive
+     * @return LiveData totals
+     */
+    public LiveData<SummaryTotals> getTotals(long userId, String exercise, long fromDay, long toDay) {
+        return dailySummaryDao.getTotals(userId, exercise, fromDay, toDay);
+    }
+
+    /**
+     * Retrieves one row per active day for charts
+     * @param userId User's unique identifier
+     * @param exercise Exercise key, or {@link DailySummary#ALL_EXERCISES}
+     * @param fromDay First day, inclusive
+     * @param toDay Last day, inclusive
+     * @return LiveData list of daily rows in day order
+     */
+    public LiveData<List<DailySummary>> getDailySummaries(long userId, String exercise, long fromDay, long toDay) {
+        return dailySummaryDao.getDailySummaries(userId, exercise, fromDay, toDay);
+    }
+
+    /**
+     * Recomputes a user's rollups from the session and set tables in one transaction.
+     * Blocks, so call off the main thread.
+     * @param userId User's unique identifier
+     */
+    public void rebuild(long userId) {
+        dailySummaryDao.rebuild(userId);
+    }
+}
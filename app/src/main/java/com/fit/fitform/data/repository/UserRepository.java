@@ -3,6 +3,7 @@ package com.fit.fitform.data.repository;
 import androidx.lifecycle.LiveData;
 import com.fit.fitform.data.dao.UserDao;
 import com.fit.fitform.data.entity.User;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.List;
 
 /**
@@ -49,6 +50,24 @@ public class UserRepository {
         return userDao.getUserById(userId);
     }
     
+    /**
+     * Retrieves a user by Firebase UID without blocking
+     * @param firebaseUid Firebase Authentication UID
+     * @return Future of the user, or of null if not found
+     */
+    public ListenableFuture<User> getUserByFirebaseUidAsync(String firebaseUid) {
+        return userDao.getUserByFirebaseUidAsync(firebaseUid);
+    }
+    
+    /**
+     * Retrieves a user by their unique ID without blocking
+     * @param userId User's unique identifier
+     * @return Future of the user, or of null if not found
+     */
+    public ListenableFuture<User> getUserByIdAsync(long userId) {
+        return userDao.getUserByIdAsync(userId);
+    }
+    
     /**
      * Inserts a new user into the database
      * @param user User object to insert
@@ -3,28 +3,49 @@ package com.fit.fitform.data.repository;
 import androidx.lifecycle.LiveData;
 import com.fit.fitform.data.dao.WorkoutDao;
 import com.fit.fitform.data.dao.ExerciseDao;
+import com.fit.fitform.data.database.FitFormDatabase;
 import com.fit.fitform.data.entity.Workout;
 import com.fit.fitform.data.entity.Exercise;
+import com.fit.fitform.data.model.WorkoutWithExercises;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * Repository class for Workout and Exercise entity operations.
  * Provides a clean API for workout and exercise-related database operations.
  * Handles workout creation, management, and exercise tracking.
+ * Lookups by id are served from a process-wide LRU cache when built from the database.
  */
 public class WorkoutRepository {
     
     private final WorkoutDao workoutDao;
     private final ExerciseDao exerciseDao;
+    private final CatalogCache cache; // null when built from bare DAOs
+    private final Executor queryExecutor; // runs cached lookups for the async methods
     
     /**
-     * Constructor for WorkoutRepository
+     * Constructor for WorkoutRepository with cached lookups by id
+     * @param database Database providing the DAOs and table invalidation
+     */
+    public WorkoutRepository(FitFormDatabase database) {
+        this.workoutDao = database.workoutDao();
+        this.exerciseDao = database.exerciseDao();
+        this.cache = CatalogCache.get(database);
+        this.queryExecutor = database.getQueryExecutor();
+    }
+    
+    /**
+     * Constructor for WorkoutRepository without caching
      * @param workoutDao WorkoutDao instance for workout operations
      * @param exerciseDao ExerciseDao instance for exercise operations
      */
     public WorkoutRepository(WorkoutDao workoutDao, ExerciseDao exerciseDao) {
         this.workoutDao = workoutDao;
         this.exerciseDao = exerciseDao;
+        this.cache = null;
+        this.queryExecutor = null;
     }
     
     // Workout operations
@@ -41,10 +62,26 @@ public class WorkoutRepository {
     /**
      * Retrieves a workout by its unique ID
      * @param workoutId Workout's unique identifier
-     * @return Workout object if found, null otherwise
+     * @return Workout object if found, null otherwise; shared when cached, so do not modify
      */
     public Workout getWorkoutById(long workoutId) {
-        return workoutDao.getWorkoutById(workoutId);
+        if (cache == null) {
+            return workoutDao.getWorkoutById(workoutId);
+        }
+        cache.ensureObserving();
+        return cache.workouts.get(workoutId, workoutDao::getWorkoutById);
+    }
+    
+    /**
+     * Retrieves a workout by its unique ID without blocking, through the cache when there is one
+     * @param workoutId Workout's unique identifier
+     * @return Future of the workout, or of null if not found; shared when cached, so do not modify
+     */
+    public ListenableFuture<Workout> getWorkoutByIdAsync(long workoutId) {
+        if (cache == null) {
+            return workoutDao.getWorkoutByIdAsync(workoutId);
+        }
+        return Futures.submit(() -> getWorkoutById(workoutId), queryExecutor);
     }
     
     /**
@@ -64,6 +101,23 @@ public class WorkoutRepository {
         return workoutDao.getPreBuiltWorkouts();
     }
     
+    /**
+     * Retrieves a workout with its exercises in one transaction
+     * @param workoutId Workout's unique identifier
+     * @return LiveData workout with exercises, null if not found
+     */
+    public LiveData<WorkoutWithExercises> getWorkoutWithExercises(long workoutId) {
+        return workoutDao.getWorkoutWithExercises(workoutId);
+    }
+    
+    /**
+     * Retrieves all pre-built workouts with their exercises in one transaction
+     * @return LiveData list of pre-built workouts with exercises
+     */
+    public LiveData<List<WorkoutWithExercises>> getPreBuiltWorkoutsWithExercises() {
+        return workoutDao.getPreBuiltWorkoutsWithExercises();
+    }
+    
     /**
      * Inserts a new workout into the database
      * @param workout Workout object to insert
@@ -79,6 +133,10 @@ public class WorkoutRepository {
      */
     public void updateWorkout(Workout workout) {
         workoutDao.updateWorkout(workout);
+        if (cache != null) {
+            // Don't serve the old row until the tracker catches up
+            cache.workouts.invalidate(workout.getId());
+        }
     }
     
     /**
@@ -87,10 +145,26 @@ public class WorkoutRepository {
      */
     public void deleteWorkout(Workout workout) {
         workoutDao.deleteWorkout(workout);
+        if (cache != null) {
+            // Don't serve the old row until the tracker catches up
+            cache.workouts.invalidate(workout.getId());
+        }
     }
     
     // Exercise operations
     
+    /**
+     * Retrieves an exercise by its unique ID without blocking, through the cache when there is one
+     * @param exerciseId Exercise's unique identifier
+     * @return Future of the exercise, or of null if not found; shared when cached, so do not modify
+     */
+    public ListenableFuture<Exercise> getExerciseByIdAsync(long exerciseId) {
+        if (cache == null) {
+            return exerciseDao.getExerciseByIdAsync(exerciseId);
+        }
+        return Futures.submit(() -> getExerciseById(exerciseId), queryExecutor);
+    }
+    
     /**
      * Retrieves all exercises for a specific workout, ordered by their sequence
      * @param workoutId Workout's unique identifier
@@ -103,10 +177,14 @@ public class WorkoutRepository {
     /**
      * Retrieves an exercise by its unique ID
      * @param exerciseId Exercise's unique identifier
-     * @return Exercise object if found, null otherwise
+     * @return Exercise object if found, null otherwise; shared when cached, so do not modify
      */
     public Exercise getExerciseById(long exerciseId) {
-        return exerciseDao.getExerciseById(exerciseId);
+        if (cache == null) {
+            return exerciseDao.getExerciseById(exerciseId);
+        }
+        cache.ensureObserving();
+        return cache.exercises.get(exerciseId, exerciseDao::getExerciseById);
     }
     
     /**
@@ -126,12 +204,25 @@ public class WorkoutRepository {
         return exerciseDao.insertExercise(exercise);
     }
     
+    /**
+     * Inserts several exercises in a single transaction
+     * @param exercises Exercise objects to insert
+     * @return The IDs of the newly inserted exercises, in order
+     */
+    public List<Long> insertExercises(List<Exercise> exercises) {
+        return exerciseDao.insertExercises(exercises);
+    }
+    
     /**
      * Updates an existing exercise in the database
      * @param exercise Exercise object with updated information
      */
     public void updateExercise(Exercise exercise) {
         exerciseDao.updateExercise(exercise);
+        if (cache != null) {
+            // Don't serve the old row until the tracker catches up
+            cache.exercises.invalidate(exercise.getId());
+        }
     }
     
     /**
@@ -140,6 +231,10 @@ public class WorkoutRepository {
      */
     public void deleteExercise(Exercise exercise) {
         exerciseDao.deleteExercise(exercise);
+        if (cache != null) {
+            // Don't serve the old row until the tracker catches up
+            cache.exercises.invalidate(exercise.getId());
+        }
     }
     
     /**
@@ -148,5 +243,22 @@ public class WorkoutRepository {
      */
     public void deleteExercisesByWorkout(long workoutId) {
         exerciseDao.deleteExercisesByWorkout(workoutId);
+        if (cache != null) {
+            cache.exercises.invalidateAll();
+        }
+    }
+    
+    /**
+     * @return Lookups by id answered from the cache, 0 without a cache
+     */
+    public int getCacheHitCount() {
+        return cache != null ? cache.workouts.getHitCount() + cache.exercises.getHitCount() : 0;
+    }
+    
+    /**
+     * @return Lookups by id that went to the database through the cache, 0 without a cache
+     */
+    public int getCacheMissCount() {
+        return cache != null ? cache.workouts.getMissCount() + cache.exercises.getMissCount() : 0;
     }
 }
@@ -0,0 +1,237 @@
+package com.fit.fitform.data.transfer;
+
+import com.fit.fitform.analysis.CheckpointVector;
+import com.fit.fitform.data.entity.ExerciseSet;
+import com.fit.fitform.data.entity.FormAnalysis;
+import com.fit.fitform.data.entity.SetAnalysisRollup;
+import com.fit.fitform.data.entity.WorkoutSession;
+import java.io.IOException;
+
+/**
+ * Maps history entities to export records and back.
+ * A file starts with a {@link #META} record, then each session is followed by its sets and
+ * those by their form analysis rows and rollups, so a parent always precedes its children.
+ * Ids are the exporting device's and only link records within the file; user ids are not
+ * exported at all. Workouts and exercises also travel by name, since custom ones have
+ * different ids on another device.
+ */
+final class HistoryCodec {
+
+    /** Version of the record layout written; files of newer versions are refused */
+    static final int FORMAT_VERSION = 1;
+
+    static final String TYPE = "type";
+    static final String META = "meta";
+    static final String SESSION = "session";
+    static final String SET = "set";
+    static final String ANALYSIS = "analysis";
+    static final String ROLLUP = "rollup";
+
+    static final String VERSION = "version";
+    static final String WORKOUT_NAME = "workoutName";
+    static final String EXERCISE_NAME = "exerciseName";
+
+    /** Every field of every record type, in CSV column order; shared names share a column */
+    static final String[] COLUMNS = {
+        TYPE, VERSION, "exportedAt",
+        // session
+        "id", "workoutId", WORKOUT_NAME, "startTime", "endTime", "totalDuration", "caloriesBurned", "notes",
+        // set
+        "sessionId", "exerciseId", EXERCISE_NAME, "exerciseType", "setNumber", "reps", "weight", "duration",
+        "formScore", "completedAt", "avgEccentricMs", "avgConcentricMs", "timeUnderTensionMs",
+        "avgRangeOfMotion", "peakAngularVelocity",
+        // analysis
+        "exerciseSetId", "timestamp", "overallScore", "repNumber", "eccentricMs", "concentricMs",
+        "rangeOfMotion", "recommendations", "feedback", "keyPointScores",
+        // rollup
+        "rowCount", "repCount", "setScore", "averageScore", "minScore", "averageRangeOfMotion",
+        "averageEccentricMs", "averageConcentricMs", "firstTimestamp", "lastTimestamp"
+    };
+
+    private HistoryCodec() {}
+
+    static void writeMeta(HistoryWriter out, long exportedAt) throws IOException {
+        out.begin(META);
+        out.field(VERSION, FORMAT_VERSION);
+        out.field("exportedAt", exportedAt);
+        out.end();
+    }
+
+    static void writeSession(HistoryWriter out, WorkoutSession session, String workoutName) throws IOException {
+        out.begin(SESSION);
+        out.field("id", session.getId());
+        out.field("workoutId", session.getWorkoutId());
+        out.field(WORKOUT_NAME, workoutName);
+        out.field("startTime", session.getStartTime());
+        out.field("endTime", session.getEndTime());
+        out.field("totalDuration", session.getTotalDuration());
+        out.field("caloriesBurned", session.getCaloriesBurned());
+        out.field("notes", session.getNotes());
+        out.end();
+    }
+
+    static void writeSet(HistoryWriter out, ExerciseSet set, String exerciseName) throws IOException {
+        out.begin(SET);
+        out.field("id", set.getId());
+        out.field("sessionId", set.getSessionId());
+        out.field("exerciseId", set.getExerciseId());
+        out.field(EXERCISE_NAME, exerciseName);
+        out.field("exerciseType", set.getExerciseType());
+        out.field("setNumber", set.getSetNumber());
+        out.field("reps", set.getReps());
+        out.field("weight", set.getWeight());
+        out.field("duration", set.getDuration());
+        out.field("formScore", set.getFormScore());
+        out.field("completedAt", set.getCompletedAt());
+        out.field("avgEccentricMs", set.getAvgEccentricMs());
+        out.field("avgConcentricMs", set.getAvgConcentricMs());
+        out.field("timeUnderTensionMs", set.getTimeUnderTensionMs());
+        out.field("avgRangeOfMotion", set.getAvgRangeOfMotion());
+        out.field("peakAngularVelocity", set.getPeakAngularVelocity());
+        out.end();
+    }
+
+    static void writeAnalysis(HistoryWriter out, FormAnalysis analysis) throws IOException {
+        out.begin(ANALYSIS);
+        out.field("exerciseSetId", analysis.getExerciseSetId());
+        out.field("timestamp", analysis.getTimestamp());
+        out.field("overallScore", analysis.getOverallScore());
+        out.field("repNumber", analysis.getRepNumber());
+        out.field("eccentricMs", analysis.getEccentricMs());
+        out.field("concentricMs", analysis.getConcentricMs());
+        out.field("rangeOfMotion", analysis.getRangeOfMotion());
+        out.field("peakAngularVelocity", analysis.getPeakAngularVelocity());
+        out.field("recommendations", analysis.getRecommendations());
+        out.field("feedback", analysis.getFeedback());
+        out.field("keyPointScores", analysis.getKeyPointScores());
+        out.end();
+    }
+
+    static void writeRollup(HistoryWriter out, SetAnalysisRollup rollup) throws IOException {
+        out.begin(ROLLUP);
+        out.field("exerciseSetId", rollup.getExerciseSetId());
+        out.field("rowCount", rollup.getRowCount());
+        out.field("repCount", rollup.getRepCount());
+        out.field("setScore", rollup.getSetScore());
+        out.field("averageScore", rollup.getAverageScore());
+        out.field("minScore", rollup.getMinScore());
+        out.field("averageRangeOfMotion", rollup.getAverageRangeOfMotion());
+        out.field("averageEccentricMs", rollup.getAverageEccentricMs());
+        out.field("averageConcentricMs", rollup.getAverageConcentricMs());
+        out.field("firstTimestamp", rollup.getFirstTimestamp());
+        out.field("lastTimestamp", rollup.getLastTimestamp());
+        out.field("feedback", rollup.getFeedback());
+        out.field("keyPointScores", rollup.getKeyPointScores());
+        out.end();
+    }
+
+    /**
+     * @return Completed session with the file's ids; the caller assigns user and workout
+     */
+    static WorkoutSession readSession(HistoryReader.Record in) {
+        WorkoutSession session = new WorkoutSession();
+        session.setId(in.getLong("id", 0L));
+        session.setWorkoutId(in.getLong("workoutId", 0L));
+        session.setStartTime(in.getLong("startTime", 0L));
+        session.setEndTime(in.getLong("endTime"));
+        session.setTotalDuration(in.getInteger("totalDuration"));
+        session.setCaloriesBurned(in.getInteger("caloriesBurned"));
+        session.setNotes(in.getString("notes"));
+        session.setCompleted(true);
+        return session;
+    }
+
+    /**
+     * @return Set with the file's ids; the caller remaps them
+     */
+    static ExerciseSet readSet(HistoryReader.Record in) {
+        ExerciseSet set = new ExerciseSet();
+        set.setId(in.getLong("id", 0L));
+        set.setSessionId(in.getLong("sessionId", 0L));
+        set.setExerciseId(in.getLong("exerciseId", 0L));
+        set.setExerciseType(in.getString("exerciseType"));
+        set.setSetNumber(in.getInt("setNumber", 0));
+        set.setReps(in.getInt("reps", 0));
+        set.setWeight(in.getFloat("weight"));
+        set.setDuration(in.getInteger("duration"));
+        set.setFormScore(in.getFloat("formScore"));
+        set.setCompletedAt(in.getLong("completedAt", 0L));
+        set.setAvgEccentricMs(in.getInteger("avgEccentricMs"));
+        set.setAvgConcentricMs(in.getInteger("avgConcentricMs"));
+        set.setTimeUnderTensionMs(in.getInteger("timeUnderTensionMs"));
+        set.setAvgRangeOfMotion(in.getFloat("avgRangeOfMotion"));
+        set.setPeakAngularVelocity(in.getFloat("peakAngularVelocity"));
+        return set;
+    }
+
+    /**
+     * @return Row with the file's set id and no id of its own
+     */
+    static FormAnalysis readAnalysis(HistoryReader.Record in) {
+        Float score = in.getFloat("overallScore");
+        FormAnalysis analysis = new FormAnalysis(in.getLong("exerciseSetId", 0L), in.getLong("timestamp", 0L),
+            score != null ? score : 0f, parseVector(in.getString("feedback")),
+            parseVector(in.getString("keyPointScores")));
+        analysis.setRepNumber(in.getInt("repNumber", 0));
+        analysis.setEccentricMs(in.getInteger("eccentricMs"));
+        analysis.setConcentricMs(in.getInteger("concentricMs"));
+        analysis.setRangeOfMotion(in.getFloat("rangeOfMotion"));
+        analysis.setPeakAngularVelocity(in.getFloat("peakAngularVelocity"));
+        analysis.setRecommendations(in.getString("recommendations"));
+        return analysis;
+    }
+
+    /**
+     * @return Rollup keyed by the file's set id
+     */
+    static SetAnalysisRollup readRollup(HistoryReader.Record in) {
+        SetAnalysisRollup rollup = new SetAnalysisRollup();
+        rollup.setExerciseSetId(in.getLong("exerciseSetId", 0L));
+        rollup.setRowCount(in.getInt("rowCount", 0));
+        rollup.setRepCount(in.getInt("repCount", 0));
+        rollup.setSetScore(in.getFloat("setScore"));
+        rollup.setAverageScore(in.getFloat("averageScore"));
+        rollup.setMinScore(in.getFloat("minScore"));
+        rollup.setAverageRangeOfMotion(in.getFloat("averageRangeOfMotion"));
+        rollup.setAverageEccentricMs(in.getFloat("averageEccentricMs"));
+        rollup.setAverageConcentricMs(in.getFloat("averageConcentricMs"));
+        rollup.setFirstTimestamp(in.getLong("firstTimestamp", 0L));
+        rollup.setLastTimestamp(in.getLong("lastTimestamp", 0L));
+        rollup.setFeedback(parseVector(in.getString("feedback")));
+        rollup.setKeyPointScores(parseVector(in.getString("keyPointScores")));
+        return rollup;
+    }
+
+    /**
+     * @return Slots separated by {@code ;}, empty where a checkpoint has no value
+     */
+    static String formatVector(CheckpointVector vector) {
+        StringBuilder text = new StringBuilder(vector.size() * 6);
+        for (int id = 0; id < vector.size(); id++) {
+            if (id > 0) {
+                text.append(';');
+            }
+            float value = vector.get(id);
+            if (!Float.isNaN(value)) {
+                text.append(value);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Inverse of {@link #formatVector}
+     * @return Vector, or null for null text
+     */
+    static CheckpointVector parseVector(String text) {
+        if (text == null) {
+            return null;
+        }
+        String[] slots = text.split(";", -1);
+        float[] values = new float[slots.length];
+        for (int id = 0; id < slots.length; id++) {
+            values[id] = slots[id].isEmpty() ? Float.NaN : Float.parseFloat(slots[id]);
+        }
+        return CheckpointVector.of(values);
+    }
+}
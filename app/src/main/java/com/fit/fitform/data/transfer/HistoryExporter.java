@@ -0,0 +1,140 @@
+package com.fit.fitform.data.transfer;
+
+import android.os.SystemClock;
+import android.util.Log;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.database.TelemetryDatabase;
+import com.fit.fitform.data.entity.Exercise;
+import com.fit.fitform.data.entity.ExerciseSet;
+import com.fit.fitform.data.entity.FormAnalysis;
+import com.fit.fitform.data.entity.SetAnalysisRollup;
+import com.fit.fitform.data.entity.Workout;
+import com.fit.fitform.data.entity.WorkoutSession;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a user's completed workout history to a file.
+ * Sessions are read in pages by id, each page with one query for its sets and keyset pages of
+ * their form analysis rows, and every record is written as soon as it is read. Memory use is
+ * bounded by the page sizes, not the length of the history.
+ */
+public class HistoryExporter {
+
+    private static final String TAG = "HistoryExporter";
+
+    private static final int SESSIONS_PER_PAGE = 32;
+    private static final int ANALYSES_PER_PAGE = 500;
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private final FitFormDatabase main;
+    private final TelemetryDatabase telemetry;
+
+    /**
+     * Constructor for HistoryExporter
+     * @param main Database holding sessions and sets
+     * @param telemetry Database holding form analysis
+     */
+    public HistoryExporter(FitFormDatabase main, TelemetryDatabase telemetry) {
+        this.main = main;
+        this.telemetry = telemetry;
+    }
+
+    /**
+     * Writes the user's completed sessions with their sets and form analysis. Blocks, so call
+     * off the main thread.
+     * @param userId User whose history is exported
+     * @param format File format
+     * @param out Destination; closed when done
+     * @return Counts of records written
+     * @throws IOException If writing fails; the destination then holds a partial export
+     */
+    public HistoryTransferResult export(long userId, HistoryFormat format, OutputStream out) throws IOException {
+        long startMs = SystemClock.elapsedRealtime();
+        HistoryTransferResult result = new HistoryTransferResult();
+        // Bounded by the size of the catalog, not the history
+        Map<Long, String> workoutNames = new HashMap<>();
+        Map<Long, String> exerciseNames = new HashMap<>();
+
+        try (HistoryWriter writer = HistoryWriter.open(format,
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS))) {
+            HistoryCodec.writeMeta(writer, System.currentTimeMillis());
+            long afterSessionId = 0;
+            while (true) {
+                List<WorkoutSession> page = main.workoutSessionDao()
+                    .getCompletedSessionsAfter(userId, afterSessionId, SESSIONS_PER_PAGE);
+                if (page.isEmpty()) {
+                    break;
+                }
+                afterSessionId = page.get(page.size() - 1).getId();
+                List<Long> sessionIds = new ArrayList<>(page.size());
+                for (WorkoutSession session : page) {
+                    sessionIds.add(session.getId());
+                }
+                // Both lists are in session id order, so each session's sets are the next run
+                List<ExerciseSet> sets = main.exerciseSetDao().getSetsForSessions(sessionIds);
+                int next = 0;
+                for (WorkoutSession session : page) {
+                    HistoryCodec.writeSession(writer, session, workoutName(workoutNames, session.getWorkoutId()));
+                    result.sessions++;
+                    List<Long> setIds = new ArrayList<>();
+                    while (next < sets.size() && sets.get(next).getSessionId() == session.getId()) {
+                        ExerciseSet set = sets.get(next++);
+                        HistoryCodec.writeSet(writer, set, exerciseName(exerciseNames, set.getExerciseId()));
+                        setIds.add(set.getId());
+                        result.sets++;
+                    }
+                    if (!setIds.isEmpty()) {
+                        writeAnalyses(writer, setIds, result);
+                    }
+                }
+            }
+        }
+        Log.d(TAG, "Exported " + result + " in " + (SystemClock.elapsedRealtime() - startMs) + "ms");
+        return result;
+    }
+
+    private void writeAnalyses(HistoryWriter writer, List<Long> setIds, HistoryTransferResult result)
+            throws IOException {
+        long afterId = 0;
+        while (true) {
+            List<FormAnalysis> page = telemetry.formAnalysisDao()
+                .getAnalysesForSetsAfter(setIds, afterId, ANALYSES_PER_PAGE);
+            for (FormAnalysis analysis : page) {
+                HistoryCodec.writeAnalysis(writer, analysis);
+            }
+            result.analyses += page.size();
+            if (page.size() < ANALYSES_PER_PAGE) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        for (SetAnalysisRollup rollup : telemetry.formAnalysisDao().getRollupsForSets(setIds)) {
+            HistoryCodec.writeRollup(writer, rollup);
+            result.rollups++;
+        }
+    }
+
+    private String workoutName(Map<Long, String> names, long workoutId) {
+        if (!names.containsKey(workoutId)) {
+            Workout workout = main.workoutDao().getWorkoutById(workoutId);
+            names.put(workoutId, workout != null ? workout.getName() : null);
+        }
+        return names.get(workoutId);
+    }
+
+    private String exerciseName(Map<Long, String> names, long exerciseId) {
+        if (!names.containsKey(exerciseId)) {
+            Exercise exercise = main.exerciseDao().getExerciseById(exerciseId);
+            names.put(exerciseId, exercise != null ? exercise.getName() : null);
+        }
+        return names.get(exerciseId);
+    }
+}
@@ -0,0 +1,36 @@
+package com.fit.fitform.data.transfer;
+
+/**
+ * File formats workout history can be exported to and imported from.
+ * Both carry the same records; JSON Lines keeps one typed object per line, CSV puts every
+ * record type in one table with a {@code type} column and leaves other types' columns empty.
+ */
+public enum HistoryFormat {
+    JSON_LINES("application/x-ndjson", "jsonl"),
+    CSV("text/csv", "csv");
+
+    private final String mimeType;
+    private final String extension;
+
+    HistoryFormat(String mimeType, String extension) {
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Tells the formats apart by the first character of a file, so imports need no file name
+     * @param firstChar First character of the file, or -1 if it is empty
+     * @return JSON_LINES for a file starting with an object, CSV otherwise
+     */
+    static HistoryFormat detect(int firstChar) {
+        return firstChar == '{' ? JSON_LINES : CSV;
+    }
+}
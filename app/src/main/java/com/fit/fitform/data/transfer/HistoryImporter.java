@@ -0,0 +1,270 @@
+package com.fit.fitform.data.transfer;
+
+import android.os.SystemClock;
+import android.util.Log;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.database.TelemetryDatabase;
+import com.fit.fitform.data.entity.DailySummary;
+import com.fit.fitform.data.entity.ExerciseSet;
+import com.fit.fitform.data.entity.FormAnalysis;
+import com.fit.fitform.data.entity.SetAnalysisRollup;
+import com.fit.fitform.data.entity.WorkoutSession;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports a history file written by {@link HistoryExporter} into the current user's history.
+ * Records are read one at a time and written in batches, one transaction per database per
+ * batch. Batches end only before a session record, so a session and its sets commit together.
+ * New ids are assigned on insert; the file's ids are only used to attach sets to their
+ * session and analysis rows to their set, through maps that cover the current batch.
+ * Workouts and exercises are matched by name; sessions whose workout does not exist here are
+ * kept without one. A session starting at the same time as one the user already has is
+ * skipped with its records, so importing a file twice adds nothing the second time.
+ * Imported sessions are counted in the daily rollups like recorded ones.
+ */
+public class HistoryImporter {
+
+    private static final String TAG = "HistoryImporter";
+
+    // Records per batch; a batch grows past this only to finish the session it is in
+    private static final int RECORDS_PER_BATCH = 500;
+
+    private final FitFormDatabase main;
+    private final TelemetryDatabase telemetry;
+
+    // Per batch: file ids to the rows inserted for them
+    private final Map<Long, ImportedSession> sessionsByFileId = new HashMap<>();
+    private final Map<Long, Long> setIdsByFileId = new HashMap<>();
+    // Per import: names to local ids; null values record names that do not exist here
+    private final Map<String, Long> workoutIds = new HashMap<>();
+    private final Map<String, Long> exerciseIds = new HashMap<>();
+
+    /**
+     * Constructor for HistoryImporter
+     * @param main Database receiving sessions and sets
+     * @param telemetry Database receiving form analysis
+     */
+    public HistoryImporter(FitFormDatabase main, TelemetryDatabase telemetry) {
+        this.main = main;
+        this.telemetry = telemetry;
+    }
+
+    /**
+     * Imports a history file in either format. Blocks, so call off the main thread.
+     * @param userId User the history is imported for
+     * @param in File contents; closed when done
+     * @return Counts of records imported and skipped
+     * @throws IOException If the file cannot be read, is not a history export, or is of a newer
+     *         format version; batches before the failure stay imported
+     */
+    public HistoryTransferResult importFrom(long userId, InputStream in) throws IOException {
+        long startMs = SystemClock.elapsedRealtime();
+        HistoryTransferResult result = new HistoryTransferResult();
+        workoutIds.clear();
+        exerciseIds.clear();
+
+        try (HistoryReader reader = HistoryReader.open(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            HistoryReader.Record meta = reader.next();
+            if (meta == null) {
+                return result;
+            }
+            if (!HistoryCodec.META.equals(meta.getType())) {
+                throw new IOException("Not a workout history export");
+            }
+            int version;
+            try {
+                version = meta.getInt(HistoryCodec.VERSION, 0);
+            } catch (NumberFormatException e) {
+                throw new IOException("Not a workout history export", e);
+            }
+            if (version > HistoryCodec.FORMAT_VERSION) {
+                throw new IOException("History export version " + version + " is newer than this app supports");
+            }
+
+            List<Object> batch = new ArrayList<>(RECORDS_PER_BATCH);
+            HistoryReader.Record record;
+            while ((record = reader.next()) != null) {
+                Object item;
+                try {
+                    item = parse(record);
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "Skipping malformed record on line " + reader.getLine(), e);
+                    item = null;
+                }
+                if (item == null) {
+                    result.skipped++;
+                    continue;
+                }
+                if (item instanceof ImportedSession && batch.size() >= RECORDS_PER_BATCH) {
+                    flush(userId, batch, result);
+                }
+                batch.add(item);
+            }
+            flush(userId, batch, result);
+        }
+        Log.d(TAG, "Imported " + result + " in " + (SystemClock.elapsedRealtime() - startMs) + "ms");
+        return result;
+    }
+
+    /**
+     * @return Parsed record, or null for a record type this version does not know
+     */
+    private static Object parse(HistoryReader.Record record) {
+        String type = record.getType();
+        if (HistoryCodec.SESSION.equals(type)) {
+            return new ImportedSession(HistoryCodec.readSession(record), record.getString(HistoryCodec.WORKOUT_NAME));
+        } else if (HistoryCodec.SET.equals(type)) {
+            return new ImportedSet(HistoryCodec.readSet(record), record.getString(HistoryCodec.EXERCISE_NAME));
+        } else if (HistoryCodec.ANALYSIS.equals(type)) {
+            return HistoryCodec.readAnalysis(record);
+        } else if (HistoryCodec.ROLLUP.equals(type)) {
+            return HistoryCodec.readRollup(record);
+        }
+        return null;
+    }
+
+    private void flush(long userId, List<Object> batch, HistoryTransferResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<FormAnalysis> analyses = new ArrayList<>();
+        List<SetAnalysisRollup> rollups = new ArrayList<>();
+        main.runInTransaction(() -> {
+            for (Object item : batch) {
+                if (item instanceof ImportedSession) {
+                    insertSession(userId, (ImportedSession) item, result);
+                } else if (item instanceof ImportedSet) {
+                    insertSet(userId, (ImportedSet) item, result);
+                } else if (item instanceof FormAnalysis) {
+                    FormAnalysis analysis = (FormAnalysis) item;
+                    Long setId = setIdsByFileId.get(analysis.getExerciseSetId());
+                    if (setId != null) {
+                        analysis.setExerciseSetId(setId);
+                        analyses.add(analysis);
+                    } else {
+                        result.skipped++;
+                    }
+                } else {
+                    SetAnalysisRollup rollup = (SetAnalysisRollup) item;
+                    Long setId = setIdsByFileId.get(rollup.getExerciseSetId());
+                    if (setId != null) {
+                        rollup.setExerciseSetId(setId);
+                        rollups.add(rollup);
+                    } else {
+                        result.skipped++;
+                    }
+                }
+            }
+        });
+        if (!analyses.isEmpty() || !rollups.isEmpty()) {
+            telemetry.runInTransaction(() -> {
+                telemetry.formAnalysisDao().insertAnalyses(analyses);
+                telemetry.formAnalysisDao().insertRollups(rollups);
+            });
+            result.analyses += analyses.size();
+            result.rollups += rollups.size();
+        }
+        // Batches hold whole sessions, so nothing later refers to this batch's file ids
+        sessionsByFileId.clear();
+        setIdsByFileId.clear();
+        batch.clear();
+    }
+
+    // Runs inside a transaction
+    private void insertSession(long userId, ImportedSession item, HistoryTransferResult result) {
+        WorkoutSession session = item.session;
+        if (main.workoutSessionDao().findSessionIdByStartTime(userId, session.getStartTime()) != null) {
+            result.duplicateSessions++;
+            return;
+        }
+        long fileId = session.getId();
+        session.setId(0);
+        session.setUserId(userId);
+        session.setWorkoutId(resolveWorkout(userId, item.workoutName));
+        session.setId(main.workoutSessionDao().insertSession(session));
+        sessionsByFileId.put(fileId, item);
+
+        int minutes = session.getTotalDuration() != null ? session.getTotalDuration() : 0;
+        int calories = session.getCaloriesBurned() != null ? session.getCaloriesBurned() : 0;
+        main.dailySummaryDao().addSession(userId, DailySummary.dayOf(session.getStartTime()), minutes, calories);
+        result.sessions++;
+    }
+
+    // Runs inside a transaction
+    private void insertSet(long userId, ImportedSet item, HistoryTransferResult result) {
+        ExerciseSet set = item.set;
+        ImportedSession parent = sessionsByFileId.get(set.getSessionId());
+        if (parent == null) {
+            result.skipped++;
+            return;
+        }
+        WorkoutSession session = parent.session;
+        long fileId = set.getId();
+        set.setId(0);
+        set.setSessionId(session.getId());
+        set.setExerciseId(resolveExercise(session.getWorkoutId(), item.exerciseName));
+        setIdsByFileId.put(fileId, main.exerciseSetDao().insertSet(set));
+
+        String exercise = set.getExerciseType() != null ? set.getExerciseType() : DailySummary.UNKNOWN_EXERCISE;
+        main.dailySummaryDao().addSet(userId, DailySummary.dayOf(session.getStartTime()), exercise,
+            set.getReps(), set.getDuration() != null ? set.getDuration() : 0, set.getFormScore());
+        result.sets++;
+    }
+
+    /**
+     * @return Local workout of that name, or 0 if there is none or the file names no workout;
+     *         ids in the file belong to another install and are never used
+     */
+    private long resolveWorkout(long userId, String name) {
+        if (name == null) {
+            return 0L;
+        }
+        if (!workoutIds.containsKey(name)) {
+            workoutIds.put(name, main.workoutDao().findWorkoutIdByName(name, userId));
+        }
+        Long workoutId = workoutIds.get(name);
+        return workoutId != null ? workoutId : 0L;
+    }
+
+    /**
+     * @return Local exercise of that name in the workout, or 0 if there is none
+     */
+    private long resolveExercise(long workoutId, String name) {
+        if (name == null || workoutId == 0) {
+            return 0L;
+        }
+        String key = workoutId + "/" + name;
+        if (!exerciseIds.containsKey(key)) {
+            exerciseIds.put(key, main.exerciseDao().findExerciseIdByName(workoutId, name));
+        }
+        Long exerciseId = exerciseIds.get(key);
+        return exerciseId != null ? exerciseId : 0L;
+    }
+
+    private static final class ImportedSession {
+        final WorkoutSession session;
+        final String workoutName;
+
+        ImportedSession(WorkoutSession session, String workoutName) {
+            this.session = session;
+            this.workoutName = workoutName;
+        }
+    }
+
+    private static final class ImportedSet {
+        final ExerciseSet set;
+        final String exerciseName;
+
+        ImportedSet(ExerciseSet set, String exerciseName) {
+            this.set = set;
+            this.exerciseName = exerciseName;
+        }
+    }
+}
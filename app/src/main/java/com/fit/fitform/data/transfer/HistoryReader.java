@@ -0,0 +1,277 @@
+package com.fit.fitform.data.transfer;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads history records written by {@link HistoryWriter} one at a time, in either format.
+ * The format is detected from the first character. A single {@link Record} is reused for every
+ * record, so memory use does not depend on the file's size.
+ */
+abstract class HistoryReader implements Closeable {
+
+    private static final int BUFFER_CHARS = 64 * 1024;
+    private static final int BYTE_ORDER_MARK = 0xFEFF;
+
+    protected final BufferedReader in;
+    protected final Record record = new Record();
+    // Line the current record started on, for error messages
+    protected int line = 0;
+
+    private HistoryReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    /**
+     * @param source Text of an exported history file
+     * @return Reader for the file's format
+     */
+    static HistoryReader open(Reader source) throws IOException {
+        BufferedReader in = new BufferedReader(source, BUFFER_CHARS);
+        in.mark(2);
+        int first = in.read();
+        if (first == BYTE_ORDER_MARK) {
+            // Spreadsheet apps often save CSV with one
+            in.mark(1);
+            first = in.read();
+        }
+        in.reset();
+        return HistoryFormat.detect(first) == HistoryFormat.JSON_LINES ? new JsonLines(in) : new Csv(in);
+    }
+
+    /**
+     * @return Next record, valid until the following call, or null at the end of the file
+     * @throws IOException If the file cannot be read or a record is not well-formed
+     */
+    abstract Record next() throws IOException;
+
+    /** @return Line the last record returned started on, 1-based */
+    int getLine() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Field values of one record as text; a field that is absent, null or empty reads as null
+     */
+    static final class Record {
+
+        private final Map<String, String> values = new HashMap<>();
+        private String type;
+
+        String getType() {
+            return type;
+        }
+
+        String getString(String name) {
+            String value = values.get(name);
+            return value == null || value.isEmpty() ? null : value;
+        }
+
+        Long getLong(String name) {
+            String value = getString(name);
+            return value != null ? Long.valueOf(value) : null;
+        }
+
+        long getLong(String name, long fallback) {
+            Long value = getLong(name);
+            return value != null ? value : fallback;
+        }
+
+        Integer getInteger(String name) {
+            String value = getString(name);
+            return value != null ? Integer.valueOf(value) : null;
+        }
+
+        int getInt(String name, int fallback) {
+            Integer value = getInteger(name);
+            return value != null ? value : fallback;
+        }
+
+        Float getFloat(String name) {
+            String value = getString(name);
+            return value != null ? Float.valueOf(value) : null;
+        }
+
+        void clear() {
+            values.clear();
+            type = null;
+        }
+
+        void put(String name, String value) {
+            if (HistoryCodec.TYPE.equals(name)) {
+                type = value;
+            } else {
+                values.put(name, value);
+            }
+        }
+    }
+
+    private static final class JsonLines extends HistoryReader {
+
+        private final StringBuilder vector = new StringBuilder();
+
+        JsonLines(BufferedReader in) {
+            super(in);
+        }
+
+        @Override
+        Record next() throws IOException {
+            String text;
+            do {
+                text = in.readLine();
+                if (text == null) {
+                    return null;
+                }
+                line++;
+            } while (text.trim().isEmpty());
+
+            record.clear();
+            try {
+                JsonReader json = new JsonReader(new StringReader(text));
+                json.beginObject();
+                while (json.hasNext()) {
+                    String name = json.nextName();
+                    switch (json.peek()) {
+                        case NULL:
+                            json.nextNull();
+                            break;
+                        case BOOLEAN:
+                            record.put(name, Boolean.toString(json.nextBoolean()));
+                            break;
+                        case BEGIN_ARRAY:
+                            record.put(name, readVector(json));
+                            break;
+                        case BEGIN_OBJECT:
+                            json.skipValue();
+                            break;
+                        default:
+                            record.put(name, json.nextString());
+                            break;
+                    }
+                }
+                json.endObject();
+            } catch (IllegalStateException | IOException e) {
+                throw new IOException("Malformed record on line " + line, e);
+            }
+            return record;
+        }
+
+        // Checkpoint arrays become the same ;-separated text CSV uses
+        private String readVector(JsonReader json) throws IOException {
+            vector.setLength(0);
+            json.beginArray();
+            boolean first = true;
+            while (json.hasNext()) {
+                if (!first) {
+                    vector.append(';');
+                }
+                first = false;
+                if (json.peek() == JsonToken.NULL) {
+                    json.nextNull();
+                } else {
+                    vector.append(json.nextString());
+                }
+            }
+            json.endArray();
+            return vector.toString();
+        }
+    }
+
+    private static final class Csv extends HistoryReader {
+
+        private final List<String> fields = new ArrayList<>();
+        private final StringBuilder field = new StringBuilder();
+        private String[] header;
+        // Physical lines consumed; a quoted field can span several
+        private int linesRead = 0;
+
+        Csv(BufferedReader in) {
+            super(in);
+        }
+
+        @Override
+        Record next() throws IOException {
+            if (header == null) {
+                if (!readRow()) {
+                    return null;
+                }
+                header = fields.toArray(new String[0]);
+            }
+            do {
+                if (!readRow()) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isEmpty());
+
+            record.clear();
+            for (int i = 0; i < fields.size() && i < header.length; i++) {
+                record.put(header[i], fields.get(i));
+            }
+            return record;
+        }
+
+        /**
+         * Reads one RFC 4180 row into {@link #fields}
+         * @return False at the end of the file
+         */
+        private boolean readRow() throws IOException {
+            fields.clear();
+            field.setLength(0);
+            line = linesRead + 1;
+            int c = in.read();
+            if (c == -1) {
+                return false;
+            }
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field starting on line " + line);
+                    }
+                    if (c == '"') {
+                        in.mark(1);
+                        int next = in.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            in.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            linesRead++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    linesRead++;
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+            fields.add(field.toString());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.fit.fitform.data.transfer;
+
+/**
+ * Record counts of one history export or import
+ */
+public class HistoryTransferResult {
+
+    int sessions;
+    int sets;
+    int analyses;
+    int rollups;
+    int duplicateSessions;
+    int skipped;
+
+    /** @return Sessions written or imported */
+    public int getSessions() {
+        return sessions;
+    }
+
+    /** @return Exercise sets written or imported */
+    public int getSets() {
+        return sets;
+    }
+
+    /** @return Raw form analysis rows written or imported */
+    public int getAnalyses() {
+        return analyses;
+    }
+
+    /** @return Form analysis rollups written or imported */
+    public int getRollups() {
+        return rollups;
+    }
+
+    /** @return Sessions not imported because the user already has a session starting at that time */
+    public int getDuplicateSessions() {
+        return duplicateSessions;
+    }
+
+    /** @return Records not imported: malformed, of an unknown type, or whose parent was not imported */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    @Override
+    public String toString() {
+        return sessions + " sessions, " + sets + " sets, " + analyses + " analyses, " + rollups + " rollups, "
+            + duplicateSessions + " duplicate sessions, " + skipped + " skipped";
+    }
+}
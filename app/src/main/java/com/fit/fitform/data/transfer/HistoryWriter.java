@@ -0,0 +1,205 @@
+package com.fit.fitform.data.transfer;
+
+import com.fit.fitform.analysis.CheckpointVector;
+import com.google.gson.stream.JsonWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes history records one at a time, straight through to a buffered writer.
+ * A record is {@link #begin}, any number of fields, then {@link #end}; null fields are left out.
+ * Nothing is kept between records, so memory use does not depend on the history's size.
+ */
+abstract class HistoryWriter implements Closeable {
+
+    protected final Writer out;
+
+    private HistoryWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * @param format Format to write
+     * @param out Destination; should be buffered, it is written to in small pieces
+     * @return Writer for the format; a CSV writer has already written its header row
+     */
+    static HistoryWriter open(HistoryFormat format, Writer out) throws IOException {
+        return format == HistoryFormat.JSON_LINES ? new JsonLines(out) : new Csv(out);
+    }
+
+    abstract void begin(String type) throws IOException;
+
+    abstract void field(String name, String value) throws IOException;
+
+    abstract void field(String name, Number value) throws IOException;
+
+    abstract void field(String name, CheckpointVector value) throws IOException;
+
+    abstract void end() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * JSON has no NaN or infinity, and such a value is as good as unmeasured, so both formats drop it
+     */
+    private static boolean isFinite(Number value) {
+        return value != null && !Double.isNaN(value.doubleValue()) && !Double.isInfinite(value.doubleValue());
+    }
+
+    /**
+     * One JSON object per line; checkpoint vectors are arrays with null for unmeasured slots
+     */
+    private static final class JsonLines extends HistoryWriter {
+
+        private JsonWriter json;
+
+        JsonLines(Writer out) {
+            super(out);
+        }
+
+        @Override
+        void begin(String type) throws IOException {
+            // JsonWriter has no buffer of its own and accepts one top-level value, so one per line
+            json = new JsonWriter(out);
+            json.beginObject();
+            json.name(HistoryCodec.TYPE).value(type);
+        }
+
+        @Override
+        void field(String name, String value) throws IOException {
+            if (value != null) {
+                json.name(name).value(value);
+            }
+        }
+
+        @Override
+        void field(String name, Number value) throws IOException {
+            if (isFinite(value)) {
+                json.name(name).value(value);
+            }
+        }
+
+        @Override
+        void field(String name, CheckpointVector value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            json.name(name).beginArray();
+            for (int id = 0; id < value.size(); id++) {
+                float slot = value.get(id);
+                if (Float.isNaN(slot)) {
+                    json.nullValue();
+                } else {
+                    json.value(Float.valueOf(slot));
+                }
+            }
+            json.endArray();
+        }
+
+        @Override
+        void end() throws IOException {
+            json.endObject();
+            json = null;
+            out.write('\n');
+        }
+    }
+
+    /**
+     * RFC 4180 rows under a header of {@link HistoryCodec#COLUMNS}; checkpoint vectors are
+     * {@code ;}-separated with empty unmeasured slots
+     */
+    private static final class Csv extends HistoryWriter {
+
+        private static final Map<String, Integer> COLUMN_INDEX = new HashMap<>();
+
+        static {
+            for (int i = 0; i < HistoryCodec.COLUMNS.length; i++) {
+                COLUMN_INDEX.put(HistoryCodec.COLUMNS[i], i);
+            }
+        }
+
+        private final String[] row = new String[HistoryCodec.COLUMNS.length];
+
+        Csv(Writer out) throws IOException {
+            super(out);
+            writeRow(HistoryCodec.COLUMNS);
+        }
+
+        @Override
+        void begin(String type) {
+            Arrays.fill(row, null);
+            row[0] = type;
+        }
+
+        @Override
+        void field(String name, String value) {
+            row[columnOf(name)] = value;
+        }
+
+        @Override
+        void field(String name, Number value) {
+            row[columnOf(name)] = isFinite(value) ? value.toString() : null;
+        }
+
+        @Override
+        void field(String name, CheckpointVector value) {
+            row[columnOf(name)] = value != null ? HistoryCodec.formatVector(value) : null;
+        }
+
+        @Override
+        void end() throws IOException {
+            writeRow(row);
+        }
+
+        private void writeRow(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                String value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                if (needsQuotes(value)) {
+                    out.write('"');
+                    for (int c = 0; c < value.length(); c++) {
+                        char ch = value.charAt(c);
+                        if (ch == '"') {
+                            out.write('"');
+                        }
+                        out.write(ch);
+                    }
+                    out.write('"');
+                } else {
+                    out.write(value);
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int columnOf(String name) {
+            Integer column = COLUMN_INDEX.get(name);
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown history column " + name);
+            }
+            return column;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.fit.fitform.service;
+
+import android.os.SystemClock;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+/**
+ * Process-wide workout clock, driven by {@link WorkoutTimerService} and read by screens.
+ * Time is kept as {@link SystemClock#elapsedRealtime()} anchors rather than counted ticks, so it
+ * does not drift under load and keeps counting through Doze and deep sleep; nothing runs while
+ * the clock is running. {@link #getState()} only changes when the clock starts, pauses, resumes
+ * or stops, and each {@link State} can compute the elapsed time whenever it is needed.
+ */
+public final class WorkoutTimer {
+
+    private static final WorkoutTimer INSTANCE = new WorkoutTimer();
+
+    private final MutableLiveData<State> state = new MutableLiveData<>(State.STOPPED);
+
+    private WorkoutTimer() {}
+
+    public static WorkoutTimer get() {
+        return INSTANCE;
+    }
+
+    /** @return LiveData of the clock state; emits on state changes only */
+    public LiveData<State> getState() {
+        return state;
+    }
+
+    /** @return Current state; never null */
+    public State getCurrentState() {
+        return state.getValue();
+    }
+
+    /**
+     * Starts from zero, discarding any previous time. Call on the main thread.
+     * @return True if the state changed
+     */
+    boolean start() {
+        return set(new State(true, true, 0L, SystemClock.elapsedRealtime()));
+    }
+
+    /**
+     * Stops counting and keeps the time so far. Call on the main thread.
+     * @return True if the state changed; false if the clock was not running
+     */
+    boolean pause() {
+        State current = getCurrentState();
+        if (!current.isRunning()) {
+            return false;
+        }
+        return set(new State(true, false, current.getElapsedMillis(), 0L));
+    }
+
+    /**
+     * Counts on from the paused time. Call on the main thread.
+     * @return True if the state changed; false if the clock was not paused
+     */
+    boolean resume() {
+        State current = getCurrentState();
+        if (!current.isActive() || current.isRunning()) {
+            return false;
+        }
+        return set(new State(true, true, current.accumulatedMillis, SystemClock.elapsedRealtime()));
+    }
+
+    /**
+     * Stops and clears the clock. Call on the main thread.
+     * @return True if the state changed
+     */
+    boolean stop() {
+        return set(State.STOPPED);
+    }
+
+    private boolean set(State next) {
+        if (next.equals(getCurrentState())) {
+            return false;
+        }
+        state.setValue(next);
+        return true;
+    }
+
+    /**
+     * Immutable snapshot of the clock between two state changes
+     */
+    public static final class State {
+
+        static final State STOPPED = new State(false, false, 0L, 0L);
+
+        private final boolean active;
+        private final boolean running;
+        // Time counted before the current running stretch
+        private final long accumulatedMillis;
+        // elapsedRealtime() when the current running stretch began; unused while paused
+        private final long runningSinceRealtime;
+
+        State(boolean active, boolean running, long accumulatedMillis, long runningSinceRealtime) {
+            this.active = active;
+            this.running = running;
+            this.accumulatedMillis = accumulatedMillis;
+            this.runningSinceRealtime = runningSinceRealtime;
+        }
+
+        /** @return True between start and stop, paused or not */
+        public boolean isActive() {
+            return active;
+        }
+
+        /** @return True while counting */
+        public boolean isRunning() {
+            return running;
+        }
+
+        /** @return Workout time so far, excluding pauses */
+        public long getElapsedMillis() {
+            return running
+                ? accumulatedMillis + SystemClock.elapsedRealtime() - runningSinceRealtime
+                : accumulatedMillis;
+        }
+
+        /**
+         * @return {@link android.widget.Chronometer} base that shows the elapsed time; constant
+         *         while running
+         */
+        public long getChronometerBase() {
+            return SystemClock.elapsedRealtime() - getElapsedMillis();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof State)) {
+                return false;
+            }
+            State other = (State) o;
+            return active == other.active && running == other.running
+                && accumulatedMillis == other.accumulatedMillis
+                && runningSinceRealtime == other.runningSinceRealtime;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (active ? 1 : 0) + (running ? 2 : 0);
+            result = 31 * result + Long.hashCode(accumulatedMillis);
+            return 31 * result + Long.hashCode(runningSinceRealtime);
+        }
+    }
+}
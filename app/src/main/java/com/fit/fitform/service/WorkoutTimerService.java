@@ -7,9 +7,7 @@ import android.app.PendingIntent;
 import android.app.Service;
 import android.content.Intent;
 import android.os.Build;
-import android.os.Handler;
 import android.os.IBinder;
-import android.os.Looper;
 
 import androidx.core.app.NotificationCompat;
 
@@ -19,7 +17,9 @@ import com.fit.fitform.ui.main.MainActivity;
 /**
  * Foreground Service for tracking workout session duration.
  * Displays a persistent notification with elapsed time and continues running
- * even when the app is in the background.
+ * even when the app is in the background. The time itself lives in {@link WorkoutTimer}, which
+ * screens observe directly; the notification shows it with a system chronometer and is only
+ * re-posted when the timer starts, pauses or resumes, so nothing wakes up once a second.
  */
 public class WorkoutTimerService extends Service {
 
@@ -27,20 +27,13 @@ public class WorkoutTimerService extends Service {
     private static final String CHANNEL_ID = "workout_timer_channel";
     private static final int NOTIFICATION_ID = 1001;
     
-    // Broadcast action for timer updates
-    public static final String ACTION_TIMER_UPDATE = "com.fit.fitform.TIMER_UPDATE";
-    public static final String EXTRA_ELAPSED_TIME = "elapsed_time";
-    
     // Service actions
     public static final String ACTION_START = "com.fit.fitform.ACTION_START";
     public static final String ACTION_PAUSE = "com.fit.fitform.ACTION_PAUSE";
     public static final String ACTION_RESUME = "com.fit.fitform.ACTION_RESUME";
     public static final String ACTION_STOP = "com.fit.fitform.ACTION_STOP";
     
-    private Handler handler;
-    private Runnable timerRunnable;
-    private long elapsedTimeSeconds = 0;
-    private boolean isRunning = false;
+    private final WorkoutTimer timer = WorkoutTimer.get();
     private NotificationManager notificationManager;
 
     @Override
@@ -48,19 +41,6 @@ public class WorkoutTimerService extends Service {
         super.onCreate();
         notificationManager = (NotificationManager) getSystemService(NOTIFICATION_SERVICE);
         createNotificationChannel();
-        
-        handler = new Handler(Looper.getMainLooper());
-        timerRunnable = new Runnable() {
-            @Override
-            public void run() {
-                if (isRunning) {
-                    elapsedTimeSeconds++;
-                    updateNotification();
-                    broadcastTimeUpdate();
-                    handler.postDelayed(this, 1000); // Update every second
-                }
-            }
-        };
     }
 
     @Override
@@ -81,6 +61,9 @@ public class WorkoutTimerService extends Service {
                     stopSelf();
                     break;
             }
+        } else if (!timer.getCurrentState().isActive()) {
+            // Restarted after the process died; the in-memory timer went with it
+            stopSelf();
         }
         return START_STICKY;
     }
@@ -93,10 +76,7 @@ public class WorkoutTimerService extends Service {
     @Override
     public void onDestroy() {
         super.onDestroy();
-        if (handler != null) {
-            handler.removeCallbacks(timerRunnable);
-        }
-        isRunning = false;
+        timer.stop();
     }
 
     /**
@@ -119,45 +99,39 @@ public class WorkoutTimerService extends Service {
      * Starts the timer and shows foreground notification
      */
     private void startTimer() {
-        elapsedTimeSeconds = 0;
-        isRunning = true;
-        
+        timer.start();
         // Start as foreground service with notification
         startForeground(NOTIFICATION_ID, buildNotification());
-        
-        // Start timer updates
-        handler.post(timerRunnable);
     }
 
     /**
      * Pauses the timer
      */
     private void pauseTimer() {
-        isRunning = false;
-        updateNotification();
+        if (timer.pause()) {
+            updateNotification();
+        }
     }
 
     /**
      * Resumes the timer
      */
     private void resumeTimer() {
-        isRunning = true;
-        handler.post(timerRunnable);
+        if (timer.resume()) {
+            updateNotification();
+        }
     }
 
     /**
      * Stops the timer and removes notification
      */
     private void stopTimer() {
-        isRunning = false;
-        elapsedTimeSeconds = 0;
-        if (handler != null) {
-            handler.removeCallbacks(timerRunnable);
-        }
+        timer.stop();
     }
 
     /**
-     * Builds the notification to display
+     * Builds the notification for the timer's current state. While running, the system draws
+     * the ticking time from {@code setWhen}; while paused, the frozen time is plain text.
      */
     private Notification buildNotification() {
         // Intent to open app when notification is tapped
@@ -169,12 +143,20 @@ public class WorkoutTimerService extends Service {
                 PendingIntent.FLAG_IMMUTABLE
         );
 
-        String timeString = formatTime(elapsedTimeSeconds);
-        String contentText = isRunning ? "Workout in progress: " + timeString : "Workout paused: " + timeString;
+        WorkoutTimer.State state = timer.getCurrentState();
+        long elapsedMs = state.getElapsedMillis();
+        String contentText = state.isRunning()
+                ? "Workout in progress"
+                : "Workout paused: " + formatTime(elapsedMs / 1000);
 
         return new NotificationCompat.Builder(this, CHANNEL_ID)
                 .setContentTitle("FitForm Workout")
                 .setContentText(contentText)
+                // The chronometer counts from "when", a wall-clock time, so derive it at post time
+                .setWhen(System.currentTimeMillis() - elapsedMs)
+                .setShowWhen(state.isRunning())
+                .setUsesChronometer(state.isRunning())
+                .setOnlyAlertOnce(true)
                 .setSmallIcon(R.drawable.ic_profile) // Using existing icon
                 .setContentIntent(pendingIntent)
                 .setOngoing(true) // Cannot be dismissed by user
@@ -184,22 +166,13 @@ public class WorkoutTimerService extends Service {
     }
 
     /**
-     * Updates the notification with current time
+     * Re-posts the notification after a timer state change
      */
     private void updateNotification() {
         Notification notification = buildNotification();
         notificationManager.notify(NOTIFICATION_ID, notification);
     }
 
-    /**
-     * Broadcasts the current elapsed time to any registered receivers
-     */
-    private void broadcastTimeUpdate() {
-        Intent intent = new Intent(ACTION_TIMER_UPDATE);
-        intent.putExtra(EXTRA_ELAPSED_TIME, elapsedTimeSeconds);
-        sendBroadcast(intent);
-    }
-
     /**
      * Formats seconds into MM:SS format
      */
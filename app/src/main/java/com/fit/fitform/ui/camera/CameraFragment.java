@@ -17,6 +17,13 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 import com.fit.fitform.R;
+import com.fit.fitform.analysis.ExerciseType;
+import com.fit.fitform.analysis.FormScorer;
+import com.fit.fitform.analysis.FormThresholds;
+import com.fit.fitform.analysis.PoseFeatures;
+import com.fit.fitform.analysis.PoseFrame;
+import com.fit.fitform.analysis.RepEvaluator;
+import com.fit.fitform.core.concurrent.AppExecutors;
 import com.fit.fitform.databinding.FragmentCameraBinding;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.mlkit.vision.common.InputImage;
@@ -46,9 +53,15 @@ public class CameraFragment extends Fragment {
     private Camera camera;
     private ImageAnalysis imageAnalysis;
     private PoseDetector poseDetector;
-    private boolean isAnalysisActive = false;
+    private volatile boolean isAnalysisActive = false; // read on the pose thread
     private String selectedExercise = "Push-ups";
     
+    // Incremental form scoring, reset whenever the exercise changes
+    private final PoseFrame poseFrame = new PoseFrame();
+    private final PoseFeatures poseFeatures = new PoseFeatures();
+    private RepEvaluator repEvaluator;
+    private FormScorer formScorer;
+    
     // Available exercises for form analysis
     private final List<String> availableExercises = Arrays.asList(
         "Push-ups", "Squats", "Plank", "Lunges", "Burpees", "Mountain Climbers"
@@ -67,6 +80,7 @@ public class CameraFragment extends Fragment {
         setupExerciseSelection();
         setupClickListeners();
         setupPoseDetector();
+        resetFormScoring();
         
         if (checkCameraPermission()) {
             startCamera();
@@ -96,6 +110,7 @@ public class CameraFragment extends Fragment {
         
         binding.exerciseSelectionAutoComplete.setOnItemClickListener((parent, view, position, id) -> {
             selectedExercise = availableExercises.get(position);
+            resetFormScoring();
             Log.d(TAG, "Selected exercise: " + selectedExercise);
         });
     }
@@ -162,7 +177,7 @@ public class CameraFragment extends Fragment {
             .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST)
             .build();
         
-        imageAnalysis.setAnalyzer(ContextCompat.getMainExecutor(requireContext()), this::analyzeImage);
+        imageAnalysis.setAnalyzer(AppExecutors.pose(), this::analyzeImage);
         
         // Select camera (front or back)
         CameraSelector cameraSelector = CameraSelector.DEFAULT_FRONT_CAMERA;
@@ -211,15 +226,15 @@ public class CameraFragment extends Fragment {
         switch (selectedExercise) {
             case "Push-ups":
                 feedbackList = analyzePushUpForm(pose);
-                overallScore = calculatePushUpScore(pose);
+                overallScore = calculateFormScore(pose);
                 break;
             case "Squats":
                 feedbackList = analyzeSquatForm(pose);
-                overallScore = calculateSquatScore(pose);
+                overallScore = calculateFormScore(pose);
                 break;
             case "Plank":
                 feedbackList = analyzePlankForm(pose);
-                overallScore = calculatePlankScore(pose);
+                overallScore = calculateFormScore(pose);
                 break;
             default:
                 feedbackList = new ArrayList<>();
@@ -361,33 +376,43 @@ public class CameraFragment extends Fragment {
     }
     
     /**
-     * Calculates overall form score for push-ups
-     * @param pose Detected pose
-     * @return Form score (0.0 to 1.0)
+     * Creates the rep rules and scorer for the selected exercise, discarding previous statistics
      */
-    private float calculatePushUpScore(Pose pose) {
-        // Simplified scoring - in real implementation, this would be more sophisticated
-        return 0.85f; // Placeholder score
-    }
-    
-    /**
-     * Calculates overall form score for squats
-     * @param pose Detected pose
-     * @return Form score (0.0 to 1.0)
-     */
-    private float calculateSquatScore(Pose pose) {
-        // Simplified scoring - in real implementation, this would be more sophisticated
-        return 0.78f; // Placeholder score
+    private void resetFormScoring() {
+        ExerciseType type;
+        switch (selectedExercise) {
+            case "Squats":
+                type = ExerciseType.SQUAT;
+                break;
+            case "Plank":
+                type = ExerciseType.PLANK;
+                break;
+            default:
+                type = ExerciseType.PUSHUP;
+                break;
+        }
+        repEvaluator = new RepEvaluator(type, FormThresholds.DEFAULTS);
+        formScorer = new FormScorer(type, FormThresholds.DEFAULTS);
     }
     
     /**
-     * Calculates overall form score for plank
+     * Calculates the form score of the current frame, or of the rep that it completes
      * @param pose Detected pose
-     * @return Form score (0.0 to 1.0)
+     * @return Form score (0.0 to 1.0), or NaN if no checkpoint is visible
      */
-    private float calculatePlankScore(Pose pose) {
-        // Simplified scoring - in real implementation, this would be more sophisticated
-        return 0.92f; // Placeholder score
+    private float calculateFormScore(Pose pose) {
+        poseFrame.reset(System.currentTimeMillis());
+        for (PoseLandmark landmark : pose.getAllPoseLandmarks()) {
+            poseFrame.set(landmark.getLandmarkType(), landmark.getPosition().x,
+                landmark.getPosition().y, landmark.getInFrameLikelihood());
+        }
+        poseFeatures.extract(poseFrame);
+        repEvaluator.step(poseFeatures);
+        float frameScore = formScorer.update(poseFeatures, repEvaluator);
+        if (repEvaluator.isRepCompleted()) {
+            return formScorer.getLastRepScore().getOverallScore();
+        }
+        return frameScore;
     }
     
     /**
@@ -395,6 +420,7 @@ public class CameraFragment extends Fragment {
      * @param score Form score (0.0 to 1.0)
      */
     private void updateFormScore(float score) {
+        if (Float.isNaN(score)) return; // Nothing scorable in view; keep the last score
         int percentage = Math.round(score * 100);
         binding.formScoreText.setText(percentage + "%");
         binding.scoreCard.setVisibility(View.VISIBLE);
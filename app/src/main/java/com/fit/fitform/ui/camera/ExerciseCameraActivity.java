@@ -1,15 +1,13 @@
 package com.fit.fitform.ui.camera;
 
 import android.Manifest;
-import android.content.BroadcastReceiver;
-import android.content.Context;
 import android.content.Intent;
-import android.content.IntentFilter;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
 import android.util.Log;
 import android.widget.Button;
+import android.widget.Chronometer;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.annotation.NonNull;
@@ -26,46 +24,74 @@ import androidx.lifecycle.ViewModelProvider;
 
 import com.fit.fitform.R;
 import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.database.TelemetryDatabase;
+import com.fit.fitform.data.entity.DailySummary;
+import com.fit.fitform.data.entity.ExerciseSet;
+import com.fit.fitform.data.entity.FormAnalysis;
 import com.fit.fitform.data.entity.WorkoutSession;
+import com.fit.fitform.data.model.SetAnalysisSummary;
+import com.fit.fitform.data.repository.FormAnalysisWriter;
+import com.fit.fitform.data.repository.SessionAnalysisRepository;
+import com.fit.fitform.data.repository.SessionCheckpointer;
+import com.fit.fitform.data.repository.SessionRecovery;
+import com.fit.fitform.data.repository.SessionRepository;
+import com.fit.fitform.analysis.CheckpointVector;
+import com.fit.fitform.analysis.ExerciseType;
+import com.fit.fitform.analysis.FormCheckpoint;
+import com.fit.fitform.analysis.RepMetrics;
+import com.fit.fitform.analysis.RepScore;
+import com.fit.fitform.analysis.SetTracker;
 import com.fit.fitform.core.analytics.AnalyticsManager;
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.core.session.CurrentUserProvider;
+import com.fit.fitform.service.WorkoutTimer;
 import com.fit.fitform.service.WorkoutTimerService;
+import com.fit.fitform.util.ExerciseRecognizer;
 import com.fit.fitform.util.GraphicOverlay;
 import com.fit.fitform.util.PoseAnalyzer;
+import com.fit.fitform.util.RepQualityScorer;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
 
 public class ExerciseCameraActivity extends AppCompatActivity {
     private static final String TAG = "ExerciseCameraActivity";
     private static final int CAMERA_PERMISSION_REQUEST_CODE = 2001;
+    // Intent extra: recognize the exercise and switch rules automatically
+    public static final String EXTRA_AUTO_DETECT = "auto_detect";
+    // Longest wait for trajectory matching of the final reps when finishing
+    private static final long TRAJECTORY_WAIT_MS = 500L;
 
     private PreviewView previewView;
     private GraphicOverlay graphicOverlay;
     private TextView feedbackTextView;
-    private TextView timerTextView;
+    private Chronometer timerChronometer;
     private Button finishWorkoutButton;
     private ExerciseCameraViewModel viewModel;
     private ProcessCameraProvider cameraProvider;
     private Camera camera;
     private ImageAnalysis imageAnalysis;
     private PoseAnalyzer poseAnalyzer;
+    private RepQualityScorer repQualityScorer;
+    private FormAnalysisWriter formAnalysisWriter;
+    private SessionCheckpointer checkpointer;
+    private ExerciseRecognizer exerciseRecognizer;
     private AnalyticsManager analyticsManager;
     private boolean isAnalysisActive = true;
     private FitFormDatabase db;
-    private long activeSessionId = -1L;
-    private long activeSessionStartMs = 0L;
-    
-    // BroadcastReceiver for timer updates from WorkoutTimerService
-    private BroadcastReceiver timerReceiver = new BroadcastReceiver() {
-        @Override
-        public void onReceive(Context context, Intent intent) {
-            if (WorkoutTimerService.ACTION_TIMER_UPDATE.equals(intent.getAction())) {
-                long elapsedSeconds = intent.getLongExtra(WorkoutTimerService.EXTRA_ELAPSED_TIME, 0);
-                updateTimerDisplay(elapsedSeconds);
-            }
-        }
-    };
+    private SessionRepository sessionRepository;
+    private SessionAnalysisRepository sessionAnalysisRepository;
+    private volatile long activeSessionId = -1L;
+    private volatile long activeSessionStartMs = 0L;
+    // Set number of this screen's first set; higher than 1 when an interrupted session is resumed
+    private volatile int firstSetNumber = 1;
+
     private long workoutId = -1L;
 
     @Override
@@ -77,16 +103,11 @@ public class ExerciseCameraActivity extends AppCompatActivity {
         previewView = findViewById(R.id.previewView);
         graphicOverlay = findViewById(R.id.graphicOverlay);
         feedbackTextView = findViewById(R.id.feedbackTextView);
-        timerTextView = findViewById(R.id.timerTextView);
+        timerChronometer = findViewById(R.id.timerChronometer);
         finishWorkoutButton = findViewById(R.id.finishWorkoutButton);
         
-        // Register BroadcastReceiver for timer updates
-        IntentFilter filter = new IntentFilter(WorkoutTimerService.ACTION_TIMER_UPDATE);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
-            registerReceiver(timerReceiver, filter, Context.RECEIVER_NOT_EXPORTED);
-        } else {
-            registerReceiver(timerReceiver, filter);
-        }
+        // Follow the workout timer; it only emits when it starts, pauses, resumes or stops
+        WorkoutTimer.get().getState().observe(this, this::updateTimerDisplay);
 
         // Initialize ViewModel
         viewModel = new ViewModelProvider(this).get(ExerciseCameraViewModel.class);
@@ -94,10 +115,17 @@ public class ExerciseCameraActivity extends AppCompatActivity {
         // Initialize Analytics
         analyticsManager = AnalyticsManager.getInstance(this);
         db = FitFormDatabase.getDatabase(getApplicationContext());
+        sessionRepository = new SessionRepository(db);
+        TelemetryDatabase telemetry = TelemetryDatabase.getDatabase(getApplicationContext());
+        sessionAnalysisRepository = new SessionAnalysisRepository(db, telemetry);
+        // Batch analysis rows off the camera thread into the telemetry database; flushed when the activity stops
+        formAnalysisWriter = new FormAnalysisWriter(telemetry.formAnalysisDao());
+        getLifecycle().addObserver(formAnalysisWriter);
         
         // Read selected exercise from intent (if any)
         String exerciseType = getIntent().getStringExtra("exercise_type");
         workoutId = getIntent().getLongExtra("workout_id", -1L);
+        boolean autoDetect = getIntent().getBooleanExtra(EXTRA_AUTO_DETECT, false);
         if (exerciseType != null) {
             viewModel.setSelectedExercise(exerciseType);
             Log.d(TAG, "Starting " + exerciseType + " capture");
@@ -111,6 +139,36 @@ public class ExerciseCameraActivity extends AppCompatActivity {
 
         // Initialize PoseAnalyzer with GraphicOverlay and feedback TextView
         poseAnalyzer = new PoseAnalyzer(graphicOverlay, feedbackTextView, exerciseType);
+        // Match completed reps against the exercise's reference trajectories in the background
+        repQualityScorer = new RepQualityScorer(db.exerciseDao());
+        poseAnalyzer.setRepQualityScorer(repQualityScorer);
+        if (autoDetect) {
+            // Follow the user from exercise to exercise during a circuit
+            exerciseRecognizer = new ExerciseRecognizer(poseAnalyzer.getActiveExercise(), recognized -> {
+                poseAnalyzer.onExerciseRecognized(recognized);
+                viewModel.setSelectedExercise(recognized.name());
+            });
+            poseAnalyzer.setExerciseRecognizer(exerciseRecognizer);
+        }
+
+        // Save set progress every few seconds so a killed process does not lose the workout
+        checkpointer = new SessionCheckpointer(db, new SessionCheckpointer.Source() {
+            @Override
+            public long progressKey() {
+                return progressKeyOf(poseAnalyzer.getSets());
+            }
+
+            @Override
+            public List<ExerciseSet> snapshotSets() {
+                List<SetTracker> trackers = poseAnalyzer.getSets();
+                List<ExerciseSet> rows = new ArrayList<>(trackers.size());
+                for (SetTracker tracker : trackers) {
+                    rows.add(buildSet(tracker));
+                }
+                return rows;
+            }
+        });
+        getLifecycle().addObserver(checkpointer);
 
         // Start a WorkoutSession record
         startWorkoutSession();
@@ -170,7 +228,8 @@ public class ExerciseCameraActivity extends AppCompatActivity {
             .build();
 
         // Use PoseAnalyzer which handles pose detection and visualization
-        imageAnalysis.setAnalyzer(ContextCompat.getMainExecutor(this), poseAnalyzer);
+        // Frames are converted off the main thread; detection results come back on it
+        imageAnalysis.setAnalyzer(AppExecutors.pose(), poseAnalyzer);
 
         androidx.camera.core.CameraSelector cameraSelector = androidx.camera.core.CameraSelector.DEFAULT_FRONT_CAMERA;
 
@@ -186,17 +245,70 @@ public class ExerciseCameraActivity extends AppCompatActivity {
 
     private void startWorkoutSession() {
         activeSessionStartMs = System.currentTimeMillis();
-        final long userId = getSharedPreferences("user_session", 0).getLong("user_id", -1);
-        Executors.newSingleThreadExecutor().execute(() -> {
-            try {
-                WorkoutSession session = new WorkoutSession(userId, workoutId, activeSessionStartMs);
-                long id = db.workoutSessionDao().insertSession(session);
-                activeSessionId = id;
-                Log.d(TAG, "Workout session started id=" + id);
-            } catch (Exception e) {
-                Log.e(TAG, "Failed to start workout session", e);
+        // Open the session once the user is resolved, then checkpoint it
+        ListenableFuture<Long> sessionId = Futures.transformAsync(CurrentUserProvider.get(this).getUserIdAsync(),
+            this::openWorkoutSession, MoreExecutors.directExecutor());
+        Futures.addCallback(sessionId, new FutureCallback<Long>() {
+            @Override
+            public void onSuccess(Long id) {
+                checkpointer.start(id, firstSetNumber);
             }
-        });
+
+            @Override
+            public void onFailure(@NonNull Throwable t) {
+                Log.e(TAG, "Failed to start workout session", t);
+            }
+        }, ContextCompat.getMainExecutor(this));
+    }
+
+    /**
+     * Continues this workout's session if the app was killed during it a moment ago, otherwise
+     * inserts a new one. The lookups run on Room's query executor, the insert on the disk I/O pool.
+     * @return Future of the active session's id
+     */
+    private ListenableFuture<Long> openWorkoutSession(long userId) {
+        ListenableFuture<WorkoutSession> resumable = sessionRepository.getResumableSessionAsync(userId, workoutId,
+            System.currentTimeMillis() - SessionRecovery.RESUME_WINDOW_MS);
+        return Futures.transformAsync(resumable, session -> {
+            if (session != null && !SessionCheckpointer.isLive(session.getId())) {
+                return Futures.transform(sessionRepository.getMaxSetNumberAsync(session.getId()),
+                    maxSetNumber -> resumeSession(session, maxSetNumber), MoreExecutors.directExecutor());
+            }
+            return Futures.submit(() -> insertSession(userId), AppExecutors.diskIo());
+        }, MoreExecutors.directExecutor());
+    }
+
+    private long resumeSession(WorkoutSession session, int maxSetNumber) {
+        long id = session.getId();
+        firstSetNumber = maxSetNumber + 1;
+        activeSessionStartMs = session.getStartTime();
+        activeSessionId = id;
+        Log.d(TAG, "Workout session resumed id=" + id + " at set " + firstSetNumber);
+        return id;
+    }
+
+    // Runs on the disk I/O pool
+    private long insertSession(long userId) {
+        WorkoutSession session = new WorkoutSession(userId, workoutId, activeSessionStartMs);
+        long id = db.workoutSessionDao().insertSession(session);
+        activeSessionId = id;
+        Log.d(TAG, "Workout session started id=" + id);
+        return id;
+    }
+
+    /**
+     * Cheap fingerprint of the recorded progress: set count, reps per set and seconds held
+     */
+    private static long progressKeyOf(List<SetTracker> sets) {
+        long key = sets.size();
+        for (SetTracker tracker : sets) {
+            key = key * 31 + tracker.getRepMetrics().size();
+            key = key * 31 + tracker.getEvaluator().getCorrectRepCount();
+            if (tracker.getExerciseType() == ExerciseType.PLANK) {
+                key = key * 31 + tracker.getEvaluator().getPlankHeldMillis() / 1000L;
+            }
+        }
+        return key;
     }
 
     private void finishWorkoutSessionAndExit() {
@@ -206,46 +318,195 @@ public class ExerciseCameraActivity extends AppCompatActivity {
         startService(serviceIntent);
         
         final long endMs = System.currentTimeMillis();
+        // Freeze analysis so the recorded sets can be read on the background thread
+        poseAnalyzer.stop();
+        final List<SetTracker> sets = poseAnalyzer.getSets();
         final int durationMin = (int) Math.max(1, (endMs - activeSessionStartMs) / 60000);
-        Executors.newSingleThreadExecutor().execute(() -> {
-            try {
-                if (activeSessionId > 0) {
-                    WorkoutSession session = db.workoutSessionDao().getSessionById(activeSessionId);
-                    if (session != null) {
-                        session.setEndTime(endMs);
-                        session.setTotalDuration(durationMin);
-                        session.setCaloriesBurned(Math.max(5, durationMin * 5));
-                        session.setCompleted(true);
-                        db.workoutSessionDao().updateSession(session);
-                        // Persist an ExerciseSet summary for this session
-                        try {
-                            com.fit.fitform.data.entity.ExerciseSet set = new com.fit.fitform.data.entity.ExerciseSet();
-                            set.setSessionId(activeSessionId);
-                            set.setExerciseId(0); // Unknown mapping; can be resolved later
-                            set.setSetNumber(1);
-                            String ex = viewModel.getSelectedExercise();
-                            if (ex != null) {
-                                String name = ex.toUpperCase();
-                                if (name.contains("PUSH")) {
-                                    set.setReps(poseAnalyzer.getCorrectReps());
-                                    set.setDuration(null);
-                                } else if (name.contains("SQUAT")) {
-                                    set.setReps(poseAnalyzer.getCorrectReps());
-                                    set.setDuration(null);
-                                } else if (name.contains("PLANK")) {
-                                    set.setReps(0);
-                                    set.setDuration(poseAnalyzer.getPlankSeconds());
-                                }
-                            }
-                            db.exerciseSetDao().insertSet(set);
-                        } catch (Exception ignored) {}
+        // No checkpoint may land after the session is completed, so completion is chained on the
+        // drain rather than waiting for it on a disk thread
+        ListenableFuture<List<FormAnalysis>> completed = Futures.transform(checkpointer.close(),
+            drained -> completeWorkoutSession(sets, endMs, durationMin), AppExecutors.diskIo());
+        // Analyses refer to the stored sets, so they are queued only once those are committed,
+        // then written before the activity goes away
+        ListenableFuture<Void> written = Futures.transformAsync(completed, analyses -> {
+            for (FormAnalysis analysis : analyses) {
+                formAnalysisWriter.submit(analysis);
+            }
+            return formAnalysisWriter.flush();
+        }, MoreExecutors.directExecutor());
+        Futures.addCallback(written, new FutureCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                logSetSummaries(activeSessionId);
+                finish();
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable t) {
+                Log.e(TAG, "Failed to complete workout session", t);
+                finish();
+            }
+        }, ContextCompat.getMainExecutor(this));
+    }
+
+    /**
+     * Reports the form score of each analysed set of the completed session. The summaries are
+     * read without blocking, so the screen can close while they load.
+     */
+    private void logSetSummaries(long sessionId) {
+        if (sessionId <= 0) {
+            return;
+        }
+        Futures.addCallback(sessionAnalysisRepository.getSetSummariesAsync(sessionId),
+            new FutureCallback<List<SetAnalysisSummary>>() {
+                @Override
+                public void onSuccess(List<SetAnalysisSummary> summaries) {
+                    for (SetAnalysisSummary summary : summaries) {
+                        Float score = summary.getAverageScore();
+                        if (summary.getRepCount() > 0 && score != null) {
+                            analyticsManager.logFormAnalysis(summary.getSet().getExerciseType(), score);
+                        }
                     }
                 }
-            } catch (Exception e) {
-                Log.e(TAG, "Failed to complete workout session", e);
+
+                @Override
+                public void onFailure(@NonNull Throwable t) {
+                    Log.w(TAG, "Failed to read set summaries", t);
+                }
+            }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Completes the session with its sets and daily rollups in one transaction. Runs on the disk
+     * I/O pool once checkpoints are drained.
+     * @return Per-rep analyses of the stored sets, to be written once the transaction has committed
+     */
+    private List<FormAnalysis> completeWorkoutSession(List<SetTracker> sets, long endMs, int durationMin) {
+        List<FormAnalysis> analyses = new ArrayList<>();
+        if (activeSessionId <= 0) {
+            return analyses;
+        }
+        // The last rep may still be in the matching queue; wait outside the transaction
+        Map<RepMetrics, Float> trajectoryScores = repQualityScorer.awaitScores(TRAJECTORY_WAIT_MS);
+        db.runInTransaction(() -> {
+            WorkoutSession session = db.workoutSessionDao().getSessionById(activeSessionId);
+            if (session == null || session.isCompleted()) return;
+            session.setEndTime(endMs);
+            session.setTotalDuration(durationMin);
+            session.setCaloriesBurned(Math.max(5, durationMin * 5));
+            session.setCompleted(true);
+            db.workoutSessionDao().updateSession(session);
+            long day = DailySummary.dayOf(session.getStartTime());
+            db.dailySummaryDao().addSession(session.getUserId(), day,
+                session.getTotalDuration(), session.getCaloriesBurned());
+            // Sets from before a resume were checkpointed by the killed process and count as they are
+            db.exerciseSetDao().deleteSetsFrom(activeSessionId, firstSetNumber);
+            for (ExerciseSet set : db.exerciseSetDao().getSetsForSession(activeSessionId)) {
+                db.dailySummaryDao().addSet(session.getUserId(), day, set.getExerciseType(),
+                    set.getReps(), set.getDuration() != null ? set.getDuration() : 0, set.getFormScore());
+            }
+            // Persist an ExerciseSet summary for each exercise performed, replacing its checkpoint
+            for (int i = 0; i < sets.size(); i++) {
+                ExerciseSet set = saveSet(sets.get(i), firstSetNumber + i, trajectoryScores, endMs, analyses);
+                db.dailySummaryDao().addSet(session.getUserId(), day, set.getExerciseType(),
+                    set.getReps(), set.getDuration() != null ? set.getDuration() : 0, set.getFormScore());
             }
-            runOnUiThread(this::finish);
         });
+        return analyses;
+    }
+
+    /**
+     * Stores one set and collects its per-rep analyses. Runs on a background thread.
+     * @param analyses Receives the set's analyses
+     * @return The stored set
+     */
+    private ExerciseSet saveSet(SetTracker tracker, int setNumber, Map<RepMetrics, Float> trajectoryScores,
+                                long endMs, List<FormAnalysis> analyses) {
+        ExerciseSet set = buildSet(tracker);
+        set.setSessionId(activeSessionId);
+        set.setSetNumber(setNumber);
+        List<RepMetrics> reps = tracker.getRepMetrics();
+        List<RepScore> repScores = tracker.getRepScores();
+        RepScore setScore = tracker.getScorer().getSetSummary();
+        long setId = db.exerciseSetDao().insertSet(set);
+        for (int i = 0; i < reps.size(); i++) {
+            RepScore score = repScores.get(i);
+            Float trajectory = trajectoryScores.get(reps.get(i));
+            if (trajectory != null) {
+                score = score.withCheckpointScore(FormCheckpoint.TRAJECTORY, trajectory);
+            }
+            analyses.add(buildRepAnalysis(setId, reps.get(i), score));
+        }
+        if (reps.isEmpty() && !Float.isNaN(setScore.getOverallScore())) {
+            // Holds have no reps; store one set-level analysis instead
+            analyses.add(new FormAnalysis(setId, endMs,
+                setScore.getOverallScore(), CheckpointVector.of(setScore.getFaultRates()),
+                CheckpointVector.of(setScore.getCheckpointScores())));
+        }
+        return set;
+    }
+
+    /**
+     * Builds the summary row of a set without its session or set number. Used for
+     * checkpoints on the main thread and for the final save.
+     */
+    private ExerciseSet buildSet(SetTracker tracker) {
+        ExerciseSet set = new ExerciseSet();
+        set.setExerciseId(0); // Unknown mapping; can be resolved later
+        set.setExerciseType(tracker.getExerciseType().name());
+        if (tracker.getExerciseType() == ExerciseType.PLANK) {
+            set.setReps(0);
+            set.setDuration((int) (tracker.getEvaluator().getPlankHeldMillis() / 1000L));
+        } else {
+            set.setReps(tracker.getEvaluator().getCorrectRepCount());
+            set.setDuration(null);
+        }
+        applyTempoSummary(set, tracker.getRepMetrics());
+        RepScore setScore = tracker.getScorer().getSetSummary();
+        if (!Float.isNaN(setScore.getOverallScore())) {
+            set.setFormScore(setScore.getOverallScore());
+        }
+        return set;
+    }
+
+    /**
+     * Copies averaged rep tempo onto the set summary
+     */
+    private void applyTempoSummary(ExerciseSet set, List<RepMetrics> reps) {
+        if (reps.isEmpty()) return;
+        long eccentric = 0;
+        long concentric = 0;
+        long underTension = 0;
+        float rangeOfMotion = 0f;
+        float peakVelocity = 0f;
+        for (RepMetrics rep : reps) {
+            eccentric += rep.getEccentricMs();
+            concentric += rep.getConcentricMs();
+            underTension += rep.getTimeUnderTensionMs();
+            rangeOfMotion += rep.getRangeOfMotion();
+            peakVelocity = Math.max(peakVelocity, rep.getPeakConcentricVelocity());
+        }
+        int count = reps.size();
+        set.setAvgEccentricMs((int) (eccentric / count));
+        set.setAvgConcentricMs((int) (concentric / count));
+        set.setTimeUnderTensionMs((int) underTension);
+        set.setAvgRangeOfMotion(rangeOfMotion / count);
+        set.setPeakAngularVelocity(peakVelocity);
+    }
+
+    /**
+     * Builds the per-rep analysis row for a completed rep
+     */
+    private FormAnalysis buildRepAnalysis(long setId, RepMetrics rep, RepScore score) {
+        float overall = Float.isNaN(score.getOverallScore()) ? 0f : score.getOverallScore();
+        FormAnalysis analysis = new FormAnalysis(setId, rep.getEndMs(), overall,
+            CheckpointVector.of(score.getFaultRates()), CheckpointVector.of(score.getCheckpointScores()));
+        analysis.setRepNumber(rep.getRepNumber());
+        analysis.setEccentricMs(rep.getEccentricMs());
+        analysis.setConcentricMs(rep.getConcentricMs());
+        analysis.setRangeOfMotion(rep.getRangeOfMotion());
+        analysis.setPeakAngularVelocity(rep.getPeakConcentricVelocity());
+        return analysis;
     }
 
     @Override
@@ -266,27 +527,36 @@ public class ExerciseCameraActivity extends AppCompatActivity {
     }
 
     /**
-     * Updates the timer display with formatted time
+     * Points the timer display at the workout timer's state; the chronometer ticks on its own,
+     * and only while it is on screen
      */
-    private void updateTimerDisplay(long totalSeconds) {
-        if (timerTextView != null) {
-            long minutes = totalSeconds / 60;
-            long seconds = totalSeconds % 60;
-            String timeString = String.format("%02d:%02d", minutes, seconds);
-            timerTextView.setText(timeString);
+    private void updateTimerDisplay(WorkoutTimer.State state) {
+        timerChronometer.setBase(state.getChronometerBase());
+        if (state.isRunning()) {
+            timerChronometer.start();
+        } else {
+            timerChronometer.stop();
         }
     }
     
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        
-        // Unregister BroadcastReceiver
-        try {
-            unregisterReceiver(timerReceiver);
-        } catch (IllegalArgumentException e) {
-            // Receiver was not registered
+
+        if (repQualityScorer != null) {
+            repQualityScorer.shutdown();
+        }
+        if (formAnalysisWriter != null) {
+            formAnalysisWriter.close();
+        }
+        if (checkpointer != null) {
+            // Left without finishing: the last checkpoint stays for resume or recovery
+            checkpointer.close();
+        }
+        if (exerciseRecognizer != null) {
+            exerciseRecognizer.shutdown();
         }
+        AppExecutors.logStats();
         
         isAnalysisActive = false;
         if (imageAnalysis != null) {
@@ -6,12 +6,18 @@ import android.view.View;
 import android.view.ViewGroup;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 import androidx.lifecycle.Observer;
 import com.fit.fitform.R;
+import com.fit.fitform.core.session.CurrentUserProvider;
 import com.fit.fitform.data.database.FitFormDatabase;
 import com.fit.fitform.data.entity.User;
 import com.fit.fitform.data.entity.Workout;
-import com.fit.fitform.data.repository.UserRepository;
+import com.fit.fitform.data.model.SessionListItem;
+import com.fit.fitform.data.model.SummaryTotals;
+import com.fit.fitform.data.repository.SummaryRepository;
 import com.fit.fitform.data.repository.WorkoutRepository;
 import com.fit.fitform.databinding.FragmentDashboardBinding;
 import android.content.Intent;
@@ -19,9 +25,9 @@ import android.widget.Toast;
 import android.widget.TextView;
 import com.fit.fitform.ui.camera.ExerciseCameraActivity;
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
 import androidx.lifecycle.Observer;
 import java.util.List;
-import com.fit.fitform.data.entity.WorkoutSession;
 import com.fit.fitform.data.database.FitFormDatabase;
 
 /**
@@ -32,8 +38,9 @@ import com.fit.fitform.data.database.FitFormDatabase;
 public class DashboardFragment extends Fragment {
     
     private FragmentDashboardBinding binding;
-    private UserRepository userRepository;
+    private LiveData<User> currentUser;
     private WorkoutRepository workoutRepository;
+    private SummaryRepository summaryRepository;
     private FitFormDatabase database;
     
     @Override
@@ -48,8 +55,9 @@ public class DashboardFragment extends Fragment {
         
         // Initialize repositories
         database = FitFormDatabase.getDatabase(requireContext());
-        userRepository = new UserRepository(database.userDao());
-        workoutRepository = new WorkoutRepository(database.workoutDao(), database.exerciseDao());
+        currentUser = CurrentUserProvider.get(requireContext()).getUser();
+        workoutRepository = new WorkoutRepository(database);
+        summaryRepository = new SummaryRepository(database.dailySummaryDao());
         
         setupClickListeners();
         loadUserData();
@@ -61,15 +69,18 @@ public class DashboardFragment extends Fragment {
      */
     private void setupClickListeners() {
         binding.startWorkoutButton.setOnClickListener(v -> {
-            // Show a simple chooser with the three exercises
-            final String[] exercises = new String[] {"Push-up", "Squat", "Plank"};
+            // Show a simple chooser with the three exercises, or let the camera recognize them
+            final String[] exercises = new String[] {"Auto-detect (circuit)", "Push-up", "Squat", "Plank"};
             androidx.appcompat.app.AlertDialog.Builder builder = new androidx.appcompat.app.AlertDialog.Builder(requireContext());
             builder.setTitle("Select exercise")
                 .setItems(exercises, (dialog, which) -> {
-                    String selected = exercises[which];
                     // Start full-screen camera activity and pass the selected exercise
                     Intent intent = new Intent(requireContext(), ExerciseCameraActivity.class);
-                    intent.putExtra("exercise_type", selected);
+                    if (which == 0) {
+                        intent.putExtra(ExerciseCameraActivity.EXTRA_AUTO_DETECT, true);
+                    } else {
+                        intent.putExtra("exercise_type", exercises[which]);
+                    }
                     startActivity(intent);
                 })
                 .setNegativeButton("Cancel", (d, which) -> d.dismiss())
@@ -78,94 +89,77 @@ public class DashboardFragment extends Fragment {
     }
     
     /**
-     * Loads and displays user profile data
+     * Shows the signed-in user's name, falling back to the Firebase display name
      */
     private void loadUserData() {
-        // Get current Firebase user
-        FirebaseAuth auth = FirebaseAuth.getInstance();
-        if (auth.getCurrentUser() != null) {
-            String firebaseUid = auth.getCurrentUser().getUid();
-            
-            new Thread(() -> {
-                try {
-                    User user = userRepository.getUserByFirebaseUid(firebaseUid);
-                    if (user != null && user.getUsername() != null) {
-                        requireActivity().runOnUiThread(() -> 
-                            binding.userNameText.setText(user.getUsername())
-                        );
-                    } else {
-                        // User not found in Room Database - use Firebase display name as fallback
-                        String displayName = auth.getCurrentUser().getDisplayName();
-                        if (displayName != null && !displayName.isEmpty()) {
-                            requireActivity().runOnUiThread(() -> 
-                                binding.userNameText.setText(displayName)
-                        );
-                        }
-                    }
-                } catch (Exception e) {
-                    // Handle error silently - use Firebase display name as fallback
-                    String displayName = auth.getCurrentUser().getDisplayName();
-                    if (displayName != null && !displayName.isEmpty()) {
-                        requireActivity().runOnUiThread(() -> 
-                            binding.userNameText.setText(displayName)
-                        );
-                    }
-                }
-            }).start();
-        }
+        currentUser.observe(getViewLifecycleOwner(), user -> {
+            if (user != null && user.getUsername() != null) {
+                binding.userNameText.setText(user.getUsername());
+                return;
+            }
+            FirebaseUser firebaseUser = FirebaseAuth.getInstance().getCurrentUser();
+            String displayName = firebaseUser != null ? firebaseUser.getDisplayName() : null;
+            if (displayName != null && !displayName.isEmpty()) {
+                binding.userNameText.setText(displayName);
+            }
+        });
     }
     
     /**
      * Loads and displays dashboard data including workouts
      */
     private void loadDashboardData() {
-        // Get current Firebase user
-        FirebaseAuth auth = FirebaseAuth.getInstance();
-        if (auth.getCurrentUser() != null) {
-            String firebaseUid = auth.getCurrentUser().getUid();
-            
-            new Thread(() -> {
-                try {
-                    User user = userRepository.getUserByFirebaseUid(firebaseUid);
-                    if (user != null) {
-                        long userId = user.getId();
-                        requireActivity().runOnUiThread(() -> {
-                            workoutRepository.getWorkoutsByUser(userId).observe(getViewLifecycleOwner(), new Observer<List<Workout>>() {
-                                @Override
-                                public void onChanged(List<Workout> workouts) {
-                                    if (workouts != null && !workouts.isEmpty()) {
-                                        Workout todayWorkout = workouts.get(0);
-                                        binding.todayWorkoutName.setText(todayWorkout.getName());
-                                        binding.todayWorkoutDuration.setText(todayWorkout.getEstimatedDuration() + " minutes");
-                                    }
-                                }
-                            });
-                        });
+        Transformations.switchMap(currentUser, user -> user != null
+                ? workoutRepository.getWorkoutsByUser(user.getId())
+                : new MutableLiveData<List<Workout>>(null))
+            .observe(getViewLifecycleOwner(), new Observer<List<Workout>>() {
+                @Override
+                public void onChanged(List<Workout> workouts) {
+                    if (workouts != null && !workouts.isEmpty()) {
+                        Workout todayWorkout = workouts.get(0);
+                        binding.todayWorkoutName.setText(todayWorkout.getName());
+                        binding.todayWorkoutDuration.setText(todayWorkout.getEstimatedDuration() + " minutes");
                     }
-                } catch (Exception e) {
-                    // Handle error silently for now
                 }
-            }).start();
-        }
+            });
         
-        // Initialize Recent Activity as empty
         setupRecentActivity();
+        setupWeeklySummary();
+    }
+
+    /**
+     * Shows the last seven days' totals from the daily rollups
+     */
+    private void setupWeeklySummary() {
+        Transformations.switchMap(currentUser, user -> user != null
+                ? summaryRepository.getWeekTotals(user.getId())
+                : new MutableLiveData<SummaryTotals>(null))
+            .observe(getViewLifecycleOwner(), new Observer<SummaryTotals>() {
+                @Override
+                public void onChanged(SummaryTotals totals) {
+                    if (totals == null) return;
+                    binding.weekWorkoutsText.setText(totals.getSessions()
+                        + (totals.getSessions() == 1 ? " workout" : " workouts"));
+                    binding.weekMinutesText.setText(totals.getMinutes() + " min - " + totals.getCalories() + " kcal");
+                    Float formScore = totals.getAverageFormScore();
+                    binding.weekFormScoreText.setText("Average form: "
+                        + (formScore != null ? Math.round(formScore * 100) + "%" : "-"));
+                }
+            });
     }
     
     /**
      * Sets up the Recent Activity section to show empty state
      */
     private void setupRecentActivity() {
-        long userId = requireContext().getSharedPreferences("user_session", 0).getLong("user_id", -1);
-        if (userId <= 0) {
-            binding.recentActivityEmptyState.setVisibility(View.VISIBLE);
-            binding.recentActivityList.setVisibility(View.GONE);
-            return;
-        }
-        database.workoutSessionDao().getRecentCompletedSessions(userId, 5)
-            .observe(getViewLifecycleOwner(), new Observer<List<WorkoutSession>>() {
+        binding.recentActivityEmptyState.setVisibility(View.VISIBLE);
+        binding.recentActivityList.setVisibility(View.GONE);
+        Transformations.switchMap(currentUser, user -> user != null
+                ? database.workoutSessionDao().getRecentSessionItems(user.getId(), 5)
+                : new MutableLiveData<List<SessionListItem>>(null))
+            .observe(getViewLifecycleOwner(), new Observer<List<SessionListItem>>() {
                 @Override
-                public void onChanged(List<WorkoutSession> sessions) {
+                public void onChanged(List<SessionListItem> sessions) {
                     binding.recentActivityList.removeAllViews();
                     if (sessions == null || sessions.isEmpty()) {
                         binding.recentActivityEmptyState.setVisibility(View.VISIBLE);
@@ -173,9 +167,9 @@ public class DashboardFragment extends Fragment {
                     } else {
                         binding.recentActivityEmptyState.setVisibility(View.GONE);
                         binding.recentActivityList.setVisibility(View.VISIBLE);
-                        for (WorkoutSession s : sessions) {
+                        for (SessionListItem s : sessions) {
                             TextView tv = new TextView(requireContext());
-                            tv.setText("Workout #" + s.getWorkoutId() + " - " +
+                            tv.setText(s.getTitle() + " - " +
                                 (s.getTotalDuration() != null ? s.getTotalDuration() + " min" : "Completed"));
                             tv.setTextColor(getResources().getColor(R.color.text_secondary));
                             tv.setTextSize(14f);
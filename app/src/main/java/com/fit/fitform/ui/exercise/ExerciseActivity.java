@@ -16,13 +16,13 @@ import androidx.camera.view.PreviewView;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
+import com.fit.fitform.core.concurrent.AppExecutors;
 import com.fit.fitform.databinding.ActivityExerciseBinding;
 import com.fit.fitform.util.GraphicOverlay;
 import com.fit.fitform.util.PoseAnalyzer;
 import com.google.common.util.concurrent.ListenableFuture;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 
 public class ExerciseActivity extends AppCompatActivity {
 
@@ -31,7 +31,7 @@ public class ExerciseActivity extends AppCompatActivity {
     private static final String[] REQUIRED_PERMISSIONS = new String[]{Manifest.permission.CAMERA};
 
     private ActivityExerciseBinding binding;
-    private ExecutorService cameraExecutor;
+    private Executor cameraExecutor;
     private GraphicOverlay graphicOverlay;
     private PreviewView previewView;
     private String exerciseType;
@@ -52,7 +52,7 @@ public class ExerciseActivity extends AppCompatActivity {
             binding.feedbackText.setText(String.format("%s: 0", exerciseType));
         }
 
-        cameraExecutor = Executors.newSingleThreadExecutor();
+        cameraExecutor = AppExecutors.pose();
 
         if (allPermissionsGranted()) {
             startCamera();
@@ -117,8 +117,6 @@ public class ExerciseActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (cameraExecutor != null) {
-            cameraExecutor.shutdown();
-        }
+        // The camera unbinds with the lifecycle; the shared pose executor stays up
     }
 }
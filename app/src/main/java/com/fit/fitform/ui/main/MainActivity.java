@@ -6,6 +6,11 @@ import android.view.MenuItem;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
 import com.fit.fitform.R;
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.core.session.CurrentUserProvider;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.database.TelemetryMaintenance;
+import com.fit.fitform.data.repository.SessionRecovery;
 import com.fit.fitform.databinding.ActivityMainBinding;
 import com.fit.fitform.ui.auth.LoginActivity;
 import com.google.firebase.auth.FirebaseAuth;
@@ -15,6 +20,8 @@ import com.fit.fitform.ui.progress.ProgressFragment;
 import com.fit.fitform.ui.profile.ProfileFragment;
 import com.fit.fitform.util.WorkoutReminderHelper;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
 /**
  * Main Activity for the FitForm application.
@@ -39,6 +46,9 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
         }
         
         setupBottomNavigation();
+        recoverInterruptedSessions();
+        // Downsample old form analysis at most once a day
+        TelemetryMaintenance.runIfDue(this);
         
         // Schedule daily workout reminder if not already scheduled
         // Wrapped in try-catch to prevent crashes on Android 13+ permission issues
@@ -64,6 +74,23 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
         FirebaseAuth.getInstance().signOut();
     }
     
+    /**
+     * Closes workout sessions left open by a process that was killed mid-workout and rebuilds
+     * the user's daily rollups
+     */
+    private void recoverInterruptedSessions() {
+        final ListenableFuture<Long> userId = CurrentUserProvider.get(this).getUserIdAsync();
+        final SessionRecovery recovery = new SessionRecovery(FitFormDatabase.getDatabase(getApplicationContext()));
+        // Runs on the disk pool once the user is resolved; no thread waits for the lookup
+        userId.addListener(() -> {
+            try {
+                recovery.recoverIfNeeded(Futures.getDone(userId));
+            } catch (Exception e) {
+                android.util.Log.e("MainActivity", "Failed to recover interrupted sessions", e);
+            }
+        }, AppExecutors.diskIo());
+    }
+    
     /**
      * Sets up bottom navigation with click listener
      */
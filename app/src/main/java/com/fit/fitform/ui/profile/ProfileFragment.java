@@ -1,23 +1,47 @@
 package com.fit.fitform.ui.profile;
 
 import android.app.Activity;
+import android.content.Context;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Toast;
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.Fragment;
 import com.bumptech.glide.Glide;
 import com.fit.fitform.R;
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.core.session.CurrentUserProvider;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.database.TelemetryDatabase;
+import com.fit.fitform.data.transfer.HistoryExporter;
+import com.fit.fitform.data.transfer.HistoryFormat;
+import com.fit.fitform.data.transfer.HistoryImporter;
+import com.fit.fitform.data.transfer.HistoryTransferResult;
 import com.fit.fitform.databinding.FragmentProfileBinding;
 import com.fit.fitform.ui.auth.LoginActivity;
 import com.google.android.gms.auth.api.signin.GoogleSignIn;
 import com.google.android.gms.auth.api.signin.GoogleSignInClient;
 import com.google.android.gms.auth.api.signin.GoogleSignInOptions;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Profile Fragment for displaying and managing user profile information.
@@ -26,6 +50,8 @@ import com.google.firebase.auth.FirebaseUser;
  */
 public class ProfileFragment extends Fragment {
     
+    private static final String TAG = "ProfileFragment";
+    
     private FragmentProfileBinding binding;
     private FirebaseAuth firebaseAuth;
     private static final int EDIT_PROFILE_REQUEST = 100;
@@ -45,6 +71,19 @@ public class ProfileFragment extends Fragment {
                 }
             });
     
+    // Document pickers for history export, one per format since the MIME type is fixed per contract
+    private final ActivityResultLauncher<String> exportJsonLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(HistoryFormat.JSON_LINES.getMimeType()),
+            uri -> exportHistory(uri, HistoryFormat.JSON_LINES));
+    
+    private final ActivityResultLauncher<String> exportCsvLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(HistoryFormat.CSV.getMimeType()),
+            uri -> exportHistory(uri, HistoryFormat.CSV));
+    
+    private final ActivityResultLauncher<String[]> importLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(),
+            this::importHistory);
+    
     
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -73,6 +112,11 @@ public class ProfileFragment extends Fragment {
         // Click listener for profile image - launches implicit intent to pick image
         binding.profileImageView.setOnClickListener(v -> pickProfileImage());
         
+        binding.exportHistoryButton.setOnClickListener(v -> chooseExportFormat());
+        binding.importHistoryButton.setOnClickListener(v -> importLauncher.launch(new String[] {
+            HistoryFormat.JSON_LINES.getMimeType(), HistoryFormat.CSV.getMimeType(),
+            "text/plain", "text/comma-separated-values", "application/octet-stream"}));
+        
         binding.logoutButton.setOnClickListener(v -> logout());
     }
     
@@ -85,6 +129,113 @@ public class ProfileFragment extends Fragment {
     }
     
     
+    /**
+     * Asks for the export format, then for where to save the file
+     */
+    private void chooseExportFormat() {
+        final String[] formats = new String[] {"JSON Lines", "CSV (spreadsheet)"};
+        new AlertDialog.Builder(requireContext())
+            .setTitle(R.string.export_history)
+            .setItems(formats, (dialog, which) -> {
+                HistoryFormat format = which == 0 ? HistoryFormat.JSON_LINES : HistoryFormat.CSV;
+                String fileName = "fitform-history-"
+                    + new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date()) + "." + format.getExtension();
+                (format == HistoryFormat.JSON_LINES ? exportJsonLauncher : exportCsvLauncher).launch(fileName);
+            })
+            .setNegativeButton("Cancel", (d, which) -> d.dismiss())
+            .show();
+    }
+    
+    /**
+     * Streams the user's workout history into the chosen document on the disk I/O pool
+     * @param uri Document picked by the user, null if cancelled
+     * @param format Format to write
+     */
+    private void exportHistory(Uri uri, HistoryFormat format) {
+        if (uri == null) {
+            return;
+        }
+        final Context appContext = requireContext().getApplicationContext();
+        runTransfer(appContext, userId -> {
+            if (userId <= 0) {
+                return "Sign in to export your history";
+            }
+            HistoryTransferResult result;
+            try (OutputStream out = appContext.getContentResolver().openOutputStream(uri, "wt")) {
+                if (out == null) {
+                    return "Could not open the export file";
+                }
+                result = new HistoryExporter(FitFormDatabase.getDatabase(appContext),
+                    TelemetryDatabase.getDatabase(appContext)).export(userId, format, out);
+            }
+            return "Exported " + result.getSessions() + " workouts";
+        });
+    }
+    
+    /**
+     * Imports a history file into the user's history on the disk I/O pool
+     * @param uri Document picked by the user, null if cancelled
+     */
+    private void importHistory(Uri uri) {
+        if (uri == null) {
+            return;
+        }
+        final Context appContext = requireContext().getApplicationContext();
+        runTransfer(appContext, userId -> {
+            if (userId <= 0) {
+                return "Sign in to import a history";
+            }
+            HistoryTransferResult result;
+            try (InputStream in = appContext.getContentResolver().openInputStream(uri)) {
+                if (in == null) {
+                    return "Could not open the history file";
+                }
+                result = new HistoryImporter(FitFormDatabase.getDatabase(appContext),
+                    TelemetryDatabase.getDatabase(appContext)).importFrom(userId, in);
+            }
+            String message = "Imported " + result.getSessions() + " workouts";
+            if (result.getDuplicateSessions() > 0) {
+                message += ", " + result.getDuplicateSessions() + " already present";
+            }
+            return message;
+        });
+    }
+    
+    /**
+     * A history export or import for the signed-in user, returning the message to show when it ends
+     */
+    private interface Transfer {
+        String run(long userId) throws Exception;
+    }
+    
+    /**
+     * Resolves the user, then runs a transfer on the disk I/O pool and toasts its outcome; the
+     * toast uses the application context so it still shows if the user has left this screen
+     */
+    private static void runTransfer(Context appContext, Transfer transfer) {
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        ListenableFuture<Long> userId = CurrentUserProvider.get(appContext).getUserIdAsync();
+        // Handed to the pool only once the user is known, so no pool thread waits for the lookup
+        userId.addListener(() -> {
+            try {
+                AppExecutors.diskIo().execute(() -> {
+                    String message;
+                    try {
+                        message = transfer.run(Futures.getDone(userId));
+                    } catch (Exception e) {
+                        Log.e(TAG, "History transfer failed", e);
+                        message = "Failed: " + e.getMessage();
+                    }
+                    final String text = message;
+                    mainHandler.post(() -> Toast.makeText(appContext, text, Toast.LENGTH_LONG).show());
+                });
+            } catch (RejectedExecutionException e) {
+                mainHandler.post(() ->
+                    Toast.makeText(appContext, "Busy, please try again", Toast.LENGTH_SHORT).show());
+            }
+        }, MoreExecutors.directExecutor());
+    }
+    
     /**
      * Loads and displays user profile information
      */
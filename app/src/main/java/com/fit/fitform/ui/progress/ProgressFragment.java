@@ -5,18 +5,29 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.LoadState;
+import androidx.paging.PagingData;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import com.fit.fitform.R;
+import com.fit.fitform.core.session.CurrentUserProvider;
+import com.fit.fitform.data.model.SessionListItem;
 import com.fit.fitform.databinding.FragmentProgressBinding;
+import kotlin.Unit;
 
 /**
  * Progress Fragment for displaying user's fitness progress and statistics.
  * Shows workout history, form improvement trends, and achievement tracking.
  * Provides visual charts and graphs for progress visualization.
- * This is a placeholder implementation that will be expanded with full progress tracking features.
+ * The workout history is paged from the database; charts and achievements are still to come.
  */
 public class ProgressFragment extends Fragment {
     
     private FragmentProgressBinding binding;
+    private ProgressViewModel viewModel;
+    private SessionHistoryAdapter historyAdapter;
     
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -28,9 +39,11 @@ public class ProgressFragment extends Fragment {
     public void onViewCreated(View view, Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
         
-        // TODO: Implement progress tracking functionality
+        viewModel = new ViewModelProvider(this).get(ProgressViewModel.class);
+        setupHistory();
+        
+        // TODO: Implement remaining progress tracking functionality
         // This will include:
-        // - Workout completion statistics
         // - Form improvement over time
         // - Strength progression tracking
         // - Visual charts and graphs
@@ -39,6 +52,30 @@ public class ProgressFragment extends Fragment {
         // - Goal setting and tracking
     }
     
+    /**
+     * Sets up the paged workout history list
+     */
+    private void setupHistory() {
+        historyAdapter = new SessionHistoryAdapter();
+        binding.historyList.setLayoutManager(new LinearLayoutManager(requireContext()));
+        binding.historyList.setAdapter(historyAdapter);
+        historyAdapter.addLoadStateListener(states -> {
+            if (binding != null) {
+                boolean empty = states.getRefresh() instanceof LoadState.NotLoading
+                    && historyAdapter.getItemCount() == 0;
+                binding.historyEmptyState.setVisibility(empty ? View.VISIBLE : View.GONE);
+            }
+            return Unit.INSTANCE;
+        });
+
+        // Signed out shows an empty list, which the listener above turns into the empty state
+        Transformations.switchMap(CurrentUserProvider.get(requireContext()).getUser(), user -> user != null
+                ? viewModel.getHistory(user.getId())
+                : new MutableLiveData<>(PagingData.<SessionListItem>empty()))
+            .observe(getViewLifecycleOwner(),
+                pagingData -> historyAdapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData));
+    }
+    
     @Override
     public void onDestroyView() {
         super.onDestroyView();
@@ -0,0 +1,50 @@
+package com.fit.fitform.ui.progress;
+
+import android.app.Application;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.model.SessionListItem;
+import com.fit.fitform.data.repository.SessionHistoryPagingSource;
+
+/**
+ * ViewModel for the Progress screen.
+ * Holds the paged session history so it survives configuration changes.
+ */
+public class ProgressViewModel extends AndroidViewModel {
+
+    private static final int PAGE_SIZE = 20;
+    // Start loading the next page this many rows before the end of the loaded list
+    private static final int PREFETCH_DISTANCE = 2 * PAGE_SIZE;
+    private static final int INITIAL_LOAD_SIZE = 3 * PAGE_SIZE;
+
+    private final FitFormDatabase database;
+    private LiveData<PagingData<SessionListItem>> history;
+    private long historyUserId = -1;
+
+    public ProgressViewModel(@NonNull Application application) {
+        super(application);
+        database = FitFormDatabase.getDatabase(application);
+    }
+
+    /**
+     * Returns the user's completed sessions, newest first, paged from the database
+     * @param userId User's unique identifier
+     * @return LiveData stream of paging data, cached in this ViewModel
+     */
+    public LiveData<PagingData<SessionListItem>> getHistory(long userId) {
+        if (history == null || historyUserId != userId) {
+            Pager<SessionHistoryPagingSource.Key, SessionListItem> pager = new Pager<>(
+                new PagingConfig(PAGE_SIZE, PREFETCH_DISTANCE, true, INITIAL_LOAD_SIZE),
+                () -> new SessionHistoryPagingSource(database, userId));
+            history = PagingLiveData.cachedIn(PagingLiveData.getLiveData(pager), this);
+            historyUserId = userId;
+        }
+        return history;
+    }
+}
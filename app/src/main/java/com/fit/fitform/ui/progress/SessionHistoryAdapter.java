@@ -0,0 +1,87 @@
+package com.fit.fitform.ui.progress;
+
+import android.text.format.DateUtils;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+import com.fit.fitform.R;
+import com.fit.fitform.data.model.SessionListItem;
+
+/**
+ * Paged RecyclerView adapter for the workout session history.
+ * Rows that are not loaded yet are bound as blank placeholders.
+ */
+public class SessionHistoryAdapter extends PagingDataAdapter<SessionListItem, SessionHistoryAdapter.SessionViewHolder> {
+
+    private static final DiffUtil.ItemCallback<SessionListItem> DIFF = new DiffUtil.ItemCallback<SessionListItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull SessionListItem oldItem, @NonNull SessionListItem newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull SessionListItem oldItem, @NonNull SessionListItem newItem) {
+            return oldItem.sameContent(newItem);
+        }
+    };
+
+    public SessionHistoryAdapter() {
+        super(DIFF);
+    }
+
+    @NonNull
+    @Override
+    public SessionViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+            .inflate(R.layout.item_session, parent, false);
+        return new SessionViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull SessionViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    /**
+     * ViewHolder class for session items
+     */
+    public static class SessionViewHolder extends RecyclerView.ViewHolder {
+
+        private final TextView sessionDate;
+        private final TextView sessionDetails;
+
+        public SessionViewHolder(@NonNull View itemView) {
+            super(itemView);
+            sessionDate = itemView.findViewById(R.id.sessionDate);
+            sessionDetails = itemView.findViewById(R.id.sessionDetails);
+        }
+
+        /**
+         * Binds session data to the view holder
+         * @param session Session to display, or null for a placeholder
+         */
+        public void bind(SessionListItem session) {
+            if (session == null) {
+                sessionDate.setText("");
+                sessionDetails.setText("");
+                return;
+            }
+            sessionDate.setText(session.getTitle() + " - " + DateUtils.formatDateTime(itemView.getContext(), session.getStartTime(),
+                DateUtils.FORMAT_SHOW_DATE | DateUtils.FORMAT_SHOW_TIME | DateUtils.FORMAT_ABBREV_MONTH));
+            StringBuilder details = new StringBuilder();
+            details.append(session.getTotalDuration() != null ? session.getTotalDuration() + " min" : "Completed");
+            if (session.getSetCount() > 0) {
+                details.append(" - ").append(session.getSetCount()).append(session.getSetCount() == 1 ? " set" : " sets");
+            }
+            if (session.getCaloriesBurned() != null) {
+                details.append(" - ").append(session.getCaloriesBurned()).append(" kcal");
+            }
+            sessionDetails.setText(details);
+        }
+    }
+}
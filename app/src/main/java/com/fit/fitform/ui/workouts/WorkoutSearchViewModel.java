@@ -0,0 +1,94 @@
+package com.fit.fitform.ui.workouts;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.core.concurrent.SerialExecutor;
+import com.fit.fitform.data.database.FitFormDatabase;
+import com.fit.fitform.data.entity.Workout;
+import com.fit.fitform.data.repository.CatalogSearchRepository;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ViewModel for search-as-you-type on the Workouts screen.
+ * Queries are debounced on the main thread and run one at a time on the disk executor;
+ * a result is only published if no newer query was typed meanwhile.
+ */
+public class WorkoutSearchViewModel extends AndroidViewModel {
+
+    private static final String TAG = "WorkoutSearchViewModel";
+
+    // Pause in typing before a query runs
+    private static final long DEBOUNCE_MS = 150L;
+    private static final int MAX_RESULTS = 50;
+
+    private final CatalogSearchRepository searchRepository;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final SerialExecutor executor = new SerialExecutor(AppExecutors.diskIo());
+    // Bumped for every query; a result carrying an older value is stale
+    private final AtomicInteger generation = new AtomicInteger();
+    private final MutableLiveData<List<Workout>> results = new MutableLiveData<>(null);
+    private Runnable pending;
+
+    public WorkoutSearchViewModel(@NonNull Application application) {
+        super(application);
+        searchRepository = new CatalogSearchRepository(FitFormDatabase.getDatabase(application));
+    }
+
+    /**
+     * @return Workouts matching the current query, best first, or null while not searching
+     */
+    public LiveData<List<Workout>> getResults() {
+        return results;
+    }
+
+    /**
+     * Sets the search text. Must be called on the main thread.
+     * @param query Text as typed; blank ends the search
+     * @param userId User whose custom workouts are searched too
+     */
+    public void setQuery(String query, long userId) {
+        int current = generation.incrementAndGet();
+        if (pending != null) {
+            mainHandler.removeCallbacks(pending);
+            pending = null;
+        }
+        if (query == null || query.trim().isEmpty()) {
+            results.setValue(null);
+            return;
+        }
+        pending = () -> {
+            pending = null;
+            try {
+                executor.execute(() -> {
+                    if (generation.get() != current) {
+                        return;
+                    }
+                    List<Workout> found = searchRepository.searchWorkouts(query, userId, MAX_RESULTS);
+                    if (generation.get() == current) {
+                        results.postValue(found);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                Log.w(TAG, "Search dropped", e);
+            }
+        };
+        mainHandler.postDelayed(pending, DEBOUNCE_MS);
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        generation.incrementAndGet();
+        mainHandler.removeCallbacksAndMessages(null);
+        executor.shutdownNow();
+    }
+}
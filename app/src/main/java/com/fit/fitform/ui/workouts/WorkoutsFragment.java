@@ -1,20 +1,26 @@
 package com.fit.fitform.ui.workouts;
 
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Toast;
+import androidx.appcompat.widget.SearchView;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.Observer;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.fit.fitform.R;
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.core.session.CurrentUserProvider;
 import com.fit.fitform.data.database.DatabaseInitializer;
 import com.fit.fitform.data.database.FitFormDatabase;
 import com.fit.fitform.data.entity.Exercise;
+import com.fit.fitform.data.entity.User;
 import com.fit.fitform.data.entity.Workout;
 import com.fit.fitform.data.repository.WorkoutRepository;
 import com.fit.fitform.databinding.FragmentWorkoutsBinding;
@@ -34,6 +40,9 @@ public class WorkoutsFragment extends Fragment {
     private WorkoutAdapter workoutAdapter;
     private List<Workout> currentWorkouts = new ArrayList<>();
     private String currentCategory = "All";
+    private WorkoutSearchViewModel searchViewModel;
+    // While true the list shows search results and the category observers leave it alone
+    private boolean searching = false;
     
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -47,10 +56,12 @@ public class WorkoutsFragment extends Fragment {
         
         // Initialize repositories
         FitFormDatabase database = FitFormDatabase.getDatabase(requireContext());
-        workoutRepository = new WorkoutRepository(database.workoutDao(), database.exerciseDao());
+        workoutRepository = new WorkoutRepository(database);
+        searchViewModel = new ViewModelProvider(this).get(WorkoutSearchViewModel.class);
         
         setupRecyclerView();
         setupTabs();
+        setupSearch();
         setupClickListeners();
         
         // Initialize database with sample data if needed
@@ -120,6 +131,40 @@ public class WorkoutsFragment extends Fragment {
         });
     }
     
+    /**
+     * Sets up search-as-you-type; results replace the category list until the query is cleared
+     */
+    private void setupSearch() {
+        binding.searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                binding.searchView.clearFocus();
+                return true;
+            }
+            
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                searchViewModel.setQuery(newText, getUserId());
+                return true;
+            }
+        });
+        
+        searchViewModel.getResults().observe(getViewLifecycleOwner(), workouts -> {
+            if (workouts == null) {
+                if (searching) {
+                    searching = false;
+                    loadWorkouts();
+                }
+                return;
+            }
+            searching = true;
+            currentWorkouts.clear();
+            currentWorkouts.addAll(workouts);
+            workoutAdapter.notifyDataSetChanged();
+            updateEmptyState();
+        });
+    }
+    
     /**
      * Sets up click listeners for UI elements
      */
@@ -133,20 +178,18 @@ public class WorkoutsFragment extends Fragment {
     }
     
     /**
-     * Initializes database with sample data if needed
+     * Seeds or updates the built-in catalog if needed. Once the catalog is current this is a
+     * single lookup, so it is cheap to run every time the fragment opens.
      */
     private void initializeDatabaseIfNeeded() {
-        new Thread(() -> {
+        final Context appContext = requireContext().getApplicationContext();
+        AppExecutors.diskIo().execute(() -> {
             try {
-                // Check if we have any pre-built workouts
-                List<Workout> existingWorkouts = workoutRepository.getPreBuiltWorkouts().getValue();
-                if (existingWorkouts == null || existingWorkouts.isEmpty()) {
-                    DatabaseInitializer.initializeDatabase(requireContext());
-                }
+                DatabaseInitializer.initializeDatabase(appContext);
             } catch (Exception e) {
                 // Handle error silently
             }
-        }).start();
+        });
     }
     
     /**
@@ -169,7 +212,7 @@ public class WorkoutsFragment extends Fragment {
             workoutRepository.getWorkoutsByUser(userId).observe((LifecycleOwner) requireContext(), new Observer<List<Workout>>() {
                 @Override
                 public void onChanged(List<Workout> workouts) {
-                    if (workouts != null) {
+                    if (workouts != null && !searching) {
                         currentWorkouts.clear();
                         currentWorkouts.addAll(workouts);
                         workoutAdapter.notifyDataSetChanged();
@@ -182,7 +225,7 @@ public class WorkoutsFragment extends Fragment {
             workoutRepository.getPreBuiltWorkouts().observe((LifecycleOwner) requireContext(), new Observer<List<Workout>>() {
                 @Override
                 public void onChanged(List<Workout> workouts) {
-                    if (workouts != null) {
+                    if (workouts != null && !searching) {
                         currentWorkouts.clear();
                         currentWorkouts.addAll(workouts);
                         workoutAdapter.notifyDataSetChanged();
@@ -201,7 +244,7 @@ public class WorkoutsFragment extends Fragment {
         workoutRepository.getWorkoutsByCategory(category).observe((LifecycleOwner) requireContext(), new Observer<List<Workout>>() {
             @Override
             public void onChanged(List<Workout> workouts) {
-                if (workouts != null) {
+                if (workouts != null && !searching) {
                     currentWorkouts.clear();
                     currentWorkouts.addAll(workouts);
                     workoutAdapter.notifyDataSetChanged();
@@ -225,12 +268,12 @@ public class WorkoutsFragment extends Fragment {
     }
     
     /**
-     * Gets the current user ID from SharedPreferences
-     * @return User ID or -1 if not found
+     * Gets the current user ID from the shared current-user provider
+     * @return User ID or -1 if signed out or not resolved yet
      */
     private long getUserId() {
-        return requireContext().getSharedPreferences("user_session", 0)
-            .getLong("user_id", -1);
+        User user = CurrentUserProvider.get(requireContext()).getUser().getValue();
+        return user != null ? user.getId() : -1;
     }
     
     @Override
@@ -0,0 +1,101 @@
+package com.fit.fitform.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.fit.fitform.analysis.ExerciseClassifier;
+import com.fit.fitform.analysis.ExerciseType;
+import com.fit.fitform.analysis.PoseFrame;
+import com.fit.fitform.analysis.ReferencePoses;
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.core.concurrent.SerialExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recognizes which exercise the user is doing, so a circuit can move between exercises
+ * without picking each one. Frames are sampled at a low cadence and classified on a private
+ * background thread; changes are reported on the main thread.
+ */
+public class ExerciseRecognizer {
+
+    private static final String TAG = "ExerciseRecognizer";
+    // Minimum time between classified frames
+    private static final long INTERVAL_MS = 400L;
+    private static final long INDEX_SEED = 42L;
+
+    /**
+     * Receives the newly recognized exercise on the main thread
+     */
+    public interface Listener {
+        void onExerciseRecognized(ExerciseType exerciseType);
+    }
+
+    private final SerialExecutor executor = new SerialExecutor(AppExecutors.cpu());
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Listener listener;
+
+    // Hand-off frame: written on the main thread only while not busy, read on the executor
+    private final PoseFrame pending = new PoseFrame();
+    private final AtomicBoolean busy = new AtomicBoolean(false);
+    private boolean offered = false;
+    private long lastOfferMs = 0L;
+
+    // Only touched on the executor thread
+    private ExerciseClassifier classifier;
+
+    /**
+     * @param initial Exercise assumed until another one is recognized
+     * @param listener Receives changes on the main thread
+     */
+    public ExerciseRecognizer(ExerciseType initial, Listener listener) {
+        this.listener = listener;
+        executor.execute(() -> classifier = new ExerciseClassifier(ReferencePoses.buildIndex(INDEX_SEED), initial));
+    }
+
+    /**
+     * Offers the current frame; it is copied and classified only if enough time has passed
+     * and the previous frame is done. Call on the main thread; never blocks.
+     * @param frame Frame with landmarks
+     */
+    public void offer(PoseFrame frame) {
+        long nowMs = frame.getTimestampMs();
+        if (offered && nowMs - lastOfferMs < INTERVAL_MS) {
+            return;
+        }
+        if (!busy.compareAndSet(false, true)) {
+            return;
+        }
+        offered = true;
+        lastOfferMs = nowMs;
+        pending.copyFrom(frame);
+        try {
+            executor.execute(this::classifyPending);
+        } catch (RejectedExecutionException e) {
+            busy.set(false);
+        }
+    }
+
+    private void classifyPending() {
+        try {
+            ExerciseType before = classifier.getCurrent();
+            ExerciseType after = classifier.classify(pending);
+            if (after != before) {
+                Log.d(TAG, "Recognized " + after);
+                mainHandler.post(() -> listener.onExerciseRecognized(after));
+            }
+        } finally {
+            busy.set(false);
+        }
+    }
+
+    /**
+     * Stops classifying; frames still queued are dropped
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+}
@@ -12,6 +12,15 @@ import androidx.annotation.NonNull;
 import androidx.camera.core.ImageAnalysis;
 import androidx.camera.core.ImageProxy;
 
+import com.fit.fitform.analysis.ExerciseType;
+import com.fit.fitform.analysis.FormThresholds;
+import com.fit.fitform.analysis.FormVerdict;
+import com.fit.fitform.analysis.PoseFeatures;
+import com.fit.fitform.analysis.PoseFrame;
+import com.fit.fitform.analysis.RepMetrics;
+import com.fit.fitform.analysis.RepTrajectory;
+import com.fit.fitform.analysis.SetTracker;
+
 import com.google.android.gms.tasks.Task;
 import com.google.mlkit.vision.common.InputImage;
 import com.google.mlkit.vision.pose.Pose;
@@ -20,6 +29,9 @@ import com.google.mlkit.vision.pose.PoseDetector;
 import com.google.mlkit.vision.pose.PoseLandmark;
 import com.google.mlkit.vision.pose.accurate.AccuratePoseDetectorOptions;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class PoseAnalyzer implements ImageAnalysis.Analyzer {
 
     private static final String TAG = "PoseAnalyzer";
@@ -27,37 +39,26 @@ public class PoseAnalyzer implements ImageAnalysis.Analyzer {
     private final PoseDetector poseDetector;
     private final GraphicOverlay graphicOverlay;
     private final TextView feedbackTextView;
-    private final String exerciseType;
-
-    // Repetition counters
-    private int repCounter = 0;
-    private int correctRepCounter = 0;
-
-    // State for exercise counters (e.g., "UP", "DOWN")
-    private String exerciseState = "UP";
-
-    // State/error flags per rep
-    private boolean currentRepHasError = false;
-
-    // Pushup constants
-    private static final double PUSHUP_DOWN_ANGLE_THRESHOLD = 90.0;
-    private static final double PUSHUP_UP_ANGLE_THRESHOLD = 160.0;
 
-    // Squat constants
-    private static final double SQUAT_DOWN_ANGLE_THRESHOLD = 100.0;
-    private static final double SQUAT_UP_ANGLE_THRESHOLD = 170.0;
+    // One rule set per exercise performed, in order; the last one is active. Rep counting,
+    // tempo, trajectory capture and scoring are shared with the offline tools
+    private final List<SetTracker> sets = new ArrayList<>();
+    private SetTracker active;
+    // Exercise recognized while the user was mid-rep, applied once they are back up
+    private ExerciseType pendingExercise;
+    private boolean stopped = false;
 
-    // General form constants
-    private static final double BODY_STRAIGHT_ANGLE_THRESHOLD = 160.0;
+    private RepQualityScorer repQualityScorer;
+    private ExerciseRecognizer exerciseRecognizer;
 
-    // Plank timing
-    private long lastTimestampMs = System.currentTimeMillis();
-    private long plankHeldMillis = 0L;
+    // Reused per frame so analysis does not allocate
+    private final PoseFrame poseFrame = new PoseFrame();
+    private final PoseFeatures poseFeatures = new PoseFeatures();
 
     public PoseAnalyzer(GraphicOverlay graphicOverlay, TextView feedbackTextView, String exerciseType) {
         this.graphicOverlay = graphicOverlay;
         this.feedbackTextView = feedbackTextView;
-        this.exerciseType = exerciseType != null ? exerciseType.toUpperCase() : "PUSHUP";
+        startSet(ExerciseType.fromName(exerciseType != null ? exerciseType.toUpperCase() : "PUSHUP"));
 
         // Use AccuratePoseDetectorOptions for better pose detection
         AccuratePoseDetectorOptions options = new AccuratePoseDetectorOptions.Builder()
@@ -83,25 +84,9 @@ public class PoseAnalyzer implements ImageAnalysis.Analyzer {
                         // Create pose graphic for visualization
                         PoseGraphic poseGraphic = new PoseGraphic(graphicOverlay, pose);
 
-                        // Route to the correct analysis function based on exercise type
+                        // Run the form rules for the selected exercise
                         // This will set colors (green for correct, red for wrong)
-                        switch (exerciseType) {
-                            case "PUSHUP":
-                            case "PUSH-UP":
-                            case "PUSH_UP":
-                                analyzePushup(pose, poseGraphic);
-                                break;
-                            case "SQUAT":
-                                analyzeSquat(pose, poseGraphic);
-                                break;
-                            case "PLANK":
-                                analyzePlank(pose, poseGraphic, System.currentTimeMillis());
-                                break;
-                            default:
-                                // Default to pushup analysis
-                                analyzePushup(pose, poseGraphic);
-                                break;
-                        }
+                        analyzeFrame(pose, poseGraphic, System.currentTimeMillis());
 
                         // Add the pose graphic to overlay (this will trigger drawing)
                         graphicOverlay.add(poseGraphic);
@@ -116,188 +101,76 @@ public class PoseAnalyzer implements ImageAnalysis.Analyzer {
         }
     }
 
-    private void analyzePushup(Pose pose, PoseGraphic poseGraphic) {
-        // Default all parts to green (correct form)
-        poseGraphic.setLineColor(Color.GREEN, "all");
-        
-        PoseLandmark leftShoulder = getLandmark(pose, PoseLandmark.LEFT_SHOULDER);
-        PoseLandmark leftElbow = getLandmark(pose, PoseLandmark.LEFT_ELBOW);
-        PoseLandmark leftWrist = getLandmark(pose, PoseLandmark.LEFT_WRIST);
-        PoseLandmark rightShoulder = getLandmark(pose, PoseLandmark.RIGHT_SHOULDER);
-        PoseLandmark rightElbow = getLandmark(pose, PoseLandmark.RIGHT_ELBOW);
-        PoseLandmark rightWrist = getLandmark(pose, PoseLandmark.RIGHT_WRIST);
-        PoseLandmark leftHip = getLandmark(pose, PoseLandmark.LEFT_HIP);
-        PoseLandmark leftAnkle = getLandmark(pose, PoseLandmark.LEFT_ANKLE);
-
-        if (allLandmarksVisible(leftShoulder, leftElbow, leftWrist, leftHip, leftAnkle)) {
-            double elbowAngle = getAngle(leftShoulder, leftElbow, leftWrist);
-            double bodyAngle = getAngle(leftShoulder, leftHip, leftAnkle);
-            
-            // Check right arm angle too if available
-            double rightElbowAngle = 180.0;
-            if (allLandmarksVisible(rightShoulder, rightElbow, rightWrist)) {
-                rightElbowAngle = getAngle(rightShoulder, rightElbow, rightWrist);
-            }
-
-            boolean isBodyStraight = bodyAngle >= BODY_STRAIGHT_ANGLE_THRESHOLD;
-            boolean isElbowAngleGood = elbowAngle > PUSHUP_DOWN_ANGLE_THRESHOLD && elbowAngle < PUSHUP_UP_ANGLE_THRESHOLD;
-
-            if (!isBodyStraight) {
-                // Body not straight - mark body as red
-                poseGraphic.setLineColor(Color.RED, "body");
-                updateFeedback("Keep your body straight!", Color.RED);
-                currentRepHasError = true;
-            } else if (!isElbowAngleGood && elbowAngle < PUSHUP_DOWN_ANGLE_THRESHOLD) {
-                // Arms too bent - mark arms as red
-                poseGraphic.setLineColor(Color.RED, "arms");
-                updateFeedback("Lower your body more", Color.RED);
-                currentRepHasError = true;
-            } else {
-                // Form is good - keep green
-                poseGraphic.setLineColor(Color.GREEN, "all");
-                if (elbowAngle > PUSHUP_UP_ANGLE_THRESHOLD) {
-                    if (exerciseState.equals("DOWN")) {
-                        repCounter++;
-                        if (!currentRepHasError) {
-                            correctRepCounter++;
-                        }
-                        currentRepHasError = false;
-                    }
-                    exerciseState = "UP";
-                } else if (elbowAngle < PUSHUP_DOWN_ANGLE_THRESHOLD) {
-                    exerciseState = "DOWN";
-                }
-                updateRepCount();
-            }
-        } else {
-            updateFeedback("Make sure your whole body is visible", Color.YELLOW);
-            currentRepHasError = true;
+    private void startSet(ExerciseType exerciseType) {
+        if (active != null && active.isEmpty()) {
+            // Nothing was counted under the previous rules, so drop them
+            sets.remove(active);
         }
+        SetTracker tracker = new SetTracker(exerciseType, FormThresholds.DEFAULTS);
+        tracker.setRepListener(rep -> onRepCompleted(tracker, rep));
+        sets.add(tracker);
+        active = tracker;
     }
 
-    private void analyzeSquat(Pose pose, PoseGraphic poseGraphic) {
-        // Default all parts to green (correct form)
-        poseGraphic.setLineColor(Color.GREEN, "all");
-        
-        PoseLandmark leftShoulder = getLandmark(pose, PoseLandmark.LEFT_SHOULDER);
-        PoseLandmark leftHip = getLandmark(pose, PoseLandmark.LEFT_HIP);
-        PoseLandmark leftKnee = getLandmark(pose, PoseLandmark.LEFT_KNEE);
-        PoseLandmark leftAnkle = getLandmark(pose, PoseLandmark.LEFT_ANKLE);
-        PoseLandmark rightHip = getLandmark(pose, PoseLandmark.RIGHT_HIP);
-        PoseLandmark rightKnee = getLandmark(pose, PoseLandmark.RIGHT_KNEE);
-        PoseLandmark rightAnkle = getLandmark(pose, PoseLandmark.RIGHT_ANKLE);
-
-        if (allLandmarksVisible(leftHip, leftKnee, leftAnkle)) {
-            double kneeAngle = getAngle(leftHip, leftKnee, leftAnkle);
-            
-            // Check back straightness
-            boolean isBackStraight = true;
-            if (allLandmarksVisible(leftShoulder, leftHip, leftKnee)) {
-                double backAngle = getAngle(leftShoulder, leftHip, leftKnee);
-                isBackStraight = backAngle >= 160.0; // Back should be relatively straight
-            }
-
-            if (!isBackStraight) {
-                // Back not straight - mark body as red
-                poseGraphic.setLineColor(Color.RED, "body");
-                updateFeedback("Keep your back straight!", Color.RED);
-                currentRepHasError = true;
-            } else if (kneeAngle < 70.0) {
-                // Knees too bent (knee going too far forward) - mark legs as red
-                poseGraphic.setLineColor(Color.RED, "legs");
-                updateFeedback("Don't let your knees go too far forward", Color.RED);
-                currentRepHasError = true;
-            } else {
-                // Form is good - keep green
-                poseGraphic.setLineColor(Color.GREEN, "all");
-                if (kneeAngle > SQUAT_UP_ANGLE_THRESHOLD) {
-                    if (exerciseState.equals("DOWN")) {
-                        repCounter++;
-                        if (!currentRepHasError) {
-                            correctRepCounter++;
-                        }
-                        currentRepHasError = false;
-                    }
-                    exerciseState = "UP";
-                } else if (kneeAngle < SQUAT_DOWN_ANGLE_THRESHOLD) {
-                    exerciseState = "DOWN";
-                }
-                updateRepCount();
-            }
-        } else {
-            updateFeedback("Make sure your legs are visible", Color.YELLOW);
-            currentRepHasError = true;
-        }
+    /**
+     * Switches to the rules for a newly recognized exercise, deferred until the current rep ends
+     * @param exerciseType Recognized exercise
+     */
+    public void onExerciseRecognized(ExerciseType exerciseType) {
+        pendingExercise = exerciseType == active.getExerciseType() ? null : exerciseType;
     }
 
-    private void analyzePlank(Pose pose, PoseGraphic poseGraphic, long nowMs) {
+    private void analyzeFrame(Pose pose, PoseGraphic poseGraphic, long nowMs) {
+        if (stopped) {
+            return;
+        }
         // Default all parts to green (correct form)
         poseGraphic.setLineColor(Color.GREEN, "all");
-        
-        PoseLandmark leftShoulder = getLandmark(pose, PoseLandmark.LEFT_SHOULDER);
-        PoseLandmark leftHip = getLandmark(pose, PoseLandmark.LEFT_HIP);
-        PoseLandmark leftAnkle = getLandmark(pose, PoseLandmark.LEFT_ANKLE);
-
-        if (allLandmarksVisible(leftShoulder, leftHip, leftAnkle)) {
-            double bodyAngle = getAngle(leftShoulder, leftHip, leftAnkle);
-
-            boolean isBodyStraight = bodyAngle >= BODY_STRAIGHT_ANGLE_THRESHOLD;
-
-            if (isBodyStraight) {
-                // Form is good - keep green
-                poseGraphic.setLineColor(Color.GREEN, "all");
-                long dt = nowMs - lastTimestampMs;
-                if (dt > 0 && dt < 1000) {
-                    plankHeldMillis += dt;
-                }
-                updateFeedback("Hold a straight line", Color.GREEN);
-                // In a real app, you would start or continue a timer here
-            } else {
-                // Body not straight - mark body as red
-                poseGraphic.setLineColor(Color.RED, "body");
-                updateFeedback("Straighten your back!", Color.RED);
-                // And pause the timer
-            }
-        } else {
-            updateFeedback("Make sure your whole body is visible", Color.YELLOW);
-        }
-        lastTimestampMs = nowMs;
-    }
 
-    // Helper method to get a landmark, using the right side as a fallback
-    private PoseLandmark getLandmark(Pose pose, int landmarkType) {
-        PoseLandmark landmark = pose.getPoseLandmark(landmarkType);
-        if (landmark == null || landmark.getInFrameLikelihood() < 0.6f) {
-            // If left landmark is not visible, try the corresponding right landmark
-            int rightLandmarkType = landmarkType + 1; // e.g., LEFT_SHOULDER (11) -> RIGHT_SHOULDER (12)
-            return pose.getPoseLandmark(rightLandmarkType);
+        poseFrame.reset(nowMs);
+        for (PoseLandmark landmark : pose.getAllPoseLandmarks()) {
+            poseFrame.set(landmark.getLandmarkType(), landmark.getPosition().x,
+                    landmark.getPosition().y, landmark.getInFrameLikelihood());
+        }
+        poseFeatures.extract(poseFrame);
+        if (exerciseRecognizer != null) {
+            exerciseRecognizer.offer(poseFrame);
+        }
+        if (pendingExercise != null && !active.getEvaluator().isDown()) {
+            startSet(pendingExercise);
+            pendingExercise = null;
+            updateFeedback("Switched to " + active.getExerciseType(), Color.YELLOW);
         }
-        return landmark;
-    }
 
-    // Helper to check if all provided landmarks are not null
-    private boolean allLandmarksVisible(PoseLandmark... landmarks) {
-        for (PoseLandmark landmark : landmarks) {
-            if (landmark == null) return false;
+        FormVerdict verdict = active.step(poseFeatures);
+        if (!verdict.isVisible()) {
+            updateFeedback(verdict.getFeedback(), Color.YELLOW);
+        } else if (verdict.isFormError()) {
+            // Mark the offending body part as red
+            poseGraphic.setLineColor(Color.RED, verdict.getBodyPart());
+            updateFeedback(verdict.getFeedback(), Color.RED);
+        } else if (verdict == FormVerdict.GOOD_FORM) {
+            updateRepCount();
+        } else {
+            updateFeedback(verdict.getFeedback(), Color.GREEN);
         }
-        return true;
     }
 
-    private double getAngle(PoseLandmark first, PoseLandmark mid, PoseLandmark last) {
-        double angle = Math.toDegrees(
-                Math.atan2(last.getPosition().y - mid.getPosition().y, last.getPosition().x - mid.getPosition().x) -
-                        Math.atan2(first.getPosition().y - mid.getPosition().y, first.getPosition().x - mid.getPosition().x)
-        );
-        angle = Math.abs(angle);
-        if (angle > 180) {
-            angle = 360 - angle;
+    private void onRepCompleted(SetTracker tracker, RepMetrics rep) {
+        if (repQualityScorer != null) {
+            float[] trajectory = tracker.getTrajectory().extract(rep.getStartMs(), rep.getEndMs(), RepTrajectory.LENGTH);
+            if (trajectory != null) {
+                repQualityScorer.submit(tracker.getExerciseType(), rep, trajectory);
+            }
         }
-        return angle;
     }
 
     private void updateRepCount() {
+        final String label = active.getExerciseType().name();
+        final int reps = active.getEvaluator().getRepCount();
+        final int correctReps = active.getEvaluator().getCorrectRepCount();
         new Handler(Looper.getMainLooper()).post(() -> {
-            feedbackTextView.setText(String.format("%s: %d (good: %d)", exerciseType, repCounter, correctRepCounter));
+            feedbackTextView.setText(String.format("%s: %d (good: %d)", label, reps, correctReps));
         });
     }
 
@@ -316,11 +189,56 @@ public class PoseAnalyzer implements ImageAnalysis.Analyzer {
         });
     }
 
+    /**
+     * Sets the scorer that matches each completed rep against reference trajectories
+     * @param repQualityScorer Scorer, or null to skip trajectory matching
+     */
+    public void setRepQualityScorer(RepQualityScorer repQualityScorer) {
+        this.repQualityScorer = repQualityScorer;
+    }
+
+    /**
+     * Sets the recognizer that switches rules when the user moves to another exercise
+     * @param exerciseRecognizer Recognizer, or null to keep the starting exercise
+     */
+    public void setExerciseRecognizer(ExerciseRecognizer exerciseRecognizer) {
+        this.exerciseRecognizer = exerciseRecognizer;
+    }
+
+    /**
+     * Ignores all further frames, so the sets can be read from another thread.
+     * Call on the main thread, where frames are analysed.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Returns the sets performed so far, one per exercise in the order they were done.
+     * Read them on the main thread, or anywhere after {@link #stop()}.
+     * @return Snapshot list of sets
+     */
+    public List<SetTracker> getSets() {
+        return new ArrayList<>(sets);
+    }
+
+    /** @return Exercise whose rules are currently applied */
+    public ExerciseType getActiveExercise() {
+        return active.getExerciseType();
+    }
+
     public int getCorrectReps() {
-        return correctRepCounter;
+        return active.getEvaluator().getCorrectRepCount();
+    }
+
+    /**
+     * @return Current angular velocity of the driving joint in degrees/second
+     */
+    public double getAngularVelocity() {
+        return active.getKinematics().getVelocity();
     }
 
     public int getPlankSeconds() {
-        return (int) (plankHeldMillis / 1000L);
+        return (int) (active.getEvaluator().getPlankHeldMillis() / 1000L);
     }
 }
@@ -0,0 +1,124 @@
+package com.fit.fitform.util;
+
+import android.util.Log;
+
+import com.fit.fitform.analysis.DtwMatcher;
+import com.fit.fitform.analysis.ExerciseType;
+import com.fit.fitform.analysis.FormThresholds;
+import com.fit.fitform.analysis.RepMetrics;
+import com.fit.fitform.analysis.RepTrajectory;
+import com.fit.fitform.analysis.TrajectoryTemplates;
+import com.fit.fitform.core.concurrent.AppExecutors;
+import com.fit.fitform.core.concurrent.SerialExecutor;
+import com.fit.fitform.data.dao.ExerciseDao;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores completed reps against their exercise's reference trajectories with DTW.
+ * Matching runs one rep at a time on the shared CPU pool so the camera analysis never waits
+ * on it; each exercise's templates are loaded there when its first rep arrives.
+ */
+public class RepQualityScorer {
+
+    private static final String TAG = "RepQualityScorer";
+
+    private final SerialExecutor executor = new SerialExecutor(AppExecutors.cpu());
+    private final ExerciseDao exerciseDao;
+    // Keyed by identity: each rep summary is a distinct object
+    private final Map<RepMetrics, Float> scores = new ConcurrentHashMap<>();
+    // Only touched on the executor thread
+    private final Map<ExerciseType, DtwMatcher> matchers = new EnumMap<>(ExerciseType.class);
+
+    /**
+     * @param exerciseDao DAO used to load the reference trajectories
+     */
+    public RepQualityScorer(ExerciseDao exerciseDao) {
+        this.exerciseDao = exerciseDao;
+    }
+
+    private static DtwMatcher loadMatcher(ExerciseDao exerciseDao, ExerciseType exerciseType) {
+        String catalogName = catalogName(exerciseType);
+        float[][] templates = new float[0][];
+        if (catalogName != null) {
+            try {
+                templates = TrajectoryTemplates.decode(exerciseDao.getReferenceTrajectories(catalogName));
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading reference trajectories", e);
+            }
+        }
+        if (templates.length == 0) {
+            templates = TrajectoryTemplates.defaults(exerciseType, FormThresholds.DEFAULTS, RepTrajectory.LENGTH);
+        }
+        return new DtwMatcher(templates, RepTrajectory.LENGTH);
+    }
+
+    private static String catalogName(ExerciseType exerciseType) {
+        switch (exerciseType) {
+            case PUSHUP:
+                return "Push-ups";
+            case SQUAT:
+                return "Squats";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Queues a completed rep for matching; returns immediately
+     * @param exerciseType Exercise the rep belongs to
+     * @param rep Rep summary the score is stored under
+     * @param trajectory Driving-joint angles resampled to {@link RepTrajectory#LENGTH}
+     */
+    public void submit(ExerciseType exerciseType, RepMetrics rep, float[] trajectory) {
+        try {
+            executor.execute(() -> {
+                DtwMatcher matcher = matchers.get(exerciseType);
+                if (matcher == null) {
+                    matcher = loadMatcher(exerciseDao, exerciseType);
+                    matchers.put(exerciseType, matcher);
+                }
+                if (matcher.getTemplateCount() == 0) {
+                    return;
+                }
+                float score = matcher.score(matcher.match(trajectory));
+                if (!Float.isNaN(score)) {
+                    scores.put(rep, score);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "Rep " + rep.getRepNumber() + " submitted after shutdown");
+        }
+    }
+
+    /**
+     * Waits for queued reps to be matched. Blocks, so call off the main thread.
+     * @param timeoutMs Longest time to wait
+     * @return Trajectory scores from 0.0 to 1.0 by rep; reps still pending are missing
+     */
+    public Map<RepMetrics, Float> awaitScores(long timeoutMs) {
+        CountDownLatch drained = new CountDownLatch(1);
+        try {
+            executor.execute(drained::countDown);
+            drained.await(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Already shut down: everything queued before has run or been dropped
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new HashMap<>(scores);
+    }
+
+    /**
+     * Stops accepting reps; queued reps are still matched
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -21,4 +21,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "FitForm"
 include(":app")
+include(":analysis")
+include(":tools")
  
\ No newline at end of file
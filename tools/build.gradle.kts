@@ -0,0 +1,27 @@
+// Command-line tools that run the pose analysis rules over recorded sessions on a desktop JVM.
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation(project(":analysis"))
+}
+
+application {
+    mainClass.set("com.fit.fitform.tools.ThresholdTuner")
+    applicationDefaultJvmArgs = listOf("-Xmx1g")
+}
+
+// ./gradlew :tools:batchAnalyze --args="--sessions DIR --out results.csv"
+tasks.register<JavaExec>("batchAnalyze") {
+    group = "application"
+    description = "Runs the live analysis rules over a directory of recorded sessions."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.fit.fitform.tools.BatchAnalyzer")
+    jvmArgs = listOf("-Xmx1g")
+}
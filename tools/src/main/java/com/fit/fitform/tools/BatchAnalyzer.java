@@ -0,0 +1,131 @@
+package com.fit.fitform.tools;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command-line tool that runs the live analysis rules over a directory of recorded sessions.
+ * Sessions are analysed in parallel on a work-stealing pool, and one CSV row per session is
+ * written as soon as it is done, so rows come out in completion order.
+ *
+ * Usage:
+ * <pre>
+ * BatchAnalyzer --sessions DIR [--threads T] [--out FILE]
+ * </pre>
+ * The directory may hold {@link LandmarkRecording} text files ({@code .csv}) and
+ * {@link LandmarkColumnExport} columnar files ({@code .flc}). Both record their exercise and
+ * labelled rep count in their header.
+ */
+public final class BatchAnalyzer {
+
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private Path sessionsDir;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Path outFile;
+
+    private BatchAnalyzer() {}
+
+    public static void main(String[] args) {
+        BatchAnalyzer analyzer = new BatchAnalyzer();
+        try {
+            analyzer.parseArgs(args);
+            analyzer.run();
+        } catch (IllegalArgumentException e) {
+            System.err.println("error: " + e.getMessage());
+            printUsage();
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("usage: BatchAnalyzer --sessions DIR [--threads T] [--out FILE]");
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--sessions":
+                    sessionsDir = Paths.get(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--out":
+                    outFile = Paths.get(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + arg);
+            }
+        }
+        if (sessionsDir == null) {
+            throw new IllegalArgumentException("--sessions is required");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("--threads must be positive");
+        }
+    }
+
+    private void run() throws IOException {
+        List<Path> sessions;
+        try (Stream<Path> files = Files.list(sessionsDir)) {
+            sessions = files
+                .filter(p -> {
+                    String name = p.getFileName().toString();
+                    return name.endsWith(".csv") || name.endsWith(LandmarkColumnExport.EXTENSION);
+                })
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        if (sessions.isEmpty()) {
+            throw new IOException("no .csv or " + LandmarkColumnExport.EXTENSION + " sessions in " + sessionsDir);
+        }
+        System.err.printf(Locale.ROOT, "Analysing %d sessions on %d threads%n", sessions.size(), threads);
+
+        LongAdder analysedSessions = new LongAdder();
+        LongAdder analysedFrames = new LongAdder();
+        Writer writer = outFile != null
+            ? Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)
+            : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_CHARS);
+        long startNs = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            writer.write(SessionAnalysisTask.HEADER);
+            pool.invoke(new SessionAnalysisTask(sessions, 0, sessions.size(), writer,
+                analysedSessions, analysedFrames));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+            if (outFile != null) {
+                writer.close();
+            } else {
+                writer.flush();
+            }
+        }
+        double seconds = (System.nanoTime() - startNs) / 1e9;
+        System.err.printf(Locale.ROOT, "Done in %.2f s: %.1f sessions/s, %.0f frames/s (%d frames)%n",
+            seconds, analysedSessions.sum() / seconds, analysedFrames.sum() / seconds, analysedFrames.sum());
+    }
+}
@@ -0,0 +1,219 @@
+package com.fit.fitform.tools;
+
+import com.fit.fitform.analysis.LandmarkColumnReader;
+import com.fit.fitform.analysis.LandmarkColumnWriter;
+import com.fit.fitform.analysis.LandmarkColumns;
+import com.fit.fitform.analysis.PoseFrame;
+import com.fit.fitform.analysis.PoseLandmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command-line tool that converts landmark recordings to the columnar format of
+ * {@link LandmarkColumns}, or reads selected columns back out of a converted file.
+ *
+ * Usage:
+ * <pre>
+ * LandmarkColumnExport --recordings FILE|DIR --out DIR [--chunk FRAMES]
+ * LandmarkColumnExport --read FILE.flc --columns t,x11,y11,p11
+ * </pre>
+ * Converting prints each recording's text size, its size as raw float32 columns and its encoded
+ * size. Reading decodes only the named columns and writes them to stdout as CSV. A recording's
+ * exercise and labelled rep count are carried over in the stream header; its per-rep error flags
+ * are not.
+ */
+public final class LandmarkColumnExport {
+
+    static final String EXTENSION = ".flc";
+
+    private Path recordingsPath;
+    private Path outDir;
+    private int chunkFrames = LandmarkColumnWriter.DEFAULT_CHUNK_FRAMES;
+    private Path readFile;
+    private int[] columns;
+
+    private LandmarkColumnExport() {}
+
+    public static void main(String[] args) {
+        LandmarkColumnExport export = new LandmarkColumnExport();
+        try {
+            export.parseArgs(args);
+            if (export.readFile != null) {
+                export.project();
+            } else {
+                export.convertAll();
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("error: " + e.getMessage());
+            printUsage();
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("usage: LandmarkColumnExport --recordings FILE|DIR --out DIR [--chunk FRAMES]");
+        System.err.println("       LandmarkColumnExport --read FILE.flc --columns t,x11,y11,p11");
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--recordings":
+                    recordingsPath = Paths.get(value);
+                    break;
+                case "--out":
+                    outDir = Paths.get(value);
+                    break;
+                case "--chunk":
+                    chunkFrames = Integer.parseInt(value);
+                    break;
+                case "--read":
+                    readFile = Paths.get(value);
+                    break;
+                case "--columns":
+                    columns = parseColumns(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + arg);
+            }
+        }
+        if (readFile != null) {
+            if (columns == null) {
+                throw new IllegalArgumentException("--read needs --columns");
+            }
+            return;
+        }
+        if (recordingsPath == null || outDir == null) {
+            throw new IllegalArgumentException("--recordings and --out are required");
+        }
+        if (chunkFrames < 1) {
+            throw new IllegalArgumentException("--chunk must be positive");
+        }
+    }
+
+    private static int[] parseColumns(String value) {
+        String[] names = value.split(",");
+        int[] parsed = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            parsed[i] = LandmarkColumns.parse(names[i].trim());
+            if (parsed[i] < 0) {
+                throw new IllegalArgumentException("unknown column " + names[i]
+                    + " (expected t, or x/y/p followed by a landmark 0-" + (PoseLandmarks.COUNT - 1) + ")");
+            }
+        }
+        return parsed;
+    }
+
+    private void convertAll() throws IOException {
+        List<Path> recordings;
+        if (Files.isDirectory(recordingsPath)) {
+            try (Stream<Path> files = Files.list(recordingsPath)) {
+                recordings = files
+                    .filter(p -> p.getFileName().toString().endsWith(".csv"))
+                    .sorted()
+                    .collect(Collectors.toList());
+            }
+        } else {
+            recordings = new ArrayList<>();
+            recordings.add(recordingsPath);
+        }
+        if (recordings.isEmpty()) {
+            throw new IOException("no .csv recordings in " + recordingsPath);
+        }
+        Files.createDirectories(outDir);
+
+        long totalText = 0;
+        long totalEncoded = 0;
+        long startNs = System.nanoTime();
+        for (Path recording : recordings) {
+            String name = recording.getFileName().toString();
+            Path target = outDir.resolve(name.substring(0, name.length() - ".csv".length()) + EXTENSION);
+            long textBytes = Files.size(recording);
+            LandmarkColumnWriter writer;
+            try (LandmarkRecording in = LandmarkRecording.open(recording);
+                 LandmarkColumnWriter out = new LandmarkColumnWriter(Files.newOutputStream(target),
+                     in.getExerciseType(), in.getLabelledReps(), chunkFrames)) {
+                writer = out;
+                PoseFrame frame = new PoseFrame();
+                while (in.next(frame)) {
+                    out.write(frame);
+                }
+            }
+            // Read after closing, so the size includes the last chunk and the footer
+            long frames = writer.getFramesWritten();
+            long encodedBytes = writer.getBytesWritten();
+            // Timestamp as int64 plus x, y, likelihood as float32 for every landmark
+            long float32Bytes = frames * (8 + PoseLandmarks.COUNT * 3 * 4L);
+            System.err.printf(Locale.ROOT, "%s: %d frames, text %d B, float32 %d B, encoded %d B (%.1f%% of float32)%n",
+                name, frames, textBytes, float32Bytes, encodedBytes, percent(encodedBytes, float32Bytes));
+            totalText += textBytes;
+            totalEncoded += encodedBytes;
+        }
+        double seconds = (System.nanoTime() - startNs) / 1e9;
+        System.err.printf(Locale.ROOT, "Converted %d recordings in %.1f s: text %d B, encoded %d B (%.1f%% of text)%n",
+            recordings.size(), seconds, totalText, totalEncoded, percent(totalEncoded, totalText));
+    }
+
+    private void project() throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try (LandmarkColumnReader reader = LandmarkColumnReader.open(readFile)) {
+            long[] timestamps = null;
+            float[][] values = new float[columns.length][];
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] == LandmarkColumns.TIMESTAMP) {
+                    if (timestamps == null) {
+                        timestamps = reader.readTimestamps();
+                    }
+                } else {
+                    values[i] = reader.readColumn(columns[i]);
+                }
+            }
+
+            StringBuilder row = new StringBuilder();
+            for (int i = 0; i < columns.length; i++) {
+                row.append(i > 0 ? "," : "").append(LandmarkColumns.name(columns[i]));
+            }
+            writer.write(row.append('\n').toString());
+            for (int f = 0; f < reader.getFrameCount(); f++) {
+                row.setLength(0);
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0) {
+                        row.append(',');
+                    }
+                    if (values[i] == null) {
+                        row.append(timestamps[f]);
+                    } else if (!Float.isNaN(values[i][f])) {
+                        row.append(values[i][f]);
+                    }
+                }
+                writer.write(row.append('\n').toString());
+            }
+        } finally {
+            writer.flush();
+        }
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+}
@@ -0,0 +1,189 @@
+package com.fit.fitform.tools;
+
+import com.fit.fitform.analysis.ExerciseType;
+import com.fit.fitform.analysis.PoseFrame;
+import com.fit.fitform.analysis.PoseLandmarks;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streaming reader for a labelled landmark recording.
+ * Frames are read one line at a time into a caller-owned {@link PoseFrame}, so a recording
+ * of any length is processed in constant memory.
+ *
+ * File format (UTF-8 text):
+ * <pre>
+ * # exercise=SQUAT
+ * # reps=10
+ * # rep_errors=0,0,1,0,0,0,0,1,0,0
+ * timestampMs,x0,y0,p0,x1,y1,p1,...,x32,y32,p32
+ * </pre>
+ * Header lines start with '#'. {@code rep_errors} holds one flag per labelled rep
+ * (1 = the rep had a form error) and is optional. An empty x field marks a missing landmark.
+ */
+public final class LandmarkRecording implements Closeable {
+
+    private final Path path;
+    private final BufferedReader reader;
+    private ExerciseType exerciseType = ExerciseType.PUSHUP;
+    private int labelledReps = -1;
+    private int[] labelledRepErrors = null;
+    private String pendingLine;
+
+    private LandmarkRecording(Path path) throws IOException {
+        this.path = path;
+        this.reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        readHeader();
+    }
+
+    /**
+     * Opens a recording and parses its header
+     * @param path Recording file
+     * @return Reader positioned at the first frame
+     * @throws IOException if the file cannot be read or the header is malformed
+     */
+    public static LandmarkRecording open(Path path) throws IOException {
+        return new LandmarkRecording(path);
+    }
+
+    private void readHeader() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.charAt(0) != '#') {
+                pendingLine = line;
+                break;
+            }
+            int eq = line.indexOf('=');
+            if (eq < 0) {
+                continue;
+            }
+            String key = line.substring(1, eq).trim();
+            String value = line.substring(eq + 1).trim();
+            try {
+                switch (key) {
+                    case "exercise":
+                        exerciseType = ExerciseType.fromName(value);
+                        break;
+                    case "reps":
+                        labelledReps = Integer.parseInt(value);
+                        break;
+                    case "rep_errors":
+                        labelledRepErrors = parseFlags(value);
+                        break;
+                    default:
+                        break;
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException(path + ": bad header value for " + key, e);
+            }
+        }
+        if (labelledReps < 0 && labelledRepErrors != null) {
+            labelledReps = labelledRepErrors.length;
+        }
+    }
+
+    private static int[] parseFlags(String value) {
+        if (value.isEmpty()) {
+            return new int[0];
+        }
+        String[] parts = value.split(",");
+        int[] flags = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            flags[i] = Integer.parseInt(parts[i].trim()) != 0 ? 1 : 0;
+        }
+        return flags;
+    }
+
+    /**
+     * Reads the next frame
+     * @param frame Frame to overwrite
+     * @return false at end of file
+     * @throws IOException on read errors or malformed rows
+     */
+    public boolean next(PoseFrame frame) throws IOException {
+        String line;
+        if (pendingLine != null) {
+            line = pendingLine;
+            pendingLine = null;
+        } else {
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return false;
+                }
+            } while (line.isEmpty() || line.charAt(0) == '#');
+        }
+        try {
+            parseFrame(line, frame);
+        } catch (RuntimeException e) {
+            throw new IOException(path + ": malformed frame row", e);
+        }
+        return true;
+    }
+
+    private static void parseFrame(String line, PoseFrame frame) {
+        int end = line.indexOf(',');
+        if (end < 0) {
+            end = line.length();
+        }
+        frame.reset(Long.parseLong(line.substring(0, end).trim()));
+
+        // Fields after the timestamp come in (x, y, likelihood) triples per landmark
+        float x = 0f;
+        float y = 0f;
+        boolean hasX = false;
+        boolean hasY = false;
+        int field = 0;
+        while (end < line.length() && field < PoseLandmarks.COUNT * 3) {
+            int start = end + 1;
+            end = line.indexOf(',', start);
+            if (end < 0) {
+                end = line.length();
+            }
+            String value = line.substring(start, end).trim();
+            int component = field % 3;
+            if (component == 0) {
+                hasX = !value.isEmpty();
+                x = hasX ? Float.parseFloat(value) : 0f;
+            } else if (component == 1) {
+                hasY = !value.isEmpty();
+                y = hasY ? Float.parseFloat(value) : 0f;
+            } else if (hasX && hasY) {
+                frame.set(field / 3, x, y, value.isEmpty() ? 1f : Float.parseFloat(value));
+            }
+            field++;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public ExerciseType getExerciseType() {
+        return exerciseType;
+    }
+
+    /** @return Labelled rep count, or -1 if the recording is unlabelled */
+    public int getLabelledReps() {
+        return labelledReps;
+    }
+
+    /** @return Per-rep error flags (1 = form error), or null if not labelled */
+    public int[] getLabelledRepErrors() {
+        return labelledRepErrors;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,193 @@
+package com.fit.fitform.tools;
+
+import com.fit.fitform.analysis.DtwMatcher;
+import com.fit.fitform.analysis.ExerciseType;
+import com.fit.fitform.analysis.FormThresholds;
+import com.fit.fitform.analysis.LandmarkColumnReader;
+import com.fit.fitform.analysis.PoseFeatures;
+import com.fit.fitform.analysis.PoseFrame;
+import com.fit.fitform.analysis.RepMetrics;
+import com.fit.fitform.analysis.RepTrajectory;
+import com.fit.fitform.analysis.SetTracker;
+import com.fit.fitform.analysis.TrajectoryTemplates;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fork-join task that runs the live analysis rules over a range of session files.
+ * The range is split in halves down to single sessions, so idle workers steal the forked halves
+ * and long sessions do not hold up the rest. Each leaf streams its session once through a
+ * {@link SetTracker}, the same rule set {@code PoseAnalyzer} steps per camera frame, matches each
+ * rep's trajectory against the default templates, and writes one CSV row as soon as it is done.
+ */
+final class SessionAnalysisTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    static final String HEADER = "session,exercise,frames,duration_ms,reps,error_reps,plank_ms,"
+        + "set_score,trajectory_score,mean_range_of_motion,mean_time_under_tension_ms,labelled_reps\n";
+
+    // DtwMatcher is not thread-safe, and building one per session would redo the envelopes
+    private static final ThreadLocal<Map<ExerciseType, DtwMatcher>> MATCHERS =
+        ThreadLocal.withInitial(() -> new EnumMap<>(ExerciseType.class));
+
+    private final List<Path> sessions;
+    private final int from;
+    private final int to;
+    private final Writer out;
+    private final LongAdder analysedSessions;
+    private final LongAdder analysedFrames;
+
+    /**
+     * @param out Shared destination for result rows; each row is written under its lock
+     */
+    SessionAnalysisTask(List<Path> sessions, int from, int to, Writer out,
+                        LongAdder analysedSessions, LongAdder analysedFrames) {
+        this.sessions = sessions;
+        this.from = from;
+        this.to = to;
+        this.out = out;
+        this.analysedSessions = analysedSessions;
+        this.analysedFrames = analysedFrames;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from > 1) {
+            int mid = (from + to) >>> 1;
+            invokeAll(new SessionAnalysisTask(sessions, from, mid, out, analysedSessions, analysedFrames),
+                new SessionAnalysisTask(sessions, mid, to, out, analysedSessions, analysedFrames));
+            return;
+        }
+        if (from < to) {
+            try {
+                String row = analyse(sessions.get(from));
+                synchronized (out) {
+                    out.write(row);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private String analyse(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        PoseFrame frame = new PoseFrame();
+        PoseFeatures features = new PoseFeatures();
+        // Sum and count of trajectory scores, collected as reps complete
+        double[] trajectoryScores = new double[2];
+        SetTracker tracker;
+        int labelledReps = -1;
+        long frames = 0;
+        long firstMs = 0;
+        long lastMs = 0;
+        if (name.endsWith(LandmarkColumnExport.EXTENSION)) {
+            try (LandmarkColumnReader reader = LandmarkColumnReader.open(path)) {
+                tracker = newTracker(reader.getExerciseType(), trajectoryScores);
+                labelledReps = reader.getLabelledReps();
+                while (reader.next(frame)) {
+                    features.extract(frame);
+                    tracker.step(features);
+                    lastMs = frame.getTimestampMs();
+                    if (frames++ == 0) {
+                        firstMs = lastMs;
+                    }
+                }
+            }
+        } else {
+            try (LandmarkRecording recording = LandmarkRecording.open(path)) {
+                tracker = newTracker(recording.getExerciseType(), trajectoryScores);
+                labelledReps = recording.getLabelledReps();
+                while (recording.next(frame)) {
+                    features.extract(frame);
+                    tracker.step(features);
+                    lastMs = frame.getTimestampMs();
+                    if (frames++ == 0) {
+                        firstMs = lastMs;
+                    }
+                }
+            }
+        }
+        analysedSessions.increment();
+        analysedFrames.add(frames);
+        return formatRow(name, tracker, frames, lastMs - firstMs,
+            trajectoryScores[1] > 0 ? trajectoryScores[0] / trajectoryScores[1] : Double.NaN, labelledReps);
+    }
+
+    /**
+     * Builds a tracker that scores each rep's trajectory as it completes, while the samples are
+     * still in the trajectory buffer, the same way {@code PoseAnalyzer} does
+     */
+    private static SetTracker newTracker(ExerciseType exerciseType, double[] trajectoryScores) {
+        SetTracker tracker = new SetTracker(exerciseType, FormThresholds.DEFAULTS);
+        DtwMatcher matcher = matcher(exerciseType);
+        if (matcher != null) {
+            tracker.setRepListener(rep -> {
+                float[] trajectory = tracker.getTrajectory().extract(rep.getStartMs(), rep.getEndMs(), RepTrajectory.LENGTH);
+                if (trajectory != null) {
+                    float score = matcher.score(matcher.match(trajectory));
+                    if (!Float.isNaN(score)) {
+                        trajectoryScores[0] += score;
+                        trajectoryScores[1]++;
+                    }
+                }
+            });
+        }
+        return tracker;
+    }
+
+    private static String formatRow(String name, SetTracker tracker, long frames, long durationMs,
+                                    double trajectoryScore, int labelledReps) {
+        List<RepMetrics> reps = tracker.getRepMetrics();
+        int errorReps = 0;
+        double rangeSum = 0;
+        long tensionSum = 0;
+        for (RepMetrics rep : reps) {
+            if (rep.hadError()) {
+                errorReps++;
+            }
+            rangeSum += rep.getRangeOfMotion();
+            tensionSum += rep.getTimeUnderTensionMs();
+        }
+        int repCount = reps.size();
+        return String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d,%s,%s,%s,%s,%s\n",
+            quote(name), tracker.getExerciseType(), frames, durationMs, tracker.getEvaluator().getRepCount(),
+            errorReps, tracker.getEvaluator().getPlankHeldMillis(),
+            format(tracker.getScorer().getSetScore()),
+            format(trajectoryScore),
+            repCount > 0 ? format(rangeSum / repCount) : "",
+            repCount > 0 ? Long.toString(tensionSum / repCount) : "",
+            labelledReps >= 0 ? Integer.toString(labelledReps) : "");
+    }
+
+    private static DtwMatcher matcher(ExerciseType exerciseType) {
+        Map<ExerciseType, DtwMatcher> matchers = MATCHERS.get();
+        if (!matchers.containsKey(exerciseType)) {
+            float[][] templates = TrajectoryTemplates.defaults(exerciseType, FormThresholds.DEFAULTS, RepTrajectory.LENGTH);
+            // Holds have no templates; a null entry remembers that
+            matchers.put(exerciseType, templates.length > 0 ? new DtwMatcher(templates, RepTrajectory.LENGTH) : null);
+        }
+        return matchers.get(exerciseType);
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,82 @@
+package com.fit.fitform.tools;
+
+import com.fit.fitform.analysis.FormThresholds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Ranges searched for each threshold, in {@link FormThresholds#NAMES} order.
+ * Generates candidate threshold sets either as a full grid or by uniform random sampling.
+ */
+final class ThresholdSearchSpace {
+
+    private static final double[] MIN = {60.0, 140.0, 80.0, 150.0, 140.0, 130.0, 40.0, 30.0};
+    private static final double[] MAX = {110.0, 175.0, 120.0, 178.0, 175.0, 175.0, 80.0, 70.0};
+
+    private ThresholdSearchSpace() {}
+
+    /**
+     * Builds every combination of {@code levels} evenly spaced values per threshold.
+     * Combinations where a "down" threshold is not below its "up" threshold, or a fault floor is
+     * not below its "down" threshold, are skipped.
+     * The shipped defaults are always included first as a baseline.
+     * @param levels Values per threshold (at least 2)
+     * @return Candidate threshold sets
+     */
+    static List<FormThresholds> grid(int levels) {
+        if (levels < 2) {
+            throw new IllegalArgumentException("Grid needs at least 2 levels per threshold");
+        }
+        List<FormThresholds> configs = new ArrayList<>();
+        configs.add(FormThresholds.DEFAULTS);
+        int dims = MIN.length;
+        int[] index = new int[dims];
+        double[] values = new double[dims];
+        while (true) {
+            for (int d = 0; d < dims; d++) {
+                values[d] = MIN[d] + (MAX[d] - MIN[d]) * index[d] / (levels - 1);
+            }
+            if (isValid(values)) {
+                configs.add(FormThresholds.fromArray(values.clone()));
+            }
+            int d = 0;
+            while (d < dims && ++index[d] == levels) {
+                index[d] = 0;
+                d++;
+            }
+            if (d == dims) {
+                break;
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * Samples threshold sets uniformly from the search ranges.
+     * The shipped defaults are always included first as a baseline.
+     * @param count Number of candidates to return
+     * @param seed Random seed, for reproducible sweeps
+     * @return Candidate threshold sets
+     */
+    static List<FormThresholds> random(int count, long seed) {
+        Random random = new Random(seed);
+        List<FormThresholds> configs = new ArrayList<>(count);
+        configs.add(FormThresholds.DEFAULTS);
+        double[] values = new double[MIN.length];
+        while (configs.size() < count) {
+            for (int d = 0; d < values.length; d++) {
+                values[d] = MIN[d] + (MAX[d] - MIN[d]) * random.nextDouble();
+            }
+            if (isValid(values)) {
+                configs.add(FormThresholds.fromArray(values.clone()));
+            }
+        }
+        return configs;
+    }
+
+    private static boolean isValid(double[] values) {
+        return values[0] < values[1] && values[2] < values[3] && values[6] < values[2] && values[7] < values[0];
+    }
+}
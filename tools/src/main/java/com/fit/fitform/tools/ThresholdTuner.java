@@ -0,0 +1,235 @@
+package com.fit.fitform.tools;
+
+import com.fit.fitform.analysis.FormThresholds;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command-line tool that searches for form thresholds against labelled landmark recordings.
+ * Every candidate threshold set is run through the same {@code RepEvaluator} rules the app uses
+ * live, and precision/recall of rep counts and per-rep error flags are written as CSV.
+ *
+ * Usage:
+ * <pre>
+ * ThresholdTuner --recordings DIR [--mode random|grid] [--configs N] [--levels K]
+ *                [--seed S] [--threads T] [--out FILE] [--top N]
+ * </pre>
+ * See {@link LandmarkRecording} for the recording format.
+ */
+public final class ThresholdTuner {
+
+    private Path recordingsDir;
+    private String mode = "random";
+    private int configCount = 10_000;
+    private int levels = 4;
+    private long seed = 42L;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Path outFile;
+    private int top = 10;
+
+    private ThresholdTuner() {}
+
+    public static void main(String[] args) {
+        ThresholdTuner tuner = new ThresholdTuner();
+        try {
+            tuner.parseArgs(args);
+            tuner.run();
+        } catch (IllegalArgumentException e) {
+            System.err.println("error: " + e.getMessage());
+            printUsage();
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("usage: ThresholdTuner --recordings DIR [--mode random|grid] [--configs N]"
+            + " [--levels K] [--seed S] [--threads T] [--out FILE] [--top N]");
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--recordings":
+                    recordingsDir = Paths.get(value);
+                    break;
+                case "--mode":
+                    mode = value;
+                    break;
+                case "--configs":
+                    configCount = Integer.parseInt(value);
+                    break;
+                case "--levels":
+                    levels = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--out":
+                    outFile = Paths.get(value);
+                    break;
+                case "--top":
+                    top = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + arg);
+            }
+        }
+        if (recordingsDir == null) {
+            throw new IllegalArgumentException("--recordings is required");
+        }
+        if (!mode.equals("random") && !mode.equals("grid")) {
+            throw new IllegalArgumentException("--mode must be random or grid");
+        }
+        if (threads < 1 || configCount < 1) {
+            throw new IllegalArgumentException("--threads and --configs must be positive");
+        }
+    }
+
+    private void run() throws IOException {
+        List<Path> recordings;
+        try (Stream<Path> files = Files.list(recordingsDir)) {
+            recordings = files
+                .filter(p -> p.getFileName().toString().endsWith(".csv"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        if (recordings.isEmpty()) {
+            throw new IOException("no .csv recordings in " + recordingsDir);
+        }
+
+        List<FormThresholds> configs = mode.equals("grid")
+            ? ThresholdSearchSpace.grid(levels)
+            : ThresholdSearchSpace.random(configCount, seed);
+        System.err.printf(Locale.ROOT, "Evaluating %d threshold sets over %d recordings on %d threads%n",
+            configs.size(), recordings.size(), threads);
+
+        // One config block per worker; recordings give the pool enough leaves to balance load
+        int configBlock = Math.max(1, (configs.size() + threads - 1) / threads);
+        LongAdder evaluatedFrames = new LongAdder();
+        long startNs = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long[] tally;
+        try {
+            tally = pool.invoke(new TuningTask(configs, 0, configs.size(), configBlock,
+                recordings, 0, recordings.size(), evaluatedFrames));
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - startNs) / 1e9;
+
+        writeResults(configs, tally);
+        System.err.printf(Locale.ROOT, "Done in %.1f s (%.1f M config-frames/s)%n",
+            seconds, evaluatedFrames.sum() / seconds / 1e6);
+        printTop(configs, tally);
+    }
+
+    private void writeResults(List<FormThresholds> configs, long[] tally) throws IOException {
+        Writer writer = outFile != null
+            ? Files.newBufferedWriter(outFile, StandardCharsets.UTF_8)
+            : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try {
+            StringBuilder header = new StringBuilder("config_id");
+            for (String name : FormThresholds.NAMES) {
+                header.append(',').append(name);
+            }
+            header.append(",rep_precision,rep_recall,error_precision,error_recall\n");
+            writer.write(header.toString());
+
+            StringBuilder row = new StringBuilder();
+            for (int i = 0; i < configs.size(); i++) {
+                row.setLength(0);
+                row.append(i);
+                for (double value : configs.get(i).toArray()) {
+                    row.append(',').append(String.format(Locale.ROOT, "%.2f", value));
+                }
+                int base = i * TuningTask.COUNTERS;
+                row.append(',').append(format(precision(tally, base + TuningTask.REP_TP, base + TuningTask.REP_FP)))
+                    .append(',').append(format(recall(tally, base + TuningTask.REP_TP, base + TuningTask.REP_FN)))
+                    .append(',').append(format(precision(tally, base + TuningTask.ERROR_TP, base + TuningTask.ERROR_FP)))
+                    .append(',').append(format(recall(tally, base + TuningTask.ERROR_TP, base + TuningTask.ERROR_FN)))
+                    .append('\n');
+                writer.write(row.toString());
+            }
+        } finally {
+            if (outFile != null) {
+                writer.close();
+            } else {
+                writer.flush();
+            }
+        }
+    }
+
+    private void printTop(List<FormThresholds> configs, long[] tally) {
+        PriorityQueue<Integer> best = new PriorityQueue<>(
+            (a, b) -> Double.compare(score(tally, a), score(tally, b)));
+        for (int i = 0; i < configs.size(); i++) {
+            best.add(i);
+            if (best.size() > top) {
+                best.poll();
+            }
+        }
+        List<Integer> ranked = new ArrayList<>(best);
+        ranked.sort((a, b) -> Double.compare(score(tally, b), score(tally, a)));
+        System.err.println("Top threshold sets (mean of rep F1 and error-flag F1):");
+        for (int i : ranked) {
+            System.err.printf(Locale.ROOT, "  #%d score=%.3f %s%n", i, score(tally, i), configs.get(i));
+        }
+        System.err.printf(Locale.ROOT, "  baseline score=%.3f %s%n", score(tally, 0), configs.get(0));
+    }
+
+    private static double score(long[] tally, int config) {
+        int base = config * TuningTask.COUNTERS;
+        double repF1 = f1(precision(tally, base + TuningTask.REP_TP, base + TuningTask.REP_FP),
+            recall(tally, base + TuningTask.REP_TP, base + TuningTask.REP_FN));
+        double errorF1 = f1(precision(tally, base + TuningTask.ERROR_TP, base + TuningTask.ERROR_FP),
+            recall(tally, base + TuningTask.ERROR_TP, base + TuningTask.ERROR_FN));
+        return (repF1 + errorF1) / 2;
+    }
+
+    private static double precision(long[] tally, int tp, int fp) {
+        long denominator = tally[tp] + tally[fp];
+        return denominator == 0 ? Double.NaN : (double) tally[tp] / denominator;
+    }
+
+    private static double recall(long[] tally, int tp, int fn) {
+        long denominator = tally[tp] + tally[fn];
+        return denominator == 0 ? Double.NaN : (double) tally[tp] / denominator;
+    }
+
+    private static double f1(double precision, double recall) {
+        if (Double.isNaN(precision) || Double.isNaN(recall) || precision + recall == 0) {
+            return 0;
+        }
+        return 2 * precision * recall / (precision + recall);
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.4f", value);
+    }
+}
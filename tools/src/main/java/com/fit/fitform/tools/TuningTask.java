@@ -0,0 +1,156 @@
+package com.fit.fitform.tools;
+
+import com.fit.fitform.analysis.FormThresholds;
+import com.fit.fitform.analysis.PoseFeatures;
+import com.fit.fitform.analysis.PoseFrame;
+import com.fit.fitform.analysis.RepEvaluator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fork-join task that scores a block of threshold sets against a range of recordings.
+ * The config range is split down to a fixed block size, then the recording range is split
+ * down to single recordings. Each leaf streams its recording once and steps every evaluator
+ * in its block per frame, so landmark parsing and angle maths are shared across configs.
+ *
+ * The result holds {@link #COUNTERS} counters per config in the task's config range.
+ */
+final class TuningTask extends RecursiveTask<long[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int REP_TP = 0;
+    static final int REP_FP = 1;
+    static final int REP_FN = 2;
+    static final int ERROR_TP = 3;
+    static final int ERROR_FP = 4;
+    static final int ERROR_FN = 5;
+    static final int COUNTERS = 6;
+
+    private final List<FormThresholds> configs;
+    private final int configFrom;
+    private final int configTo;
+    private final int configBlock;
+    private final List<Path> recordings;
+    private final int recordingFrom;
+    private final int recordingTo;
+    private final LongAdder evaluatedFrames;
+
+    TuningTask(List<FormThresholds> configs, int configFrom, int configTo, int configBlock,
+               List<Path> recordings, int recordingFrom, int recordingTo, LongAdder evaluatedFrames) {
+        this.configs = configs;
+        this.configFrom = configFrom;
+        this.configTo = configTo;
+        this.configBlock = configBlock;
+        this.recordings = recordings;
+        this.recordingFrom = recordingFrom;
+        this.recordingTo = recordingTo;
+        this.evaluatedFrames = evaluatedFrames;
+    }
+
+    @Override
+    protected long[] compute() {
+        if (configTo - configFrom > configBlock) {
+            int mid = (configFrom + configTo) >>> 1;
+            TuningTask left = new TuningTask(configs, configFrom, mid, configBlock,
+                recordings, recordingFrom, recordingTo, evaluatedFrames);
+            TuningTask right = new TuningTask(configs, mid, configTo, configBlock,
+                recordings, recordingFrom, recordingTo, evaluatedFrames);
+            left.fork();
+            long[] rightResult = right.compute();
+            long[] leftResult = left.join();
+            long[] merged = new long[leftResult.length + rightResult.length];
+            System.arraycopy(leftResult, 0, merged, 0, leftResult.length);
+            System.arraycopy(rightResult, 0, merged, leftResult.length, rightResult.length);
+            return merged;
+        }
+        if (recordingTo - recordingFrom > 1) {
+            int mid = (recordingFrom + recordingTo) >>> 1;
+            TuningTask left = new TuningTask(configs, configFrom, configTo, configBlock,
+                recordings, recordingFrom, mid, evaluatedFrames);
+            TuningTask right = new TuningTask(configs, configFrom, configTo, configBlock,
+                recordings, mid, recordingTo, evaluatedFrames);
+            left.fork();
+            long[] sum = right.compute();
+            long[] other = left.join();
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += other[i];
+            }
+            return sum;
+        }
+        long[] tally = new long[(configTo - configFrom) * COUNTERS];
+        if (recordingFrom < recordingTo) {
+            try {
+                evaluate(recordings.get(recordingFrom), tally);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return tally;
+    }
+
+    private void evaluate(Path path, long[] tally) throws IOException {
+        try (LandmarkRecording recording = LandmarkRecording.open(path)) {
+            int labelledReps = recording.getLabelledReps();
+            int[] labelledErrors = recording.getLabelledRepErrors();
+            int count = configTo - configFrom;
+            RepEvaluator[] evaluators = new RepEvaluator[count];
+            for (int i = 0; i < count; i++) {
+                evaluators[i] = new RepEvaluator(recording.getExerciseType(), configs.get(configFrom + i));
+            }
+
+            PoseFrame frame = new PoseFrame();
+            PoseFeatures features = new PoseFeatures();
+            long frames = 0;
+            while (recording.next(frame)) {
+                features.extract(frame);
+                for (int i = 0; i < count; i++) {
+                    RepEvaluator evaluator = evaluators[i];
+                    evaluator.step(features);
+                    if (evaluator.isRepCompleted() && labelledErrors != null) {
+                        int rep = evaluator.getRepCount() - 1;
+                        if (rep < labelledErrors.length) {
+                            countErrorFlag(tally, i, evaluator.lastRepHadError(), labelledErrors[rep] != 0);
+                        }
+                    }
+                }
+                frames++;
+            }
+            evaluatedFrames.add(frames * count);
+
+            for (int i = 0; i < count; i++) {
+                int predicted = evaluators[i].getRepCount();
+                int base = i * COUNTERS;
+                if (labelledReps >= 0) {
+                    tally[base + REP_TP] += Math.min(predicted, labelledReps);
+                    tally[base + REP_FP] += Math.max(0, predicted - labelledReps);
+                    tally[base + REP_FN] += Math.max(0, labelledReps - predicted);
+                }
+                if (labelledErrors != null) {
+                    // Labelled errors on reps that were never detected are missed flags
+                    for (int rep = predicted; rep < labelledErrors.length; rep++) {
+                        if (labelledErrors[rep] != 0) {
+                            tally[base + ERROR_FN]++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void countErrorFlag(long[] tally, int config, boolean predicted, boolean actual) {
+        int base = config * COUNTERS;
+        if (predicted && actual) {
+            tally[base + ERROR_TP]++;
+        } else if (predicted) {
+            tally[base + ERROR_FP]++;
+        } else if (actual) {
+            tally[base + ERROR_FN]++;
+        }
+    }
+}